@@ -0,0 +1,46 @@
+package com.notification.system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class BatchConfig {
+
+    public static final String BATCH_JOB_EXECUTOR = "batchJobExecutor";
+    public static final String BATCH_WORKER_EXECUTOR = "batchWorkerExecutor";
+
+    @Value("${notification.batch.executor.max-concurrent-batches:4}")
+    private int maxConcurrentBatches;
+
+    @Value("${notification.batch.executor.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${notification.batch.engine.worker-threads:16}")
+    private int workerThreads;
+
+    @Bean(name = BATCH_JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor batchJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentBatches);
+        executor.setMaxPoolSize(maxConcurrentBatches);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("batch-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // Shared by all running batches; BatchExecutionEngine bounds how much of it each batch may occupy
+    @Bean(name = BATCH_WORKER_EXECUTOR)
+    public ThreadPoolTaskExecutor batchWorkerExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setThreadNamePrefix("batch-worker-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
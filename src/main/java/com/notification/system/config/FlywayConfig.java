@@ -0,0 +1,20 @@
+package com.notification.system.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+public class FlywayConfig {
+
+    // CREATE INDEX CONCURRENTLY waits out every open transaction, including the one Flyway's default
+    // transactional advisory lock holds. A session-level lock still keeps nodes from migrating at once.
+    public static final Map<String, String> FLYWAY_PROPERTIES = Map.of("flyway.postgresql.transactional.lock", "false");
+
+    @Bean
+    public FlywayConfigurationCustomizer flywayConfigurationCustomizer() {
+        return configuration -> configuration.configuration(FLYWAY_PROPERTIES);
+    }
+}
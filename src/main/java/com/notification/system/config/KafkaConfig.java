@@ -17,6 +17,11 @@ public class KafkaConfig {
     public static final String NOTIFICATION_RETRY_TOPIC = "notification-events-retry";
     public static final String NOTIFICATION_DLQ_TOPIC = "notification-events-dlq";
     
+    public static final String NOTIFICATION_GROUP = "notification-service";
+    public static final String NOTIFICATION_HIGH_PRIORITY_GROUP = "notification-service-high-priority";
+    public static final String NOTIFICATION_RETRY_GROUP = "notification-service-retry";
+    public static final String NOTIFICATION_DLQ_GROUP = "notification-service-dlq";
+    
     @Bean
     public NewTopic notificationTopic() {
         return TopicBuilder.name(NOTIFICATION_TOPIC)
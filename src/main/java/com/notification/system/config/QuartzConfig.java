@@ -0,0 +1,38 @@
+package com.notification.system.config;
+
+import org.quartz.impl.jdbcjobstore.PostgreSQLDelegate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.quartz.QuartzProperties;
+import org.springframework.boot.autoconfigure.quartz.SchedulerFactoryBeanCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Properties;
+
+/**
+ * Clusters the JDBC job store. These settings are rejected by the in-memory store, so they
+ * are only added when spring.quartz.job-store-type is jdbc.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.quartz.job-store-type", havingValue = "jdbc")
+public class QuartzConfig {
+
+    @Bean
+    public SchedulerFactoryBeanCustomizer clusteredJobStoreCustomizer(
+            QuartzProperties quartzProperties,
+            @Value("${notification.scheduler.cluster.checkin-interval-ms:15000}") long checkinIntervalMs) {
+        return schedulerFactoryBean -> {
+            Properties properties = new Properties();
+            properties.putAll(quartzProperties.getProperties());
+            properties.put("org.quartz.jobStore.driverDelegateClass", PostgreSQLDelegate.class.getName());
+            properties.put("org.quartz.jobStore.isClustered", "true");
+            properties.put("org.quartz.jobStore.clusterCheckinInterval", String.valueOf(checkinIntervalMs));
+            // Batch trigger acquisition needs the lock in a cluster, or two nodes can take the same trigger
+            properties.put("org.quartz.jobStore.acquireTriggersWithinLock", "true");
+            // Job data holds typed values (ids, settings), stored as a serialized map
+            properties.put("org.quartz.jobStore.useProperties", "false");
+            schedulerFactoryBean.setQuartzProperties(properties);
+        };
+    }
+}
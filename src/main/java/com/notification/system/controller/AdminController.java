@@ -1,11 +1,18 @@
 package com.notification.system.controller;
 
+import com.notification.system.model.dto.request.BulkScheduleRequest;
 import com.notification.system.model.enums.ChannelType;
 import com.notification.system.service.channel.NotificationChannel;
 import com.notification.system.service.channel.NotificationChannelFactory;
+import com.notification.system.service.kafka.ConsumerLagMonitor;
+import com.notification.system.service.partition.NotificationPartitionManager;
+import com.notification.system.service.retention.RetentionService;
+import com.notification.system.service.scheduler.BulkScheduleService;
+import com.notification.system.service.scheduler.MisfireCatchUpController;
 import com.notification.system.service.scheduler.NotificationSchedulerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.quartz.SchedulerException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -28,6 +35,21 @@ public class AdminController {
     @Autowired
     private NotificationSchedulerService schedulerService;
     
+    @Autowired
+    private BulkScheduleService bulkScheduleService;
+    
+    @Autowired(required = false)
+    private ConsumerLagMonitor consumerLagMonitor;
+    
+    @Autowired(required = false)
+    private MisfireCatchUpController misfireCatchUpController;
+    
+    @Autowired(required = false)
+    private RetentionService retentionService;
+    
+    @Autowired(required = false)
+    private NotificationPartitionManager partitionManager;
+    
     @GetMapping("/channels")
     @Operation(summary = "Get available channels", description = "Retrieve all available notification channels")
     public ResponseEntity<Map<String, Object>> getAvailableChannels() {
@@ -102,4 +124,89 @@ public class AdminController {
         
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/scheduler/catch-up")
+    @Operation(summary = "Get misfire catch-up progress",
+               description = "Progress and expected completion of draining notifications that came due while the scheduler was down")
+    public ResponseEntity<Object> getCatchUpProgress() {
+        if (misfireCatchUpController == null) {
+            return ResponseEntity.ok(Map.of("enabled", false));
+        }
+        return misfireCatchUpController.progress()
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.ok(Map.of("enabled", true, "message", "No misfire backlog since startup")));
+    }
+    
+    @PostMapping("/scheduler/bulk-cancel")
+    @Operation(summary = "Cancel scheduled notifications in bulk",
+               description = "Cancel every scheduled notification matching batchId, user, channel, priority and/or a scheduledAt range")
+    public ResponseEntity<Map<String, Object>> bulkCancel(@RequestBody BulkScheduleRequest request) throws SchedulerException {
+        return bulkOperation(() -> bulkScheduleService.cancel(request), "cancelled");
+    }
+    
+    @PostMapping("/scheduler/bulk-reschedule")
+    @Operation(summary = "Reschedule notifications in bulk",
+               description = "Move every scheduled notification matching the filter to newScheduledAt or by shiftMinutes. " +
+                             "A scheduled batch is moved as a whole.")
+    public ResponseEntity<Map<String, Object>> bulkReschedule(@RequestBody BulkScheduleRequest request) throws SchedulerException {
+        return bulkOperation(() -> bulkScheduleService.reschedule(request), "rescheduled");
+    }
+    
+    @FunctionalInterface
+    private interface BulkAction {
+        BulkScheduleService.Result run() throws SchedulerException;
+    }
+    
+    private ResponseEntity<Map<String, Object>> bulkOperation(BulkAction action, String outcome) throws SchedulerException {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            BulkScheduleService.Result result = action.run();
+            response.put(outcome, result.getNotifications());
+            response.put("jobs", result.getJobs());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    @PostMapping("/retention/run")
+    @Operation(summary = "Run retention now",
+               description = "Delete or archive expired notifications and completed scheduled jobs, outside the nightly schedule")
+    public ResponseEntity<Map<String, Object>> runRetention() {
+        Map<String, Object> response = new HashMap<>();
+        if (retentionService == null) {
+            response.put("error", "Retention is disabled (notification.retention.enabled)");
+            return ResponseEntity.badRequest().body(response);
+        }
+        response.put("reclaimed", retentionService.run());
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/partitions/maintain")
+    @Operation(summary = "Maintain notification partitions now",
+               description = "Create the partitions due ahead and drop or detach expired ones, outside the nightly schedule")
+    public ResponseEntity<Map<String, Object>> maintainPartitions() {
+        Map<String, Object> response = new HashMap<>();
+        if (partitionManager == null) {
+            response.put("error", "Partitioning is disabled (notification.partitioning.enabled)");
+            return ResponseEntity.badRequest().body(response);
+        }
+        response.putAll(partitionManager.maintain());
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/kafka/consumers")
+    @Operation(summary = "Get consumer lag", description = "Retrieve lag, throughput and scale-out recommendations per consumer group")
+    public ResponseEntity<Map<String, Object>> getConsumerLag() {
+        Map<String, Object> response = new HashMap<>();
+        if (consumerLagMonitor == null) {
+            response.put("enabled", false);
+            return ResponseEntity.ok(response);
+        }
+        
+        response.put("enabled", true);
+        response.put("groups", consumerLagMonitor.getSnapshots().values());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -2,9 +2,13 @@ package com.notification.system.controller;
 
 import com.notification.system.model.dto.request.BatchNotificationRequest;
 import com.notification.system.model.dto.request.NotificationRequest;
+import com.notification.system.model.dto.request.RecurringNotificationRequest;
 import com.notification.system.model.dto.response.BatchNotificationResponse;
 import com.notification.system.model.dto.response.NotificationResponse;
+import com.notification.system.model.dto.response.RecurringNotificationResponse;
+import com.notification.system.model.enums.BatchStatus;
 import com.notification.system.service.notification.BatchNotificationService;
+import com.notification.system.service.notification.BatchResultExporter;
 import com.notification.system.service.notification.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,8 +16,17 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/notifications")
@@ -26,6 +39,9 @@ public class NotificationController {
     @Autowired
     private BatchNotificationService batchNotificationService;
     
+    @Autowired
+    private BatchResultExporter batchResultExporter;
+    
     @PostMapping
     @Operation(summary = "Send a notification", description = "Send an immediate or scheduled notification")
     public ResponseEntity<NotificationResponse> sendNotification(@Valid @RequestBody NotificationRequest request) {
@@ -33,6 +49,33 @@ public class NotificationController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    @PostMapping("/recurring")
+    @Operation(summary = "Create a recurring notification",
+               description = "Send the same notification on a Quartz cron schedule (e.g. '0 0 9 * * ?' for 09:00 daily) " +
+                             "evaluated in timeZone. Each occurrence is created when it fires.")
+    public ResponseEntity<?> scheduleRecurringNotification(@Valid @RequestBody RecurringNotificationRequest request) {
+        try {
+            RecurringNotificationResponse response = notificationService.scheduleRecurringNotification(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/recurring")
+    @Operation(summary = "List recurring notifications", description = "Retrieve all active recurring notifications")
+    public ResponseEntity<List<RecurringNotificationResponse>> getRecurringNotifications() {
+        return ResponseEntity.ok(notificationService.getRecurringNotifications());
+    }
+
+    @PostMapping("/recurring/{id}/cancel")
+    @Operation(summary = "Cancel a recurring notification", description = "Stop all future occurrences")
+    public ResponseEntity<Void> cancelRecurringNotification(@PathVariable Long id) {
+        return notificationService.cancelRecurringNotification(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get notification by ID", description = "Retrieve a specific notification by its ID")
     public ResponseEntity<NotificationResponse> getNotification(@PathVariable Long id) {
@@ -42,7 +85,8 @@ public class NotificationController {
     }
     
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Get user notifications", description = "Retrieve paginated notifications for a specific user")
+    @Operation(summary = "Get user notifications", description = "Retrieve paginated notifications for a specific user. " +
+                             "Deep pages get slower; prefer /user/{userId}/history for scrolling")
     public ResponseEntity<Page<NotificationResponse>> getUserNotifications(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
@@ -51,14 +95,42 @@ public class NotificationController {
         Page<NotificationResponse> notifications = notificationService.getUserNotifications(userId, page, size);
         return ResponseEntity.ok(notifications);
     }
+
+    @GetMapping("/user/{userId}/history")
+    @Operation(summary = "Get user notification history",
+               description = "Newest first, paged with an opaque cursor: pass nextCursor from the previous page to continue. " +
+                             "Every page costs the same however deep it is, and no total is counted.")
+    public ResponseEntity<?> getUserHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        try {
+            return ResponseEntity.ok(notificationService.getUserHistory(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
     
     @PostMapping("/batch")
     @Operation(summary = "Send batch notifications", 
-               description = "Send notifications to multiple users with configurable batch processing settings")
+               description = "Send notifications to multiple users with configurable batch processing settings. " +
+                             "By default the batch is queued and 202 is returned with a batchId to poll. " +
+                             "Synchronous batches include per-user results unless includeResults=false or the batch is large.")
     public ResponseEntity<BatchNotificationResponse> sendBatchNotification(
-            @Valid @RequestBody BatchNotificationRequest request) {
+            @Valid @RequestBody BatchNotificationRequest request,
+            @RequestParam(defaultValue = "true") boolean async,
+            @RequestParam(defaultValue = "true") boolean includeResults) {
+        
+        if (async) {
+            BatchNotificationResponse response = batchNotificationService.submitBatchNotification(request);
+            HttpStatus status = response.getStatus() == BatchStatus.FAILED
+                    ? HttpStatus.SERVICE_UNAVAILABLE
+                    : HttpStatus.ACCEPTED;
+            return ResponseEntity.status(status).body(response);
+        }
         
-        BatchNotificationResponse response = batchNotificationService.processBatchNotification(request);
+        BatchNotificationResponse response = batchNotificationService.processBatchNotification(request, includeResults);
         
         HttpStatus status = switch (response.getStatus()) {
             case COMPLETED -> HttpStatus.OK;
@@ -69,4 +141,111 @@ public class NotificationController {
         
         return ResponseEntity.status(status).body(response);
     }
-}
\ No newline at end of file
+    
+    @PostMapping(value = "/batch/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Send batch notifications from a recipient file",
+               description = "Stream recipients from an NDJSON or CSV file (optionally gzipped) and process them " +
+                             "in fixed-size chunks. Pass resumeBatchId with the same file to continue an interrupted batch.")
+    public ResponseEntity<BatchNotificationResponse> uploadBatchNotification(
+            @RequestPart("request") BatchNotificationRequest request,
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) String resumeBatchId) throws IOException {
+        
+        try {
+            BatchNotificationResponse response = batchNotificationService.submitRecipientUpload(request, file, resumeBatchId);
+            HttpStatus status = response.getStatus() == BatchStatus.FAILED
+                    ? HttpStatus.SERVICE_UNAVAILABLE
+                    : HttpStatus.ACCEPTED;
+            return ResponseEntity.status(status).body(response);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            BatchNotificationResponse error = new BatchNotificationResponse();
+            error.setBatchId(resumeBatchId);
+            error.setStatus(BatchStatus.FAILED);
+            error.setErrorMessage(e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @PostMapping("/batch/segment")
+    @Operation(summary = "Send batch notifications to an audience segment",
+               description = "Target users matching a segment (preferred channels, creation date range, role) " +
+                             "instead of listing userIds. Matching users are streamed from the database in batchSize chunks.")
+    public ResponseEntity<BatchNotificationResponse> sendSegmentBatchNotification(
+            @RequestBody BatchNotificationRequest request) {
+        
+        try {
+            BatchNotificationResponse response = batchNotificationService.submitSegmentBatch(request);
+            HttpStatus status = response.getStatus() == BatchStatus.FAILED
+                    ? HttpStatus.SERVICE_UNAVAILABLE
+                    : HttpStatus.ACCEPTED;
+            return ResponseEntity.status(status).body(response);
+        } catch (IllegalArgumentException e) {
+            BatchNotificationResponse error = new BatchNotificationResponse();
+            error.setStatus(BatchStatus.FAILED);
+            error.setErrorMessage(e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @GetMapping("/batch/{batchId}")
+    @Operation(summary = "Get batch progress", description = "Retrieve live progress counters for a batch job")
+    public ResponseEntity<BatchNotificationResponse> getBatchStatus(@PathVariable String batchId) {
+        return batchNotificationService.getBatchStatus(batchId)
+                .map(response -> ResponseEntity.ok(response))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/batch/{batchId}/cancel")
+    @Operation(summary = "Cancel a batch",
+               description = "Stop a running or scheduled batch. Sends in progress finish, everything not yet sent is marked CANCELLED.")
+    public ResponseEntity<BatchNotificationResponse> cancelBatch(@PathVariable String batchId) {
+        return batchNotificationService.cancelBatch(batchId)
+                .map(response -> ResponseEntity.ok(response))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/batch/{batchId}/pause")
+    @Operation(summary = "Pause a batch", description = "Hold a running batch before its next send until it is resumed")
+    public ResponseEntity<BatchNotificationResponse> pauseBatch(@PathVariable String batchId) {
+        return controlBatch(batchId, () -> batchNotificationService.pauseBatch(batchId));
+    }
+
+    @PostMapping("/batch/{batchId}/resume")
+    @Operation(summary = "Resume a batch", description = "Continue a paused batch")
+    public ResponseEntity<BatchNotificationResponse> resumeBatch(@PathVariable String batchId) {
+        return controlBatch(batchId, () -> batchNotificationService.resumeBatch(batchId));
+    }
+
+    private ResponseEntity<BatchNotificationResponse> controlBatch(String batchId,
+                                                                   Supplier<Optional<BatchNotificationResponse>> action) {
+        try {
+            return action.get()
+                    .map(response -> ResponseEntity.ok(response))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            BatchNotificationResponse error = new BatchNotificationResponse();
+            error.setBatchId(batchId);
+            error.setErrorMessage(e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping(value = "/batch/{batchId}/results", produces = "application/x-ndjson")
+    @Operation(summary = "Export batch results",
+               description = "Stream per-recipient results as NDJSON, ordered by notificationId. " +
+                             "Pass the last notificationId received as 'after' to continue.")
+    public ResponseEntity<StreamingResponseBody> exportBatchResults(
+            @PathVariable String batchId,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Long limit) {
+        
+        if (!batchResultExporter.hasResults(batchId)) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        StreamingResponseBody body = out -> batchResultExporter.export(batchId, after, limit, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+}
@@ -1,7 +1,9 @@
 package com.notification.system.controller;
 
+import com.notification.system.model.dto.request.QuietHoursRequest;
 import com.notification.system.model.entity.User;
 import com.notification.system.repository.UserRepository;
+import com.notification.system.service.scheduler.NotificationSchedulerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -40,4 +43,26 @@ public class UserController {
                 .map(user -> ResponseEntity.ok(user))
                 .orElse(ResponseEntity.notFound().build());
     }
+    
+    @PutMapping("/{id}/quiet-hours")
+    @Operation(summary = "Set time zone and quiet hours",
+               description = "Deferrable notifications due inside the user's quiet hours are held back until they end")
+    public ResponseEntity<?> updateQuietHours(@PathVariable Long id, @RequestBody QuietHoursRequest request) {
+        try {
+            NotificationSchedulerService.zoneOf(request.getTimeZone());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        if ((request.getQuietHoursStart() == null) != (request.getQuietHoursEnd() == null)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Pass both quietHoursStart and quietHoursEnd, or neither"));
+        }
+        return userRepository.findById(id)
+                .map(user -> {
+                    user.setTimeZone(request.getTimeZone());
+                    user.setQuietHoursStart(request.getQuietHoursStart());
+                    user.setQuietHoursEnd(request.getQuietHoursEnd());
+                    return ResponseEntity.ok(userRepository.save(user));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
\ No newline at end of file
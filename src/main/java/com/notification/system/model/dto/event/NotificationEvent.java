@@ -21,6 +21,13 @@ public class NotificationEvent {
     private String eventType;
     private Integer retryCount;
     
+    // Recipient state carried with the event so consumers can send without a DB read
+    private String recipientUsername;
+    private String recipientEmail;
+    private String recipientPhone;
+    private String recipientDeviceToken;
+    private boolean carriesRecipientState;
+    
     public NotificationEvent() {
         this.createdAt = LocalDateTime.now();
         this.retryCount = 0;
@@ -136,6 +143,46 @@ public class NotificationEvent {
         this.retryCount = retryCount;
     }
     
+    public String getRecipientUsername() {
+        return recipientUsername;
+    }
+    
+    public void setRecipientUsername(String recipientUsername) {
+        this.recipientUsername = recipientUsername;
+    }
+    
+    public String getRecipientEmail() {
+        return recipientEmail;
+    }
+    
+    public void setRecipientEmail(String recipientEmail) {
+        this.recipientEmail = recipientEmail;
+    }
+    
+    public String getRecipientPhone() {
+        return recipientPhone;
+    }
+    
+    public void setRecipientPhone(String recipientPhone) {
+        this.recipientPhone = recipientPhone;
+    }
+    
+    public String getRecipientDeviceToken() {
+        return recipientDeviceToken;
+    }
+    
+    public void setRecipientDeviceToken(String recipientDeviceToken) {
+        this.recipientDeviceToken = recipientDeviceToken;
+    }
+    
+    public boolean isCarriesRecipientState() {
+        return carriesRecipientState;
+    }
+    
+    public void setCarriesRecipientState(boolean carriesRecipientState) {
+        this.carriesRecipientState = carriesRecipientState;
+    }
+    
     @Override
     public String toString() {
         return "NotificationEvent{" +
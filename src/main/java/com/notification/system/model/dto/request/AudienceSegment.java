@@ -0,0 +1,44 @@
+package com.notification.system.model.dto.request;
+
+import com.notification.system.model.enums.ChannelType;
+import com.notification.system.model.enums.UserRole;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Schema(description = "Users targeted by a batch, matched on the server instead of listed by id. All given criteria must match.")
+public class AudienceSegment {
+
+    @Schema(description = "Users who prefer any of these channels", example = "[\"SMS\"]")
+    private Set<ChannelType> preferredChannels;
+
+    @Schema(description = "Users created at or after this time (optional)", example = "2024-01-01T00:00:00")
+    private LocalDateTime createdFrom;
+
+    @Schema(description = "Users created before this time (optional)", example = "2024-07-01T00:00:00")
+    private LocalDateTime createdTo;
+
+    @Schema(description = "Users with this role (optional)", example = "USER")
+    private UserRole role;
+
+    public AudienceSegment() {}
+
+    public boolean hasCriteria() {
+        return (preferredChannels != null && !preferredChannels.isEmpty())
+                || createdFrom != null || createdTo != null || role != null;
+    }
+
+    // Getters and Setters
+    public Set<ChannelType> getPreferredChannels() { return preferredChannels; }
+    public void setPreferredChannels(Set<ChannelType> preferredChannels) { this.preferredChannels = preferredChannels; }
+
+    public LocalDateTime getCreatedFrom() { return createdFrom; }
+    public void setCreatedFrom(LocalDateTime createdFrom) { this.createdFrom = createdFrom; }
+
+    public LocalDateTime getCreatedTo() { return createdTo; }
+    public void setCreatedTo(LocalDateTime createdTo) { this.createdTo = createdTo; }
+
+    public UserRole getRole() { return role; }
+    public void setRole(UserRole role) { this.role = role; }
+}
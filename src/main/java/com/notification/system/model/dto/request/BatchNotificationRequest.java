@@ -1,11 +1,15 @@
 package com.notification.system.model.dto.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.notification.system.model.enums.ChannelType;
 import com.notification.system.model.enums.Priority;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -40,9 +44,13 @@ public class BatchNotificationRequest {
     @Schema(description = "Additional metadata (optional)")
     private Map<String, Object> metadata;
 
+    @Valid
     @Schema(description = "Batch processing settings")
     private BatchSettings batchSettings;
 
+    @Schema(description = "Audience segment, used by /batch/segment instead of userIds")
+    private AudienceSegment segment;
+
     public static class BatchSettings {
         @Schema(description = "Maximum batch size for processing", example = "50")
         private Integer batchSize = 50;
@@ -56,6 +64,28 @@ public class BatchNotificationRequest {
         @Schema(description = "Continue on error", example = "true")
         private Boolean continueOnError = true;
 
+        @Schema(description = "Maximum batches processed concurrently; capped by the server limit", example = "4")
+        private Integer maxParallelism;
+
+        @Schema(description = "Spread delivery evenly over this many minutes (optional); replaces delayBetweenBatches", example = "120")
+        @Min(value = 1, message = "Delivery window must be at least 1 minute")
+        private Integer deliveryWindowMinutes;
+
+        @Schema(description = "Upper bound on sends per second for this batch (optional); replaces delayBetweenBatches", example = "50")
+        @Positive(message = "Max sends per second must be positive")
+        private Double maxSendsPerSecond;
+
+        // Shaped batches are paced per send, so the fixed pause between chunks no longer applies
+        @JsonIgnore
+        public boolean isShaped() {
+            return deliveryWindowMinutes != null || maxSendsPerSecond != null;
+        }
+
+        @JsonIgnore
+        public long getPacingDelay() {
+            return isShaped() || delayBetweenBatches == null ? 0 : delayBetweenBatches;
+        }
+
         // Getters and Setters
         public Integer getBatchSize() { return batchSize; }
         public void setBatchSize(Integer batchSize) { this.batchSize = batchSize; }
@@ -68,6 +98,15 @@ public class BatchNotificationRequest {
 
         public Boolean getContinueOnError() { return continueOnError; }
         public void setContinueOnError(Boolean continueOnError) { this.continueOnError = continueOnError; }
+
+        public Integer getMaxParallelism() { return maxParallelism; }
+        public void setMaxParallelism(Integer maxParallelism) { this.maxParallelism = maxParallelism; }
+
+        public Integer getDeliveryWindowMinutes() { return deliveryWindowMinutes; }
+        public void setDeliveryWindowMinutes(Integer deliveryWindowMinutes) { this.deliveryWindowMinutes = deliveryWindowMinutes; }
+
+        public Double getMaxSendsPerSecond() { return maxSendsPerSecond; }
+        public void setMaxSendsPerSecond(Double maxSendsPerSecond) { this.maxSendsPerSecond = maxSendsPerSecond; }
     }
 
     // Constructors
@@ -109,4 +148,7 @@ public class BatchNotificationRequest {
         return batchSettings != null ? batchSettings : new BatchSettings(); 
     }
     public void setBatchSettings(BatchSettings batchSettings) { this.batchSettings = batchSettings; }
+
+    public AudienceSegment getSegment() { return segment; }
+    public void setSegment(AudienceSegment segment) { this.segment = segment; }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.notification.system.model.dto.request;
+
+import com.notification.system.model.enums.ChannelType;
+import com.notification.system.model.enums.Priority;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Selects scheduled notifications to cancel or move in one operation. At least one filter is required.")
+public class BulkScheduleRequest {
+
+    @Schema(description = "Only notifications of this batch; without it, batch notifications are left alone")
+    private String batchId;
+
+    private Long userId;
+
+    private ChannelType channelType;
+
+    private Priority priority;
+
+    @Schema(description = "Only notifications scheduled at or after this time")
+    private LocalDateTime scheduledFrom;
+
+    @Schema(description = "Only notifications scheduled before this time")
+    private LocalDateTime scheduledTo;
+
+    @Schema(description = "Reschedule only: new time for every selected notification")
+    private LocalDateTime newScheduledAt;
+
+    @Schema(description = "Reschedule only: move every selected notification by this many minutes (may be negative)", example = "60")
+    private Long shiftMinutes;
+
+    public BulkScheduleRequest() {}
+
+    public boolean hasFilter() {
+        return batchId != null || userId != null || channelType != null || priority != null
+                || scheduledFrom != null || scheduledTo != null;
+    }
+
+    // Getters and setters
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public ChannelType getChannelType() {
+        return channelType;
+    }
+
+    public void setChannelType(ChannelType channelType) {
+        this.channelType = channelType;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    public LocalDateTime getScheduledFrom() {
+        return scheduledFrom;
+    }
+
+    public void setScheduledFrom(LocalDateTime scheduledFrom) {
+        this.scheduledFrom = scheduledFrom;
+    }
+
+    public LocalDateTime getScheduledTo() {
+        return scheduledTo;
+    }
+
+    public void setScheduledTo(LocalDateTime scheduledTo) {
+        this.scheduledTo = scheduledTo;
+    }
+
+    public LocalDateTime getNewScheduledAt() {
+        return newScheduledAt;
+    }
+
+    public void setNewScheduledAt(LocalDateTime newScheduledAt) {
+        this.newScheduledAt = newScheduledAt;
+    }
+
+    public Long getShiftMinutes() {
+        return shiftMinutes;
+    }
+
+    public void setShiftMinutes(Long shiftMinutes) {
+        this.shiftMinutes = shiftMinutes;
+    }
+}
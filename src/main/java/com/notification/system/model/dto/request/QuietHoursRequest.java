@@ -0,0 +1,45 @@
+package com.notification.system.model.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalTime;
+
+@Schema(description = "A user's time zone and the local hours in which deferrable notifications are held back")
+public class QuietHoursRequest {
+
+    @Schema(description = "IANA time zone", example = "Europe/Berlin", defaultValue = "UTC")
+    private String timeZone;
+
+    @Schema(description = "Start of quiet hours, local time; leave both bounds empty for none", example = "22:00")
+    private LocalTime quietHoursStart;
+
+    @Schema(description = "End of quiet hours, local time; may be before the start to wrap midnight", example = "07:00")
+    private LocalTime quietHoursEnd;
+
+    public QuietHoursRequest() {}
+
+    // Getters and setters
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+
+    public LocalTime getQuietHoursStart() {
+        return quietHoursStart;
+    }
+
+    public void setQuietHoursStart(LocalTime quietHoursStart) {
+        this.quietHoursStart = quietHoursStart;
+    }
+
+    public LocalTime getQuietHoursEnd() {
+        return quietHoursEnd;
+    }
+
+    public void setQuietHoursEnd(LocalTime quietHoursEnd) {
+        this.quietHoursEnd = quietHoursEnd;
+    }
+}
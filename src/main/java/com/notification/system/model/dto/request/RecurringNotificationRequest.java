@@ -0,0 +1,103 @@
+package com.notification.system.model.dto.request;
+
+import com.notification.system.model.enums.ChannelType;
+import com.notification.system.model.enums.Priority;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Map;
+
+@Schema(description = "A notification sent on a cron schedule, e.g. a daily digest")
+public class RecurringNotificationRequest {
+
+    @NotNull
+    private Long userId;
+
+    @NotBlank
+    private String title;
+
+    @NotBlank
+    private String content;
+
+    @NotNull
+    private ChannelType channelType;
+
+    private Priority priority = Priority.MEDIUM;
+
+    private Map<String, Object> metadata;
+
+    @NotBlank
+    @Schema(description = "Quartz cron expression (seconds first)", example = "0 0 9 * * ?")
+    private String cronExpression;
+
+    @Schema(description = "Zone the cron expression is evaluated in", example = "Europe/Berlin", defaultValue = "the user's time zone, else UTC")
+    private String timeZone;
+
+    public RecurringNotificationRequest() {}
+
+    // Getters and setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public ChannelType getChannelType() {
+        return channelType;
+    }
+
+    public void setChannelType(ChannelType channelType) {
+        this.channelType = channelType;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    public Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(Map<String, Object> metadata) {
+        this.metadata = metadata;
+    }
+
+    public String getCronExpression() {
+        return cronExpression;
+    }
+
+    public void setCronExpression(String cronExpression) {
+        this.cronExpression = cronExpression;
+    }
+
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+}
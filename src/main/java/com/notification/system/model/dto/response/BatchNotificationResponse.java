@@ -22,6 +22,12 @@ public class BatchNotificationResponse {
     @Schema(description = "Failed notifications", example = "5")  
     private Integer failureCount;
 
+    @Schema(description = "Recipients handled so far", example = "100")
+    private Integer processedCount;
+
+    @Schema(description = "Input records fully processed; pass the batchId back to resume a streamed upload from here", example = "5000")
+    private Long cursor;
+
     @Schema(description = "Batch processing status", example = "COMPLETED")
     private BatchStatus status;
 
@@ -126,6 +132,12 @@ public class BatchNotificationResponse {
     public Integer getFailureCount() { return failureCount; }
     public void setFailureCount(Integer failureCount) { this.failureCount = failureCount; }
 
+    public Integer getProcessedCount() { return processedCount; }
+    public void setProcessedCount(Integer processedCount) { this.processedCount = processedCount; }
+
+    public Long getCursor() { return cursor; }
+    public void setCursor(Long cursor) { this.cursor = cursor; }
+
     public BatchStatus getStatus() { return status; }
     public void setStatus(BatchStatus status) { this.status = status; }
 
@@ -0,0 +1,35 @@
+package com.notification.system.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of a user's notification history, newest first")
+public class NotificationHistoryResponse {
+
+    @Schema(description = "Notifications on this page")
+    private List<NotificationResponse> items;
+
+    @Schema(description = "Opaque token for the next page, passed back as 'cursor'; absent on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Whether older notifications follow", example = "true")
+    private boolean hasMore;
+
+    public NotificationHistoryResponse() {}
+
+    public NotificationHistoryResponse(List<NotificationResponse> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<NotificationResponse> getItems() { return items; }
+    public void setItems(List<NotificationResponse> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
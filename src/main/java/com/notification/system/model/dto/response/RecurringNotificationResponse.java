@@ -0,0 +1,102 @@
+package com.notification.system.model.dto.response;
+
+import com.notification.system.model.enums.ChannelType;
+
+import java.time.LocalDateTime;
+
+public class RecurringNotificationResponse {
+
+    private Long id;
+    private Long userId;
+    private String title;
+    private ChannelType channelType;
+    private String cronExpression;
+    private String timeZone;
+    private LocalDateTime nextFireAt;
+    private LocalDateTime lastFiredAt;
+    private long occurrences;
+    private boolean active;
+
+    public RecurringNotificationResponse() {}
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public ChannelType getChannelType() {
+        return channelType;
+    }
+
+    public void setChannelType(ChannelType channelType) {
+        this.channelType = channelType;
+    }
+
+    public String getCronExpression() {
+        return cronExpression;
+    }
+
+    public void setCronExpression(String cronExpression) {
+        this.cronExpression = cronExpression;
+    }
+
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+
+    public LocalDateTime getNextFireAt() {
+        return nextFireAt;
+    }
+
+    public void setNextFireAt(LocalDateTime nextFireAt) {
+        this.nextFireAt = nextFireAt;
+    }
+
+    public LocalDateTime getLastFiredAt() {
+        return lastFiredAt;
+    }
+
+    public void setLastFiredAt(LocalDateTime lastFiredAt) {
+        this.lastFiredAt = lastFiredAt;
+    }
+
+    public long getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(long occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
@@ -0,0 +1,128 @@
+package com.notification.system.model.entity;
+
+import com.notification.system.model.enums.BatchSource;
+import com.notification.system.model.enums.BatchStatus;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable record of a batch run. The owning node commits progress after every chunk and
+ * refreshes {@code heartbeatAt} while the batch runs; a run whose heartbeat goes stale is
+ * claimed and resumed by another node, or by this one after a restart.
+ */
+@Entity
+@Table(name = "batch_runs", indexes = {
+        @Index(name = "idx_batch_runs_status_heartbeat", columnList = "status, heartbeatAt")
+})
+public class BatchRun {
+
+    @Id
+    @Column(length = 64)
+    private String batchId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BatchSource source;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BatchStatus status;
+
+    // The submitted request as JSON; recipient ids are dropped once their notifications exist
+    @Column(columnDefinition = "TEXT")
+    private String request;
+
+    private String owner;
+
+    private LocalDateTime heartbeatAt;
+
+    private int totalUsers;
+
+    private int successCount;
+
+    private int failureCount;
+
+    private int totalBatches;
+
+    private int processedBatches;
+
+    // Input records fully handled, as reported by BatchJob
+    private long cursorPosition;
+
+    // Highest user id handed out by a segment stream
+    private Long lastUserId;
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    public BatchRun() {}
+
+    public BatchRun(String batchId, BatchSource source, BatchStatus status, String request, String owner) {
+        this.batchId = batchId;
+        this.source = source;
+        this.status = status;
+        this.request = request;
+        this.owner = owner;
+        this.heartbeatAt = LocalDateTime.now();
+    }
+
+    // Getters and setters
+    public String getBatchId() { return batchId; }
+    public void setBatchId(String batchId) { this.batchId = batchId; }
+
+    public BatchSource getSource() { return source; }
+    public void setSource(BatchSource source) { this.source = source; }
+
+    public BatchStatus getStatus() { return status; }
+    public void setStatus(BatchStatus status) { this.status = status; }
+
+    public String getRequest() { return request; }
+    public void setRequest(String request) { this.request = request; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+
+    public int getTotalUsers() { return totalUsers; }
+    public void setTotalUsers(int totalUsers) { this.totalUsers = totalUsers; }
+
+    public int getSuccessCount() { return successCount; }
+    public void setSuccessCount(int successCount) { this.successCount = successCount; }
+
+    public int getFailureCount() { return failureCount; }
+    public void setFailureCount(int failureCount) { this.failureCount = failureCount; }
+
+    public int getTotalBatches() { return totalBatches; }
+    public void setTotalBatches(int totalBatches) { this.totalBatches = totalBatches; }
+
+    public int getProcessedBatches() { return processedBatches; }
+    public void setProcessedBatches(int processedBatches) { this.processedBatches = processedBatches; }
+
+    public long getCursorPosition() { return cursorPosition; }
+    public void setCursorPosition(long cursorPosition) { this.cursorPosition = cursorPosition; }
+
+    public Long getLastUserId() { return lastUserId; }
+    public void setLastUserId(Long lastUserId) { this.lastUserId = lastUserId; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
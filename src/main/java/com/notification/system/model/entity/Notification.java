@@ -15,11 +15,19 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_batch_id", columnList = "batchId, id"),
+        @Index(name = "idx_notifications_batch_user", columnList = "batchId, user_id"),
+        @Index(name = "idx_notifications_status_scheduled", columnList = "status, scheduledAt"),
+        @Index(name = "idx_notifications_status_updated", columnList = "status, updatedAt"),
+        @Index(name = "idx_notifications_deferred", columnList = "deferredUntil, id")
+})
 public class Notification {
     
+    // Pooled sequence so inserts can be JDBC-batched; bulk writers reserve ids from the same sequence
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
     
     @NotNull
@@ -60,7 +68,20 @@ public class Notification {
     @Column(columnDefinition = "TEXT")
     private String errorMessage;
     
+    private String batchId;
+
+    // Node holding the row in its in-memory timing wheel, until leaseExpiresAt
+    @Column(length = 64)
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpiresAt;
+
+    // Set when the notification waits for its user's quiet hours to end: the bucket it is released with
+    private LocalDateTime deferredUntil;
+    
+    // Partition key: set once on insert, so an update never moves a row to another partition
     @CreationTimestamp
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     @UpdateTimestamp
@@ -181,6 +202,38 @@ public class Notification {
         this.errorMessage = errorMessage;
     }
 
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public LocalDateTime getDeferredUntil() {
+        return deferredUntil;
+    }
+
+    public void setDeferredUntil(LocalDateTime deferredUntil) {
+        this.deferredUntil = deferredUntil;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
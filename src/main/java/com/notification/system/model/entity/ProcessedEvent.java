@@ -0,0 +1,64 @@
+package com.notification.system.model.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "processed_events", indexes = {
+        @Index(name = "idx_processed_events_notification_id", columnList = "notificationId"),
+        @Index(name = "idx_processed_events_expires_at", columnList = "expiresAt")
+})
+public class ProcessedEvent {
+
+    @Id
+    private String eventId;
+
+    private Long notificationId;
+
+    private LocalDateTime processedAt;
+
+    private LocalDateTime expiresAt;
+
+    public ProcessedEvent() {}
+
+    public ProcessedEvent(String eventId, Long notificationId, LocalDateTime processedAt, LocalDateTime expiresAt) {
+        this.eventId = eventId;
+        this.notificationId = notificationId;
+        this.processedAt = processedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and setters
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public Long getNotificationId() {
+        return notificationId;
+    }
+
+    public void setNotificationId(Long notificationId) {
+        this.notificationId = notificationId;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
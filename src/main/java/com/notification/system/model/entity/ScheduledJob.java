@@ -12,17 +12,22 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 @Entity
-@Table(name = "scheduled_jobs")
+@Table(name = "scheduled_jobs", indexes = {
+        @Index(name = "idx_scheduled_jobs_completed_updated", columnList = "isCompleted, updatedAt")
+})
 public class ScheduledJob {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @NotNull
+    // Null for batch fan-out jobs, which cover every notification of batchId
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "notification_id")
     private Notification notification;
+
+    @Column(length = 64)
+    private String batchId;
     
     @NotBlank
     private String jobKey;
@@ -74,6 +79,14 @@ public class ScheduledJob {
         this.notification = notification;
     }
 
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
     public String getJobKey() {
         return jobKey;
     }
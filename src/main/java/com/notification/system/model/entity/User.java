@@ -9,6 +9,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Set;
 
 @Entity
@@ -33,15 +34,27 @@ public class User {
     
     private String phoneNumber;
     
+    private String deviceToken;
+    
     @Enumerated(EnumType.STRING)
     private UserRole role = UserRole.USER;
     
     @ElementCollection(targetClass = ChannelType.class)
     @Enumerated(EnumType.STRING)
-    @CollectionTable(name = "user_preferred_channels", joinColumns = @JoinColumn(name = "user_id"))
+    @CollectionTable(name = "user_preferred_channels", joinColumns = @JoinColumn(name = "user_id"),
+                     indexes = @Index(name = "idx_user_preferred_channels_user", columnList = "user_id, channel_type"))
     @Column(name = "channel_type")
     private Set<ChannelType> preferredChannels;
     
+    // IANA zone id, e.g. Europe/Berlin; UTC when unset
+    @Column(length = 64)
+    private String timeZone;
+    
+    // Local times in timeZone; a window may wrap midnight (22:00-07:00). No quiet hours when either is unset
+    private LocalTime quietHoursStart;
+    
+    private LocalTime quietHoursEnd;
+    
     @CreationTimestamp
     private LocalDateTime createdAt;
     
@@ -97,6 +110,38 @@ public class User {
         this.phoneNumber = phoneNumber;
     }
 
+    public String getDeviceToken() {
+        return deviceToken;
+    }
+
+    public void setDeviceToken(String deviceToken) {
+        this.deviceToken = deviceToken;
+    }
+
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+
+    public LocalTime getQuietHoursStart() {
+        return quietHoursStart;
+    }
+
+    public void setQuietHoursStart(LocalTime quietHoursStart) {
+        this.quietHoursStart = quietHoursStart;
+    }
+
+    public LocalTime getQuietHoursEnd() {
+        return quietHoursEnd;
+    }
+
+    public void setQuietHoursEnd(LocalTime quietHoursEnd) {
+        this.quietHoursEnd = quietHoursEnd;
+    }
+
     public UserRole getRole() {
         return role;
     }
@@ -0,0 +1,7 @@
+package com.notification.system.model.enums;
+
+public enum BatchSource {
+    USER_IDS,
+    UPLOAD,
+    SEGMENT
+}
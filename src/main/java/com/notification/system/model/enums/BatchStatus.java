@@ -4,6 +4,7 @@ public enum BatchStatus {
     QUEUED,
     PENDING,
     PROCESSING,
+    PAUSED,
     COMPLETED,
     FAILED,
     PARTIALLY_COMPLETED,
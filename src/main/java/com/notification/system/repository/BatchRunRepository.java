@@ -0,0 +1,64 @@
+package com.notification.system.repository;
+
+import com.notification.system.model.entity.BatchRun;
+import com.notification.system.model.enums.BatchStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BatchRunRepository extends JpaRepository<BatchRun, String> {
+
+    interface RunState {
+        String getBatchId();
+        BatchStatus getStatus();
+    }
+
+    List<BatchRun> findByStatusInAndHeartbeatAtBefore(Collection<BatchStatus> statuses, LocalDateTime staleBefore);
+
+    // Conditional update so only one node wins a stale run
+    @Modifying
+    @Query("UPDATE BatchRun r SET r.owner = :owner, r.heartbeatAt = :now " +
+           "WHERE r.batchId = :batchId AND r.status IN :statuses AND r.heartbeatAt < :staleBefore")
+    int claim(@Param("batchId") String batchId,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore,
+              @Param("statuses") Collection<BatchStatus> statuses);
+
+    // A status in :held was set by a cancel or pause, possibly on another node, and is left for the owner to pick up
+    @Modifying
+    @Query("UPDATE BatchRun r SET r.status = CASE WHEN r.status IN :held THEN r.status ELSE :#{#run.status} END, r.totalUsers = :#{#run.totalUsers}, " +
+           "r.successCount = :#{#run.successCount}, r.failureCount = :#{#run.failureCount}, " +
+           "r.totalBatches = :#{#run.totalBatches}, r.processedBatches = :#{#run.processedBatches}, " +
+           "r.cursorPosition = :#{#run.cursorPosition}, r.lastUserId = COALESCE(CAST(:#{#run.lastUserId} AS Long), r.lastUserId), " +
+           "r.heartbeatAt = :#{#run.heartbeatAt}, r.updatedAt = :#{#run.heartbeatAt} " +
+           "WHERE r.batchId = :#{#run.batchId} AND r.owner = :#{#run.owner}")
+    int saveProgress(@Param("run") BatchRun run, @Param("held") Collection<BatchStatus> held);
+
+    // Compare-and-set on status, so cancel, pause and resume only apply to runs in the expected state
+    @Modifying
+    @Transactional
+    @Query("UPDATE BatchRun r SET r.status = :status, r.updatedAt = :now WHERE r.batchId = :batchId AND r.status IN :expected")
+    int transitionStatus(@Param("batchId") String batchId,
+                         @Param("expected") Collection<BatchStatus> expected,
+                         @Param("status") BatchStatus status,
+                         @Param("now") LocalDateTime now);
+
+    @Query("SELECT r.batchId AS batchId, r.status AS status FROM BatchRun r WHERE r.owner = :owner AND r.batchId IN :batchIds")
+    List<RunState> findStates(@Param("owner") String owner, @Param("batchIds") Collection<String> batchIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BatchRun r SET r.heartbeatAt = :now WHERE r.owner = :owner AND r.batchId IN :batchIds")
+    int heartbeat(@Param("owner") String owner,
+                  @Param("batchIds") Collection<String> batchIds,
+                  @Param("now") LocalDateTime now);
+}
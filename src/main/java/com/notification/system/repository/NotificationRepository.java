@@ -6,12 +6,19 @@ import com.notification.system.model.enums.NotificationStatus;
 import com.notification.system.model.enums.Priority;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,10 +26,73 @@ import java.util.Optional;
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     
     Page<Notification> findByUser(User user, Pageable pageable);
+
+    // User history, newest first, keyset-paged on (createdAt, id) along idx_notifications_user_created:
+    // no OFFSET and no count, so a deep page costs what the first one does. The plain createdAt bound
+    // also lets PostgreSQL prune the partitions newer than the cursor
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUserHistory(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.createdAt <= :beforeTime " +
+           "AND (n.createdAt < :beforeTime OR n.id < :beforeId) ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUserHistoryBefore(@Param("userId") Long userId,
+                                             @Param("beforeTime") LocalDateTime beforeTime,
+                                             @Param("beforeId") Long beforeId,
+                                             Pageable pageable);
     
     Page<Notification> findByUserAndStatus(User user, NotificationStatus status, Pageable pageable);
     
     List<Notification> findByStatusAndScheduledAtLessThanEqual(NotificationStatus status, LocalDateTime scheduledAt);
+
+    // Sweeper claim: FOR UPDATE SKIP LOCKED (lock timeout -2), so concurrent sweepers split the due
+    // rows instead of queueing on each other. Batch recipients are left to their fan-out job unless
+    // deferred for quiet hours, and rows leased to a timing wheel to that wheel until the lease runs out.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM Notification n WHERE n.status = :status AND n.scheduledAt <= :now " +
+           "AND (n.batchId IS NULL OR n.deferredUntil IS NOT NULL) AND (n.leaseExpiresAt IS NULL OR n.leaseExpiresAt < :now) " +
+           "ORDER BY n.scheduledAt")
+    List<Notification> lockDueNotifications(@Param("status") NotificationStatus status,
+                                            @Param("now") LocalDateTime now,
+                                            Pageable pageable);
+
+    // Timing wheel prefetch: rows due between since and the horizon that no live lease holds
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM Notification n WHERE n.status = :status AND n.scheduledAt >= :since AND n.scheduledAt <= :horizon " +
+           "AND n.batchId IS NULL AND n.deferredUntil IS NULL AND (n.leaseExpiresAt IS NULL OR n.leaseExpiresAt < :now) " +
+           "ORDER BY n.scheduledAt")
+    List<Notification> lockLeasableNotifications(@Param("status") NotificationStatus status,
+                                                 @Param("since") LocalDateTime since,
+                                                 @Param("horizon") LocalDateTime horizon,
+                                                 @Param("now") LocalDateTime now,
+                                                 Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.leaseExpiresAt = :expiresAt " +
+           "WHERE n.leaseOwner = :owner AND n.status = :status AND n.scheduledAt <= :horizon")
+    int renewLeases(@Param("owner") String owner,
+                    @Param("status") NotificationStatus status,
+                    @Param("horizon") LocalDateTime horizon,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.leaseOwner = NULL, n.leaseExpiresAt = NULL " +
+           "WHERE n.leaseOwner = :owner AND n.status = :status")
+    int releaseLeases(@Param("owner") String owner, @Param("status") NotificationStatus status);
+
+    // Fires a leased row only if it is still ours, still scheduled and actually due
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :to, n.leaseOwner = NULL, n.leaseExpiresAt = NULL, n.updatedAt = :now " +
+           "WHERE n.id = :id AND n.status = :from AND n.leaseOwner = :owner AND n.scheduledAt <= :now")
+    int claimLeased(@Param("id") Long id,
+                    @Param("owner") String owner,
+                    @Param("from") NotificationStatus from,
+                    @Param("to") NotificationStatus to,
+                    @Param("now") LocalDateTime now);
+
+    @Query("SELECT n FROM Notification n JOIN FETCH n.user WHERE n.id IN :ids")
+    List<Notification> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
     
     List<Notification> findByStatusAndRetryCountLessThanAndNextRetryAtLessThanEqual(
             NotificationStatus status, int maxRetryCount, LocalDateTime currentTime);
@@ -39,4 +109,125 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     
     @Query("SELECT n FROM Notification n JOIN FETCH n.user WHERE n.id = :id")
     Optional<Notification> findByIdWithUser(@Param("id") Long id);
-}
\ No newline at end of file
+    
+    // Event-carried delivery claim, committed on its own: pending or scheduled rows, and failed ones
+    // redelivered for another attempt while their attempts are below maxAttempts
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.status = :claimed, n.updatedAt = :updatedAt WHERE n.id = :id " +
+           "AND (n.status IN :deliverable OR (n.status = :failed AND n.retryCount < :maxAttempts))")
+    int claimForDelivery(@Param("id") Long id,
+                         @Param("deliverable") Collection<NotificationStatus> deliverable,
+                         @Param("failed") NotificationStatus failed,
+                         @Param("maxAttempts") int maxAttempts,
+                         @Param("claimed") NotificationStatus claimed,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Records a failed attempt on a claimed row and counts it against the attempt budget
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.status = :failed, n.errorMessage = :errorMessage, n.retryCount = n.retryCount + 1, " +
+           "n.updatedAt = :updatedAt WHERE n.id = :id AND n.status = :claimed")
+    int recordDeliveryFailure(@Param("id") Long id,
+                              @Param("claimed") NotificationStatus claimed,
+                              @Param("failed") NotificationStatus failed,
+                              @Param("errorMessage") String errorMessage,
+                              @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Compare-and-set like transitionStatus: a notification cancelled meanwhile keeps its status
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.status = :status, n.sentAt = :sentAt, n.errorMessage = :errorMessage, " +
+           "n.updatedAt = :updatedAt WHERE n.id = :id AND n.status IN :expected")
+    int updateDeliveryStatus(@Param("id") Long id,
+                             @Param("expected") Collection<NotificationStatus> expected,
+                             @Param("status") NotificationStatus status,
+                             @Param("sentAt") LocalDateTime sentAt,
+                             @Param("errorMessage") String errorMessage,
+                             @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Compare-and-set on status, so a transition only applies to notifications still in the expected state
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :to, n.updatedAt = :updatedAt WHERE n.id = :id AND n.status = :from")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("from") NotificationStatus from,
+                         @Param("to") NotificationStatus to,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :to, n.updatedAt = :updatedAt " +
+           "WHERE n.batchId = :batchId AND n.status IN :from")
+    int updateBatchStatus(@Param("batchId") String batchId,
+                          @Param("from") Collection<NotificationStatus> from,
+                          @Param("to") NotificationStatus to,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+
+    boolean existsByBatchId(String batchId);
+
+    long countByBatchId(String batchId);
+
+    long countByBatchIdAndStatus(String batchId, NotificationStatus status);
+
+    @Query("SELECT n FROM Notification n JOIN FETCH n.user " +
+           "WHERE n.batchId = :batchId AND n.status = :status AND n.id > :afterId ORDER BY n.id")
+    List<Notification> findBatchPage(@Param("batchId") String batchId,
+                                     @Param("status") NotificationStatus status,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
+
+    @Query("SELECT n.user.id FROM Notification n WHERE n.batchId = :batchId AND n.user.id IN :userIds")
+    List<Long> findNotifiedUserIds(@Param("batchId") String batchId, @Param("userIds") Collection<Long> userIds);
+
+    // Keyset page over one batch, backed by idx_notifications_batch_id
+    @Query("SELECT n.id AS notificationId, n.user.id AS userId, n.status AS status, n.errorMessage AS errorMessage, " +
+           "n.sentAt AS sentAt, n.updatedAt AS updatedAt FROM Notification n " +
+           "WHERE n.batchId = :batchId AND n.id > :afterId ORDER BY n.id")
+    List<BatchResultView> findBatchResults(@Param("batchId") String batchId,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    interface BatchResultView {
+        Long getNotificationId();
+        Long getUserId();
+        NotificationStatus getStatus();
+        String getErrorMessage();
+        LocalDateTime getSentAt();
+        LocalDateTime getUpdatedAt();
+    }
+
+    // Quiet-hours bucket release: the bucket's rows still waiting, skipping those another node is releasing
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM Notification n WHERE n.deferredUntil = :bucket AND n.status = :status ORDER BY n.id")
+    List<Notification> lockDeferred(@Param("bucket") LocalDateTime bucket,
+                                    @Param("status") NotificationStatus status,
+                                    Pageable pageable);
+
+    @Query("SELECT DISTINCT n.deferredUntil FROM Notification n WHERE n.batchId = :batchId AND n.status = :status " +
+           "AND n.deferredUntil IS NOT NULL")
+    List<LocalDateTime> findDeferredBuckets(@Param("batchId") String batchId, @Param("status") NotificationStatus status);
+
+    // Retention: rows in a final status last touched before the cutoff, keyset-paged on (updatedAt, id).
+    // Rows another node is reclaiming are skipped rather than waited for
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM Notification n WHERE n.status = :status AND n.updatedAt < :cutoff " +
+           "AND (n.updatedAt > :afterTime OR (n.updatedAt = :afterTime AND n.id > :afterId)) ORDER BY n.updatedAt, n.id")
+    List<Notification> lockExpired(@Param("status") NotificationStatus status,
+                                   @Param("cutoff") LocalDateTime cutoff,
+                                   @Param("afterTime") LocalDateTime afterTime,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    @Modifying
+    @Query("INSERT INTO NotificationArchive (id, userId, title, content, channelType, priority, status, metadata, " +
+           "scheduledAt, sentAt, retryCount, errorMessage, batchId, createdAt, updatedAt, archivedAt) " +
+           "SELECT n.id, n.user.id, n.title, n.content, n.channelType, n.priority, n.status, n.metadata, " +
+           "n.scheduledAt, n.sentAt, n.retryCount, n.errorMessage, n.batchId, n.createdAt, n.updatedAt, :now " +
+           "FROM Notification n WHERE n.id IN :ids")
+    int archiveByIdIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,58 @@
+package com.notification.system.repository;
+
+import com.notification.system.model.entity.ProcessedEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+
+    // Claims still in flight have no processedAt and do not count
+    @Query("SELECT COUNT(p) > 0 FROM ProcessedEvent p " +
+           "WHERE (p.eventId = :eventId OR p.notificationId = :notificationId) AND p.processedAt IS NOT NULL " +
+           "AND p.expiresAt > :now")
+    boolean existsActive(@Param("eventId") String eventId,
+                         @Param("notificationId") Long notificationId,
+                         @Param("now") LocalDateTime now);
+
+    // Returns 1 only for the one caller that inserted the row, or took over an expired one. No row is
+    // written while another event for the same notification is processed or claimed and not yet expired
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO processed_events (event_id, notification_id, processed_at, expires_at) " +
+                   "SELECT :eventId, CAST(:notificationId AS bigint), CAST(NULL AS timestamp), :claimExpiresAt " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM processed_events o WHERE o.notification_id = CAST(:notificationId AS bigint) " +
+                   "AND o.event_id <> :eventId AND o.expires_at > :now) " +
+                   "ON CONFLICT (event_id) DO UPDATE SET notification_id = EXCLUDED.notification_id, " +
+                   "processed_at = NULL, expires_at = EXCLUDED.expires_at WHERE processed_events.expires_at <= :now",
+           nativeQuery = true)
+    int claim(@Param("eventId") String eventId,
+              @Param("notificationId") Long notificationId,
+              @Param("now") LocalDateTime now,
+              @Param("claimExpiresAt") LocalDateTime claimExpiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProcessedEvent p SET p.processedAt = :now, p.expiresAt = :expiresAt WHERE p.eventId = :eventId")
+    int complete(@Param("eventId") String eventId, @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProcessedEvent p WHERE p.eventId = :eventId AND p.processedAt IS NULL")
+    int releaseClaim(@Param("eventId") String eventId);
+
+    Slice<ProcessedEvent> findByProcessedAtAfterAndExpiresAtAfter(LocalDateTime since, LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProcessedEvent p WHERE p.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
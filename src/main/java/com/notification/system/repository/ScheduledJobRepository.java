@@ -1,10 +1,17 @@
 package com.notification.system.repository;
 
 import com.notification.system.model.entity.ScheduledJob;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.model.enums.Priority;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,12 +19,56 @@ import java.util.Optional;
 public interface ScheduledJobRepository extends JpaRepository<ScheduledJob, Long> {
     
     Optional<ScheduledJob> findByJobKeyAndJobGroup(String jobKey, String jobGroup);
+
+    Optional<ScheduledJob> findFirstByJobKeyAndJobGroupAndIsCompletedFalse(String jobKey, String jobGroup);
     
     List<ScheduledJob> findByScheduledTimeBeforeAndIsCompletedFalse(LocalDateTime currentTime);
     
     List<ScheduledJob> findByIsRecurringTrueAndIsCompletedFalse();
     
     Optional<ScheduledJob> findByNotificationIdAndIsCompleted(Long notificationId, Boolean isCompleted);
+
+    Optional<ScheduledJob> findByBatchIdAndIsCompleted(String batchId, Boolean isCompleted);
+
+    // Keyset page of pending jobs, used to reconcile the table with the Quartz store
+    List<ScheduledJob> findByIsCompletedFalseAndIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    
+    // Misfire backlog: pending notification jobs that were due before the cutoff, one priority at a
+    // time, keyset-paged on (scheduledTime, id) so each priority drains in original due order
+    @Query("SELECT j FROM ScheduledJob j JOIN j.notification n WHERE j.jobGroup = :jobGroup AND j.isCompleted = false " +
+           "AND j.scheduledTime < :dueBefore AND n.status = :status AND n.priority = :priority " +
+           "AND (j.scheduledTime > :afterTime OR (j.scheduledTime = :afterTime AND j.id > :afterId)) " +
+           "ORDER BY j.scheduledTime, j.id")
+    List<ScheduledJob> findMisfireBacklog(@Param("jobGroup") String jobGroup,
+                                          @Param("dueBefore") LocalDateTime dueBefore,
+                                          @Param("status") NotificationStatus status,
+                                          @Param("priority") Priority priority,
+                                          @Param("afterTime") LocalDateTime afterTime,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    @Query("SELECT COUNT(j) FROM ScheduledJob j JOIN j.notification n WHERE j.jobGroup = :jobGroup " +
+           "AND j.isCompleted = false AND j.scheduledTime < :dueBefore AND n.status = :status")
+    long countMisfireBacklog(@Param("jobGroup") String jobGroup,
+                             @Param("dueBefore") LocalDateTime dueBefore,
+                             @Param("status") NotificationStatus status);
     
     void deleteByJobKeyAndJobGroup(String jobKey, String jobGroup);
-}
\ No newline at end of file
+
+    // Retention: completed rows last touched before the cutoff, keyset-paged on (updatedAt, id)
+    @Query("SELECT j FROM ScheduledJob j WHERE j.isCompleted = true AND j.updatedAt < :cutoff " +
+           "AND (j.updatedAt > :afterTime OR (j.updatedAt = :afterTime AND j.id > :afterId)) ORDER BY j.updatedAt, j.id")
+    List<ScheduledJob> findCompletedBefore(@Param("cutoff") LocalDateTime cutoff,
+                                           @Param("afterTime") LocalDateTime afterTime,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ScheduledJob j WHERE j.id IN :ids AND j.isCompleted = true")
+    int deleteCompletedByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Job rows of notifications about to be deleted, which would otherwise block them by foreign key
+    @Modifying
+    @Query("DELETE FROM ScheduledJob j WHERE j.notification.id IN :notificationIds")
+    int deleteByNotificationIdIn(@Param("notificationIds") Collection<Long> notificationIds);
+}
@@ -2,8 +2,13 @@ package com.notification.system.repository;
 
 import com.notification.system.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +21,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.phoneNumber AS phoneNumber, " +
+           "u.deviceToken AS deviceToken, u.timeZone AS timeZone, u.quietHoursStart AS quietHoursStart, " +
+           "u.quietHoursEnd AS quietHoursEnd FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<RecipientView> findRecipientsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.phoneNumber AS phoneNumber, " +
+           "u.deviceToken AS deviceToken, u.timeZone AS timeZone, u.quietHoursStart AS quietHoursStart, " +
+           "u.quietHoursEnd AS quietHoursEnd FROM User u WHERE u.id BETWEEN :fromId AND :toId ORDER BY u.id")
+    List<RecipientView> findRecipientsInRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * The user fields channels need to deliver and quiet hours need to defer, without the password or
+     * preferred channel collection.
+     */
+    interface RecipientView {
+        Long getId();
+        String getUsername();
+        String getEmail();
+        String getPhoneNumber();
+        String getDeviceToken();
+        String getTimeZone();
+        LocalTime getQuietHoursStart();
+        LocalTime getQuietHoursEnd();
+    }
+}
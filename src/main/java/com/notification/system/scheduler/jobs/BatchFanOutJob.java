@@ -0,0 +1,94 @@
+package com.notification.system.scheduler.jobs;
+
+import com.notification.system.model.dto.request.BatchNotificationRequest;
+import com.notification.system.model.dto.response.BatchNotificationResponse;
+import com.notification.system.repository.ScheduledJobRepository;
+import com.notification.system.service.notification.BatchNotificationService;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+
+/**
+ * Fires once for a scheduled batch and fans out to all of its recipients.
+ */
+@Component
+@DisallowConcurrentExecution
+public class BatchFanOutJob implements Job {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchFanOutJob.class);
+
+    @Autowired
+    private BatchNotificationService batchNotificationService;
+
+    @Autowired
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        JobDataMap dataMap = context.getMergedJobDataMap();
+        String batchId = dataMap.getString("batchId");
+        Long scheduledJobId = dataMap.getLong("scheduledJobId");
+
+        logger.info("🕐 Executing scheduled batch job - BatchId: {}, JobId: {}", batchId, scheduledJobId);
+
+        try {
+            BatchNotificationResponse response = batchNotificationService.dispatchScheduledBatch(
+                    batchId, toSettings(dataMap), firedAt(context));
+            markJobCompleted(scheduledJobId, String.format("Sent %d, failed %d",
+                    response.getSuccessCount(), response.getFailureCount()));
+        } catch (Exception e) {
+            logger.error("💥 Error executing scheduled batch job {}: {}", batchId, e.getMessage(), e);
+            markJobCompleted(scheduledJobId, "Job execution failed: " + e.getMessage());
+            throw new JobExecutionException("Failed to execute batch job", e);
+        }
+    }
+
+    static BatchNotificationRequest.BatchSettings toSettings(JobDataMap dataMap) {
+        BatchNotificationRequest.BatchSettings settings = new BatchNotificationRequest.BatchSettings();
+        settings.setBatchSize(dataMap.getInt("batchSize"));
+        settings.setDelayBetweenBatches(dataMap.getLong("delayBetweenBatches"));
+        settings.setParallelProcessing(dataMap.getBoolean("parallelProcessing"));
+        settings.setContinueOnError(dataMap.getBoolean("continueOnError"));
+        if (dataMap.containsKey("maxParallelism")) {
+            settings.setMaxParallelism(dataMap.getInt("maxParallelism"));
+        }
+        if (dataMap.containsKey("deliveryWindowMinutes")) {
+            settings.setDeliveryWindowMinutes(dataMap.getInt("deliveryWindowMinutes"));
+        }
+        if (dataMap.containsKey("maxSendsPerSecond")) {
+            settings.setMaxSendsPerSecond(dataMap.getDouble("maxSendsPerSecond"));
+        }
+        return settings;
+    }
+
+    // A recovered job re-fires with its original fire time, so a delivery window keeps its deadline
+    private static LocalDateTime firedAt(JobExecutionContext context) {
+        Date fireTime = context.getScheduledFireTime() != null ? context.getScheduledFireTime() : context.getFireTime();
+        return LocalDateTime.ofInstant(fireTime.toInstant(), ZoneId.systemDefault());
+    }
+
+    private void markJobCompleted(Long scheduledJobId, String message) {
+        scheduledJobRepository.findById(scheduledJobId).ifPresent(job -> {
+            job.setCompleted(true);
+            job.setUpdatedAt(LocalDateTime.now());
+            if (job.getJobData() == null) {
+                job.setJobData(new HashMap<>());
+            }
+            job.getJobData().put("completionMessage", message);
+            job.getJobData().put("completedAt", LocalDateTime.now().toString());
+            scheduledJobRepository.save(job);
+            logger.info("📋 Marked scheduled batch job {} as completed: {}", scheduledJobId, message);
+        });
+    }
+}
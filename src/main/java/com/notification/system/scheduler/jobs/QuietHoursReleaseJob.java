@@ -0,0 +1,61 @@
+package com.notification.system.scheduler.jobs;
+
+import com.notification.system.repository.ScheduledJobRepository;
+import com.notification.system.service.notification.QuietHoursService;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+
+/**
+ * Fires once per quiet-hours bucket and sends every notification deferred into it.
+ */
+@Component
+@DisallowConcurrentExecution
+public class QuietHoursReleaseJob implements Job {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuietHoursReleaseJob.class);
+
+    @Autowired
+    private QuietHoursService quietHoursService;
+
+    @Autowired
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        JobDataMap dataMap = context.getMergedJobDataMap();
+        LocalDateTime releaseAt = LocalDateTime.parse(dataMap.getString("releaseAt"));
+        Long scheduledJobId = dataMap.getLong("scheduledJobId");
+
+        try {
+            int released = quietHoursService.release(releaseAt);
+            markJobCompleted(scheduledJobId, "Released " + released + " notifications");
+        } catch (Exception e) {
+            // The row stays pending, so the rest of the bucket is released again after a restart
+            logger.error("💥 Error releasing quiet-hours bucket {}: {}", releaseAt, e.getMessage(), e);
+            throw new JobExecutionException("Failed to release quiet-hours bucket", e);
+        }
+    }
+
+    private void markJobCompleted(Long scheduledJobId, String message) {
+        scheduledJobRepository.findById(scheduledJobId).ifPresent(job -> {
+            job.setCompleted(true);
+            job.setUpdatedAt(LocalDateTime.now());
+            if (job.getJobData() == null) {
+                job.setJobData(new HashMap<>());
+            }
+            job.getJobData().put("completionMessage", message);
+            job.getJobData().put("completedAt", LocalDateTime.now().toString());
+            scheduledJobRepository.save(job);
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.notification.system.scheduler.jobs;
+
+import com.notification.system.model.dto.response.NotificationResponse;
+import com.notification.system.model.entity.ScheduledJob;
+import com.notification.system.repository.ScheduledJobRepository;
+import com.notification.system.service.notification.NotificationService;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Optional;
+
+/**
+ * Fires on every slot of a recurring notification's cron trigger and creates that occurrence.
+ */
+@Component
+@DisallowConcurrentExecution
+public class RecurringNotificationJob implements Job {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurringNotificationJob.class);
+
+    @Autowired
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        Long scheduledJobId = context.getJobDetail().getJobDataMap().getLong("scheduledJobId");
+        Optional<ScheduledJob> template = scheduledJobRepository.findById(scheduledJobId);
+        if (template.isEmpty() || template.get().isCompleted()) {
+            logger.warn("⚠️ Recurring notification {} is gone or cancelled, removing its trigger", scheduledJobId);
+            try {
+                context.getScheduler().deleteJob(context.getJobDetail().getKey());
+            } catch (Exception e) {
+                logger.error("❌ Failed to remove trigger of recurring notification {}: {}", scheduledJobId, e.getMessage());
+            }
+            return;
+        }
+
+        ScheduledJob job = template.get();
+        LocalDateTime occurrenceAt = toUtc(context.getScheduledFireTime() != null ? context.getScheduledFireTime() : context.getFireTime());
+        logger.info("🔁 Executing recurring notification {} for occurrence {} (UTC)", scheduledJobId, occurrenceAt);
+
+        try {
+            NotificationResponse occurrence = notificationService.sendRecurringOccurrence(job, occurrenceAt);
+            recordOccurrence(job, occurrenceAt, context.getNextFireTime(), occurrence.getId());
+        } catch (Exception e) {
+            logger.error("💥 Error executing recurring notification {}: {}", scheduledJobId, e.getMessage(), e);
+            recordOccurrence(job, occurrenceAt, context.getNextFireTime(), null);
+            throw new JobExecutionException("Failed to execute recurring notification", e);
+        }
+    }
+
+    private void recordOccurrence(ScheduledJob job, LocalDateTime occurrenceAt, Date nextFireTime, Long notificationId) {
+        if (job.getJobData() == null) {
+            job.setJobData(new HashMap<>());
+        }
+        job.getJobData().merge("occurrences", 1, (count, one) -> ((Number) count).longValue() + 1);
+        job.getJobData().put("lastFiredAt", occurrenceAt.toString());
+        job.getJobData().put("lastNotificationId", notificationId);
+        if (nextFireTime != null) {
+            job.setScheduledTime(toUtc(nextFireTime));
+        } else {
+            // The cron expression has no further slots (e.g. a year-bounded expression)
+            job.setCompleted(true);
+            job.getJobData().put("completionMessage", "No further occurrences");
+        }
+        job.setUpdatedAt(LocalDateTime.now());
+        scheduledJobRepository.save(job);
+    }
+
+    private static LocalDateTime toUtc(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneOffset.UTC);
+    }
+}
@@ -19,8 +19,10 @@ public class PushChannel implements NotificationChannel {
             // Simulate push notification processing time
             Thread.sleep(100);
             
-            // Generate a mock device token
-            String deviceToken = "device_" + UUID.randomUUID().toString().substring(0, 8);
+            // Use the registered device token, falling back to a mock one
+            String deviceToken = notification.getUser().getDeviceToken() != null
+                    ? notification.getUser().getDeviceToken()
+                    : "device_" + UUID.randomUUID().toString().substring(0, 8);
             
             // Log detailed push notification information
             System.out.println("\n" + "=".repeat(60));
@@ -0,0 +1,212 @@
+package com.notification.system.service.idempotency;
+
+import com.notification.system.model.dto.event.NotificationEvent;
+import com.notification.system.model.entity.ProcessedEvent;
+import com.notification.system.repository.ProcessedEventRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency layer for the Kafka consumers. Before sending, a consumer claims the event with
+ * one atomic insert into the TTL-bounded {@code processed_events} table, so of two redeliveries
+ * racing after a rebalance only one sends. The same statement refuses the claim while another
+ * event for the same notification is processed or claimed, which catches republished
+ * notifications. A claim left behind by a crashed node expires after
+ * {@code claim-timeout-seconds} and can be taken over.
+ * <p>
+ * The two rotating bloom filter generations are only a read optimization: an event the filter
+ * has seen is checked against the table first, so a confirmed duplicate is skipped without a
+ * write. Every other event still needs the claim write, since that is what makes it exactly-once.
+ */
+@Service
+@ConditionalOnExpression("${notification.kafka.enabled:false} and ${notification.kafka.idempotency.enabled:true}")
+public class EventDeduplicationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventDeduplicationService.class);
+    private static final int SYNC_PAGE_SIZE = 1000;
+
+    public enum Claim {
+        CLAIMED,
+        DUPLICATE,
+        // Claimed by another consumer that has not finished yet
+        IN_FLIGHT
+    }
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @Value("${notification.kafka.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${notification.kafka.idempotency.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${notification.kafka.idempotency.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${notification.kafka.idempotency.sync-interval-ms:5000}")
+    private long syncIntervalMs;
+
+    @Value("${notification.kafka.idempotency.claim-timeout-seconds:300}")
+    private long claimTimeoutSeconds = 300;
+
+    // Each generation lives for one TTL, so a key stays visible for at least the TTL
+    private volatile BloomFilter currentGeneration;
+    private volatile BloomFilter previousGeneration;
+    private volatile LocalDateTime generationStartedAt;
+    private volatile LocalDateTime lastSyncAt;
+
+    @PostConstruct
+    public void init() {
+        currentGeneration = newFilter();
+        previousGeneration = newFilter();
+        generationStartedAt = LocalDateTime.now();
+        LocalDateTime warmFrom = generationStartedAt.minusHours(ttlHours);
+        int loaded = loadProcessedSince(warmFrom);
+        lastSyncAt = generationStartedAt;
+        logger.info("🧮 Idempotency filter warmed with {} processed events ({} bits, {} hashes)",
+                   loaded, currentGeneration.getBitCount(), currentGeneration.getHashFunctions());
+    }
+
+    public boolean isDuplicate(NotificationEvent event) {
+        String eventKey = eventKey(event);
+        String notificationKey = notificationKey(event);
+
+        if (!mightContain(eventKey) && (notificationKey == null || !mightContain(notificationKey))) {
+            return false;
+        }
+
+        boolean duplicate = processedEventRepository.existsActive(
+                event.getEventId(), event.getNotificationId(), LocalDateTime.now());
+        if (!duplicate) {
+            logger.debug("🎲 Idempotency filter false positive for event: {}", event.getEventId());
+        }
+        return duplicate;
+    }
+
+    /**
+     * Claims the event for this consumer. Only {@link Claim#CLAIMED} may go on to send; it must
+     * then be followed by {@link #markProcessed} or, if the send failed, {@link #release}.
+     */
+    public Claim claim(NotificationEvent event) {
+        if (event.getEventId() == null) {
+            return Claim.CLAIMED;
+        }
+        // Only a confirmed processed event is skipped before the claim; the claim does the rest
+        if (isDuplicate(event)) {
+            return Claim.DUPLICATE;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (processedEventRepository.claim(event.getEventId(), event.getNotificationId(), now,
+                now.plusSeconds(claimTimeoutSeconds)) == 1) {
+            return Claim.CLAIMED;
+        }
+        // Lost to this event's or this notification's other claim: a duplicate once that one has finished
+        return processedEventRepository.existsActive(event.getEventId(), event.getNotificationId(), now)
+                ? Claim.DUPLICATE
+                : Claim.IN_FLIGHT;
+    }
+
+    public void release(NotificationEvent event) {
+        if (event.getEventId() != null) {
+            processedEventRepository.releaseClaim(event.getEventId());
+        }
+    }
+
+    public void markProcessed(NotificationEvent event) {
+        if (event.getEventId() == null) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            if (processedEventRepository.complete(event.getEventId(), now, now.plusHours(ttlHours)) == 0) {
+                processedEventRepository.save(new ProcessedEvent(
+                        event.getEventId(), event.getNotificationId(), now, now.plusHours(ttlHours)));
+            }
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("⚠️ Event {} was already recorded as processed", event.getEventId());
+        }
+        remember(event.getEventId(), event.getNotificationId());
+    }
+
+    // Pull in keys recorded by other nodes so a partition rebalance does not bypass the filter
+    @Scheduled(fixedDelayString = "${notification.kafka.idempotency.sync-interval-ms:5000}")
+    public void syncFromStore() {
+        LocalDateTime syncStartedAt = LocalDateTime.now();
+        int loaded = loadProcessedSince(lastSyncAt.minus(Duration.ofMillis(syncIntervalMs * 2)));
+        lastSyncAt = syncStartedAt;
+        if (loaded > 0) {
+            logger.debug("🔄 Synced {} processed events into idempotency filter", loaded);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.kafka.idempotency.cleanup-interval-ms:600000}")
+    public void rotateAndCleanup() {
+        LocalDateTime now = LocalDateTime.now();
+        if (generationStartedAt.plusHours(ttlHours).isBefore(now)) {
+            previousGeneration = currentGeneration;
+            currentGeneration = newFilter();
+            generationStartedAt = now;
+            logger.info("🔁 Rotated idempotency filter generation");
+        }
+
+        int deleted = processedEventRepository.deleteExpired(now);
+        if (deleted > 0) {
+            logger.info("🧹 Removed {} expired processed events", deleted);
+        }
+    }
+
+    private int loadProcessedSince(LocalDateTime since) {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, SYNC_PAGE_SIZE, Sort.by("processedAt"));
+        int loaded = 0;
+        Slice<ProcessedEvent> slice;
+        do {
+            slice = processedEventRepository.findByProcessedAtAfterAndExpiresAtAfter(since, now, page);
+            for (ProcessedEvent processed : slice) {
+                remember(processed.getEventId(), processed.getNotificationId());
+                loaded++;
+            }
+            page = page.next();
+        } while (slice.hasNext());
+        return loaded;
+    }
+
+    private void remember(String eventId, Long notificationId) {
+        currentGeneration.put("e:" + eventId);
+        if (notificationId != null) {
+            currentGeneration.put("n:" + notificationId);
+        }
+    }
+
+    private boolean mightContain(String key) {
+        return currentGeneration.mightContain(key) || previousGeneration.mightContain(key);
+    }
+
+    private String eventKey(NotificationEvent event) {
+        return "e:" + event.getEventId();
+    }
+
+    private String notificationKey(NotificationEvent event) {
+        return event.getNotificationId() != null ? "n:" + event.getNotificationId() : null;
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+}
@@ -0,0 +1,257 @@
+package com.notification.system.service.kafka;
+
+import com.notification.system.config.KafkaConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Polls committed and log-end offsets for the notification consumer groups, publishes
+ * per-partition lag gauges and derives a scale-out recommendation from lag growth.
+ */
+@Service
+@ConditionalOnExpression("${notification.kafka.enabled:false} and ${notification.kafka.monitoring.enabled:true}")
+public class ConsumerLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerLagMonitor.class);
+
+    static final List<String> MONITORED_GROUPS = List.of(
+            KafkaConfig.NOTIFICATION_GROUP,
+            KafkaConfig.NOTIFICATION_HIGH_PRIORITY_GROUP,
+            KafkaConfig.NOTIFICATION_RETRY_GROUP
+    );
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notification.kafka.monitoring.target-drain-seconds:60}")
+    private long targetDrainSeconds;
+
+    @Value("${notification.kafka.monitoring.request-timeout-ms:5000}")
+    private long requestTimeoutMs;
+
+    private volatile AdminClient adminClient;
+
+    private final Map<String, AtomicLong> partitionLagGauges = new ConcurrentHashMap<>();
+    private final Map<String, GroupSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${notification.kafka.monitoring.poll-interval-ms:15000}",
+               initialDelayString = "${notification.kafka.monitoring.poll-interval-ms:15000}")
+    public void pollConsumerLag() {
+        for (String group : MONITORED_GROUPS) {
+            try {
+                pollGroup(group);
+            } catch (Exception e) {
+                logger.warn("⚠️ Unable to read consumer lag for group {}: {}", group, e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, GroupSnapshot> getSnapshots() {
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    private void pollGroup(String group) throws Exception {
+        AdminClient admin = admin();
+        Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(group)
+                .partitionsToOffsetAndMetadata()
+                .get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        if (committed.isEmpty()) {
+            return;
+        }
+
+        Map<TopicPartition, OffsetSpec> latestSpec = committed.keySet().stream()
+                .collect(Collectors.toMap(tp -> tp, tp -> OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = admin.listOffsets(latestSpec)
+                .all()
+                .get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+
+        ConsumerGroupDescription description = admin.describeConsumerGroups(List.of(group))
+                .describedGroups()
+                .get(group)
+                .get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+
+        long totalLag = 0;
+        long totalCommitted = 0;
+        long totalEnd = 0;
+        for (Map.Entry<TopicPartition, OffsetAndMetadata> entry : committed.entrySet()) {
+            TopicPartition tp = entry.getKey();
+            if (entry.getValue() == null || !endOffsets.containsKey(tp)) {
+                continue;
+            }
+            long committedOffset = entry.getValue().offset();
+            long endOffset = endOffsets.get(tp).offset();
+            long lag = Math.max(0, endOffset - committedOffset);
+
+            partitionLagGauge(group, tp).set(lag);
+            totalLag += lag;
+            totalCommitted += committedOffset;
+            totalEnd += endOffset;
+        }
+
+        long now = System.currentTimeMillis();
+        int partitions = committed.size();
+        int members = description.members().size();
+        GroupSnapshot previous = snapshots.get(group);
+        GroupSnapshot current = new GroupSnapshot(group, now, totalLag, totalCommitted, totalEnd, partitions, members);
+
+        if (previous != null && now > previous.getTimestamp()) {
+            double elapsedSeconds = (now - previous.getTimestamp()) / 1000.0;
+            current.consumedPerSecond = Math.max(0, (totalCommitted - previous.getCommittedOffsets()) / elapsedSeconds);
+            current.producedPerSecond = Math.max(0, (totalEnd - previous.getEndOffsets()) / elapsedSeconds);
+            current.lagGrowthPerSecond = (totalLag - previous.getTotalLag()) / elapsedSeconds;
+            current.requiredConsumers = calculateRequiredConsumers(current.producedPerSecond,
+                    current.consumedPerSecond, totalLag, members, partitions, targetDrainSeconds);
+        } else {
+            current.requiredConsumers = Math.max(1, members);
+        }
+
+        if (previous == null) {
+            registerGroupGauges(group);
+        }
+        snapshots.put(group, current);
+
+        if (current.requiredConsumers > members) {
+            logger.warn("📈 Consumer group {} is falling behind: lag={}, growth={}/s, consumers={}, recommended={}",
+                       group, totalLag, String.format("%.1f", current.lagGrowthPerSecond), members, current.requiredConsumers);
+        }
+    }
+
+    /**
+     * Consumers needed to keep up with the arrival rate and drain the existing backlog
+     * within the target window, bounded by the partition count (extra consumers sit idle).
+     */
+    static int calculateRequiredConsumers(double producedPerSecond, double consumedPerSecond, long totalLag,
+                                          int members, int partitions, long targetDrainSeconds) {
+        int activeConsumers = Math.max(1, members);
+        if (consumedPerSecond <= 0) {
+            // No throughput sample yet; only recommend more when a backlog is building up
+            return totalLag > 0 ? Math.min(Math.max(1, partitions), activeConsumers + 1) : activeConsumers;
+        }
+
+        double perConsumerRate = consumedPerSecond / activeConsumers;
+        double requiredRate = producedPerSecond + (double) totalLag / Math.max(1, targetDrainSeconds);
+        int required = (int) Math.ceil(requiredRate / perConsumerRate);
+        return Math.max(1, Math.min(Math.max(1, partitions), required));
+    }
+
+    private AtomicLong partitionLagGauge(String group, TopicPartition tp) {
+        String key = group + "|" + tp.topic() + "|" + tp.partition();
+        return partitionLagGauges.computeIfAbsent(key, k -> {
+            AtomicLong holder = new AtomicLong();
+            Gauge.builder("notification.kafka.consumer.lag", holder, AtomicLong::get)
+                    .description("Records between the committed offset and the log end")
+                    .tag("group", group)
+                    .tag("topic", tp.topic())
+                    .tag("partition", String.valueOf(tp.partition()))
+                    .register(meterRegistry);
+            return holder;
+        });
+    }
+
+    private void registerGroupGauges(String group) {
+        Gauge.builder("notification.kafka.consumer.lag.total", snapshots, s -> value(s, group, GroupSnapshot::getTotalLag))
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("notification.kafka.consumer.records.rate", snapshots, s -> value(s, group, GroupSnapshot::getConsumedPerSecond))
+                .description("Records committed per second")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("notification.kafka.consumer.lag.growth", snapshots, s -> value(s, group, GroupSnapshot::getLagGrowthPerSecond))
+                .description("Change in total lag per second")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("notification.kafka.consumer.members", snapshots, s -> value(s, group, GroupSnapshot::getMembers))
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("notification.kafka.consumer.required", snapshots, s -> value(s, group, GroupSnapshot::getRequiredConsumers))
+                .description("Recommended consumer count to keep up and drain the backlog")
+                .tag("group", group)
+                .register(meterRegistry);
+    }
+
+    private static double value(Map<String, GroupSnapshot> snapshots, String group,
+                                ToDoubleFunction<GroupSnapshot> extractor) {
+        GroupSnapshot snapshot = snapshots.get(group);
+        return snapshot != null ? extractor.applyAsDouble(snapshot) : 0.0;
+    }
+
+    private AdminClient admin() {
+        if (adminClient == null) {
+            synchronized (this) {
+                if (adminClient == null) {
+                    adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+                }
+            }
+        }
+        return adminClient;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+
+    public static class GroupSnapshot {
+        private final String group;
+        private final long timestamp;
+        private final long totalLag;
+        private final long committedOffsets;
+        private final long endOffsets;
+        private final int partitions;
+        private final int members;
+        private double consumedPerSecond;
+        private double producedPerSecond;
+        private double lagGrowthPerSecond;
+        private int requiredConsumers;
+
+        GroupSnapshot(String group, long timestamp, long totalLag, long committedOffsets, long endOffsets,
+                      int partitions, int members) {
+            this.group = group;
+            this.timestamp = timestamp;
+            this.totalLag = totalLag;
+            this.committedOffsets = committedOffsets;
+            this.endOffsets = endOffsets;
+            this.partitions = partitions;
+            this.members = members;
+        }
+
+        public String getGroup() { return group; }
+        public long getTimestamp() { return timestamp; }
+        public long getTotalLag() { return totalLag; }
+        public long getCommittedOffsets() { return committedOffsets; }
+        public long getEndOffsets() { return endOffsets; }
+        public int getPartitions() { return partitions; }
+        public int getMembers() { return members; }
+        public double getConsumedPerSecond() { return consumedPerSecond; }
+        public double getProducedPerSecond() { return producedPerSecond; }
+        public double getLagGrowthPerSecond() { return lagGrowthPerSecond; }
+        public int getRequiredConsumers() { return requiredConsumers; }
+    }
+}
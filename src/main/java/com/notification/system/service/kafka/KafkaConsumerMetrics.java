@@ -0,0 +1,53 @@
+package com.notification.system.service.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Named explicitly: Spring Boot's Kafka metrics auto-configuration already defines a "kafkaConsumerMetrics" bean
+@Component("notificationKafkaConsumerMetrics")
+@ConditionalOnProperty(name = "notification.kafka.enabled", havingValue = "true")
+public class KafkaConsumerMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> processingTimers = new ConcurrentHashMap<>();
+    private final Counter retryInflow;
+    private final Counter dlqInflow;
+
+    @Autowired
+    public KafkaConsumerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.retryInflow = Counter.builder("notification.kafka.retry.inflow")
+                .description("Events arriving on retry topics")
+                .register(meterRegistry);
+        this.dlqInflow = Counter.builder("notification.kafka.dlq.inflow")
+                .description("Events arriving on the dead letter topic")
+                .register(meterRegistry);
+    }
+
+    public void recordProcessed(String group, long startNanos, boolean success) {
+        String outcome = success ? "success" : "failure";
+        processingTimers.computeIfAbsent(group + ":" + outcome, key -> Timer.builder("notification.kafka.consumer.processing")
+                        .description("Per-record processing time; the count gives records consumed")
+                        .tag("group", group)
+                        .tag("outcome", outcome)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRetryInflow() {
+        retryInflow.increment();
+    }
+
+    public void recordDlqInflow() {
+        dlqInflow.increment();
+    }
+}
@@ -4,10 +4,12 @@ import com.notification.system.config.KafkaConfig;
 import com.notification.system.model.dto.event.NotificationEvent;
 import com.notification.system.model.entity.Notification;
 import com.notification.system.repository.NotificationRepository;
+import com.notification.system.service.idempotency.EventDeduplicationService;
 import com.notification.system.service.notification.NotificationProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.annotation.RetryableTopic;
@@ -37,7 +39,16 @@ public class NotificationEventConsumer {
     @Autowired(required = false)
     private NotificationEventProducer eventProducer;
 
-    @KafkaListener(topics = KafkaConfig.NOTIFICATION_TOPIC, groupId = "notification-service")
+    @Autowired(required = false)
+    private EventDeduplicationService deduplicationService;
+
+    @Autowired
+    private KafkaConsumerMetrics consumerMetrics;
+
+    @Value("${notification.kafka.event-carried-state.enabled:false}")
+    private boolean eventCarriedState;
+
+    @KafkaListener(topics = KafkaConfig.NOTIFICATION_TOPIC, groupId = KafkaConfig.NOTIFICATION_GROUP)
     @RetryableTopic(
             attempts = "3",
             backoff = @Backoff(delay = 1000, multiplier = 2.0),
@@ -53,11 +64,18 @@ public class NotificationEventConsumer {
         
         logger.info("📥 Received notification event from topic: {} - Event: {}", topic, event.getEventId());
         
+        if (!KafkaConfig.NOTIFICATION_TOPIC.equals(topic)) {
+            consumerMetrics.recordRetryInflow();
+        }
+        
+        long startNanos = System.nanoTime();
         try {
             processNotificationEvent(event);
+            consumerMetrics.recordProcessed(KafkaConfig.NOTIFICATION_GROUP, startNanos, true);
             logger.info("✅ Successfully processed event: {}", event.getEventId());
             
         } catch (Exception e) {
+            consumerMetrics.recordProcessed(KafkaConfig.NOTIFICATION_GROUP, startNanos, false);
             logger.error("❌ Error processing notification event {}: {}", 
                         event.getEventId(), e.getMessage(), e);
             
@@ -66,7 +84,7 @@ public class NotificationEventConsumer {
         }
     }
 
-    @KafkaListener(topics = KafkaConfig.NOTIFICATION_HIGH_PRIORITY_TOPIC, groupId = "notification-service-high-priority")
+    @KafkaListener(topics = KafkaConfig.NOTIFICATION_HIGH_PRIORITY_TOPIC, groupId = KafkaConfig.NOTIFICATION_HIGH_PRIORITY_GROUP)
     @RetryableTopic(
             attempts = "3",
             backoff = @Backoff(delay = 500, multiplier = 2.0),
@@ -80,11 +98,18 @@ public class NotificationEventConsumer {
         logger.info("🔥 Received HIGH PRIORITY notification event from topic: {} - Event: {}", 
                    topic, event.getEventId());
         
+        if (!KafkaConfig.NOTIFICATION_HIGH_PRIORITY_TOPIC.equals(topic)) {
+            consumerMetrics.recordRetryInflow();
+        }
+        
+        long startNanos = System.nanoTime();
         try {
             processNotificationEvent(event);
+            consumerMetrics.recordProcessed(KafkaConfig.NOTIFICATION_HIGH_PRIORITY_GROUP, startNanos, true);
             logger.info("✅ Successfully processed high priority event: {}", event.getEventId());
             
         } catch (Exception e) {
+            consumerMetrics.recordProcessed(KafkaConfig.NOTIFICATION_HIGH_PRIORITY_GROUP, startNanos, false);
             logger.error("❌ Error processing high priority notification event {}: {}", 
                         event.getEventId(), e.getMessage(), e);
             
@@ -93,12 +118,14 @@ public class NotificationEventConsumer {
         }
     }
 
-    @KafkaListener(topics = KafkaConfig.NOTIFICATION_RETRY_TOPIC, groupId = "notification-service-retry")
+    @KafkaListener(topics = KafkaConfig.NOTIFICATION_RETRY_TOPIC, groupId = KafkaConfig.NOTIFICATION_RETRY_GROUP)
     public void consumeRetryNotificationEvent(@Payload NotificationEvent event) {
         
         logger.info("🔄 Received RETRY notification event - Event: {} (Retry count: {})", 
                    event.getEventId(), event.getRetryCount());
         
+        consumerMetrics.recordRetryInflow();
+        
         if (event.getRetryCount() >= MAX_RETRY_ATTEMPTS) {
             logger.warn("⚠️ Max retry attempts reached for event: {}, sending to DLQ", event.getEventId());
             if (eventProducer != null) {
@@ -107,11 +134,14 @@ public class NotificationEventConsumer {
             return;
         }
         
+        long startNanos = System.nanoTime();
         try {
             processNotificationEvent(event);
+            consumerMetrics.recordProcessed(KafkaConfig.NOTIFICATION_RETRY_GROUP, startNanos, true);
             logger.info("✅ Successfully processed retry event: {}", event.getEventId());
             
         } catch (Exception e) {
+            consumerMetrics.recordProcessed(KafkaConfig.NOTIFICATION_RETRY_GROUP, startNanos, false);
             logger.error("❌ Error processing retry notification event {}: {}", 
                         event.getEventId(), e.getMessage(), e);
             
@@ -120,13 +150,15 @@ public class NotificationEventConsumer {
         }
     }
 
-    @KafkaListener(topics = KafkaConfig.NOTIFICATION_DLQ_TOPIC, groupId = "notification-service-dlq")
+    @KafkaListener(topics = KafkaConfig.NOTIFICATION_DLQ_TOPIC, groupId = KafkaConfig.NOTIFICATION_DLQ_GROUP)
     public void consumeDlqNotificationEvent(@Payload NotificationEvent event) {
         
         logger.warn("💀 Received DLQ notification event - Event: {} - Reason: {}", 
                    event.getEventId(), 
                    event.getMetadata() != null ? event.getMetadata().get("dlq_reason") : "Unknown");
         
+        consumerMetrics.recordDlqInflow();
+        
         // For DLQ events, we can implement alerting, logging to external systems, etc.
         // Message is automatically acknowledged for DLQ processing
     }
@@ -135,23 +167,54 @@ public class NotificationEventConsumer {
         logger.info("🔄 Processing notification event: {} for user: {}", 
                    event.getEventId(), event.getUserId());
 
-        Optional<Notification> notificationOpt = notificationRepository.findByIdWithUser(event.getNotificationId());
-        
-        if (notificationOpt.isEmpty()) {
-            logger.error("❌ Notification not found for event: {} - ID: {}", 
-                        event.getEventId(), event.getNotificationId());
-            throw new RuntimeException("Notification not found: " + event.getNotificationId());
+        if (deduplicationService != null) {
+            EventDeduplicationService.Claim claim = deduplicationService.claim(event);
+            if (claim == EventDeduplicationService.Claim.DUPLICATE) {
+                logger.info("♻️ Skipping already processed event: {} (notification: {})",
+                           event.getEventId(), event.getNotificationId());
+                return;
+            }
+            if (claim == EventDeduplicationService.Claim.IN_FLIGHT) {
+                // Retried later, by when the other consumer has finished or its claim has expired
+                throw new IllegalStateException("Event " + event.getEventId() + " is being processed by another consumer");
+            }
         }
 
-        Notification notification = notificationOpt.get();
+        try {
+            deliver(event);
+        } catch (RuntimeException e) {
+            if (deduplicationService != null) {
+                deduplicationService.release(event);
+            }
+            throw e;
+        }
+
+        if (deduplicationService != null) {
+            deduplicationService.markProcessed(event);
+        }
         
-        boolean success = notificationProcessor.processNotification(notification);
+        logger.info("✅ Successfully processed notification event: {}", event.getEventId());
+    }
+
+    private void deliver(NotificationEvent event) {
+        boolean success;
+        if (eventCarriedState && event.isCarriesRecipientState()) {
+            success = notificationProcessor.processNotificationEvent(event);
+        } else {
+            Optional<Notification> notificationOpt = notificationRepository.findByIdWithUser(event.getNotificationId());
+            
+            if (notificationOpt.isEmpty()) {
+                logger.error("❌ Notification not found for event: {} - ID: {}", 
+                            event.getEventId(), event.getNotificationId());
+                throw new RuntimeException("Notification not found: " + event.getNotificationId());
+            }
+
+            success = notificationProcessor.processNotification(notificationOpt.get());
+        }
         
         if (!success) {
             throw new RuntimeException("Failed to process notification: " + event.getNotificationId());
         }
-        
-        logger.info("✅ Successfully processed notification event: {}", event.getEventId());
     }
 
     private void handleEventProcessingError(NotificationEvent event, Exception error) {
@@ -0,0 +1,300 @@
+package com.notification.system.service.notification;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.notification.system.model.dto.request.BatchNotificationRequest;
+import com.notification.system.model.entity.BatchRun;
+import com.notification.system.model.enums.BatchSource;
+import com.notification.system.model.enums.BatchStatus;
+import com.notification.system.repository.BatchRunRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists batch progress to {@code batch_runs}. Writes run in their own transactions so a
+ * checkpoint is durable as soon as the chunk it describes is done, even when the batch itself
+ * runs inside a caller's transaction. Heartbeats run on their own thread rather than the shared
+ * {@code @Scheduled} one, so a slow scheduled job elsewhere cannot let a running batch go stale.
+ */
+@Service
+public class BatchCheckpointService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchCheckpointService.class);
+
+    static final List<BatchStatus> ACTIVE_STATUSES = List.of(BatchStatus.QUEUED, BatchStatus.PROCESSING, BatchStatus.PAUSED);
+    // Statuses set by cancel and pause, which a progress checkpoint must not overwrite
+    static final List<BatchStatus> HELD_STATUSES = List.of(BatchStatus.CANCELLED, BatchStatus.PAUSED);
+
+    // Heartbeat given to runs released at shutdown so the next scan picks them up straight away
+    private static final LocalDateTime RELEASED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private BatchRunRepository batchRunRepository;
+
+    @Autowired
+    private BatchJobRegistry batchJobRegistry;
+
+    @Autowired
+    private BatchExecutionEngine executionEngine;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notification.batch.checkpoint.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${notification.batch.checkpoint.stale-after-seconds:120}")
+    private long staleAfterSeconds = 120;
+
+    @Value("${notification.batch.checkpoint.heartbeat-interval-ms:30000}")
+    private long heartbeatIntervalMs = 30000;
+
+    private String nodeId;
+    private volatile boolean shuttingDown;
+    private ScheduledExecutorService heartbeatExecutor;
+
+    @PostConstruct
+    public void init() {
+        nodeId = configuredNodeId != null && !configuredNodeId.isBlank() ? configuredNodeId : defaultNodeId();
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("batch-heartbeat-"));
+        heartbeatExecutor.scheduleWithFixedDelay(this::safeHeartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("🪪 Batch checkpoints owned by node {}", nodeId);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (heartbeatExecutor != null) {
+            heartbeatExecutor.shutdownNow();
+            heartbeatExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void start(BatchJob job, BatchSource source, BatchNotificationRequest request) {
+        BatchRun run = new BatchRun(job.getBatchId(), source, job.getStatus(), toJson(request, false), nodeId);
+        copyCounters(job, run);
+        batchRunRepository.save(run);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void checkpoint(BatchJob job) {
+        checkpoint(job, null);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void checkpoint(BatchJob job, Long lastUserId) {
+        BatchRun run = new BatchRun(job.getBatchId(), null, job.getStatus(), null, nodeId);
+        copyCounters(job, run);
+        run.setLastUserId(lastUserId);
+        if (batchRunRepository.saveProgress(run, HELD_STATUSES) == 0) {
+            logger.warn("⚠️ Checkpoint for batch {} skipped: run is no longer owned by {}", job.getBatchId(), nodeId);
+        }
+    }
+
+    /**
+     * Once a batch's notifications are persisted they are the source of truth, so the stored
+     * request no longer needs its (possibly huge) recipient list.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recipientsPersisted(String batchId, BatchNotificationRequest request) {
+        batchRunRepository.findById(batchId).ifPresent(run -> {
+            run.setRequest(toJson(request, true));
+            batchRunRepository.save(run);
+        });
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void finish(BatchJob job) {
+        Optional<BatchRun> existing = batchRunRepository.findById(job.getBatchId());
+        if (existing.isEmpty() || !nodeId.equals(existing.get().getOwner())) {
+            return;
+        }
+
+        BatchRun run = existing.get();
+        copyCounters(job, run);
+        if (shuttingDown && job.getStatus() == BatchStatus.FAILED) {
+            // Interrupted by shutdown rather than failed: leave it resumable
+            run.setStatus(BatchStatus.PROCESSING);
+            run.setHeartbeatAt(RELEASED);
+            logger.info("⏸️ Released batch {} at record {} for resumption", job.getBatchId(), job.getCursor());
+        } else {
+            run.setStatus(job.getStatus());
+            run.setErrorMessage(job.getErrorMessage());
+            run.setCompletedAt(job.getCompletedAt());
+            run.setRequest(null);
+        }
+        batchRunRepository.save(run);
+    }
+
+    /**
+     * Persists a cancel. Recovery only claims active runs, so a cancelled run is never resumed, and
+     * its owner stops it on its next heartbeat even if the cancel was received by another node.
+     */
+    public boolean markCancelled(String batchId) {
+        return batchRunRepository.transitionStatus(batchId, ACTIVE_STATUSES, BatchStatus.CANCELLED, LocalDateTime.now()) == 1;
+    }
+
+    public boolean markPaused(String batchId) {
+        return batchRunRepository.transitionStatus(batchId, List.of(BatchStatus.QUEUED, BatchStatus.PROCESSING),
+                BatchStatus.PAUSED, LocalDateTime.now()) == 1;
+    }
+
+    public boolean markResumed(String batchId) {
+        return batchRunRepository.transitionStatus(batchId, List.of(BatchStatus.PAUSED),
+                BatchStatus.PROCESSING, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * Refreshes the heartbeat of every batch running on this node, then applies any cancel, pause
+     * or resume stored for them since. The repository calls are their own transactions, so this is
+     * safe to call from the heartbeat thread without the proxy.
+     */
+    public void heartbeat() {
+        List<String> active = batchJobRegistry.activeBatchIds();
+        if (active.isEmpty()) {
+            return;
+        }
+        batchRunRepository.heartbeat(nodeId, active, LocalDateTime.now());
+        for (BatchRunRepository.RunState state : batchRunRepository.findStates(nodeId, active)) {
+            batchJobRegistry.find(state.getBatchId()).ifPresent(job -> applyStoredStatus(job, state.getStatus()));
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        shuttingDown = true;
+    }
+
+    @Transactional(readOnly = true)
+    public List<BatchRun> findAbandoned() {
+        return batchRunRepository.findByStatusInAndHeartbeatAtBefore(ACTIVE_STATUSES,
+                LocalDateTime.now().minusSeconds(staleAfterSeconds));
+    }
+
+    /**
+     * Takes over a stale run. A run still executing here is never claimed, even if its heartbeat
+     * lapsed: resuming it would send its remaining recipients a second time.
+     */
+    @Transactional
+    public boolean claim(String batchId) {
+        if (batchJobRegistry.find(batchId).filter(job -> !job.isFinished()).isPresent()) {
+            logger.warn("⚠️ Batch {} has a stale heartbeat but is still running on {}; not reclaiming it", batchId, nodeId);
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return batchRunRepository.claim(batchId, nodeId, now, now.minusSeconds(staleAfterSeconds), ACTIVE_STATUSES) == 1;
+    }
+
+    /**
+     * Rebuilds the progress of a persisted run, e.g. to resume an upload after a restart.
+     * The job is returned finished unless the run is still active.
+     */
+    @Transactional(readOnly = true)
+    public Optional<BatchJob> loadJob(String batchId) {
+        return batchRunRepository.findById(batchId).map(run -> {
+            BatchJob job = toJob(run);
+            if (!ACTIVE_STATUSES.contains(run.getStatus())) {
+                job.fail(run.getErrorMessage());
+            }
+            return job;
+        });
+    }
+
+    public BatchJob toJob(BatchRun run) {
+        BatchJob job = new BatchJob(run.getBatchId(), run.getTotalUsers(), false);
+        job.restore(run.getCreatedAt(), run.getTotalUsers(), run.getSuccessCount(), run.getFailureCount(),
+                    run.getTotalBatches(), run.getProcessedBatches(), run.getCursorPosition());
+        if (run.getStatus() == BatchStatus.PAUSED) {
+            job.pause(); // A batch paused before the crash stays paused on its new owner
+        }
+        return job;
+    }
+
+    public BatchNotificationRequest readRequest(BatchRun run) {
+        if (run.getRequest() == null) {
+            throw new IllegalStateException("Batch " + run.getBatchId() + " has no stored request");
+        }
+        try {
+            return objectMapper.readValue(run.getRequest(), BatchNotificationRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored request of batch " + run.getBatchId() + " is unreadable", e);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private void applyStoredStatus(BatchJob job, BatchStatus stored) {
+        if (job.isFinished() || job.isCancelRequested()) {
+            return;
+        }
+        if (stored == BatchStatus.CANCELLED) {
+            job.requestCancel();
+            executionEngine.cancel(job.getBatchId(), false);
+            logger.info("🛑 Stopping batch {}: cancelled", job.getBatchId());
+        } else if (stored == BatchStatus.PAUSED && !job.isPaused()) {
+            job.pause();
+            logger.info("⏸️ Paused batch {}", job.getBatchId());
+        } else if (stored == BatchStatus.PROCESSING && job.isPaused()) {
+            job.resume();
+            logger.info("▶️ Resumed batch {}", job.getBatchId());
+        }
+    }
+
+    private void safeHeartbeat() {
+        try {
+            heartbeat();
+        } catch (Exception e) {
+            logger.error("❌ Batch heartbeat failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private String toJson(BatchNotificationRequest request, boolean withoutRecipients) {
+        ObjectNode json = objectMapper.valueToTree(request);
+        if (withoutRecipients) {
+            json.remove("userIds");
+        }
+        return json.toString();
+    }
+
+    private static void copyCounters(BatchJob job, BatchRun run) {
+        run.setTotalUsers(job.getTotalUsers());
+        run.setSuccessCount(job.getSuccessCount());
+        run.setFailureCount(job.getFailureCount());
+        run.setTotalBatches(job.getTotalBatches());
+        run.setProcessedBatches(job.getProcessedBatches());
+        run.setCursorPosition(job.getCursor());
+        run.setHeartbeatAt(LocalDateTime.now());
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,241 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.config.BatchConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the chunks of parallel batch sends on a dedicated worker pool. Each batch gets a
+ * {@link Lane} that admits at most its parallelism limit into the shared pool at a time, so
+ * the pool's FIFO queue interleaves concurrent batches instead of letting one large batch
+ * fill it. The pool size is the global bound.
+ */
+@Component
+public class BatchExecutionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchExecutionEngine.class);
+
+    private final ThreadPoolTaskExecutor workers;
+    private final int maxParallelismPerBatch;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final Timer queueWait;
+    private final Timer taskDuration;
+    private final Counter cancelledTasks;
+
+    @Autowired
+    public BatchExecutionEngine(@Qualifier(BatchConfig.BATCH_WORKER_EXECUTOR) ThreadPoolTaskExecutor workers,
+                                MeterRegistry meterRegistry,
+                                @Value("${notification.batch.engine.max-parallelism-per-batch:4}") int maxParallelismPerBatch) {
+        this.workers = workers;
+        this.maxParallelismPerBatch = Math.max(1, Math.min(maxParallelismPerBatch, workers.getMaxPoolSize()));
+
+        this.queueWait = Timer.builder("notification.batch.engine.queue.wait")
+                .description("Time a batch chunk waits for a worker")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.taskDuration = Timer.builder("notification.batch.engine.task.duration")
+                .description("Time spent processing a batch chunk")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.cancelledTasks = Counter.builder("notification.batch.engine.tasks.cancelled")
+                .description("Batch chunks dropped or interrupted by cancellation")
+                .register(meterRegistry);
+        Gauge.builder("notification.batch.engine.workers.active", workers, ThreadPoolTaskExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("notification.batch.engine.workers.max", workers, ThreadPoolTaskExecutor::getMaxPoolSize)
+                .register(meterRegistry);
+        Gauge.builder("notification.batch.engine.queue.size", workers, w -> w.getThreadPoolExecutor().getQueue().size())
+                .description("Chunks admitted to the worker pool and waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("notification.batch.engine.lanes", lanes, Map::size)
+                .description("Batches currently running on the engine")
+                .register(meterRegistry);
+        Gauge.builder("notification.batch.engine.pending", lanes, l -> l.values().stream().mapToInt(Lane::getPending).sum())
+                .description("Chunks held back by per-batch parallelism limits")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens the lane for a batch. {@code requestedParallelism} may lower the per-batch limit
+     * but never raise it; null uses the configured limit.
+     */
+    public Lane openLane(String batchId, Integer requestedParallelism) {
+        int parallelism = requestedParallelism != null && requestedParallelism > 0
+                ? Math.min(requestedParallelism, maxParallelismPerBatch)
+                : maxParallelismPerBatch;
+        Lane lane = new Lane(batchId, parallelism);
+        if (lanes.putIfAbsent(batchId, lane) != null) {
+            throw new IllegalStateException("Batch already has an open lane: " + batchId);
+        }
+        return lane;
+    }
+
+    /**
+     * Drops the queued chunks of a running batch and interrupts the ones in progress.
+     */
+    public boolean cancel(String batchId) {
+        return cancel(batchId, true);
+    }
+
+    /**
+     * Without interruption, chunks in progress run until their own check of the batch's
+     * cancellation token, so no send is cut off halfway.
+     */
+    public boolean cancel(String batchId, boolean interruptRunning) {
+        Lane lane = lanes.get(batchId);
+        if (lane == null) {
+            return false;
+        }
+        lane.cancel(interruptRunning);
+        return true;
+    }
+
+    public int getMaxParallelismPerBatch() {
+        return maxParallelismPerBatch;
+    }
+
+    public class Lane implements AutoCloseable {
+        private final String batchId;
+        private final int parallelism;
+        private final Deque<Runnable> pending = new ArrayDeque<>();
+        private final Set<FutureTask<Void>> running = new HashSet<>();
+        private boolean cancelled;
+
+        private Lane(String batchId, int parallelism) {
+            this.batchId = batchId;
+            this.parallelism = parallelism;
+        }
+
+        /**
+         * Queues a chunk. Returns false if the lane has already been cancelled.
+         */
+        public boolean submit(Runnable task) {
+            synchronized (this) {
+                if (cancelled) {
+                    return false;
+                }
+                pending.add(task);
+                admit();
+            }
+            return true;
+        }
+
+        /**
+         * Blocks until every submitted chunk has finished or been dropped by cancellation.
+         */
+        public void awaitCompletion() throws InterruptedException {
+            synchronized (this) {
+                while (!running.isEmpty() || !pending.isEmpty()) {
+                    wait();
+                }
+            }
+        }
+
+        /**
+         * Blocks while {@code maxPending} or more chunks are queued behind the running ones, so a
+         * producer cannot get far ahead of the workers. Returns false once the lane is cancelled.
+         */
+        public boolean awaitCapacity(int maxPending) throws InterruptedException {
+            synchronized (this) {
+                while (!cancelled && pending.size() >= maxPending) {
+                    wait();
+                }
+                return !cancelled;
+            }
+        }
+
+        public void cancel(boolean interruptRunning) {
+            synchronized (this) {
+                if (!cancelled) {
+                    logger.info("🛑 Cancelling batch {}: dropping {} queued chunks, {} in progress",
+                               batchId, pending.size(), running.size());
+                }
+                cancelled = true;
+                cancelledTasks.increment(pending.size());
+                pending.clear();
+                if (interruptRunning) {
+                    for (FutureTask<Void> task : new ArrayList<>(running)) {
+                        if (task.cancel(true)) {
+                            cancelledTasks.increment();
+                        }
+                    }
+                }
+                notifyAll();
+            }
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        public synchronized int getPending() {
+            return pending.size();
+        }
+
+        public synchronized int getRunning() {
+            return running.size();
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        @Override
+        public void close() {
+            lanes.remove(batchId, this);
+        }
+
+        // Caller holds the lane lock
+        private void admit() {
+            while (!cancelled && running.size() < parallelism && !pending.isEmpty()) {
+                Runnable task = pending.poll();
+                long queuedAt = System.nanoTime();
+                FutureTask<Void> future = new FutureTask<>(() -> {
+                    queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                    try {
+                        taskDuration.record(task);
+                    } catch (RuntimeException e) {
+                        logger.error("❌ Chunk of batch {} failed: {}", batchId, e.getMessage(), e);
+                        throw e;
+                    }
+                }, null) {
+                    @Override
+                    protected void done() {
+                        finished(this);
+                    }
+                };
+                running.add(future);
+                try {
+                    workers.execute(future);
+                } catch (RejectedExecutionException e) {
+                    running.remove(future);
+                    logger.error("❌ Batch worker pool rejected a chunk of batch {}: {}", batchId, e.getMessage());
+                    cancel(false);
+                }
+            }
+        }
+
+        private void finished(FutureTask<Void> future) {
+            synchronized (this) {
+                running.remove(future);
+                admit();
+                notifyAll();
+            }
+        }
+    }
+}
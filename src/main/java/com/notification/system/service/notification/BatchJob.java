@@ -0,0 +1,262 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.dto.response.BatchNotificationResponse;
+import com.notification.system.model.enums.BatchStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live state of a batch run. Counters are updated by worker threads as each recipient
+ * is handled so progress can be polled while the batch is still running.
+ */
+public class BatchJob {
+
+    // Distinct failure messages kept in the histogram; the rest are counted under OTHER_ERRORS
+    static final int MAX_ERROR_KINDS = 50;
+    static final String OTHER_ERRORS = "Other errors";
+
+    private final String batchId;
+    private volatile LocalDateTime startedAt;
+    private final AtomicInteger totalUsers = new AtomicInteger();
+    private final AtomicInteger successCount = new AtomicInteger();
+    private final AtomicInteger failureCount = new AtomicInteger();
+    private final AtomicInteger totalBatches = new AtomicInteger();
+    private final AtomicInteger processedBatches = new AtomicInteger();
+    // Number of input records fully handled; streamed batches resume from here
+    private final AtomicLong cursor = new AtomicLong();
+    private final Map<String, Integer> errorBreakdown = new ConcurrentHashMap<>();
+    private final List<BatchNotificationResponse.NotificationResult> results;
+
+    private volatile BatchStatus status = BatchStatus.QUEUED;
+    private volatile LocalDateTime completedAt;
+    private volatile String errorMessage;
+
+    // Control token shared by every thread working on the batch, checked between sends
+    private final Object pauseLock = new Object();
+    private volatile boolean paused;
+    private volatile boolean cancelRequested;
+    private volatile DeliveryShaper shaper;
+
+    public BatchJob(String batchId, int totalUsers, boolean collectResults) {
+        this.batchId = batchId;
+        this.startedAt = LocalDateTime.now();
+        this.totalUsers.set(totalUsers);
+        this.results = collectResults ? Collections.synchronizedList(new ArrayList<>()) : null;
+    }
+
+    public void recordResult(BatchNotificationResponse.NotificationResult result) {
+        if (result.isSuccess()) {
+            successCount.incrementAndGet();
+        } else {
+            failureCount.incrementAndGet();
+            recordError(result.getMessage());
+        }
+        if (results != null) {
+            results.add(result);
+        }
+    }
+
+    private void recordError(String message) {
+        String key = message != null ? message : "Unknown error";
+        if (!errorBreakdown.containsKey(key) && errorBreakdown.size() >= MAX_ERROR_KINDS) {
+            key = OTHER_ERRORS;
+        }
+        errorBreakdown.merge(key, 1, Integer::sum);
+    }
+
+    // Continue counting from an earlier, interrupted run of the same batch
+    public void carryOver(BatchJob previous) {
+        totalUsers.set(previous.totalUsers.get());
+        successCount.set(previous.successCount.get());
+        failureCount.set(previous.failureCount.get());
+        totalBatches.set(previous.totalBatches.get());
+        processedBatches.set(previous.processedBatches.get());
+        errorBreakdown.putAll(previous.errorBreakdown);
+        cursor.set(previous.cursor.get());
+        startedAt = previous.startedAt;
+    }
+
+    // Counters committed by a run that died, picked up when the batch is resumed
+    public void restore(LocalDateTime started, int total, int succeeded, int failed, int batches, int processed, long records) {
+        if (started != null) {
+            startedAt = started;
+        }
+        totalUsers.set(total);
+        successCount.set(succeeded);
+        failureCount.set(failed);
+        totalBatches.set(batches);
+        processedBatches.set(processed);
+        cursor.set(records);
+    }
+
+    public void advanceCursor(long records) {
+        cursor.addAndGet(records);
+    }
+
+    public void markProcessing() {
+        status = cancelRequested ? BatchStatus.CANCELLED : paused ? BatchStatus.PAUSED : BatchStatus.PROCESSING;
+    }
+
+    public boolean pause() {
+        synchronized (pauseLock) {
+            if (isFinished() || cancelRequested) {
+                return false;
+            }
+            paused = true;
+            status = BatchStatus.PAUSED;
+            return true;
+        }
+    }
+
+    public boolean resume() {
+        synchronized (pauseLock) {
+            if (!paused) {
+                return false;
+            }
+            paused = false;
+            status = BatchStatus.PROCESSING;
+            pauseLock.notifyAll();
+            return true;
+        }
+    }
+
+    public void requestCancel() {
+        synchronized (pauseLock) {
+            cancelRequested = true;
+            paused = false;
+            status = BatchStatus.CANCELLED;
+            pauseLock.notifyAll();
+        }
+    }
+
+    /**
+     * Blocks while the batch is paused. Returns false once it has been cancelled.
+     */
+    public boolean awaitRunnable() throws InterruptedException {
+        if (paused) {
+            synchronized (pauseLock) {
+                while (paused) {
+                    pauseLock.wait();
+                }
+            }
+        }
+        return !cancelRequested;
+    }
+
+    /**
+     * Waits for the next send slot of a rate-shaped batch. Returns false if the batch is
+     * cancelled while waiting.
+     */
+    public boolean awaitSendSlot() throws InterruptedException {
+        DeliveryShaper current = shaper;
+        if (current == null) {
+            return !cancelRequested;
+        }
+        long deadline = System.nanoTime() + current.reserve();
+        synchronized (pauseLock) {
+            long remaining;
+            while (!cancelRequested && (remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(pauseLock, remaining);
+            }
+        }
+        return !cancelRequested;
+    }
+
+    // Ends a batch that is not running, e.g. a scheduled batch whose fan-out has not fired yet
+    public void cancel() {
+        requestCancel();
+        if (completedAt == null) {
+            completedAt = LocalDateTime.now();
+        }
+    }
+
+    public void complete() {
+        if (cancelRequested) {
+            status = BatchStatus.CANCELLED;
+            completedAt = LocalDateTime.now();
+            return;
+        }
+        int succeeded = successCount.get();
+        int failed = failureCount.get();
+        if (failed == 0) {
+            status = BatchStatus.COMPLETED;
+        } else if (succeeded > 0) {
+            status = BatchStatus.PARTIALLY_FAILED;
+        } else {
+            status = BatchStatus.FAILED;
+        }
+        completedAt = LocalDateTime.now();
+    }
+
+    public void fail(String message) {
+        errorMessage = message;
+        status = BatchStatus.FAILED;
+        completedAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return completedAt != null;
+    }
+
+    public BatchNotificationResponse toResponse() {
+        BatchNotificationResponse response = new BatchNotificationResponse(batchId, totalUsers.get());
+        response.setStartedAt(startedAt);
+        response.setStatus(status);
+        response.setSuccessCount(successCount.get());
+        response.setFailureCount(failureCount.get());
+        response.setProcessedCount(successCount.get() + failureCount.get());
+        response.setErrorMessage(errorMessage);
+        response.setCompletedAt(completedAt);
+        response.setCursor(cursor.get());
+
+        long processingTimeMs = Duration.between(startedAt, completedAt != null ? completedAt : LocalDateTime.now()).toMillis();
+        response.setProcessingTimeMs(processingTimeMs);
+
+        if (results != null) {
+            synchronized (results) {
+                response.setResults(new ArrayList<>(results));
+            }
+        }
+
+        int processed = successCount.get() + failureCount.get();
+        int batches = processedBatches.get();
+        BatchNotificationResponse.BatchStatistics stats = new BatchNotificationResponse.BatchStatistics();
+        stats.setTotalBatches(totalBatches.get());
+        stats.setProcessedBatches(batches);
+        stats.setAverageProcessingTimePerBatch(batches > 0 ? (double) processingTimeMs / batches : 0.0);
+        stats.setSuccessRate(processed > 0 ? (double) successCount.get() / processed * 100 : 0.0);
+        stats.setErrorBreakdown(Map.copyOf(errorBreakdown));
+        response.setStatistics(stats);
+
+        return response;
+    }
+
+    // Getters
+    public String getBatchId() { return batchId; }
+    public BatchStatus getStatus() { return status; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public int getTotalUsers() { return totalUsers.get(); }
+    public void setTotalUsers(int total) { totalUsers.set(total); }
+    public int getSuccessCount() { return successCount.get(); }
+    public int getFailureCount() { return failureCount.get(); }
+    public int getTotalBatches() { return totalBatches.get(); }
+    public void setTotalBatches(int batches) { totalBatches.set(batches); }
+    public int getProcessedBatches() { return processedBatches.get(); }
+    public String getErrorMessage() { return errorMessage; }
+    public long getCursor() { return cursor.get(); }
+    public boolean isPaused() { return paused; }
+    public boolean isCancelRequested() { return cancelRequested; }
+    public DeliveryShaper getShaper() { return shaper; }
+    public void setShaper(DeliveryShaper shaper) { this.shaper = shaper; }
+    public void batchProcessed() { processedBatches.incrementAndGet(); }
+}
@@ -0,0 +1,55 @@
+package com.notification.system.service.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Component
+public class BatchJobRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchJobRegistry.class);
+
+    private final Map<String, BatchJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${notification.batch.retention-minutes:60}")
+    private long retentionMinutes;
+
+    public void register(BatchJob job) {
+        jobs.put(job.getBatchId(), job);
+    }
+
+    public void remove(String batchId) {
+        jobs.remove(batchId);
+    }
+
+    public Optional<BatchJob> find(String batchId) {
+        return Optional.ofNullable(jobs.get(batchId));
+    }
+
+    public List<String> activeBatchIds() {
+        return jobs.values().stream()
+                .filter(job -> !job.isFinished())
+                .map(BatchJob::getBatchId)
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        int before = jobs.size();
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff));
+        int evicted = before - jobs.size();
+        if (evicted > 0) {
+            logger.debug("🧹 Evicted {} finished batch jobs from registry", evicted);
+        }
+    }
+}
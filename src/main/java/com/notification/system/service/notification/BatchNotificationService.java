@@ -1,24 +1,34 @@
 package com.notification.system.service.notification;
 
+import com.notification.system.config.BatchConfig;
 import com.notification.system.model.dto.request.BatchNotificationRequest;
 import com.notification.system.model.dto.response.BatchNotificationResponse;
+import com.notification.system.model.entity.BatchRun;
 import com.notification.system.model.entity.Notification;
 import com.notification.system.model.entity.User;
-import com.notification.system.model.enums.BatchStatus;
+import com.notification.system.model.enums.BatchSource;
 import com.notification.system.model.enums.NotificationStatus;
 import com.notification.system.repository.NotificationRepository;
-import com.notification.system.repository.UserRepository;
 import com.notification.system.service.scheduler.NotificationSchedulerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -27,12 +37,12 @@ import java.util.stream.Collectors;
 public class BatchNotificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(BatchNotificationService.class);
+    private static final int MISSING_IDS_LOGGED = 20;
+    private static final List<NotificationStatus> UNSENT_STATUSES =
+            List.of(NotificationStatus.PENDING, NotificationStatus.SCHEDULED);
 
     @Autowired
-    private NotificationRepository notificationRepository;
-
-    @Autowired
-    private UserRepository userRepository;
+    private RecipientResolver recipientResolver;
 
     @Autowired
     private NotificationSchedulerService schedulerService;
@@ -40,129 +50,787 @@ public class BatchNotificationService {
     @Autowired
     private NotificationProcessor notificationProcessor;
 
-    public BatchNotificationResponse processBatchNotification(BatchNotificationRequest request) {
-        String batchId = "batch_" + System.currentTimeMillis();
-        LocalDateTime startTime = LocalDateTime.now();
+    @Autowired
+    private BatchJobRegistry batchJobRegistry;
+
+    @Autowired
+    private NotificationBulkWriter bulkWriter;
+
+    @Autowired
+    private BatchExecutionEngine executionEngine;
+
+    @Autowired
+    private SegmentUserStreamer segmentUserStreamer;
+
+    @Autowired
+    private BatchCheckpointService checkpointService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private QuietHoursService quietHoursService;
+
+    @Autowired
+    @Qualifier(BatchConfig.BATCH_JOB_EXECUTOR)
+    private TaskExecutor batchJobExecutor;
+
+    @Value("${notification.batch.inline-results-limit:1000}")
+    private int inlineResultsLimit;
+
+    public BatchNotificationResponse submitBatchNotification(BatchNotificationRequest request) {
+        BatchJob job = new BatchJob(generateBatchId(), request.getUserIds().size(), false);
+
+        if (enqueue(job, BatchSource.USER_IDS, request, () -> runBatch(job, request))) {
+            logger.info("📥 Queued batch notification job: {} for {} users", job.getBatchId(), job.getTotalUsers());
+        }
+
+        return job.toResponse();
+    }
+
+    public BatchNotificationResponse submitRecipientUpload(BatchNotificationRequest request, MultipartFile file,
+                                                           String resumeBatchId) throws IOException {
+        validateMessage(request);
+
+        BatchJob previous = null;
+        if (resumeBatchId != null) {
+            // Fall back to the persisted run when the batch is no longer (or never was) in this node's registry
+            previous = batchJobRegistry.find(resumeBatchId)
+                    .or(() -> checkpointService.loadJob(resumeBatchId))
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown batch: " + resumeBatchId));
+            if (!previous.isFinished()) {
+                throw new IllegalStateException("Batch is still running: " + resumeBatchId);
+            }
+        }
+
+        BatchJob job = new BatchJob(previous != null ? previous.getBatchId() : generateBatchId(), 0, false);
+        if (previous != null) {
+            job.carryOver(previous);
+        }
+
+        // Spool to our own temp file; the multipart upload is discarded once the request ends
+        Path spooled = Files.createTempFile("recipients-", ".upload");
+        file.transferTo(spooled);
+        String filename = file.getOriginalFilename();
+        boolean resumed = previous != null;
+
+        if (enqueue(job, BatchSource.UPLOAD, request, () -> runRecipientStream(job, request, spooled, filename, resumed))) {
+            logger.info("📥 Queued streamed batch job: {} from {} (resuming at record {})",
+                       job.getBatchId(), filename, job.getCursor());
+        } else {
+            Files.deleteIfExists(spooled);
+        }
+
+        return job.toResponse();
+    }
+
+    public BatchNotificationResponse submitSegmentBatch(BatchNotificationRequest request) {
+        validateMessage(request);
+        if (request.getSegment() == null || !request.getSegment().hasCriteria()) {
+            throw new IllegalArgumentException("Segment must define at least one criterion");
+        }
+
+        BatchJob job = new BatchJob(generateBatchId(), 0, false);
+        if (enqueue(job, BatchSource.SEGMENT, request, () -> runSegment(job, request, null, false))) {
+            logger.info("📥 Queued segment batch job: {}", job.getBatchId());
+        }
+
+        return job.toResponse();
+    }
+
+    /**
+     * Stops a batch: running chunks halt before their next send, queued chunks are dropped and
+     * every notification of the batch not yet sent is marked CANCELLED in one update. The cancel
+     * is stored on the batch run, so an owner on another node stops on its next heartbeat and the
+     * run is never recovered. Also removes the fan-out job of a scheduled batch. Empty if the batch
+     * is unknown.
+     */
+    public Optional<BatchNotificationResponse> cancelBatch(String batchId) {
+        boolean stored = checkpointService.markCancelled(batchId);
+        Optional<BatchJob> running = batchJobRegistry.find(batchId).filter(job -> !job.isFinished());
+        running.ifPresent(job -> {
+            job.requestCancel();
+            executionEngine.cancel(batchId, false);
+        });
+
+        boolean unscheduled = schedulerService.cancelBatch(batchId);
+        int cancelled = notificationRepository.updateBatchStatus(batchId, UNSENT_STATUSES,
+                NotificationStatus.CANCELLED, LocalDateTime.now());
+
+        if (running.isEmpty() && !stored && cancelled == 0 && !unscheduled
+                && batchJobRegistry.find(batchId).isEmpty() && !notificationRepository.existsByBatchId(batchId)) {
+            return Optional.empty();
+        }
+        logger.info("🛑 Cancelled batch {}: {} unsent notifications cancelled", batchId, cancelled);
+
+        BatchJob job = running.orElseGet(() -> {
+            BatchJob finished = batchJobRegistry.find(batchId)
+                    .or(() -> checkpointService.loadJob(batchId))
+                    .orElseGet(() -> new BatchJob(batchId, 0, false));
+            if (stored || cancelled > 0 || unscheduled) {
+                finished.cancel();
+                batchJobRegistry.register(finished);
+            }
+            return finished;
+        });
+        return Optional.of(job.toResponse());
+    }
+
+    /**
+     * Holds a running batch: chunks in progress stop before their next send until it is resumed.
+     * A batch running on another node is paused by its owner on its next heartbeat.
+     */
+    public Optional<BatchNotificationResponse> pauseBatch(String batchId) {
+        Optional<BatchJob> local = batchJobRegistry.find(batchId);
+        if (local.isEmpty()) {
+            return controlElsewhere(batchId, "pause", checkpointService.markPaused(batchId), "Batch is not running: ");
+        }
+        BatchJob job = local.get();
+        if (job.isFinished() || job.isCancelRequested()) {
+            throw new IllegalStateException("Batch is not running: " + batchId);
+        }
+        // Stored first: the heartbeat applies the stored status, so it must never lag the job's
+        checkpointService.markPaused(batchId);
+        job.pause();
+        checkpointService.checkpoint(job);
+        logger.info("⏸️ Paused batch {}", batchId);
+        return Optional.of(job.toResponse());
+    }
+
+    public Optional<BatchNotificationResponse> resumeBatch(String batchId) {
+        Optional<BatchJob> local = batchJobRegistry.find(batchId);
+        if (local.isEmpty()) {
+            return controlElsewhere(batchId, "resume", checkpointService.markResumed(batchId), "Batch is not paused: ");
+        }
+        BatchJob job = local.get();
+        if (!job.isPaused()) {
+            throw new IllegalStateException("Batch is not paused: " + batchId);
+        }
+        checkpointService.markResumed(batchId);
+        job.resume();
+        checkpointService.checkpoint(job);
+        logger.info("▶️ Resumed batch {}", batchId);
+        return Optional.of(job.toResponse());
+    }
+
+    /**
+     * Continues a batch whose previous owner died, from its last checkpoint. Called by
+     * {@link BatchRecoveryService} after it has claimed the run.
+     */
+    public void recoverBatch(BatchRun run) {
+        BatchNotificationRequest request = checkpointService.readRequest(run);
+        BatchJob job = checkpointService.toJob(run);
+        batchJobRegistry.register(job);
+
+        try {
+            batchJobExecutor.execute(() -> runResume(job, run.getSource(), run.getLastUserId(), request));
+        } catch (TaskRejectedException e) {
+            // Stop heartbeating it so the run goes stale again and is retried on a later scan
+            batchJobRegistry.remove(job.getBatchId());
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a scheduled batch once its fan-out job fires. Reads the batch's SCHEDULED notifications
+     * in keyset pages and dispatches each page as a chunk, skipping recipients cancelled meanwhile.
+     * Runs outside a transaction so each send commits on its own.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchNotificationResponse dispatchScheduledBatch(String batchId, BatchNotificationRequest.BatchSettings settings,
+                                                            LocalDateTime firedAt) {
+        BatchJob job = new BatchJob(batchId, 0, false);
+        batchJobRegistry.register(job);
+        job.markProcessing();
+        logger.info("📤 Fanning out scheduled batch {}", batchId);
+        if (settings.isShaped()) {
+            shape(job, settings, firedAt, notificationRepository.countByBatchIdAndStatus(batchId, NotificationStatus.SCHEDULED));
+        }
+
+        try (BatchExecutionEngine.Lane lane = settings.getParallelProcessing()
+                ? executionEngine.openLane(batchId, settings.getMaxParallelism()) : null) {
+            long afterId = 0;
+            int chunkNumber = 0;
+            List<Notification> page;
+            while (!(page = notificationRepository.findBatchPage(batchId, NotificationStatus.SCHEDULED, afterId,
+                    PageRequest.of(0, settings.getBatchSize()))).isEmpty()) {
+                if (!job.awaitRunnable()) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).getId();
+                List<Notification> chunk = page;
+                int number = ++chunkNumber;
+                job.setTotalUsers(job.getTotalUsers() + chunk.size());
+                job.setTotalBatches(number);
+
+                if (lane == null) {
+                    if (!processBatch(chunk, number, settings.getContinueOnError(), job)) {
+                        break;
+                    }
+                } else if (!lane.submit(() -> {
+                    if (!processBatch(chunk, number, settings.getContinueOnError(), job)) {
+                        lane.cancel(false);
+                    }
+                })) {
+                    break;
+                }
+
+                if (settings.getPacingDelay() > 0) {
+                    Thread.sleep(settings.getPacingDelay());
+                }
+            }
+            if (lane != null) {
+                lane.awaitCompletion();
+            }
+
+            job.complete();
+            logger.info("✅ Scheduled batch sent: {} - Success: {}, Failed: {}",
+                       batchId, job.getSuccessCount(), job.getFailureCount());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executionEngine.cancel(batchId);
+            job.fail("Fan-out interrupted after " + job.getProcessedBatches() + " chunks");
+        }
+
+        return job.toResponse();
+    }
+
+    public Optional<BatchNotificationResponse> getBatchStatus(String batchId) {
+        return batchJobRegistry.find(batchId).map(BatchJob::toResponse);
+    }
+
+    /**
+     * Runs a batch within the caller's thread. Per-user results are only kept for batches up to
+     * {@code notification.batch.inline-results-limit}; larger ones return the summary and can be
+     * exported from /batch/{batchId}/results.
+     */
+    public BatchNotificationResponse processBatchNotification(BatchNotificationRequest request, boolean includeResults) {
+        boolean collectResults = includeResults && request.getUserIds().size() <= inlineResultsLimit;
+        BatchJob job = new BatchJob(generateBatchId(), request.getUserIds().size(), collectResults);
+        batchJobRegistry.register(job);
+        checkpointService.start(job, BatchSource.USER_IDS, request);
+        runBatch(job, request);
+        return job.toResponse();
+    }
+
+    private boolean enqueue(BatchJob job, BatchSource source, BatchNotificationRequest request, Runnable task) {
+        batchJobRegistry.register(job);
+        checkpointService.start(job, source, request);
+        try {
+            batchJobExecutor.execute(task);
+            return true;
+        } catch (TaskRejectedException e) {
+            logger.warn("⚠️ Batch queue is full, rejecting batch: {}", job.getBatchId());
+            job.fail("Batch queue is full, try again later");
+            checkpointService.finish(job);
+            return false;
+        }
+    }
+
+    private void runBatch(BatchJob job, BatchNotificationRequest request) {
+        runBatch(job, request, false);
+    }
+
+    /**
+     * Resolves the requested users chunk by chunk and persists and sends each chunk as it arrives,
+     * so only a chunk of the audience is held at a time. A resumed run first sends what was persisted
+     * before the crash, then skips users who already have a notification in the batch.
+     */
+    private void runBatch(BatchJob job, BatchNotificationRequest request, boolean resumed) {
+        String batchId = job.getBatchId();
+        BatchNotificationRequest.BatchSettings settings = request.getBatchSettings();
+        boolean scheduled = request.getScheduledAt() != null;
+        job.markProcessing();
 
         logger.info("📦 Starting batch notification processing: {} for {} users", 
                    batchId, request.getUserIds().size());
 
-        BatchNotificationResponse response = new BatchNotificationResponse(batchId, request.getUserIds().size());
-        response.setStatus(BatchStatus.PROCESSING);
+        try (BatchExecutionEngine.Lane lane = settings.getParallelProcessing() && !scheduled
+                ? executionEngine.openLane(batchId, settings.getMaxParallelism()) : null) {
+            if (resumed) {
+                if (scheduled) {
+                    schedulerService.scheduleBatch(batchId, request.getScheduledAt(), settings);
+                } else if (!sendPending(job, request)) {
+                    job.complete();
+                    return;
+                }
+            }
+            if (!scheduled && settings.isShaped()) {
+                // Recipients already holding a notification of this batch are skipped on resume
+                long remaining = request.getUserIds().stream().distinct().count()
+                        - (resumed ? notificationRepository.countByBatchId(batchId) : 0);
+                shape(job, settings, job.getStartedAt(), Math.max(0, remaining));
+            }
 
-        try {
-            List<User> users = fetchValidUsers(request.getUserIds(), response);
-            
-            if (users.isEmpty()) {
-                response.setStatus(BatchStatus.FAILED);
-                response.setErrorMessage("No valid users found");
-                response.setCompletedAt(LocalDateTime.now());
-                response.setProcessingTimeMs(calculateProcessingTime(startTime));
-                return response;
+            AtomicInteger batchCounter = new AtomicInteger(job.getProcessedBatches());
+            RecipientResolver.Resolution resolution = recipientResolver.stream(request.getUserIds(), users -> {
+                if (!job.awaitRunnable()) {
+                    return false;
+                }
+                List<User> recipients = resumed ? withoutNotifiedUsers(batchId, users) : users;
+                List<Notification> notifications = createNotifications(request, recipients, batchId);
+                if (notifications.isEmpty()) {
+                    return true;
+                }
+                bulkWriter.insertAll(notifications);
+
+                if (scheduled) {
+                    scheduleNotifications(notifications, request, job);
+                    return true;
+                }
+                List<Notification> sendNow = withoutDeferred(notifications, job);
+                return sendNow.isEmpty() || dispatch(sendNow, settings, job, lane, batchCounter);
+            });
+            if (lane != null) {
+                lane.awaitCompletion();
             }
 
-            List<Notification> notifications = createNotifications(request, users);
-            notificationRepository.saveAll(notifications);
+            // Ids in chunks never read count as missing too, so only a full pass is reported
+            if (resolution.isComplete()) {
+                if (resolution.getMissing() > 0) {
+                    logger.warn("⚠️ {} requested users not found, e.g. IDs: {}",
+                               resolution.getMissing(), resolution.missingIds(MISSING_IDS_LOGGED));
+                }
+                logger.info("👥 Found {} valid users out of {} requested", resolution.getFound(), request.getUserIds().size());
 
-            List<BatchNotificationResponse.NotificationResult> results;
-            
-            if (request.getScheduledAt() != null) {
-                results = scheduleNotifications(notifications);
-            } else {
-                results = processNotifications(notifications, request.getBatchSettings());
+                if (resolution.getFound() == 0 && !resumed) {
+                    job.fail("No valid users found");
+                    return;
+                }
+                checkpointService.recipientsPersisted(batchId, request);
             }
 
-            updateBatchResponse(response, results, startTime);
+            job.complete();
             
             logger.info("✅ Batch notification processing completed: {} - Success: {}, Failed: {}", 
-                       batchId, response.getSuccessCount(), response.getFailureCount());
+                       batchId, job.getSuccessCount(), job.getFailureCount());
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executionEngine.cancel(batchId);
+            job.fail("Processing interrupted after " + job.getProcessedBatches() + " batches");
         } catch (Exception e) {
             logger.error("❌ Batch notification processing failed: {}", e.getMessage(), e);
-            response.setStatus(BatchStatus.FAILED);
-            response.setErrorMessage("Processing failed: " + e.getMessage());
-            response.setCompletedAt(LocalDateTime.now());
-            response.setProcessingTimeMs(calculateProcessingTime(startTime));
+            job.fail("Processing failed: " + e.getMessage());
+        } finally {
+            checkpointService.finish(job);
         }
+    }
 
-        return response;
+    /**
+     * Sends one persisted chunk in batches of {@code batchSize}, on the lane when processing in
+     * parallel. Waits until the workers have taken up every queued batch before the next chunk
+     * is resolved, so resolved chunks don't pile up in the lane. Returns false once the batch should stop.
+     */
+    private boolean dispatch(List<Notification> notifications, BatchNotificationRequest.BatchSettings settings,
+                             BatchJob job, BatchExecutionEngine.Lane lane, AtomicInteger batchCounter)
+            throws InterruptedException {
+        for (List<Notification> batch : createBatches(notifications, settings.getBatchSize())) {
+            if (!job.awaitRunnable()) {
+                return false;
+            }
+            int batchNumber = batchCounter.incrementAndGet();
+            job.setTotalBatches(batchNumber);
+
+            if (lane == null) {
+                boolean completed = processBatch(batch, batchNumber, settings.getContinueOnError(), job);
+                checkpointService.checkpoint(job);
+                if (!completed) {
+                    return false;
+                }
+            } else if (!lane.submit(() -> {
+                boolean completed = processBatch(batch, batchNumber, settings.getContinueOnError(), job);
+                checkpointService.checkpoint(job);
+                if (!completed) {
+                    lane.cancel(false);
+                }
+            })) {
+                return false;
+            }
+
+            // Pace submissions here rather than sleeping on shared worker threads
+            if (settings.getPacingDelay() > 0) {
+                Thread.sleep(settings.getPacingDelay());
+            }
+        }
+        return lane == null || lane.awaitCapacity(1);
     }
 
-    private List<User> fetchValidUsers(List<Long> userIds, BatchNotificationResponse response) {
-        List<User> users = userRepository.findAllById(userIds);
-        Set<Long> foundIds = users.stream().map(User::getId).collect(Collectors.toSet());
-        
-        List<Long> missingIds = userIds.stream()
-                .filter(id -> !foundIds.contains(id))
-                .collect(Collectors.toList());
-        
-        if (!missingIds.isEmpty()) {
-            logger.warn("⚠️ Missing users for IDs: {}", missingIds);
+    private void runRecipientStream(BatchJob job, BatchNotificationRequest request, Path spooled, String filename,
+                                    boolean resumed) {
+        String batchId = job.getBatchId();
+        BatchNotificationRequest.BatchSettings settings = request.getBatchSettings();
+        job.markProcessing();
+
+        try (RecipientFileReader reader = new RecipientFileReader(Files.newInputStream(spooled), filename)) {
+            if (settings.isShaped() && request.getScheduledAt() == null) {
+                shape(job, settings, job.getStartedAt(), countRecords(spooled, filename) - job.getCursor());
+            }
+            long skipped = reader.skip(job.getCursor());
+            logger.info("📦 Streaming {} recipients for batch {} (skipped {} already processed)",
+                       reader.getFormat(), batchId, skipped);
+
+            int chunkNumber = job.getCursor() > 0 ? (int) (job.getCursor() / settings.getBatchSize()) : 0;
+            List<Long> chunk;
+            while (!(chunk = reader.nextChunk(settings.getBatchSize())).isEmpty()) {
+                if (!job.awaitRunnable()) {
+                    break;
+                }
+                chunkNumber++;
+                job.setTotalUsers((int) (job.getCursor() + chunk.size()));
+                job.setTotalBatches(chunkNumber);
+
+                // The checkpointed cursor can trail the last chunk sent before a crash
+                List<Long> recipients = resumed ? withoutNotified(batchId, chunk) : chunk;
+                List<Notification> notifications = resolveNotifications(request, recipients, batchId);
+                boolean keepGoing = deliverChunk(request, job, notifications, chunkNumber);
+                job.advanceCursor(chunk.size());
+                checkpointService.checkpoint(job);
+
+                if (!keepGoing) {
+                    break;
+                }
+                if (settings.getPacingDelay() > 0) {
+                    Thread.sleep(settings.getPacingDelay());
+                }
+            }
+
+            job.complete();
+            logger.info("✅ Streamed batch completed: {} - Records: {}, Success: {}, Failed: {}",
+                       batchId, job.getCursor(), job.getSuccessCount(), job.getFailureCount());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Processing interrupted at record " + job.getCursor());
+        } catch (Exception e) {
+            logger.error("❌ Streamed batch {} failed at record {}: {}", batchId, job.getCursor(), e.getMessage(), e);
+            job.fail("Processing failed at record " + job.getCursor() + ": " + e.getMessage());
+        } finally {
+            checkpointService.finish(job);
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                logger.warn("⚠️ Could not delete spooled upload {}: {}", spooled, e.getMessage());
+            }
         }
-        
-        logger.info("👥 Found {} valid users out of {} requested", users.size(), userIds.size());
-        return users;
     }
 
-    private List<Notification> createNotifications(BatchNotificationRequest request, List<User> users) {
+    private void runSegment(BatchJob job, BatchNotificationRequest request, Long afterUserId, boolean resumed) {
+        String batchId = job.getBatchId();
+        BatchNotificationRequest.BatchSettings settings = request.getBatchSettings();
+        job.markProcessing();
+        AtomicInteger chunkNumber = new AtomicInteger(job.getProcessedBatches());
+
+        try {
+            if (settings.isShaped() && request.getScheduledAt() == null) {
+                shape(job, settings, job.getStartedAt(),
+                      segmentUserStreamer.count(request.getSegment(), afterUserId, resumed ? batchId : null));
+            }
+            long matched = segmentUserStreamer.stream(request.getSegment(), afterUserId, resumed ? batchId : null,
+                    settings.getBatchSize(), users -> {
+                if (!job.awaitRunnable()) {
+                    return false;
+                }
+                int chunk = chunkNumber.incrementAndGet();
+                job.setTotalUsers((int) (job.getCursor() + users.size()));
+                job.setTotalBatches(chunk);
+
+                boolean keepGoing = deliverChunk(request, job, createNotifications(request, users, batchId), chunk);
+                job.advanceCursor(users.size());
+                checkpointService.checkpoint(job, users.get(users.size() - 1).getId());
+
+                if (keepGoing && settings.getPacingDelay() > 0) {
+                    Thread.sleep(settings.getPacingDelay());
+                }
+                return keepGoing;
+            });
+
+            if (matched == 0 && job.getCursor() == 0) {
+                job.fail("No users match the segment");
+                return;
+            }
+            job.complete();
+            logger.info("✅ Segment batch completed: {} - Users: {}, Success: {}, Failed: {}",
+                       batchId, job.getCursor(), job.getSuccessCount(), job.getFailureCount());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Processing interrupted at record " + job.getCursor());
+        } catch (Exception e) {
+            logger.error("❌ Segment batch {} failed at record {}: {}", batchId, job.getCursor(), e.getMessage(), e);
+            job.fail("Processing failed at record " + job.getCursor() + ": " + e.getMessage());
+        } finally {
+            checkpointService.finish(job);
+        }
+    }
+
+    private void runResume(BatchJob job, BatchSource source, Long lastUserId, BatchNotificationRequest request) {
+        String batchId = job.getBatchId();
+        // The crash may have come between persisting deferred recipients and scheduling their buckets
+        try {
+            notificationRepository.findDeferredBuckets(batchId, NotificationStatus.SCHEDULED)
+                    .forEach(schedulerService::scheduleQuietBucket);
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not reschedule quiet-hours buckets of batch {}: {}", batchId, e.getMessage());
+        }
+
+        // Died before every recipient was persisted: send what was, then persist and send the rest
+        if (source == BatchSource.USER_IDS && request.getUserIds() != null && !request.getUserIds().isEmpty()) {
+            runBatch(job, request, notificationRepository.existsByBatchId(batchId));
+            return;
+        }
+
+        job.markProcessing();
+        try {
+            boolean keepGoing;
+            if (request.getScheduledAt() != null) {
+                // The crash may have come between persisting the recipients and scheduling the fan-out
+                schedulerService.scheduleBatch(batchId, request.getScheduledAt(), request.getBatchSettings());
+                keepGoing = true;
+            } else {
+                keepGoing = sendPending(job, request);
+            }
+
+            if (source == BatchSource.SEGMENT && keepGoing) {
+                runSegment(job, request, lastUserId, true);
+                return;
+            }
+            if (source == BatchSource.UPLOAD && keepGoing) {
+                job.fail("Upload interrupted after record " + job.getCursor() +
+                         "; upload the file again with resumeBatchId=" + batchId + " to continue");
+                return;
+            }
+
+            job.complete();
+            logger.info("✅ Resumed batch completed: {} - Success: {}, Failed: {}",
+                       batchId, job.getSuccessCount(), job.getFailureCount());
+
+        } catch (Exception e) {
+            logger.error("❌ Resumed batch {} failed: {}", batchId, e.getMessage(), e);
+            job.fail("Resume failed: " + e.getMessage());
+        } finally {
+            if (job.isFinished()) {
+                checkpointService.finish(job);
+            }
+        }
+    }
+
+    // Sends the notifications of this batch still left PENDING, in keyset pages by id
+    private boolean sendPending(BatchJob job, BatchNotificationRequest request) {
+        BatchNotificationRequest.BatchSettings settings = request.getBatchSettings();
+        int chunkNumber = job.getProcessedBatches();
+        long afterId = 0;
+        if (settings.isShaped()) {
+            shape(job, settings, job.getStartedAt(),
+                  notificationRepository.countByBatchIdAndStatus(job.getBatchId(), NotificationStatus.PENDING));
+        }
+
+        List<Notification> page;
+        while (!(page = notificationRepository.findBatchPage(job.getBatchId(), NotificationStatus.PENDING, afterId,
+                PageRequest.of(0, settings.getBatchSize()))).isEmpty()) {
+            afterId = page.get(page.size() - 1).getId();
+            boolean keepGoing = processBatch(page, ++chunkNumber, settings.getContinueOnError(), job);
+            checkpointService.checkpoint(job);
+            if (!keepGoing) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // A batch without a local job may be running on another node; its stored run is all there is to go by
+    private Optional<BatchNotificationResponse> controlElsewhere(String batchId, String action, boolean stored,
+                                                                 String notApplicable) {
+        Optional<BatchJob> run = checkpointService.loadJob(batchId);
+        if (run.isPresent() && !stored) {
+            throw new IllegalStateException(notApplicable + batchId);
+        }
+        run.ifPresent(job -> logger.info("📨 Stored {} of batch {}; its owner applies it on its next heartbeat", action, batchId));
+        return run.map(BatchJob::toResponse);
+    }
+
+    private static long countRecords(Path spooled, String filename) throws IOException {
+        try (RecipientFileReader reader = new RecipientFileReader(Files.newInputStream(spooled), filename)) {
+            return reader.skip(Long.MAX_VALUE);
+        }
+    }
+
+    private List<User> withoutNotifiedUsers(String batchId, List<User> users) {
+        Set<Long> notified = new HashSet<>(notificationRepository.findNotifiedUserIds(batchId,
+                users.stream().map(User::getId).collect(Collectors.toList())));
+        if (notified.isEmpty()) {
+            return users;
+        }
+        return users.stream().filter(user -> !notified.contains(user.getId())).collect(Collectors.toList());
+    }
+
+    private List<Long> withoutNotified(String batchId, List<Long> userIds) {
+        Set<Long> notified = new HashSet<>(notificationRepository.findNotifiedUserIds(batchId, userIds));
+        if (notified.isEmpty()) {
+            return userIds;
+        }
+        return userIds.stream().filter(id -> !notified.contains(id)).collect(Collectors.toList());
+    }
+
+    /**
+     * Persists one chunk of a streamed batch and schedules or sends it. Returns false when
+     * a failure should stop the batch.
+     */
+    private boolean deliverChunk(BatchNotificationRequest request, BatchJob job,
+                                 List<Notification> notifications, int chunkNumber) {
+        if (notifications.isEmpty()) {
+            return true;
+        }
+        bulkWriter.insertAll(notifications);
+
+        if (request.getScheduledAt() != null) {
+            scheduleNotifications(notifications, request, job);
+            job.batchProcessed();
+            return true;
+        }
+        List<Notification> sendNow = withoutDeferred(notifications, job);
+        if (sendNow.isEmpty()) {
+            job.batchProcessed();
+            return true;
+        }
+        return processBatch(sendNow, chunkNumber, request.getBatchSettings().getContinueOnError(), job);
+    }
+
+    /**
+     * Leaves the persisted notifications deferred for quiet hours to their release buckets and
+     * returns the ones to send now. Deferred recipients are taken off a shaped batch's expected
+     * sends, since they never use one of its slots.
+     */
+    private List<Notification> withoutDeferred(List<Notification> notifications, BatchJob job) {
+        List<Notification> sendNow = new ArrayList<>(notifications.size());
+        Set<LocalDateTime> buckets = new HashSet<>();
+        for (Notification notification : notifications) {
+            if (notification.getDeferredUntil() == null) {
+                sendNow.add(notification);
+                continue;
+            }
+            if (buckets.add(notification.getDeferredUntil())) {
+                quietHoursService.enqueue(notification);
+            }
+            job.recordResult(new BatchNotificationResponse.NotificationResult(
+                notification.getUser().getId(),
+                notification.getId(),
+                true,
+                "Deferred for quiet hours until " + notification.getDeferredUntil() + " (UTC)"
+            ));
+        }
+        DeliveryShaper shaper = job.getShaper();
+        if (shaper != null && sendNow.size() < notifications.size()) {
+            shaper.forgo(notifications.size() - sendNow.size());
+        }
+        return sendNow;
+    }
+
+    private void validateMessage(BatchNotificationRequest request) {
+        if (request.getTitle() == null || request.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Title cannot be blank");
+        }
+        if (request.getContent() == null || request.getContent().isBlank()) {
+            throw new IllegalArgumentException("Content cannot be blank");
+        }
+        if (request.getChannelType() == null) {
+            throw new IllegalArgumentException("Channel type cannot be null");
+        }
+        if (request.getPriority() == null) {
+            throw new IllegalArgumentException("Priority cannot be null");
+        }
+        BatchNotificationRequest.BatchSettings settings = request.getBatchSettings();
+        if (settings.getDeliveryWindowMinutes() != null && settings.getDeliveryWindowMinutes() < 1) {
+            throw new IllegalArgumentException("Delivery window must be at least 1 minute");
+        }
+        if (settings.getMaxSendsPerSecond() != null && settings.getMaxSendsPerSecond() <= 0) {
+            throw new IllegalArgumentException("Max sends per second must be positive");
+        }
+    }
+
+    /**
+     * Paces the sends of a batch per {@code deliveryWindowMinutes} and {@code maxSendsPerSecond}.
+     * The window runs from {@code startedAt}, which survives restarts, over the sends still expected.
+     */
+    private void shape(BatchJob job, BatchNotificationRequest.BatchSettings settings, LocalDateTime startedAt,
+                       long expectedSends) {
+        if (!settings.isShaped()) {
+            return;
+        }
+        LocalDateTime deliverBy = settings.getDeliveryWindowMinutes() != null
+                ? startedAt.plusMinutes(settings.getDeliveryWindowMinutes())
+                : null;
+        job.setShaper(new DeliveryShaper(settings.getMaxSendsPerSecond(), deliverBy, expectedSends));
+        logger.info("🚦 Batch {} shaped: {} sends, deliver by {}, at most {}/s",
+                   job.getBatchId(), expectedSends, deliverBy, settings.getMaxSendsPerSecond());
+    }
+
+    private String generateBatchId() {
+        return "batch_" + System.currentTimeMillis() + "_" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private List<Notification> resolveNotifications(BatchNotificationRequest request, List<Long> userIds, String batchId) {
+        List<Notification> notifications = new ArrayList<>(userIds.size());
+        RecipientResolver.Resolution resolution = recipientResolver.resolve(userIds,
+                users -> notifications.addAll(createNotifications(request, users, batchId)));
+
+        if (resolution.getMissing() > 0) {
+            logger.warn("⚠️ {} requested users not found, e.g. IDs: {}",
+                       resolution.getMissing(), resolution.missingIds(MISSING_IDS_LOGGED));
+        }
+
+        logger.info("👥 Found {} valid users out of {} requested", resolution.getFound(), userIds.size());
+        return notifications;
+    }
+
+    private List<Notification> createNotifications(BatchNotificationRequest request, List<User> users, String batchId) {
+        Instant now = Instant.now();
         return users.stream().map(user -> {
             Notification notification = new Notification(
                 user, request.getTitle(), request.getContent(),
                 request.getChannelType(), request.getPriority()
             );
             notification.setMetadata(request.getMetadata());
+            notification.setBatchId(batchId);
             
             if (request.getScheduledAt() != null) {
                 notification.setScheduledAt(request.getScheduledAt());
                 notification.setStatus(NotificationStatus.SCHEDULED);
             } else {
                 notification.setStatus(NotificationStatus.PENDING);
+                quietHoursService.deferUntil(user, request.getPriority(), now)
+                        .ifPresent(releaseAt -> quietHoursService.defer(notification, releaseAt));
             }
             
             return notification;
         }).collect(Collectors.toList());
     }
 
-    private List<BatchNotificationResponse.NotificationResult> scheduleNotifications(List<Notification> notifications) {
+    // The batch gets a single fan-out job; recipients are picked up from their SCHEDULED rows when it fires
+    private void scheduleNotifications(List<Notification> notifications, BatchNotificationRequest request, BatchJob job) {
         logger.info("📅 Scheduling {} notifications", notifications.size());
-        
-        return notifications.stream().map(notification -> {
-            try {
-                schedulerService.scheduleNotification(notification);
-                return new BatchNotificationResponse.NotificationResult(
-                    notification.getUser().getId(),
-                    notification.getId(),
-                    true,
-                    "Scheduled successfully for " + notification.getScheduledAt()
-                );
-            } catch (Exception e) {
-                logger.error("❌ Failed to schedule notification for user {}: {}", 
-                           notification.getUser().getId(), e.getMessage());
-                return new BatchNotificationResponse.NotificationResult(
-                    notification.getUser().getId(),
-                    notification.getId(),
-                    false,
-                    "Scheduling failed: " + e.getMessage()
-                );
-            }
-        }).collect(Collectors.toList());
-    }
-
-    private List<BatchNotificationResponse.NotificationResult> processNotifications(
-            List<Notification> notifications, BatchNotificationRequest.BatchSettings settings) {
-        
-        List<List<Notification>> batches = createBatches(notifications, settings.getBatchSize());
-        List<BatchNotificationResponse.NotificationResult> allResults = Collections.synchronizedList(new ArrayList<>());
-        
-        logger.info("🔄 Processing {} notifications in {} batches", notifications.size(), batches.size());
 
-        if (settings.getParallelProcessing()) {
-            processInParallel(batches, settings, allResults);
-        } else {
-            processSequentially(batches, settings, allResults);
+        String message;
+        boolean scheduled;
+        try {
+            schedulerService.scheduleBatch(job.getBatchId(), request.getScheduledAt(), request.getBatchSettings());
+            scheduled = true;
+            message = "Scheduled successfully for " + request.getScheduledAt();
+        } catch (Exception e) {
+            logger.error("❌ Failed to schedule batch {}: {}", job.getBatchId(), e.getMessage());
+            scheduled = false;
+            message = "Scheduling failed: " + e.getMessage();
         }
 
-        return allResults;
+        for (Notification notification : notifications) {
+            job.recordResult(new BatchNotificationResponse.NotificationResult(
+                notification.getUser().getId(),
+                notification.getId(),
+                scheduled,
+                message
+            ));
+        }
     }
 
     private List<List<Notification>> createBatches(List<Notification> notifications, int batchSize) {
@@ -173,56 +841,44 @@ public class BatchNotificationService {
         return batches;
     }
 
-    private void processInParallel(List<List<Notification>> batches, 
-                                  BatchNotificationRequest.BatchSettings settings,
-                                  List<BatchNotificationResponse.NotificationResult> allResults) {
-        
-        AtomicInteger batchCounter = new AtomicInteger(0);
-        
-        List<CompletableFuture<Void>> futures = batches.stream().map(batch -> 
-            CompletableFuture.runAsync(() -> {
-                int batchNumber = batchCounter.incrementAndGet();
-                processBatch(batch, batchNumber, settings.getContinueOnError(), allResults);
-                
-                if (settings.getDelayBetweenBatches() > 0 && batchNumber < batches.size()) {
-                    try {
-                        Thread.sleep(settings.getDelayBetweenBatches());
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        logger.warn("⚠️ Batch delay interrupted");
-                    }
-                }
-            })
-        ).collect(Collectors.toList());
-
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    // Waits for the next send slot of a shaped batch and out any pause; false once cancelled or interrupted
+    private boolean awaitTurn(BatchJob job) {
+        try {
+            return job.awaitSendSlot() && job.awaitRunnable();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
-    private void processSequentially(List<List<Notification>> batches, 
-                                   BatchNotificationRequest.BatchSettings settings,
-                                   List<BatchNotificationResponse.NotificationResult> allResults) {
-        
-        for (int i = 0; i < batches.size(); i++) {
-            processBatch(batches.get(i), i + 1, settings.getContinueOnError(), allResults);
-            
-            if (settings.getDelayBetweenBatches() > 0 && i < batches.size() - 1) {
-                try {
-                    Thread.sleep(settings.getDelayBetweenBatches());
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    logger.warn("⚠️ Batch delay interrupted");
-                    break;
-                }
-            }
+    /**
+     * Moves a recipient to PENDING right before its send, only if it is still unsent. The row is the
+     * one record every node sees, so a recipient cancelled since its chunk was read, here or on
+     * another node, is skipped rather than flipped back to PENDING.
+     */
+    private boolean claim(Notification notification) {
+        if (notificationRepository.updateDeliveryStatus(notification.getId(), UNSENT_STATUSES,
+                NotificationStatus.PENDING, null, null, LocalDateTime.now()) == 0) {
+            logger.debug("🚫 Notification {} was cancelled before its send, skipping", notification.getId());
+            return false;
         }
+        notification.setStatus(NotificationStatus.PENDING);
+        return true;
     }
 
-    private void processBatch(List<Notification> batch, int batchNumber, boolean continueOnError,
-                             List<BatchNotificationResponse.NotificationResult> results) {
+    private boolean processBatch(List<Notification> batch, int batchNumber, boolean continueOnError, BatchJob job) {
         
         logger.info("🔄 Processing batch {} with {} notifications", batchNumber, batch.size());
+        boolean completed = true;
         
         for (Notification notification : batch) {
+            if (!awaitTurn(job)) {
+                completed = false;
+                break;
+            }
+            if (!claim(notification)) {
+                continue;
+            }
             try {
                 boolean success = notificationProcessor.processNotification(notification);
                 
@@ -233,10 +889,11 @@ public class BatchNotificationService {
                     success ? "Sent successfully" : "Failed to send"
                 );
                 
-                results.add(result);
+                job.recordResult(result);
                 
                 if (!success && !continueOnError) {
                     logger.error("❌ Stopping batch processing due to failure (continueOnError=false)");
+                    completed = false;
                     break;
                 }
                 
@@ -251,54 +908,17 @@ public class BatchNotificationService {
                     "Error: " + e.getMessage()
                 );
                 
-                results.add(result);
+                job.recordResult(result);
                 
                 if (!continueOnError) {
                     logger.error("❌ Stopping batch processing due to error (continueOnError=false)");
+                    completed = false;
                     break;
                 }
             }
         }
-    }
-
-    private void updateBatchResponse(BatchNotificationResponse response, 
-                                   List<BatchNotificationResponse.NotificationResult> results,
-                                   LocalDateTime startTime) {
-        
-        response.setResults(results);
-        response.setCompletedAt(LocalDateTime.now());
-        response.setProcessingTimeMs(calculateProcessingTime(startTime));
-        
-        int successCount = (int) results.stream().filter(BatchNotificationResponse.NotificationResult::isSuccess).count();
-        int failureCount = results.size() - successCount;
-        
-        response.setSuccessCount(successCount);
-        response.setFailureCount(failureCount);
-        
-        if (failureCount == 0) {
-            response.setStatus(BatchStatus.COMPLETED);
-        } else if (successCount > 0) {
-            response.setStatus(BatchStatus.PARTIALLY_FAILED);
-        } else {
-            response.setStatus(BatchStatus.FAILED);
-        }
         
-        BatchNotificationResponse.BatchStatistics stats = new BatchNotificationResponse.BatchStatistics();
-        stats.setTotalBatches(1);
-        stats.setProcessedBatches(1);
-        stats.setAverageProcessingTimePerBatch(response.getProcessingTimeMs().doubleValue());
-        stats.setSuccessRate(successCount > 0 ? (double) successCount / results.size() * 100 : 0.0);
-        
-        Map<String, Integer> errorBreakdown = new ConcurrentHashMap<>();
-        results.stream()
-            .filter(r -> !r.isSuccess())
-            .forEach(r -> errorBreakdown.merge(r.getMessage(), 1, Integer::sum));
-        stats.setErrorBreakdown(errorBreakdown);
-        
-        response.setStatistics(stats);
-    }
-
-    private long calculateProcessingTime(LocalDateTime startTime) {
-        return java.time.Duration.between(startTime, LocalDateTime.now()).toMillis();
+        job.batchProcessed();
+        return completed;
     }
 }
\ No newline at end of file
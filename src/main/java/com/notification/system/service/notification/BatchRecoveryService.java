@@ -0,0 +1,44 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.entity.BatchRun;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds batch runs whose owner stopped heartbeating (crashed, killed or shut down mid-batch),
+ * claims them and resumes them from their last checkpoint. Runs shortly after startup and
+ * then periodically, so batches orphaned by other nodes are picked up too.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.batch.checkpoint.recovery-enabled", havingValue = "true", matchIfMissing = true)
+public class BatchRecoveryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchRecoveryService.class);
+
+    @Autowired
+    private BatchCheckpointService checkpointService;
+
+    @Autowired
+    private BatchNotificationService batchNotificationService;
+
+    @Scheduled(initialDelayString = "${notification.batch.checkpoint.recovery-initial-delay-ms:10000}",
+               fixedDelayString = "${notification.batch.checkpoint.recovery-interval-ms:60000}")
+    public void recoverAbandonedBatches() {
+        for (BatchRun run : checkpointService.findAbandoned()) {
+            if (!checkpointService.claim(run.getBatchId())) {
+                continue; // Another node got there first
+            }
+            try {
+                batchNotificationService.recoverBatch(run);
+                logger.info("♻️ Resuming batch {} ({}) from record {}, previous owner {}",
+                           run.getBatchId(), run.getSource(), run.getCursorPosition(), run.getOwner());
+            } catch (Exception e) {
+                logger.error("❌ Could not resume batch {}: {}", run.getBatchId(), e.getMessage(), e);
+            }
+        }
+    }
+}
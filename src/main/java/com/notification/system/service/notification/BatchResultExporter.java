@@ -0,0 +1,92 @@
+package com.notification.system.service.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.repository.NotificationRepository.BatchResultView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams the per-recipient outcome of a batch as NDJSON, read from the notifications table
+ * in keyset pages so neither the query nor the response is held in memory as a whole.
+ * Every line carries its notificationId; pass the last one back as {@code after} to resume.
+ */
+@Service
+public class BatchResultExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchResultExporter.class);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notification.batch.export.page-size:1000}")
+    private int pageSize = 1000;
+
+    public boolean hasResults(String batchId) {
+        return notificationRepository.existsByBatchId(batchId);
+    }
+
+    /**
+     * Writes results with a notification id greater than {@code afterId}, at most {@code limit}
+     * lines when a limit is given. Returns the number of lines written.
+     */
+    public long export(String batchId, long afterId, Long limit, OutputStream out) throws IOException {
+        long written = 0;
+        long cursor = afterId;
+
+        while (limit == null || written < limit) {
+            int size = limit == null ? pageSize : (int) Math.min(pageSize, limit - written);
+            List<BatchResultView> page = notificationRepository.findBatchResults(batchId, cursor, PageRequest.of(0, size));
+
+            for (BatchResultView row : page) {
+                out.write(objectMapper.writeValueAsBytes(toLine(row)));
+                out.write('\n');
+                cursor = row.getNotificationId();
+            }
+            written += page.size();
+            out.flush();
+
+            if (page.size() < size) {
+                break;
+            }
+        }
+
+        logger.debug("📤 Exported {} results for batch {} (cursor {})", written, batchId, cursor);
+        return written;
+    }
+
+    static Map<String, Object> toLine(BatchResultView row) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("notificationId", row.getNotificationId());
+        line.put("userId", row.getUserId());
+        line.put("status", row.getStatus());
+        line.put("success", isSuccess(row.getStatus()));
+        line.put("message", row.getErrorMessage());
+        line.put("sentAt", row.getSentAt());
+        line.put("updatedAt", row.getUpdatedAt());
+        return line;
+    }
+
+    // null while the notification is still pending or scheduled
+    private static Boolean isSuccess(NotificationStatus status) {
+        return switch (status) {
+            case SENT, DELIVERED -> Boolean.TRUE;
+            case FAILED, CANCELLED -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.notification.system.service.notification;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out send slots for one batch so its deliveries follow a smooth schedule: at most
+ * {@code maxSendsPerSecond}, and/or spread evenly until {@code deliverBy}. The spacing is
+ * recomputed from the time and sends remaining on every reservation, so a batch that falls
+ * behind (slow channel, pause, restart) speeds up to still finish on time, within the rate cap.
+ * Shared by all workers of the batch; each reservation takes the next free slot.
+ */
+public class DeliveryShaper {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final LongSupplier clock;
+    private final long minIntervalNanos;
+    private final Long deadlineNanos;
+    private long expectedSends;
+
+    private long reserved;
+    private long nextSlotNanos;
+
+    public DeliveryShaper(Double maxSendsPerSecond, LocalDateTime deliverBy, long expectedSends) {
+        this(maxSendsPerSecond, deliverBy, expectedSends, System::nanoTime);
+    }
+
+    DeliveryShaper(Double maxSendsPerSecond, LocalDateTime deliverBy, long expectedSends, LongSupplier clock) {
+        this.clock = clock;
+        this.minIntervalNanos = maxSendsPerSecond != null && maxSendsPerSecond > 0
+                ? (long) (NANOS_PER_SECOND / maxSendsPerSecond)
+                : 0;
+        long now = clock.getAsLong();
+        this.deadlineNanos = deliverBy != null ? now + Duration.between(LocalDateTime.now(), deliverBy).toNanos() : null;
+        this.expectedSends = expectedSends;
+        this.nextSlotNanos = now;
+    }
+
+    /**
+     * Reserves the next send slot and returns how long the caller has to wait for it, in nanoseconds.
+     */
+    public synchronized long reserve() {
+        long now = clock.getAsLong();
+        long slot = Math.max(nextSlotNanos, now);
+        nextSlotNanos = slot + intervalAfter(slot);
+        reserved++;
+        return slot - now;
+    }
+
+    /**
+     * Drops sends that turned out not to need a slot, e.g. recipients deferred for quiet hours,
+     * so the remaining ones are spread over the window instead of leaving its end idle.
+     */
+    public synchronized void forgo(long sends) {
+        expectedSends = Math.max(reserved, expectedSends - sends);
+    }
+
+    // Current sends per second the schedule is aiming for, for progress reporting
+    public synchronized double getTargetRate() {
+        long interval = intervalAfter(Math.max(nextSlotNanos, clock.getAsLong()));
+        return interval > 0 ? (double) NANOS_PER_SECOND / interval : Double.POSITIVE_INFINITY;
+    }
+
+    public synchronized long getReserved() {
+        return reserved;
+    }
+
+    private long intervalAfter(long slot) {
+        long interval = minIntervalNanos;
+        long remainingSends = expectedSends - reserved - 1;
+        if (deadlineNanos != null && remainingSends > 0) {
+            // Past the deadline this drops to 0 and only the rate cap applies
+            long remainingNanos = Math.max(0, deadlineNanos - slot);
+            interval = Math.max(interval, remainingNanos / remainingSends);
+        }
+        return interval;
+    }
+}
@@ -0,0 +1,213 @@
+package com.notification.system.service.notification;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.system.model.entity.Notification;
+import com.notification.system.repository.NotificationRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Persistence path for batch sends. Small batches go through JPA, which JDBC-batches the
+ * inserts now that ids come from a pooled sequence. Large batches on PostgreSQL are
+ * streamed with COPY using ids reserved from the same sequence.
+ */
+@Component
+public class NotificationBulkWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationBulkWriter.class);
+
+    static final String SEQUENCE_NAME = "notifications_seq";
+    static final int SEQUENCE_INCREMENT = 50;
+    private static final int COPY_FLUSH_ROWS = 1000;
+
+    static final String COPY_SQL = "COPY notifications (id, user_id, title, content, channel_type, priority, status, " +
+            "metadata, scheduled_at, deferred_until, retry_count, batch_id, created_at, updated_at) FROM STDIN WITH (FORMAT csv)";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${notification.batch.copy-threshold:5000}")
+    private int copyThreshold;
+
+    private volatile Boolean postgres;
+
+    public void insertAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        if (notifications.size() >= copyThreshold && isPostgres()) {
+            long start = System.nanoTime();
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try {
+                    copyInto(connection, notifications);
+                } catch (IOException e) {
+                    throw new SQLException("COPY into notifications failed", e);
+                }
+                return null;
+            });
+            logger.info("🚚 Copied {} notifications in {} ms", notifications.size(), (System.nanoTime() - start) / 1_000_000);
+        } else {
+            notificationRepository.saveAll(notifications);
+        }
+    }
+
+    /**
+     * Assigns ids from the notification sequence and streams the rows with COPY.
+     */
+    public static void copyInto(Connection connection, List<Notification> notifications) throws SQLException, IOException {
+        List<Long> ids = reserveIds(connection, notifications.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        try {
+            // Rows are flushed in small slices so the CSV buffer never holds the whole batch
+            StringBuilder csv = new StringBuilder(COPY_FLUSH_ROWS * 256);
+            for (int i = 0; i < notifications.size(); i++) {
+                Notification notification = notifications.get(i);
+                notification.setId(ids.get(i));
+                notification.setCreatedAt(now);
+                notification.setUpdatedAt(now);
+                appendRow(csv, notification);
+
+                if ((i + 1) % COPY_FLUSH_ROWS == 0) {
+                    writeCsv(copyIn, csv);
+                }
+            }
+            writeCsv(copyIn, csv);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void writeCsv(CopyIn copyIn, StringBuilder csv) throws SQLException {
+        if (csv.length() > 0) {
+            byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            csv.setLength(0);
+        }
+    }
+
+    // Each nextval reserves a block of SEQUENCE_INCREMENT ids ending at the returned value,
+    // matching Hibernate's pooled optimizer so JPA and COPY inserts never collide
+    static List<Long> reserveIds(Connection connection, int count) throws SQLException {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + SEQUENCE_INCREMENT - 1) / SEQUENCE_INCREMENT;
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT nextval('" + SEQUENCE_NAME + "') FROM generate_series(1, ?)")) {
+                statement.setInt(1, blocks);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next() && ids.size() < count) {
+                        long hi = rs.getLong(1);
+                        for (long id = Math.max(1, hi - SEQUENCE_INCREMENT + 1); id <= hi && ids.size() < count; id++) {
+                            ids.add(id);
+                        }
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    static void appendRow(StringBuilder csv, Notification notification) {
+        csv.append(notification.getId()).append(',')
+           .append(notification.getUser().getId()).append(',');
+        appendText(csv, notification.getTitle());
+        csv.append(',');
+        appendText(csv, notification.getContent());
+        csv.append(',')
+           .append(notification.getChannelType().name()).append(',')
+           .append(notification.getPriority().name()).append(',')
+           .append(notification.getStatus().name()).append(',');
+        appendText(csv, toJson(notification));
+        csv.append(',');
+        if (notification.getScheduledAt() != null) {
+            csv.append(notification.getScheduledAt());
+        }
+        csv.append(',');
+        if (notification.getDeferredUntil() != null) {
+            csv.append(notification.getDeferredUntil());
+        }
+        csv.append(',')
+           .append(notification.getRetryCount()).append(',');
+        appendText(csv, notification.getBatchId());
+        csv.append(',')
+           .append(notification.getCreatedAt()).append(',')
+           .append(notification.getUpdatedAt()).append('\n');
+    }
+
+    // Unquoted empty fields are NULL in CSV COPY; everything else is quoted with doubled quotes
+    private static void appendText(StringBuilder csv, String value) {
+        if (value == null) {
+            return;
+        }
+        csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static String toJson(Notification notification) {
+        if (notification.getMetadata() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(notification.getMetadata());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Metadata is not serializable: " + e.getMessage(), e);
+        }
+    }
+
+    // Tables created before ids moved to a sequence already hold identity-generated ids
+    @EventListener(ApplicationReadyEvent.class)
+    public void alignSequence() {
+        if (!isPostgres()) {
+            return;
+        }
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM notifications", Long.class);
+            Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + SEQUENCE_NAME, Long.class);
+            if (maxId != null && lastValue != null && lastValue < maxId) {
+                jdbcTemplate.queryForObject("SELECT setval('" + SEQUENCE_NAME + "', ?)", Long.class, maxId + SEQUENCE_INCREMENT);
+                logger.info("🔢 Advanced {} past existing notification ids (max id {})", SEQUENCE_NAME, maxId);
+            }
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not align {}: {}", SEQUENCE_NAME, e.getMessage());
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgresql"));
+        }
+        return postgres;
+    }
+}
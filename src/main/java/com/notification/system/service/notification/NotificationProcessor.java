@@ -1,7 +1,9 @@
 package com.notification.system.service.notification;
 
+import com.notification.system.model.dto.event.NotificationEvent;
 import com.notification.system.model.dto.response.NotificationResult;
 import com.notification.system.model.entity.Notification;
+import com.notification.system.model.entity.User;
 import com.notification.system.model.enums.NotificationStatus;
 import com.notification.system.repository.NotificationRepository;
 import com.notification.system.service.channel.NotificationChannel;
@@ -10,9 +12,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -20,6 +24,9 @@ import java.util.Optional;
 public class NotificationProcessor {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationProcessor.class);
+    private static final List<NotificationStatus> DELIVERABLE = List.of(NotificationStatus.PENDING, NotificationStatus.SCHEDULED);
+    // Matches the consumers' @RetryableTopic attempts: a failed row is only claimed again while below it
+    static final int MAX_DELIVERY_ATTEMPTS = 3;
 
     @Autowired
     private NotificationRepository notificationRepository;
@@ -43,9 +50,11 @@ public class NotificationProcessor {
         logger.debug("📡 Using channel: {}", channel.getChannelName());
         
         try {
-            // Update status to PENDING before sending
-            notification.setStatus(NotificationStatus.PENDING);
-            notificationRepository.save(notification);
+            // Update status to PENDING before sending; callers that claimed the row already did
+            if (notification.getStatus() != NotificationStatus.PENDING) {
+                notification.setStatus(NotificationStatus.PENDING);
+                notificationRepository.save(notification);
+            }
             
             NotificationResult result = channel.send(notification);
             
@@ -70,6 +79,51 @@ public class NotificationProcessor {
         }
     }
 
+    // Sends straight from the event payload and records only the final status, skipping the entity read.
+    // Outside a transaction: the claim and the outcome commit on their own, no row lock is held over the send
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean processNotificationEvent(NotificationEvent event) {
+        Notification notification = toTransientNotification(event);
+        logger.debug("🔄 Processing notification from event state: {} (ID: {})", event.getTitle(), event.getNotificationId());
+
+        // The payload may be stale: claim the row first, and leave one cancelled or sent since the event was
+        // published alone. A row whose earlier attempt failed is claimed again by the redelivery
+        if (notificationRepository.claimForDelivery(event.getNotificationId(), DELIVERABLE, NotificationStatus.FAILED,
+                MAX_DELIVERY_ATTEMPTS, NotificationStatus.PENDING, LocalDateTime.now()) == 0) {
+            logger.info("🚫 Notification {} is no longer deliverable, event {} not sent", event.getNotificationId(), event.getEventId());
+            return true;
+        }
+
+        Optional<NotificationChannel> channelOpt = channelFactory.getChannel(event.getChannelType());
+
+        if (channelOpt.isEmpty()) {
+            logger.error("❌ Unsupported channel type: {}", event.getChannelType());
+            recordDeliveryFailure(event.getNotificationId(), "Unsupported channel type: " + event.getChannelType());
+            return false;
+        }
+
+        NotificationChannel channel = channelOpt.get();
+
+        try {
+            NotificationResult result = channel.send(notification);
+
+            if (result.isSuccess()) {
+                logger.info("✅ Notification sent successfully via {}: {}", channel.getChannelName(), event.getTitle());
+                recordDeliveryStatus(event.getNotificationId(), NotificationStatus.SENT, LocalDateTime.now(), null);
+                return true;
+            } else {
+                logger.error("❌ Channel failed to send notification: {}", result.getMessage());
+                recordDeliveryFailure(event.getNotificationId(), result.getMessage());
+                return false;
+            }
+
+        } catch (Exception e) {
+            logger.error("💥 Exception during notification processing: {}", e.getMessage(), e);
+            recordDeliveryFailure(event.getNotificationId(), "Channel processing failed: " + e.getMessage());
+            return false;
+        }
+    }
+
     public void processNotificationWithRetry(Notification notification) {
         boolean success = processNotification(notification);
         
@@ -111,10 +165,50 @@ public class NotificationProcessor {
         logger.debug("📊 Updated notification {} status to: {}", notification.getId(), status);
     }
 
+    private void recordDeliveryStatus(Long notificationId, NotificationStatus status,
+                                      LocalDateTime sentAt, String errorMessage) {
+        int updated = notificationRepository.updateDeliveryStatus(
+                notificationId, List.of(NotificationStatus.PENDING), status, sentAt, errorMessage, LocalDateTime.now());
+        if (updated == 0) {
+            logger.warn("⚠️ No pending notification row found to record status {} for ID: {}", status, notificationId);
+        }
+    }
+
+    private void recordDeliveryFailure(Long notificationId, String errorMessage) {
+        if (notificationRepository.recordDeliveryFailure(notificationId, NotificationStatus.PENDING,
+                NotificationStatus.FAILED, errorMessage, LocalDateTime.now()) == 0) {
+            logger.warn("⚠️ No pending notification row found to record failure for ID: {}", notificationId);
+        }
+    }
+
+    private Notification toTransientNotification(NotificationEvent event) {
+        User recipient = new User();
+        recipient.setId(event.getUserId());
+        recipient.setUsername(event.getRecipientUsername());
+        recipient.setEmail(event.getRecipientEmail());
+        recipient.setPhoneNumber(event.getRecipientPhone());
+        recipient.setDeviceToken(event.getRecipientDeviceToken());
+
+        Notification notification = new Notification(recipient, event.getTitle(), event.getContent(),
+                                                      event.getChannelType(), event.getPriority());
+        notification.setId(event.getNotificationId());
+        notification.setMetadata(event.getMetadata());
+        notification.setScheduledAt(event.getScheduledAt());
+        notification.setRetryCount(event.getRetryCount() != null ? event.getRetryCount() : 0);
+        return notification;
+    }
+
     @Transactional
     public boolean processScheduledNotificationById(Long notificationId) {
         logger.info("🔍 Looking up scheduled notification ID: {}", notificationId);
-        
+
+        // Claim it before sending, so a sweeper or a second trigger for the same row cannot send it too
+        if (notificationRepository.transitionStatus(notificationId, NotificationStatus.SCHEDULED,
+                NotificationStatus.PENDING, LocalDateTime.now()) == 0) {
+            logger.warn("⚠️ Notification {} is missing or no longer scheduled, skipping execution", notificationId);
+            return false;
+        }
+
         Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
         if (notificationOpt.isEmpty()) {
             logger.error("❌ Notification not found: {}", notificationId);
@@ -122,13 +216,6 @@ public class NotificationProcessor {
         }
 
         Notification notification = notificationOpt.get();
-        
-        // Check if notification is still scheduled
-        if (notification.getStatus() != NotificationStatus.SCHEDULED) {
-            logger.warn("⚠️ Notification {} status is {}, skipping execution", 
-                       notificationId, notification.getStatus());
-            return false;
-        }
 
         logger.info("📤 Processing scheduled notification: {} - {}", 
                    notification.getTitle(), notification.getChannelType());
@@ -1,12 +1,19 @@
 package com.notification.system.service.notification;
 
 import com.notification.system.model.dto.request.NotificationRequest;
+import com.notification.system.model.dto.request.RecurringNotificationRequest;
+import com.notification.system.model.dto.response.NotificationHistoryResponse;
 import com.notification.system.model.dto.response.NotificationResponse;
+import com.notification.system.model.dto.response.RecurringNotificationResponse;
 import com.notification.system.model.dto.event.NotificationEvent;
 import com.notification.system.model.entity.Notification;
+import com.notification.system.model.entity.ScheduledJob;
 import com.notification.system.model.entity.User;
+import com.notification.system.model.enums.ChannelType;
 import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.model.enums.Priority;
 import com.notification.system.repository.NotificationRepository;
+import com.notification.system.repository.ScheduledJobRepository;
 import com.notification.system.repository.UserRepository;
 import com.notification.system.service.scheduler.NotificationSchedulerService;
 import com.notification.system.service.kafka.NotificationEventProducer;
@@ -15,10 +22,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -37,11 +49,23 @@ public class NotificationService {
     @Autowired
     private NotificationProcessor notificationProcessor;
 
+    @Autowired
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Autowired
+    private QuietHoursService quietHoursService;
+
     @Autowired(required = false)
     private NotificationEventProducer eventProducer;
 
     @Value("${notification.kafka.enabled:false}")
     private boolean kafkaEnabled;
+
+    @Value("${notification.kafka.event-carried-state.enabled:false}")
+    private boolean eventCarriedState;
+
+    @Value("${notification.history.max-page-size:100}")
+    private int maxHistoryPageSize = 100;
     
     public NotificationResponse sendNotification(NotificationRequest request) {
         User user = userRepository.findById(request.getUserId())
@@ -56,27 +80,72 @@ public class NotificationService {
             notification.setStatus(NotificationStatus.SCHEDULED);
         } else {
             notification.setStatus(NotificationStatus.PENDING);
+            quietHoursService.deferUntil(user, notification.getPriority(), Instant.now())
+                    .ifPresent(releaseAt -> quietHoursService.defer(notification, releaseAt));
         }
         
-        notification = notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
         
         // Handle scheduling or immediate sending
-        if (notification.getStatus() == NotificationStatus.SCHEDULED) {
+        if (saved.getDeferredUntil() != null) {
+            quietHoursService.enqueue(saved);
+        } else if (saved.getStatus() == NotificationStatus.SCHEDULED) {
             // Schedule with Quartz
-            schedulerService.scheduleNotification(notification);
+            schedulerService.scheduleNotification(saved);
         } else {
             if (kafkaEnabled && eventProducer != null) {
                 // Publish to Kafka for asynchronous processing
-                publishNotificationEvent(notification);
+                publishNotificationEvent(saved);
             } else {
                 // Fallback to synchronous processing when Kafka is disabled
-                notificationProcessor.processNotificationWithRetry(notification);
+                notificationProcessor.processNotificationWithRetry(saved);
             }
         }
         
-        return mapToResponse(notification);
+        return mapToResponse(saved);
     }
     
+    public RecurringNotificationResponse scheduleRecurringNotification(RecurringNotificationRequest request) {
+        User user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + request.getUserId()));
+        if (request.getTimeZone() == null || request.getTimeZone().isBlank()) {
+            request.setTimeZone(user.getTimeZone()); // The cron runs in the user's local time by default
+        }
+        return mapToRecurringResponse(schedulerService.scheduleRecurring(request));
+    }
+
+    public List<RecurringNotificationResponse> getRecurringNotifications() {
+        return scheduledJobRepository.findByIsRecurringTrueAndIsCompletedFalse().stream()
+                .map(this::mapToRecurringResponse)
+                .toList();
+    }
+
+    public boolean cancelRecurringNotification(Long id) {
+        return schedulerService.cancelRecurring(id);
+    }
+
+    /**
+     * Materializes one occurrence of a recurring notification from its template and sends it like
+     * any immediate notification. The occurrence is tagged so it can be traced back to its programme.
+     */
+    @SuppressWarnings("unchecked")
+    public NotificationResponse sendRecurringOccurrence(ScheduledJob template, LocalDateTime occurrenceAt) {
+        Map<String, Object> data = template.getJobData();
+        NotificationRequest request = new NotificationRequest(((Number) data.get("userId")).longValue(),
+                (String) data.get("title"), (String) data.get("content"), ChannelType.valueOf((String) data.get("channelType")));
+        request.setPriority(Priority.valueOf((String) data.get("priority")));
+
+        Map<String, Object> metadata = new HashMap<>();
+        if (data.get("metadata") instanceof Map<?, ?> templateMetadata) {
+            metadata.putAll((Map<String, Object>) templateMetadata);
+        }
+        metadata.put("recurringNotificationId", template.getId());
+        metadata.put("occurrenceAt", occurrenceAt.toString());
+        request.setMetadata(metadata);
+
+        return sendNotification(request);
+    }
+
     public Optional<NotificationResponse> getNotification(Long id) {
         return notificationRepository.findById(id)
                 .map(this::mapToResponse);
@@ -86,10 +155,39 @@ public class NotificationService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         
-        Pageable pageable = PageRequest.of(page, size);
+        // Newest first, in idx_notifications_user_created order
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
         return notificationRepository.findByUser(user, pageable)
                 .map(this::mapToResponse);
     }
+
+    /**
+     * One page of a user's history, newest first, continuing after {@code cursor} (from the newest
+     * when null). Runs a single keyset query per page and never counts the total.
+     */
+    public NotificationHistoryResponse getUserHistory(Long userId, String cursor, int limit) {
+        if (limit < 1 || limit > maxHistoryPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxHistoryPageSize);
+        }
+        // One row more than asked for tells whether another page follows
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<Notification> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = notificationRepository.findUserHistory(userId, pageable);
+        } else {
+            HistoryCursor position = HistoryCursor.decode(cursor);
+            rows = notificationRepository.findUserHistoryBefore(userId, position.createdAt(), position.id(), pageable);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<Notification> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Notification last = page.get(page.size() - 1);
+            nextCursor = new HistoryCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new NotificationHistoryResponse(page.stream().map(this::mapToResponse).toList(), nextCursor, hasMore);
+    }
     
     
     private NotificationResponse mapToResponse(Notification notification) {
@@ -111,6 +209,30 @@ public class NotificationService {
         return response;
     }
 
+    private RecurringNotificationResponse mapToRecurringResponse(ScheduledJob job) {
+        Map<String, Object> data = job.getJobData() != null ? job.getJobData() : Map.of();
+        RecurringNotificationResponse response = new RecurringNotificationResponse();
+        response.setId(job.getId());
+        if (data.get("userId") instanceof Number userId) {
+            response.setUserId(userId.longValue());
+        }
+        response.setTitle((String) data.get("title"));
+        if (data.get("channelType") != null) {
+            response.setChannelType(ChannelType.valueOf(data.get("channelType").toString()));
+        }
+        response.setCronExpression(job.getCronExpression());
+        response.setTimeZone((String) data.get("timeZone"));
+        response.setNextFireAt(job.isCompleted() ? null : job.getScheduledTime());
+        if (data.get("lastFiredAt") != null) {
+            response.setLastFiredAt(LocalDateTime.parse(data.get("lastFiredAt").toString()));
+        }
+        if (data.get("occurrences") instanceof Number occurrences) {
+            response.setOccurrences(occurrences.longValue());
+        }
+        response.setActive(!job.isCompleted());
+        return response;
+    }
+
     private void publishNotificationEvent(Notification notification) {
         NotificationEvent event = new NotificationEvent(
                 notification.getId(),
@@ -124,6 +246,15 @@ public class NotificationService {
         event.setMetadata(notification.getMetadata());
         event.setScheduledAt(notification.getScheduledAt());
         
+        if (eventCarriedState) {
+            User user = notification.getUser();
+            event.setRecipientUsername(user.getUsername());
+            event.setRecipientEmail(user.getEmail());
+            event.setRecipientPhone(user.getPhoneNumber());
+            event.setRecipientDeviceToken(user.getDeviceToken());
+            event.setCarriesRecipientState(true);
+        }
+        
         eventProducer.publishNotificationEvent(event);
     }
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.entity.User;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.model.enums.Priority;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.service.scheduler.NotificationSchedulerService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Holds back deferrable notifications while their user is in quiet hours. A deferred notification
+ * joins the bucket of the local hour its user's quiet hours end in. Each bucket has one release
+ * job, whatever its size, and all of its notifications are sent together in chunks when it fires.
+ */
+@Service
+public class QuietHoursService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuietHoursService.class);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationSchedulerService schedulerService;
+
+    @Autowired
+    private NotificationProcessor notificationProcessor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${notification.quiet-hours.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${notification.quiet-hours.deferrable-priorities:LOW}")
+    private Set<Priority> deferrablePriorities = Set.of(Priority.LOW);
+
+    @Value("${notification.quiet-hours.min-deferral-seconds:60}")
+    private long minDeferralSeconds = 60;
+
+    @Value("${notification.quiet-hours.release-chunk-size:500}")
+    private int releaseChunkSize = 500;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The UTC time a notification of this priority should wait for, or empty to send it now.
+     */
+    public Optional<LocalDateTime> deferUntil(User user, Priority priority, Instant now) {
+        if (!enabled || !deferrablePriorities.contains(priority)) {
+            return Optional.empty();
+        }
+        return releaseTime(NotificationSchedulerService.zoneOf(user.getTimeZone()),
+                user.getQuietHoursStart(), user.getQuietHoursEnd(), now)
+                .filter(release -> release.isAfter(LocalDateTime.ofInstant(now, ZoneOffset.UTC).plusSeconds(minDeferralSeconds)));
+    }
+
+    /**
+     * Marks a notification as waiting for {@code releaseAt}, before it is first saved.
+     */
+    public void defer(Notification notification, LocalDateTime releaseAt) {
+        notification.setStatus(NotificationStatus.SCHEDULED);
+        notification.setScheduledAt(releaseAt);
+        notification.setDeferredUntil(releaseAt);
+    }
+
+    /**
+     * Makes sure the bucket of a saved deferred notification will be released.
+     */
+    public void enqueue(Notification notification) {
+        schedulerService.scheduleQuietBucket(notification.getDeferredUntil());
+        logger.debug("🌙 Notification {} deferred to quiet-hours bucket {} (UTC)", notification.getId(), notification.getDeferredUntil());
+    }
+
+    /**
+     * Sends every notification still waiting in the bucket, a chunk at a time. Each chunk is locked
+     * and sent in one transaction, so if the node dies mid-chunk the lock goes with its connection,
+     * the rows are still SCHEDULED and the recovered release job sends them again. Returns the
+     * number released.
+     */
+    public int release(LocalDateTime bucket) {
+        int released = 0;
+        Integer sent;
+        do {
+            sent = transactionTemplate.execute(status -> releaseChunk(bucket));
+            if (sent == null || sent == 0) {
+                break;
+            }
+            released += sent;
+        } while (sent == releaseChunkSize);
+
+        logger.info("☀️ Released {} notifications from quiet-hours bucket {} (UTC)", released, bucket);
+        return released;
+    }
+
+    // Runs in the chunk's transaction: the row locks are held until every send is recorded
+    private int releaseChunk(LocalDateTime bucket) {
+        List<Long> locked = notificationRepository.lockDeferred(bucket, NotificationStatus.SCHEDULED,
+                PageRequest.of(0, releaseChunkSize)).stream().map(Notification::getId).toList();
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        for (Notification notification : notificationRepository.findAllWithUserByIdIn(locked)) {
+            notificationProcessor.processNotification(notification);
+        }
+        return locked.size();
+    }
+
+    /**
+     * If {@code now} falls within the quiet hours, the UTC start of the local hour in which they end
+     * (rounded up to a whole hour, so users of one zone share a bucket per hour). Quiet hours may wrap
+     * midnight; equal or missing bounds mean none.
+     */
+    static Optional<LocalDateTime> releaseTime(ZoneId zone, LocalTime start, LocalTime end, Instant now) {
+        if (start == null || end == null || start.equals(end)) {
+            return Optional.empty();
+        }
+        ZonedDateTime local = now.atZone(zone);
+        LocalTime time = local.toLocalTime();
+        boolean wraps = start.isAfter(end);
+        boolean quiet = wraps ? !time.isBefore(start) || time.isBefore(end)
+                              : !time.isBefore(start) && time.isBefore(end);
+        if (!quiet) {
+            return Optional.empty();
+        }
+
+        ZonedDateTime release = local.toLocalDate().plusDays(wraps && !time.isBefore(start) ? 1 : 0)
+                .atTime(end).atZone(zone);
+        ZonedDateTime hour = release.truncatedTo(ChronoUnit.HOURS);
+        if (!hour.equals(release)) {
+            release = hour.plusHours(1);
+        }
+        return Optional.of(LocalDateTime.ofInstant(release.toInstant(), ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,173 @@
+package com.notification.system.service.notification;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Incremental reader for recipient files. Supports NDJSON ({"userId": 1} or a bare id per
+ * line) and CSV (a userId/user_id column, or the first column), optionally gzip-compressed.
+ * Only one line is held in memory at a time. An id must be a whole number that fits a long;
+ * in NDJSON it may also be a string of digits ({"userId": "1"}). Any other line is reported
+ * as invalid, with its line number.
+ */
+public class RecipientFileReader implements Closeable {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private final Format format;
+    private int csvColumn = 0;
+    private boolean headerChecked = false;
+    private long lineNumber = 0;
+    private long recordsRead = 0;
+
+    public RecipientFileReader(InputStream input, String filename) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input);
+        InputStream decoded = isGzip(buffered) ? new GZIPInputStream(buffered) : buffered;
+        this.reader = new BufferedReader(new InputStreamReader(decoded, StandardCharsets.UTF_8));
+        this.format = detectFormat(filename);
+    }
+
+    public static Format detectFormat(String filename) {
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        return name.endsWith(".csv") ? Format.CSV : Format.NDJSON;
+    }
+
+    /**
+     * Reads up to {@code maxRecords} user ids. Returns an empty list at end of input.
+     */
+    public List<Long> nextChunk(int maxRecords) throws IOException {
+        List<Long> chunk = new ArrayList<>(maxRecords);
+        String line;
+        while (chunk.size() < maxRecords && (line = reader.readLine()) != null) {
+            lineNumber++;
+            Long userId = parseLine(line.trim());
+            if (userId != null) {
+                chunk.add(userId);
+                recordsRead++;
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Skips {@code records} user ids, used to resume from a previously committed cursor.
+     */
+    public long skip(long records) throws IOException {
+        long skipped = 0;
+        while (skipped < records) {
+            List<Long> chunk = nextChunk((int) Math.min(10_000, records - skipped));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            skipped += chunk.size();
+        }
+        return skipped;
+    }
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    private Long parseLine(String line) throws IOException {
+        if (line.isEmpty()) {
+            return null;
+        }
+        return format == Format.CSV ? parseCsvLine(line) : parseNdjsonLine(line);
+    }
+
+    private Long parseNdjsonLine(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        JsonNode idNode = node.isObject() ? (node.has("userId") ? node.get("userId") : node.get("user_id")) : node;
+        if (idNode != null && idNode.isIntegralNumber() && idNode.canConvertToLong()) {
+            return idNode.asLong();
+        }
+        if (idNode != null && idNode.isTextual() && isNumeric(idNode.asText().trim())) {
+            return parseId(idNode.asText().trim());
+        }
+        throw new IOException("Invalid recipient on line " + lineNumber + ": " + line);
+    }
+
+    private Long parseCsvLine(String line) throws IOException {
+        String[] columns = line.split(",", -1);
+        if (!headerChecked) {
+            headerChecked = true;
+            for (int i = 0; i < columns.length; i++) {
+                String column = unquote(columns[i]).toLowerCase(Locale.ROOT);
+                if (column.equals("userid") || column.equals("user_id")) {
+                    csvColumn = i;
+                    return null;
+                }
+            }
+            if (!isNumeric(unquote(columns[0]))) {
+                return null; // Header without a recognised id column, fall back to the first column
+            }
+        }
+
+        if (csvColumn >= columns.length) {
+            throw new IOException("Missing user id column on line " + lineNumber);
+        }
+        String value = unquote(columns[csvColumn]);
+        if (!isNumeric(value)) {
+            throw new IOException("Invalid user id on line " + lineNumber + ": " + value);
+        }
+        return parseId(value);
+    }
+
+    private Long parseId(String digits) throws IOException {
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            throw new IOException("User id out of range on line " + lineNumber + ": " + digits);
+        }
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+
+    private static boolean isNumeric(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isGzip(BufferedInputStream input) throws IOException {
+        input.mark(2);
+        int first = input.read();
+        int second = input.read();
+        input.reset();
+        return first == 0x1f && second == 0x8b;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,145 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.entity.User;
+import com.notification.system.repository.UserRepository;
+import com.notification.system.repository.UserRepository.RecipientView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Resolves batch recipient ids to users in bounded chunks. Ids are sorted and de-duplicated
+ * so each chunk is a contiguous key range: dense ranges are read with a BETWEEN scan, sparse
+ * ones with an IN list no larger than the chunk size. Only the fields channels need are
+ * loaded, and which ids were found is tracked in a bitmap over the sorted id array.
+ */
+@Component
+public class RecipientResolver {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${notification.batch.resolver.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    // A chunk is range-scanned when its ids cover at least this fraction of the key span
+    @Value("${notification.batch.resolver.range-scan-density:0.5}")
+    private double rangeScanDensity = 0.5;
+
+    /**
+     * Streams resolved users to {@code sink} one chunk at a time, in ascending id order.
+     */
+    public Resolution resolve(Collection<Long> userIds, Consumer<List<User>> sink) {
+        try {
+            return stream(userIds, users -> {
+                sink.accept(users);
+                return true;
+            });
+        } catch (InterruptedException e) {
+            // Only the handler could throw it, and this one doesn't
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Like {@link #resolve}, but the handler can stop the stream; later chunks are then not read
+     * and the resolution is marked incomplete.
+     */
+    public Resolution stream(Collection<Long> userIds, SegmentUserStreamer.ChunkHandler handler) throws InterruptedException {
+        long[] ids = userIds.stream()
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+        BitSet found = new BitSet(ids.length);
+
+        for (int start = 0; start < ids.length; start += chunkSize) {
+            int end = Math.min(start + chunkSize, ids.length);
+            List<RecipientView> rows = fetchChunk(ids, start, end);
+
+            List<User> users = new ArrayList<>(rows.size());
+            for (RecipientView row : rows) {
+                int position = Arrays.binarySearch(ids, start, end, row.getId());
+                if (position >= 0 && !found.get(position)) {
+                    found.set(position);
+                    users.add(toUser(row));
+                }
+            }
+            if (!users.isEmpty() && !handler.handle(users)) {
+                return new Resolution(userIds.size(), ids, found, false);
+            }
+        }
+
+        return new Resolution(userIds.size(), ids, found, true);
+    }
+
+    private List<RecipientView> fetchChunk(long[] ids, int start, int end) {
+        long fromId = ids[start];
+        long toId = ids[end - 1];
+        double span = (double) toId - fromId + 1;
+        if ((end - start) >= span * rangeScanDensity) {
+            return userRepository.findRecipientsInRange(fromId, toId);
+        }
+
+        List<Long> chunk = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            chunk.add(ids[i]);
+        }
+        return userRepository.findRecipientsByIdIn(chunk);
+    }
+
+    static User toUser(RecipientView row) {
+        User user = new User();
+        user.setId(row.getId());
+        user.setUsername(row.getUsername());
+        user.setEmail(row.getEmail());
+        user.setPhoneNumber(row.getPhoneNumber());
+        user.setDeviceToken(row.getDeviceToken());
+        user.setTimeZone(row.getTimeZone());
+        user.setQuietHoursStart(row.getQuietHoursStart());
+        user.setQuietHoursEnd(row.getQuietHoursEnd());
+        return user;
+    }
+
+    public static class Resolution {
+        private final int requested;
+        private final long[] ids;
+        private final BitSet found;
+        private final boolean complete;
+
+        Resolution(int requested, long[] ids, BitSet found, boolean complete) {
+            this.requested = requested;
+            this.ids = ids;
+            this.found = found;
+            this.complete = complete;
+        }
+
+        public int getRequested() { return requested; }
+        public int getDistinct() { return ids.length; }
+        public int getFound() { return found.cardinality(); }
+        public int getMissing() { return ids.length - found.cardinality(); }
+        public int getDuplicates() { return requested - ids.length; }
+        // False when the handler stopped the stream before every chunk was read
+        public boolean isComplete() { return complete; }
+
+        public boolean isFound(long userId) {
+            int position = Arrays.binarySearch(ids, userId);
+            return position >= 0 && found.get(position);
+        }
+
+        /**
+         * Up to {@code limit} missing ids in ascending order, for logging and error reports.
+         */
+        public List<Long> missingIds(int limit) {
+            List<Long> missing = new ArrayList<>(Math.min(limit, getMissing()));
+            for (int i = found.nextClearBit(0); i < ids.length && missing.size() < limit; i = found.nextClearBit(i + 1)) {
+                missing.add(ids[i]);
+            }
+            return missing;
+        }
+    }
+}
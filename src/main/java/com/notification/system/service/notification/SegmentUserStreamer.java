@@ -0,0 +1,185 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.dto.request.AudienceSegment;
+import com.notification.system.model.entity.User;
+import com.notification.system.model.enums.ChannelType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the users matching an {@link AudienceSegment} through a forward-only JDBC cursor.
+ * Rows arrive {@code fetch-size} at a time and are handed on in chunks, so memory is bounded
+ * by the chunk size regardless of how many users match.
+ */
+@Component
+public class SegmentUserStreamer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentUserStreamer.class);
+
+    @FunctionalInterface
+    public interface ChunkHandler {
+        /**
+         * Returns false to stop streaming.
+         */
+        boolean handle(List<User> users) throws InterruptedException;
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${notification.batch.segment.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    /**
+     * Streams matching users in ascending id order. Returns the number of users read.
+     */
+    public long stream(AudienceSegment segment, int chunkSize, ChunkHandler handler) throws SQLException, InterruptedException {
+        return stream(segment, null, null, chunkSize, handler);
+    }
+
+    /**
+     * Resumable variant: only users with an id above {@code afterUserId} and, when
+     * {@code excludeBatchId} is given, without a notification in that batch yet.
+     */
+    public long stream(AudienceSegment segment, Long afterUserId, String excludeBatchId, int chunkSize,
+                       ChunkHandler handler) throws SQLException, InterruptedException {
+        List<Object> params = new ArrayList<>();
+        String sql = buildQuery(segment, afterUserId, excludeBatchId, params);
+
+        // A connection of our own: the PostgreSQL driver only uses a server-side cursor with
+        // autocommit off, and sends made while streaming must not join this read transaction
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+
+                long read = 0;
+                try (ResultSet rs = statement.executeQuery()) {
+                    List<User> chunk = new ArrayList<>(chunkSize);
+                    while (rs.next()) {
+                        chunk.add(toUser(rs));
+                        read++;
+                        if (chunk.size() == chunkSize) {
+                            if (!handler.handle(chunk)) {
+                                return read;
+                            }
+                            chunk = new ArrayList<>(chunkSize);
+                        }
+                    }
+                    if (!chunk.isEmpty()) {
+                        handler.handle(chunk);
+                    }
+                }
+                logger.debug("👥 Streamed {} users for segment", read);
+                return read;
+            } finally {
+                connection.rollback();
+                connection.setReadOnly(false);
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Counts the users {@link #stream} would read with the same arguments.
+     */
+    public long count(AudienceSegment segment, Long afterUserId, String excludeBatchId) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = buildCountQuery(segment, afterUserId, excludeBatchId, params);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    static String buildQuery(AudienceSegment segment, List<Object> params) {
+        return buildQuery(segment, null, null, params);
+    }
+
+    static String buildQuery(AudienceSegment segment, Long afterUserId, String excludeBatchId, List<Object> params) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT u.id, u.username, u.email, u.phone_number, u.device_token, " +
+                "u.time_zone, u.quiet_hours_start, u.quiet_hours_end FROM users u WHERE 1 = 1");
+        appendCriteria(sql, segment, afterUserId, excludeBatchId, params);
+        return sql.append(" ORDER BY u.id").toString();
+    }
+
+    static String buildCountQuery(AudienceSegment segment, Long afterUserId, String excludeBatchId, List<Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM users u WHERE 1 = 1");
+        appendCriteria(sql, segment, afterUserId, excludeBatchId, params);
+        return sql.toString();
+    }
+
+    private static void appendCriteria(StringBuilder sql, AudienceSegment segment, Long afterUserId,
+                                       String excludeBatchId, List<Object> params) {
+        if (segment.getPreferredChannels() != null && !segment.getPreferredChannels().isEmpty()) {
+            sql.append(" AND EXISTS (SELECT 1 FROM user_preferred_channels c WHERE c.user_id = u.id AND c.channel_type IN (")
+               .append(segment.getPreferredChannels().stream().map(channel -> "?").collect(Collectors.joining(", ")))
+               .append("))");
+            segment.getPreferredChannels().stream()
+                    .map(ChannelType::name)
+                    .sorted()
+                    .forEach(params::add);
+        }
+        if (segment.getCreatedFrom() != null) {
+            sql.append(" AND u.created_at >= ?");
+            params.add(Timestamp.valueOf(segment.getCreatedFrom()));
+        }
+        if (segment.getCreatedTo() != null) {
+            sql.append(" AND u.created_at < ?");
+            params.add(Timestamp.valueOf(segment.getCreatedTo()));
+        }
+        if (segment.getRole() != null) {
+            sql.append(" AND u.role = ?");
+            params.add(segment.getRole().name());
+        }
+        if (afterUserId != null) {
+            sql.append(" AND u.id > ?");
+            params.add(afterUserId);
+        }
+        if (excludeBatchId != null) {
+            // Set difference against users already notified by this batch, via idx_notifications_batch_user
+            sql.append(" AND NOT EXISTS (SELECT 1 FROM notifications n WHERE n.batch_id = ? AND n.user_id = u.id)");
+            params.add(excludeBatchId);
+        }
+    }
+
+    private static User toUser(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setId(rs.getLong(1));
+        user.setUsername(rs.getString(2));
+        user.setEmail(rs.getString(3));
+        user.setPhoneNumber(rs.getString(4));
+        user.setDeviceToken(rs.getString(5));
+        user.setTimeZone(rs.getString(6));
+        user.setQuietHoursStart(rs.getObject(7, LocalTime.class));
+        user.setQuietHoursEnd(rs.getObject(8, LocalTime.class));
+        return user;
+    }
+}
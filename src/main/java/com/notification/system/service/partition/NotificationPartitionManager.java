@@ -0,0 +1,288 @@
+package com.notification.system.service.partition;
+
+import com.notification.system.model.enums.NotificationStatus;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the {@code created_at} range partitions of {@code notifications} (see
+ * {@code V3__partition_notifications.sql}). Partitions are created {@code premake} periods ahead, so
+ * inserts never fall through to the default partition. Retention drops (or detaches, for offline
+ * archiving) whole partitions that ended more than {@code retention-days} ago, instead of deleting
+ * their rows. A partition still holding PENDING or SCHEDULED notifications, or failed ones awaiting a
+ * retry, is kept; the check and the drop run in one transaction under an exclusive lock on the partition.
+ * Nodes take turns through a PostgreSQL advisory lock.
+ */
+@Service
+@ConditionalOnProperty(name = "notification.partitioning.enabled", havingValue = "true")
+public class NotificationPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPartitionManager.class);
+
+    static final String TABLE = "notifications";
+    static final String DETACH_ACTION = "detach";
+
+    private static final long ADVISORY_LOCK_KEY = 0x6e6f7469_70617274L;
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\((.+)\\) TO \\((.+)\\)");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    enum Interval {
+        DAILY(ChronoUnit.DAYS, "yyyyMMdd"),
+        MONTHLY(ChronoUnit.MONTHS, "yyyyMM");
+
+        private final ChronoUnit unit;
+        private final DateTimeFormatter suffix;
+
+        Interval(ChronoUnit unit, String suffix) {
+            this.unit = unit;
+            this.suffix = DateTimeFormatter.ofPattern(suffix);
+        }
+
+        LocalDateTime start(LocalDateTime time) {
+            LocalDateTime day = time.truncatedTo(ChronoUnit.DAYS);
+            return this == MONTHLY ? day.withDayOfMonth(1) : day;
+        }
+
+        Range range(LocalDateTime start) {
+            return new Range(TABLE + "_p" + suffix.format(start), start, start.plus(1, unit));
+        }
+    }
+
+    // from is null for MINVALUE and to for MAXVALUE
+    record Partition(String name, LocalDateTime from, LocalDateTime to, boolean isDefault) {
+
+        boolean overlaps(Range range) {
+            return !isDefault && (from == null || from.isBefore(range.to())) && (to == null || to.isAfter(range.from()));
+        }
+    }
+
+    record Range(String name, LocalDateTime from, LocalDateTime to) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${notification.partitioning.interval:monthly}")
+    private String intervalName = "monthly";
+
+    @Value("${notification.partitioning.premake:3}")
+    private int premake = 3;
+
+    @Value("${notification.partitioning.retention-days:0}")
+    private int retentionDays = 0;
+
+    @Value("${notification.partitioning.retention-action:drop}")
+    private String retentionAction = "drop";
+
+    @Value("${notification.partitioning.lock-timeout-ms:5000}")
+    private long lockTimeoutMs = 5000;
+
+    private Interval interval;
+
+    @PostConstruct
+    public void init() {
+        try {
+            interval = Interval.valueOf(intervalName.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("notification.partitioning.interval must be daily or monthly, not " + intervalName);
+        }
+        logger.info("🗂️ Notification partitions: {}, {} ahead, {}", interval.name().toLowerCase(Locale.ROOT), premake,
+                retentionDays > 0 ? retentionAction + " after " + retentionDays + " days" : "kept forever");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            maintain();
+        } catch (Exception e) {
+            logger.error("❌ Failed to maintain notification partitions: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${notification.partitioning.cron:0 15 3 * * *}")
+    public void scheduledRun() {
+        maintain();
+    }
+
+    /**
+     * Creates the partitions missing up to {@code premake} periods ahead and retires the expired ones.
+     * Returns the partitions created, retired and kept back; empty if another node holds the lock.
+     */
+    public Map<String, List<String>> maintain() {
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, List<String>>>) connection -> {
+            // One connection throughout, since the advisory lock belongs to the session
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!Boolean.TRUE.equals(session.queryForObject("SELECT pg_try_advisory_lock(?)", Boolean.class, ADVISORY_LOCK_KEY))) {
+                logger.info("⏳ Partition maintenance already running on another node, skipped");
+                return Map.of();
+            }
+            try {
+                return maintain(session, LocalDateTime.now());
+            } finally {
+                session.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+            }
+        });
+    }
+
+    Map<String, List<String>> maintain(JdbcTemplate session, LocalDateTime now) {
+        List<Partition> partitions = partitions(session);
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        result.put("created", create(session, missing(partitions, interval, now, premake)));
+
+        List<String> retired = new ArrayList<>();
+        List<String> kept = new ArrayList<>();
+        if (retentionDays > 0) {
+            for (Partition partition : expired(partitions, now.minusDays(retentionDays))) {
+                (retire(session, partition) ? retired : kept).add(partition.name());
+            }
+        }
+        result.put("retired", retired);
+        result.put("kept", kept);
+
+        partitions.stream().filter(Partition::isDefault).findFirst().ifPresent(partition -> {
+            if (Boolean.TRUE.equals(session.queryForObject("SELECT EXISTS (SELECT 1 FROM " + quote(partition.name()) + ")", Boolean.class))) {
+                logger.warn("⚠️ {} holds rows outside every partition; partitions covering them cannot be created until they are moved",
+                        partition.name());
+            }
+        });
+        logger.info("🗂️ Partition maintenance: created {}, retired {}, kept back {}", result.get("created"), retired, kept);
+        return result;
+    }
+
+    List<Partition> partitions(JdbcTemplate session) {
+        return session.query("SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = '" + TABLE + "'::regclass",
+                (rs, row) -> parse(rs.getString(1), rs.getString(2)));
+    }
+
+    private List<String> create(JdbcTemplate session, List<Range> ranges) {
+        List<String> created = new ArrayList<>();
+        for (Range range : ranges) {
+            try {
+                session.execute("CREATE TABLE IF NOT EXISTS " + quote(range.name()) + " PARTITION OF " + TABLE +
+                        " FOR VALUES FROM ('" + BOUND_FORMAT.format(range.from()) + "') TO ('" + BOUND_FORMAT.format(range.to()) + "')");
+                created.add(range.name());
+                logger.info("🗂️ Created partition {} for [{}, {})", range.name(), range.from(), range.to());
+            } catch (DataAccessException e) {
+                logger.error("❌ Failed to create partition {}: {}", range.name(), e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    private boolean retire(JdbcTemplate session, Partition partition) {
+        String name = quote(partition.name());
+        boolean detach = DETACH_ACTION.equalsIgnoreCase(retentionAction);
+        try {
+            // Nothing can write to the partition between the check and the drop, e.g. a retry moving a row back to PENDING.
+            // The lock timeout keeps a busy partition from stalling writers to notifications; it is retried next run
+            session.execute("BEGIN");
+            session.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+            session.execute("LOCK TABLE " + name + " IN ACCESS EXCLUSIVE MODE");
+            Boolean live = session.queryForObject("SELECT EXISTS (SELECT 1 FROM " + name + " WHERE status IN ('" +
+                    NotificationStatus.PENDING + "', '" + NotificationStatus.SCHEDULED + "') OR (status = '" +
+                    NotificationStatus.FAILED + "' AND next_retry_at IS NOT NULL))", Boolean.class);
+            if (Boolean.TRUE.equals(live)) {
+                session.execute("ROLLBACK");
+                logger.warn("⚠️ Partition {} has expired but still holds pending, scheduled or retrying notifications, kept",
+                        partition.name());
+                return false;
+            }
+            // No foreign key guards scheduled_jobs any more, so their rows go first
+            int jobs = session.update("DELETE FROM scheduled_jobs j USING " + name + " n WHERE j.notification_id = n.id");
+            if (detach) {
+                session.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + name);
+            } else {
+                session.execute("DROP TABLE " + name);
+            }
+            session.execute("COMMIT");
+            logger.info("🧹 {} partition {} (up to {}) and {} of its scheduled jobs",
+                    detach ? "Detached" : "Dropped", partition.name(), partition.to(), jobs);
+            return true;
+        } catch (DataAccessException e) {
+            rollback(session);
+            logger.error("❌ Failed to retire partition {}: {}", partition.name(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static void rollback(JdbcTemplate session) {
+        try {
+            session.execute("ROLLBACK");
+        } catch (DataAccessException e) {
+            logger.warn("⚠️ Rollback after a failed partition retirement failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Partitions for the current period and the {@code premake} after it, skipping periods an
+     * existing partition already covers (such as the legacy one, or monthly ones after a switch to daily).
+     */
+    static List<Range> missing(List<Partition> existing, Interval interval, LocalDateTime now, int premake) {
+        List<Range> missing = new ArrayList<>();
+        LocalDateTime start = interval.start(now);
+        for (int i = 0; i <= premake; i++) {
+            Range range = interval.range(start);
+            if (existing.stream().noneMatch(partition -> partition.overlaps(range))) {
+                missing.add(range);
+            }
+            start = range.to();
+        }
+        return missing;
+    }
+
+    /**
+     * Range partitions whose every row was created before {@code cutoff}, oldest first.
+     */
+    static List<Partition> expired(List<Partition> existing, LocalDateTime cutoff) {
+        return existing.stream()
+                .filter(partition -> !partition.isDefault() && partition.to() != null && !partition.to().isAfter(cutoff))
+                .sorted(Comparator.comparing(Partition::to))
+                .toList();
+    }
+
+    static Partition parse(String name, String bound) {
+        if ("DEFAULT".equals(bound)) {
+            return new Partition(name, null, null, true);
+        }
+        Matcher matcher = RANGE_BOUND.matcher(bound);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected bound for partition " + name + ": " + bound);
+        }
+        return new Partition(name, boundValue(matcher.group(1)), boundValue(matcher.group(2)), false);
+    }
+
+    private static LocalDateTime boundValue(String value) {
+        if ("MINVALUE".equals(value) || "MAXVALUE".equals(value)) {
+            return null;
+        }
+        return LocalDateTime.parse(value.replace("'", "").trim().replace(' ', 'T'));
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,251 @@
+package com.notification.system.service.retention;
+
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.entity.ScheduledJob;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.repository.ScheduledJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reclaims notifications in a final status and completed {@code scheduled_jobs} rows once they
+ * are older than their TTL. Rows go in small keyset-ordered chunks, one short transaction each,
+ * with a pause in between. This keeps row locks brief and gives autovacuum time to keep up.
+ * In archive mode, notifications are copied to {@code notifications_archive} in the same
+ * transaction that deletes them. A pass can take minutes of pauses alone, so the scheduled run
+ * happens on a thread of its own rather than the one shared by the {@code @Scheduled} jobs.
+ */
+@Service
+@ConditionalOnProperty(name = "notification.retention.enabled", havingValue = "true")
+public class RetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetentionService.class);
+
+    static final String ARCHIVE_MODE = "archive";
+
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notification.retention.mode:delete}")
+    private String mode = "delete";
+
+    @Value("${notification.retention.ttl-days.sent:30}")
+    private int sentDays = 30;
+
+    @Value("${notification.retention.ttl-days.delivered:30}")
+    private int deliveredDays = 30;
+
+    @Value("${notification.retention.ttl-days.failed:90}")
+    private int failedDays = 90;
+
+    @Value("${notification.retention.ttl-days.cancelled:30}")
+    private int cancelledDays = 30;
+
+    @Value("${notification.retention.ttl-days.scheduled-jobs:7}")
+    private int scheduledJobDays = 7;
+
+    @Value("${notification.retention.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${notification.retention.pause-ms:200}")
+    private long pauseMs = 200;
+
+    @Value("${notification.retention.max-rows-per-run:500000}")
+    private long maxRowsPerRun = 500000;
+
+    private final Map<NotificationStatus, Integer> ttlDays = new EnumMap<>(NotificationStatus.class);
+    private final AtomicBoolean inProgress = new AtomicBoolean();
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("notification-retention-"));
+        // PENDING and SCHEDULED rows are live and never expire
+        ttlDays.put(NotificationStatus.SENT, sentDays);
+        ttlDays.put(NotificationStatus.DELIVERED, deliveredDays);
+        ttlDays.put(NotificationStatus.FAILED, failedDays);
+        ttlDays.put(NotificationStatus.CANCELLED, cancelledDays);
+        running = true;
+        logger.info("🧹 Retention enabled in {} mode: {} days per status, completed scheduled jobs after {} days",
+                mode, ttlDays, scheduledJobDays);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    // Only hands the pass to the retention thread; an overlapping one is skipped by run()
+    @Scheduled(cron = "${notification.retention.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        executor.execute(this::run);
+    }
+
+    /**
+     * Runs one retention pass and returns the rows reclaimed per table and status. Returns an
+     * empty map if a pass is already running on this node.
+     */
+    public Map<String, Long> run() {
+        if (!inProgress.compareAndSet(false, true)) {
+            logger.info("⏳ Retention pass already running, skipped");
+            return Map.of();
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Map<String, Long> reclaimed = new LinkedHashMap<>();
+            long budget = maxRowsPerRun;
+            for (Map.Entry<NotificationStatus, Integer> ttl : ttlDays.entrySet()) {
+                if (ttl.getValue() <= 0 || budget <= 0) {
+                    continue;
+                }
+                long count = reclaimNotifications(ttl.getKey(), now.minusDays(ttl.getValue()), now, budget);
+                reclaimed.put("notifications." + ttl.getKey(), count);
+                budget -= count;
+            }
+            if (scheduledJobDays > 0 && budget > 0) {
+                reclaimed.put("scheduled_jobs", reclaimScheduledJobs(now.minusDays(scheduledJobDays), budget));
+            }
+            logger.info("🧹 Retention pass finished: {}", reclaimed);
+            return reclaimed;
+        } finally {
+            inProgress.set(false);
+        }
+    }
+
+    long reclaimNotifications(NotificationStatus status, LocalDateTime cutoff, LocalDateTime now, long budget) {
+        boolean archive = ARCHIVE_MODE.equalsIgnoreCase(mode);
+        Counter counter = reclaimedCounter("notifications", status.name(), archive ? "archived" : "deleted");
+        long total = 0;
+        LocalDateTime afterTime = KEYSET_START;
+        long afterId = 0L;
+        while (running && total < budget) {
+            int limit = (int) Math.min(chunkSize, budget - total);
+            LocalDateTime keyTime = afterTime;
+            long keyId = afterId;
+            Chunk chunk = transactionTemplate.execute(tx -> {
+                List<Notification> rows = notificationRepository.lockExpired(status, cutoff, keyTime, keyId,
+                        PageRequest.of(0, limit));
+                if (rows.isEmpty()) {
+                    return new Chunk(0, null, null);
+                }
+                List<Long> ids = rows.stream().map(Notification::getId).toList();
+                if (archive) {
+                    notificationRepository.archiveByIdIn(ids, now);
+                }
+                scheduledJobRepository.deleteByNotificationIdIn(ids);
+                int deleted = notificationRepository.deleteByIdIn(ids);
+                Notification last = rows.get(rows.size() - 1);
+                return new Chunk(deleted, last.getUpdatedAt(), last.getId());
+            });
+            if (chunk == null || chunk.lastTime() == null) {
+                break;
+            }
+            counter.increment(chunk.reclaimed());
+            total += chunk.reclaimed();
+            afterTime = chunk.lastTime();
+            afterId = chunk.lastId();
+            if (!pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("🧹 {} {} notifications older than {}", archive ? "Archived" : "Deleted", total, cutoff);
+        }
+        return total;
+    }
+
+    long reclaimScheduledJobs(LocalDateTime cutoff, long budget) {
+        Counter counter = reclaimedCounter("scheduled_jobs", "COMPLETED", "deleted");
+        long total = 0;
+        LocalDateTime afterTime = KEYSET_START;
+        long afterId = 0L;
+        while (running && total < budget) {
+            List<ScheduledJob> rows = scheduledJobRepository.findCompletedBefore(cutoff, afterTime, afterId,
+                    PageRequest.of(0, (int) Math.min(chunkSize, budget - total)));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Long> ids = rows.stream().map(ScheduledJob::getId).toList();
+            Integer deleted = transactionTemplate.execute(tx -> scheduledJobRepository.deleteCompletedByIdIn(ids));
+            int reclaimed = deleted != null ? deleted : 0;
+            counter.increment(reclaimed);
+            total += reclaimed;
+            ScheduledJob last = rows.get(rows.size() - 1);
+            afterTime = last.getUpdatedAt();
+            afterId = last.getId();
+            if (!pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("🧹 Deleted {} completed scheduled jobs older than {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private record Chunk(int reclaimed, LocalDateTime lastTime, Long lastId) {}
+
+    private Counter reclaimedCounter(String table, String status, String action) {
+        return Counter.builder("notification.retention.reclaimed")
+                .description("Rows removed from the hot tables by retention")
+                .tag("table", table)
+                .tag("status", status)
+                .tag("action", action)
+                .register(meterRegistry);
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
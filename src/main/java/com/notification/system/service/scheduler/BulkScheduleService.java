@@ -0,0 +1,229 @@
+package com.notification.system.service.scheduler;
+
+import com.notification.system.model.dto.request.BulkScheduleRequest;
+import com.notification.system.model.entity.ScheduledJob;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.repository.ScheduledJobRepository;
+import com.notification.system.service.notification.BatchNotificationService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Cancels or moves every scheduled notification matching a filter in one operation. Quartz jobs
+ * are removed or re-triggered a page at a time with the scheduler's bulk calls; the
+ * {@code scheduled_jobs} and {@code notifications} rows are changed with one UPDATE each.
+ */
+@Service
+@Transactional
+public class BulkScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkScheduleService.class);
+
+    public static class Result {
+        private final int notifications;
+        private final int jobs;
+
+        public Result(int notifications, int jobs) {
+            this.notifications = notifications;
+            this.jobs = jobs;
+        }
+
+        public int getNotifications() { return notifications; }
+        public int getJobs() { return jobs; }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private NotificationSchedulerService schedulerService;
+
+    @Autowired
+    private BatchNotificationService batchNotificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Value("${notification.scheduler.bulk.page-size:1000}")
+    private int pageSize = 1000;
+
+    public Result cancel(BulkScheduleRequest request) throws SchedulerException {
+        requireFilter(request);
+        if (isWholeBatch(request)) {
+            // Also stops the batch's fan-out and its registry entry
+            int notifications = (int) notificationRepository.countByBatchIdAndStatus(request.getBatchId(), NotificationStatus.SCHEDULED);
+            boolean found = batchNotificationService.cancelBatch(request.getBatchId()).isPresent();
+            return new Result(notifications, found ? 1 : 0);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int jobs = forEachJobPage(request, page -> {
+            schedulerService.deleteJobs(page.stream().map(job -> new JobKey(job.getJobKey(), job.getJobGroup())).toList());
+        });
+
+        Map<String, Object> params = new HashMap<>();
+        String where = where(request, params);
+        update("UPDATE ScheduledJob j SET j.isCompleted = true, j.updatedAt = :now " +
+               "WHERE j.isCompleted = false AND j.notification.id IN (SELECT n.id FROM Notification n WHERE " + where + ")",
+               params, Map.of("now", now));
+        int notifications = update("UPDATE Notification n SET n.status = :cancelled, n.updatedAt = :now WHERE " + where,
+               params, Map.of("cancelled", NotificationStatus.CANCELLED, "now", now));
+
+        logger.info("🗑️ Bulk cancelled {} scheduled notifications ({} Quartz jobs)", notifications, jobs);
+        return new Result(notifications, jobs);
+    }
+
+    public Result reschedule(BulkScheduleRequest request) throws SchedulerException {
+        requireFilter(request);
+        if ((request.getNewScheduledAt() == null) == (request.getShiftMinutes() == null)) {
+            throw new IllegalArgumentException("Pass either newScheduledAt or shiftMinutes");
+        }
+        if (request.getNewScheduledAt() != null && !request.getNewScheduledAt().isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("newScheduledAt must be in the future");
+        }
+        if (request.getBatchId() != null && !isWholeBatch(request)) {
+            // The fan-out sends every SCHEDULED recipient of the batch at one time
+            throw new IllegalArgumentException("A scheduled batch is moved as a whole; pass only batchId");
+        }
+
+        Duration shift = request.getShiftMinutes() != null ? Duration.ofMinutes(request.getShiftMinutes()) : null;
+        Function<LocalDateTime, LocalDateTime> move = at -> shift != null ? at.plus(shift) : request.getNewScheduledAt();
+        LocalDateTime now = LocalDateTime.now();
+
+        int jobs;
+        if (request.getBatchId() != null) {
+            Optional<ScheduledJob> fanOut = scheduledJobRepository.findByBatchIdAndIsCompleted(request.getBatchId(), false);
+            if (fanOut.isPresent()) {
+                schedulerService.rescheduleJobs(List.of(fanOut.get()), job -> move.apply(job.getScheduledTime()));
+            }
+            jobs = fanOut.isPresent() ? 1 : 0;
+        } else {
+            jobs = forEachJobPage(request, page ->
+                    schedulerService.rescheduleJobs(page, job -> move.apply(job.getScheduledTime())));
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        // Quiet-hours deferrals are released with their bucket, not by scheduledAt
+        String where = where(request, params) + " AND n.deferredUntil IS NULL";
+        String set = shift != null ? " + (:shiftMinutes) minute" : "";
+        Map<String, Object> values = shift != null ? Map.of("shiftMinutes", request.getShiftMinutes(), "now", now)
+                                                    : Map.of("at", request.getNewScheduledAt(), "now", now);
+        String jobTarget = request.getBatchId() != null ? "j.batchId = :batchId"
+                : "j.notification.id IN (SELECT n.id FROM Notification n WHERE " + where + ")";
+        update("UPDATE ScheduledJob j SET j.scheduledTime = " + (shift != null ? "j.scheduledTime" + set : ":at") +
+               ", j.updatedAt = :now WHERE j.isCompleted = false AND " + jobTarget, params, values);
+        // Leases are dropped so a timing wheel holding the old time lets go of the row
+        int notifications = update("UPDATE Notification n SET n.scheduledAt = " + (shift != null ? "n.scheduledAt" + set : ":at") +
+               ", n.leaseOwner = NULL, n.leaseExpiresAt = NULL, n.updatedAt = :now WHERE " + where, params, values);
+
+        logger.info("🔄 Bulk rescheduled {} scheduled notifications ({} Quartz jobs)", notifications, jobs);
+        return new Result(notifications, jobs);
+    }
+
+    @FunctionalInterface
+    private interface PageAction {
+        void accept(List<ScheduledJob> page) throws SchedulerException;
+    }
+
+    // Keyset pages of the incomplete per-notification jobs matching the filter
+    private int forEachJobPage(BulkScheduleRequest request, PageAction action) throws SchedulerException {
+        Map<String, Object> params = new HashMap<>();
+        String jpql = "SELECT j FROM ScheduledJob j JOIN j.notification n WHERE j.isCompleted = false AND j.id > :afterId AND "
+                + where(request, params) + " ORDER BY j.id";
+
+        int total = 0;
+        long afterId = 0L;
+        List<ScheduledJob> page;
+        do {
+            TypedQuery<ScheduledJob> query = entityManager.createQuery(jpql, ScheduledJob.class)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(pageSize);
+            params.forEach(query::setParameter);
+            page = query.getResultList();
+            if (page.isEmpty()) {
+                break;
+            }
+            action.accept(page);
+            total += page.size();
+            afterId = page.get(page.size() - 1).getId();
+            entityManager.clear();
+        } while (page.size() == pageSize);
+        return total;
+    }
+
+    static String where(BulkScheduleRequest request, Map<String, Object> params) {
+        StringBuilder where = new StringBuilder("n.status = :scheduled");
+        params.put("scheduled", NotificationStatus.SCHEDULED);
+        if (request.getBatchId() != null) {
+            where.append(" AND n.batchId = :batchId");
+            params.put("batchId", request.getBatchId());
+        } else {
+            where.append(" AND n.batchId IS NULL");
+        }
+        if (request.getUserId() != null) {
+            where.append(" AND n.user.id = :userId");
+            params.put("userId", request.getUserId());
+        }
+        if (request.getChannelType() != null) {
+            where.append(" AND n.channelType = :channelType");
+            params.put("channelType", request.getChannelType());
+        }
+        if (request.getPriority() != null) {
+            where.append(" AND n.priority = :priority");
+            params.put("priority", request.getPriority());
+        }
+        if (request.getScheduledFrom() != null) {
+            where.append(" AND n.scheduledAt >= :scheduledFrom");
+            params.put("scheduledFrom", request.getScheduledFrom());
+        }
+        if (request.getScheduledTo() != null) {
+            where.append(" AND n.scheduledAt < :scheduledTo");
+            params.put("scheduledTo", request.getScheduledTo());
+        }
+        return where.toString();
+    }
+
+    private int update(String jpql, Map<String, Object> params, Map<String, Object> values) {
+        var query = entityManager.createQuery(jpql);
+        params.forEach((name, value) -> {
+            if (Pattern.compile(":" + name + "\\b").matcher(jpql).find()) {
+                query.setParameter(name, value);
+            }
+        });
+        values.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+
+    private static void requireFilter(BulkScheduleRequest request) {
+        if (!request.hasFilter()) {
+            throw new IllegalArgumentException("At least one filter is required");
+        }
+    }
+
+    private static boolean isWholeBatch(BulkScheduleRequest request) {
+        return request.getBatchId() != null && request.getUserId() == null && request.getChannelType() == null
+                && request.getPriority() == null && request.getScheduledFrom() == null && request.getScheduledTo() == null;
+    }
+}
@@ -0,0 +1,136 @@
+package com.notification.system.service.scheduler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel: {@code wheelSize} buckets of {@code tickMillis} each. Adding and cancelling
+ * are O(1) and thread-safe; {@link #advance} is driven by a single thread and returns what is due.
+ * Entries are placed on the first tick at or after their deadline, so nothing fires early.
+ */
+public class HashedTimingWheel {
+
+    private static final class Entry {
+        final long id;
+        final long deadlineMillis;
+        final Runnable task;
+        long remainingRounds;
+        volatile boolean cancelled;
+
+        Entry(long id, long deadlineMillis, Runnable task) {
+            this.id = id;
+            this.deadlineMillis = deadlineMillis;
+            this.task = task;
+        }
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<LinkedList<Entry>> buckets;
+    private final long startMillis;
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Next tick to process; only touched by the thread calling advance
+    private long tick;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.startMillis = startMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new LinkedList<>());
+        }
+    }
+
+    /**
+     * Returns false if an entry with this id is already waiting.
+     */
+    public boolean add(long id, long deadlineMillis, Runnable task) {
+        Entry entry = new Entry(id, deadlineMillis, task);
+        if (entries.putIfAbsent(id, entry) != null) {
+            return false;
+        }
+        pending.add(entry);
+        return true;
+    }
+
+    public boolean cancel(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return entries.containsKey(id);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis} and returns the tasks that became due, in tick order.
+     */
+    public List<Runnable> advance(long nowMillis) {
+        List<Runnable> due = new ArrayList<>();
+        long lastTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        while (tick <= lastTick) {
+            transferPending();
+            expire(buckets.get((int) (tick & mask)), due);
+            tick++;
+        }
+        return due;
+    }
+
+    // Wall-clock time at which the next unprocessed tick is due
+    public long nextTickMillis() {
+        return startMillis + tick * tickMillis;
+    }
+
+    private void transferPending() {
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            if (entry.cancelled) {
+                continue;
+            }
+            // Ceiling, so an entry is never expired on a tick that starts before its deadline
+            long deadlineTick = Math.max(-Math.floorDiv(startMillis - entry.deadlineMillis, tickMillis), tick);
+            entry.remainingRounds = (deadlineTick - tick) / buckets.size();
+            buckets.get((int) (deadlineTick & mask)).add(entry);
+        }
+    }
+
+    private void expire(LinkedList<Entry> bucket, List<Runnable> due) {
+        Iterator<Entry> it = bucket.iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.cancelled) {
+                it.remove();
+            } else if (entry.remainingRounds <= 0) {
+                it.remove();
+                if (entries.remove(entry.id, entry)) {
+                    due.add(entry.task);
+                }
+            } else {
+                entry.remainingRounds--;
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.notification.system.service.scheduler;
+
+import com.notification.system.model.entity.ScheduledJob;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.model.enums.Priority;
+import com.notification.system.repository.ScheduledJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.quartz.SchedulerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the backlog of scheduled notifications that came due while the scheduler was down.
+ * Instead of letting every overdue job fire at once, each one is given a new trigger in its own
+ * slot, {@code 1 / rate-per-second} apart: HIGH priority first, then MEDIUM, then LOW, each in
+ * original due order. Runs at startup before {@link ScheduledJobRehydrator}, which then finds the
+ * backlog already scheduled. The rows keep their original {@code scheduledTime}, so the remaining
+ * backlog can always be counted from the table.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.scheduler.catch-up.enabled", havingValue = "true", matchIfMissing = true)
+public class MisfireCatchUpController {
+
+    private static final Logger logger = LoggerFactory.getLogger(MisfireCatchUpController.class);
+
+    static final List<Priority> PRIORITY_ORDER = List.of(Priority.HIGH, Priority.MEDIUM, Priority.LOW);
+
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public record Progress(LocalDateTime detectedAt, LocalDateTime dueBefore, long total, long remaining,
+                           int ratePerSecond, LocalDateTime startAt, LocalDateTime expectedCompletionAt,
+                           LocalDateTime finishedAt) {
+
+        public long getDrained() {
+            return total - remaining;
+        }
+    }
+
+    private record Plan(LocalDateTime detectedAt, LocalDateTime dueBefore, long total, LocalDateTime startAt) {}
+
+    @Autowired
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Autowired
+    private NotificationSchedulerService notificationSchedulerService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notification.scheduler.catch-up.rate-per-second:50}")
+    private int ratePerSecond = 50;
+
+    @Value("${notification.scheduler.catch-up.grace-seconds:60}")
+    private long graceSeconds = 60;
+
+    @Value("${notification.scheduler.catch-up.start-delay-seconds:5}")
+    private long startDelaySeconds = 5;
+
+    @Value("${notification.scheduler.catch-up.page-size:1000}")
+    private int pageSize = 1000;
+
+    private final AtomicLong remaining = new AtomicLong();
+    private volatile Plan plan;
+    private volatile LocalDateTime finishedAt;
+
+    @PostConstruct
+    public void init() {
+        if (ratePerSecond <= 0) {
+            throw new IllegalStateException("notification.scheduler.catch-up.rate-per-second must be positive");
+        }
+        Gauge.builder("notification.scheduler.catchup.remaining", remaining, AtomicLong::get)
+                .description("Overdue scheduled notifications not yet sent by the misfire catch-up")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0) // Before the rehydrator, so overdue jobs are never restored to fire all at once
+    public void onApplicationReady() {
+        try {
+            catchUp(LocalDateTime.now());
+        } catch (Exception e) {
+            logger.error("❌ Failed to plan misfire catch-up: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Re-triggers every notification job due before {@code now - grace-seconds} in paced slots.
+     * Returns the size of the backlog found.
+     */
+    public synchronized long catchUp(LocalDateTime now) throws SchedulerException {
+        if (notificationSchedulerService.isSweeperMode()) {
+            logger.debug("Misfire catch-up skipped: the sweeper drains overdue rows in batches itself");
+            return 0;
+        }
+
+        LocalDateTime dueBefore = now.minusSeconds(graceSeconds);
+        long total = scheduledJobRepository.countMisfireBacklog(
+                NotificationSchedulerService.NOTIFICATION_JOB_GROUP, dueBefore, NotificationStatus.SCHEDULED);
+        if (total == 0) {
+            logger.info("✅ No misfired scheduled notifications to catch up");
+            return 0;
+        }
+
+        LocalDateTime startAt = now.plusSeconds(startDelaySeconds);
+        plan = new Plan(now, dueBefore, total, startAt);
+        finishedAt = null;
+        remaining.set(total);
+        logger.warn("⏪ Misfire backlog of {} notifications due before {}: draining at {}/s, expected to finish by {}",
+                total, dueBefore, ratePerSecond, slot(startAt, total));
+
+        long slot = 0;
+        for (Priority priority : PRIORITY_ORDER) {
+            LocalDateTime afterTime = KEYSET_START;
+            long afterId = 0L;
+            List<ScheduledJob> page;
+            do {
+                page = scheduledJobRepository.findMisfireBacklog(NotificationSchedulerService.NOTIFICATION_JOB_GROUP,
+                        dueBefore, NotificationStatus.SCHEDULED, priority, afterTime, afterId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                Map<Long, LocalDateTime> slots = new HashMap<>();
+                for (ScheduledJob scheduledJob : page) {
+                    slots.put(scheduledJob.getId(), slot(startAt, slot++));
+                }
+                notificationSchedulerService.rescheduleJobs(page, scheduledJob -> slots.get(scheduledJob.getId()));
+
+                ScheduledJob last = page.get(page.size() - 1);
+                afterTime = last.getScheduledTime();
+                afterId = last.getId();
+            } while (page.size() == pageSize);
+        }
+
+        logger.info("📋 Misfire catch-up planned: {} notifications re-triggered from {}", slot, startAt);
+        return total;
+    }
+
+    /**
+     * Progress of the last catch-up since startup, counted from the table; empty if there was none.
+     */
+    public Optional<Progress> progress() {
+        Plan current = plan;
+        if (current == null) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long left = finishedAt != null ? 0 : scheduledJobRepository.countMisfireBacklog(
+                NotificationSchedulerService.NOTIFICATION_JOB_GROUP, current.dueBefore(), NotificationStatus.SCHEDULED);
+        remaining.set(left);
+        if (left == 0 && finishedAt == null) {
+            finishedAt = now;
+        }
+
+        LocalDateTime expected = finishedAt != null ? finishedAt
+                : slot(now.isAfter(current.startAt()) ? now : current.startAt(), left);
+        return Optional.of(new Progress(current.detectedAt(), current.dueBefore(), current.total(), left,
+                ratePerSecond, current.startAt(), expected, finishedAt));
+    }
+
+    @Scheduled(fixedDelayString = "${notification.scheduler.catch-up.report-interval-ms:10000}")
+    public void report() {
+        if (plan == null || finishedAt != null) {
+            return;
+        }
+        progress().ifPresent(progress -> {
+            if (progress.finishedAt() != null) {
+                logger.info("✅ Misfire catch-up finished: {} notifications drained since {}",
+                        progress.total(), progress.detectedAt());
+            } else {
+                logger.info("⏪ Misfire catch-up: {}/{} drained, {} left, expected to finish by {}",
+                        progress.getDrained(), progress.total(), progress.remaining(), progress.expectedCompletionAt());
+            }
+        });
+    }
+
+    private LocalDateTime slot(LocalDateTime startAt, long index) {
+        return startAt.plusNanos(index * 1_000_000_000L / ratePerSecond);
+    }
+}
@@ -0,0 +1,224 @@
+package com.notification.system.service.scheduler;
+
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.service.notification.NotificationProcessor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads notifications due within the lookahead window into an in-memory {@link HashedTimingWheel}
+ * and sends each one on its tick, without a per-notification trigger. Prefetched rows are leased
+ * to this node so no other node (or the sweeper) picks them up; the lease is renewed on every
+ * prefetch, released at shutdown, and simply expires if the node dies.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.scheduler.wheel.enabled", havingValue = "true")
+public class NearTermNotificationPrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearTermNotificationPrefetcher.class);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationProcessor notificationProcessor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Scheduler scheduler;
+
+    @Value("${notification.scheduler.wheel.lookahead-seconds:300}")
+    private long lookaheadSeconds = 300;
+
+    // Rows overdue by more than this are a misfire backlog, drained at a controlled rate by MisfireCatchUpController
+    @Value("${notification.scheduler.catch-up.grace-seconds:60}")
+    private long overdueGraceSeconds = 60;
+
+    @Value("${notification.scheduler.wheel.lease-seconds:600}")
+    private long leaseSeconds = 600;
+
+    @Value("${notification.scheduler.wheel.prefetch-batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${notification.scheduler.wheel.max-entries:100000}")
+    private int maxEntries = 100000;
+
+    @Value("${notification.scheduler.wheel.tick-ms:1}")
+    private long tickMillis = 1;
+
+    @Value("${notification.scheduler.wheel.size:4096}")
+    private int wheelSize = 4096;
+
+    @Value("${notification.scheduler.wheel.fire-threads:4}")
+    private int fireThreads = 4;
+
+    private String owner;
+    private TransactionTemplate transactionTemplate;
+    private HashedTimingWheel wheel;
+    private ExecutorService fireExecutor;
+    private Thread ticker;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        owner = nodeId();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        wheel = new HashedTimingWheel(tickMillis, wheelSize, System.currentTimeMillis());
+        fireExecutor = Executors.newFixedThreadPool(fireThreads, new CustomizableThreadFactory("wheel-fire-"));
+        running = true;
+        ticker = new CustomizableThreadFactory("timing-wheel-").newThread(this::tickLoop);
+        ticker.start();
+        logger.info("🎡 Timing wheel started for node {}: {} ms ticks, {} s lookahead", owner, tickMillis, lookaheadSeconds);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+            ticker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        if (fireExecutor != null) {
+            fireExecutor.shutdown();
+            fireExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        Integer released = transactionTemplate.execute(status ->
+                notificationRepository.releaseLeases(owner, NotificationStatus.SCHEDULED));
+        logger.info("🎡 Timing wheel stopped, released {} leased notifications", released);
+    }
+
+    @Scheduled(initialDelayString = "${notification.scheduler.wheel.initial-delay-ms:5000}",
+               fixedDelayString = "${notification.scheduler.wheel.prefetch-interval-ms:30000}")
+    public void prefetch() {
+        if (!running) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plusSeconds(lookaheadSeconds);
+        LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+
+        transactionTemplate.executeWithoutResult(status ->
+                notificationRepository.renewLeases(owner, NotificationStatus.SCHEDULED, horizon, leaseUntil));
+
+        int leased = 0;
+        List<Notification> page;
+        do {
+            int room = Math.min(batchSize, maxEntries - wheel.size());
+            if (room <= 0) {
+                logger.warn("⚠️ Timing wheel is full ({} entries); the rest is left to other nodes", wheel.size());
+                break;
+            }
+            page = transactionTemplate.execute(status -> lease(now, horizon, leaseUntil, room));
+            for (Notification notification : page) {
+                Long id = notification.getId();
+                wheel.add(id, deadlineMillis(notification.getScheduledAt()), () -> fire(id));
+            }
+            leased += page.size();
+            if (page.size() < room) {
+                break;
+            }
+        } while (running);
+
+        if (leased > 0) {
+            logger.debug("🎡 Prefetched {} notifications due before {} ({} waiting)", leased, horizon, wheel.size());
+        }
+    }
+
+    private List<Notification> lease(LocalDateTime now, LocalDateTime horizon, LocalDateTime leaseUntil, int limit) {
+        List<Notification> rows = notificationRepository.lockLeasableNotifications(
+                NotificationStatus.SCHEDULED, now.minusSeconds(overdueGraceSeconds), horizon, now, PageRequest.of(0, limit));
+        for (Notification notification : rows) {
+            notification.setLeaseOwner(owner);
+            notification.setLeaseExpiresAt(leaseUntil);
+        }
+        return rows;
+    }
+
+    void fire(Long notificationId) {
+        try {
+            // Cancelled, rescheduled or taken over after the lease ran out: the claim fails and nothing is sent
+            Optional<Notification> claimed = transactionTemplate.execute(status ->
+                    notificationRepository.claimLeased(notificationId, owner, NotificationStatus.SCHEDULED,
+                            NotificationStatus.PENDING, LocalDateTime.now()) == 1
+                            ? notificationRepository.findByIdWithUser(notificationId)
+                            : Optional.<Notification>empty());
+            if (claimed != null && claimed.isPresent()) {
+                notificationProcessor.processNotification(claimed.get());
+                return;
+            }
+
+            // Moved to a later time while waiting: wait for the new time under the same lease
+            notificationRepository.findById(notificationId)
+                    .filter(row -> row.getStatus() == NotificationStatus.SCHEDULED && owner.equals(row.getLeaseOwner()))
+                    .filter(row -> row.getScheduledAt().isAfter(LocalDateTime.now()))
+                    .ifPresentOrElse(
+                            row -> wheel.add(notificationId, deadlineMillis(row.getScheduledAt()), () -> fire(notificationId)),
+                            () -> logger.debug("⏭️ Leased notification {} is no longer ours to send", notificationId));
+        } catch (Exception e) {
+            logger.error("❌ Failed to fire notification {} from the timing wheel: {}", notificationId, e.getMessage(), e);
+        }
+    }
+
+    private void tickLoop() {
+        while (running) {
+            try {
+                for (Runnable task : wheel.advance(System.currentTimeMillis())) {
+                    fireExecutor.execute(task);
+                }
+                long sleep = wheel.nextTickMillis() - System.currentTimeMillis();
+                if (sleep > 0) {
+                    Thread.sleep(sleep);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("❌ Timing wheel tick failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    // Rounded up to the millisecond, so the claim's scheduledAt <= now check holds when the tick fires
+    static long deadlineMillis(LocalDateTime scheduledAt) {
+        var instant = scheduledAt.atZone(ZoneId.systemDefault()).toInstant();
+        return instant.toEpochMilli() + (instant.getNano() % 1_000_000 > 0 ? 1 : 0);
+    }
+
+    private String nodeId() {
+        try {
+            return scheduler.getSchedulerInstanceId();
+        } catch (SchedulerException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    public int getWaiting() {
+        return wheel.size();
+    }
+}
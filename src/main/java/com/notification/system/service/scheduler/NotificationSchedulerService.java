@@ -1,21 +1,40 @@
 package com.notification.system.service.scheduler;
 
+import com.notification.system.model.dto.request.BatchNotificationRequest;
+import com.notification.system.model.dto.request.RecurringNotificationRequest;
 import com.notification.system.model.entity.Notification;
 import com.notification.system.model.entity.ScheduledJob;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.repository.NotificationRepository;
 import com.notification.system.repository.ScheduledJobRepository;
+import com.notification.system.scheduler.jobs.BatchFanOutJob;
 import com.notification.system.scheduler.jobs.NotificationJob;
+import com.notification.system.scheduler.jobs.QuietHoursReleaseJob;
+import com.notification.system.scheduler.jobs.RecurringNotificationJob;
 import org.quartz.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.text.ParseException;
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 @Service
 public class NotificationSchedulerService {
@@ -28,14 +47,40 @@ public class NotificationSchedulerService {
     @Autowired
     private ScheduledJobRepository scheduledJobRepository;
 
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    static final String SWEEPER_MODE = "sweeper";
+
+    @Value("${notification.scheduler.mode:quartz}")
+    private String mode = "quartz";
+
+    static final String NOTIFICATION_JOB_GROUP = "notification_jobs";
+    static final String BATCH_JOB_GROUP = "batch_jobs";
+    static final String RECURRING_JOB_GROUP = "recurring_jobs";
+    static final String QUIET_HOURS_JOB_GROUP = "quiet_hours_jobs";
+
+    private static final DateTimeFormatter BUCKET_KEY = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmm'Z'");
+
+    // Quiet-hours buckets this node knows to be scheduled, by job key, until their release time
+    private final Map<String, LocalDateTime> quietBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the job record, or null in sweeper mode: there the SCHEDULED row itself is all the
+     * scheduling state, and {@link ScheduledNotificationSweeper} sends it once it is due.
+     */
     public ScheduledJob scheduleNotification(Notification notification) {
         if (notification.getScheduledAt() == null) {
             throw new IllegalArgumentException("Notification must have scheduledAt date");
         }
+        if (isSweeperMode()) {
+            logger.debug("📅 Notification {} left to the sweeper for {} (UTC)", notification.getId(), notification.getScheduledAt());
+            return null;
+        }
 
         try {
             String jobKey = "notification_" + notification.getId() + "_" + UUID.randomUUID().toString().substring(0, 8);
-            String jobGroup = "notification_jobs";
+            String jobGroup = NOTIFICATION_JOB_GROUP;
 
             logger.info("📅 Scheduling notification: {} for {} (UTC)", 
                        notification.getTitle(), notification.getScheduledAt());
@@ -45,39 +90,8 @@ public class NotificationSchedulerService {
             ScheduledJob scheduledJob = createScheduledJobRecord(notification, jobKey, jobGroup);
             scheduledJob = scheduledJobRepository.save(scheduledJob);
 
-            // Create job detail with both notification ID and scheduled job ID
-            JobDetail jobDetail = JobBuilder.newJob(NotificationJob.class)
-                    .withIdentity(jobKey, jobGroup)
-                    .withDescription("Scheduled notification: " + notification.getTitle())
-                    .usingJobData("notificationId", notification.getId())
-                    .usingJobData("scheduledJobId", scheduledJob.getId())
-                    .build();
-
-            // Create trigger - treat scheduledAt as UTC time
-            Date scheduledDate = Date.from(notification.getScheduledAt()
-                    .atZone(ZoneId.of("UTC")).toInstant());
-
-            // Add safety check for scheduling in the past
-            Date now = new Date();
-            if (scheduledDate.before(now)) {
-                logger.warn("⚠️ Scheduled time {} is in the past (current: {}). Adding 30 second buffer.", 
-                           scheduledDate, now);
-                scheduledDate = new Date(System.currentTimeMillis() + 30000); // 30 seconds from now
-            }
-
-            Trigger trigger = TriggerBuilder.newTrigger()
-                    .withIdentity(jobKey + "_trigger", jobGroup)
-                    .withDescription("Trigger for notification: " + notification.getTitle())
-                    .startAt(scheduledDate)
-                    .withSchedule(SimpleScheduleBuilder.simpleSchedule()
-                            .withMisfireHandlingInstructionNextWithExistingCount()) // Don't fire immediately
-                    .build();
-
-            // Schedule the job
-            scheduler.scheduleJob(jobDetail, trigger);
-
-            // Update job detail with scheduled job ID (but don't add it separately since it's already scheduled)
-            // The job is already scheduled with the trigger above
+            schedule(notificationJob(jobKey, jobGroup, notification.getId(), scheduledJob.getId(),
+                    notification.getTitle(), notification.getScheduledAt()));
 
             logger.info("✅ Successfully scheduled notification job: {} (Job ID: {})", 
                        jobKey, scheduledJob.getId());
@@ -90,6 +104,250 @@ public class NotificationSchedulerService {
         }
     }
 
+    /**
+     * Schedules one Quartz job for a whole batch. When it fires, {@link BatchFanOutJob} sends every
+     * notification of the batch still SCHEDULED, in chunks of the batch size. Idempotent per batch,
+     * so streamed batches can call it for every chunk they persist.
+     */
+    public ScheduledJob scheduleBatch(String batchId, LocalDateTime scheduledAt, BatchNotificationRequest.BatchSettings settings) {
+        if (scheduledAt == null) {
+            throw new IllegalArgumentException("Batch must have scheduledAt date");
+        }
+
+        Optional<ScheduledJob> existing = scheduledJobRepository.findByBatchIdAndIsCompleted(batchId, false);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        try {
+            String jobKey = "batch_" + batchId;
+
+            ScheduledJob scheduledJob = new ScheduledJob();
+            scheduledJob.setBatchId(batchId);
+            scheduledJob.setJobKey(jobKey);
+            scheduledJob.setJobGroup(BATCH_JOB_GROUP);
+            scheduledJob.setScheduledTime(scheduledAt);
+            // The settings are kept on the row too, so the job can be rebuilt from it
+            Map<String, Object> jobData = new HashMap<>(settingsData(settings));
+            jobData.put("batchId", batchId);
+            jobData.put("scheduledBy", "system");
+            scheduledJob.setJobData(jobData);
+            scheduledJob = scheduledJobRepository.save(scheduledJob);
+
+            schedule(batchJob(jobKey, batchId, scheduledJob.getId(), settings, scheduledAt));
+            logger.info("✅ Scheduled batch {} for {} (UTC) as a single fan-out job", batchId, scheduledAt);
+
+            return scheduledJob;
+
+        } catch (SchedulerException e) {
+            logger.error("❌ Failed to schedule batch {}: {}", batchId, e.getMessage(), e);
+            throw new RuntimeException("Failed to schedule batch", e);
+        }
+    }
+
+    /**
+     * Stores a recurring notification as one template row plus one cron trigger. Occurrences are
+     * created by {@link RecurringNotificationJob} when the trigger fires, so a programme takes the
+     * same storage however long it runs.
+     */
+    public ScheduledJob scheduleRecurring(RecurringNotificationRequest request) {
+        String cronExpression = request.getCronExpression();
+        if (!CronExpression.isValidExpression(cronExpression)) {
+            throw new IllegalArgumentException("Invalid cron expression: " + cronExpression);
+        }
+        ZoneId zone = zoneOf(request.getTimeZone());
+        Date firstFire = nextFireTime(cronExpression, zone, new Date());
+        if (firstFire == null) {
+            throw new IllegalArgumentException("Cron expression never fires in the future: " + cronExpression);
+        }
+
+        try {
+            String jobKey = "recurring_" + UUID.randomUUID();
+
+            ScheduledJob scheduledJob = new ScheduledJob();
+            scheduledJob.setJobKey(jobKey);
+            scheduledJob.setJobGroup(RECURRING_JOB_GROUP);
+            scheduledJob.setRecurring(true);
+            scheduledJob.setCronExpression(cronExpression);
+            scheduledJob.setScheduledTime(LocalDateTime.ofInstant(firstFire.toInstant(), ZoneOffset.UTC));
+
+            // The template every occurrence is built from
+            Map<String, Object> jobData = new HashMap<>();
+            jobData.put("userId", request.getUserId());
+            jobData.put("title", request.getTitle());
+            jobData.put("content", request.getContent());
+            jobData.put("channelType", request.getChannelType().name());
+            jobData.put("priority", request.getPriority().name());
+            if (request.getMetadata() != null) {
+                jobData.put("metadata", request.getMetadata());
+            }
+            jobData.put("timeZone", zone.getId());
+            jobData.put("occurrences", 0);
+            jobData.put("scheduledBy", "system");
+            scheduledJob.setJobData(jobData);
+            scheduledJob = scheduledJobRepository.save(scheduledJob);
+
+            schedule(recurringJob(jobKey, scheduledJob.getId(), cronExpression, zone));
+            logger.info("🔁 Scheduled recurring notification {} ({} in {}), first at {} (UTC)",
+                       scheduledJob.getId(), cronExpression, zone, scheduledJob.getScheduledTime());
+
+            return scheduledJob;
+
+        } catch (SchedulerException e) {
+            logger.error("❌ Failed to schedule recurring notification: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to schedule recurring notification", e);
+        }
+    }
+
+    /**
+     * Makes sure the quiet-hours bucket released at {@code releaseAt} (UTC) has its job. There is one
+     * job per release time, however many notifications wait in it, and {@link QuietHoursReleaseJob}
+     * sends them all together. Returns null in sweeper mode, where the sweeper picks the rows up once due.
+     */
+    public ScheduledJob scheduleQuietBucket(LocalDateTime releaseAt) {
+        if (isSweeperMode()) {
+            return null;
+        }
+        String jobKey = "quiet_" + BUCKET_KEY.format(releaseAt);
+        LocalDateTime now = LocalDateTime.now();
+        if (quietBuckets.containsKey(jobKey)) {
+            return null;
+        }
+        quietBuckets.values().removeIf(release -> release.isBefore(now));
+
+        Optional<ScheduledJob> existing = scheduledJobRepository.findFirstByJobKeyAndJobGroupAndIsCompletedFalse(
+                jobKey, QUIET_HOURS_JOB_GROUP);
+        if (existing.isPresent()) {
+            quietBuckets.put(jobKey, releaseAt);
+            return existing.get();
+        }
+
+        ScheduledJob scheduledJob = new ScheduledJob(null, jobKey, QUIET_HOURS_JOB_GROUP, releaseAt);
+        scheduledJob.setJobData(new HashMap<>(Map.of("scheduledBy", "quiet-hours")));
+        scheduledJob = scheduledJobRepository.save(scheduledJob);
+        try {
+            schedule(quietBucketJob(jobKey, scheduledJob.getId(), releaseAt));
+            logger.info("🌙 Scheduled quiet-hours bucket {} for {} (UTC)", jobKey, releaseAt);
+        } catch (ObjectAlreadyExistsException e) {
+            // Another node created the bucket first; its row stands for it
+            scheduledJobRepository.delete(scheduledJob);
+            scheduledJob = scheduledJobRepository.findFirstByJobKeyAndJobGroupAndIsCompletedFalse(jobKey, QUIET_HOURS_JOB_GROUP)
+                    .orElse(null);
+        } catch (SchedulerException e) {
+            logger.error("❌ Failed to schedule quiet-hours bucket {}: {}", jobKey, e.getMessage(), e);
+            throw new RuntimeException("Failed to schedule quiet-hours bucket", e);
+        }
+        quietBuckets.put(jobKey, releaseAt);
+        return scheduledJob;
+    }
+
+    @Transactional
+    public boolean cancelRecurring(Long scheduledJobId) {
+        Optional<ScheduledJob> scheduledJob = scheduledJobRepository.findById(scheduledJobId)
+                .filter(job -> job.isRecurring() && !job.isCompleted());
+        if (scheduledJob.isEmpty()) {
+            return false;
+        }
+
+        try {
+            ScheduledJob job = scheduledJob.get();
+            scheduler.deleteJob(new JobKey(job.getJobKey(), job.getJobGroup()));
+            job.setCompleted(true);
+            job.setUpdatedAt(LocalDateTime.now());
+            job.getJobData().put("cancellationReason", "Manually cancelled");
+            job.getJobData().put("cancelledAt", LocalDateTime.now().toString());
+            scheduledJobRepository.save(job);
+
+            logger.info("🗑️ Cancelled recurring notification {}", scheduledJobId);
+            return true;
+        } catch (SchedulerException e) {
+            logger.error("❌ Error cancelling recurring notification {}: {}", scheduledJobId, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    public static ZoneId zoneOf(String timeZone) {
+        if (timeZone == null || timeZone.isBlank()) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(timeZone);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + timeZone);
+        }
+    }
+
+    static Date nextFireTime(String cronExpression, ZoneId zone, Date after) {
+        try {
+            CronExpression cron = new CronExpression(cronExpression);
+            cron.setTimeZone(TimeZone.getTimeZone(zone));
+            return cron.getNextValidTimeAfter(after);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid cron expression: " + cronExpression);
+        }
+    }
+
+    /**
+     * Removes the fan-out job of a scheduled batch that has not fired yet.
+     */
+    @Transactional
+    public boolean cancelBatch(String batchId) {
+        Optional<ScheduledJob> scheduledJob = scheduledJobRepository.findByBatchIdAndIsCompleted(batchId, false);
+        if (scheduledJob.isEmpty()) {
+            return false;
+        }
+
+        try {
+            ScheduledJob job = scheduledJob.get();
+            scheduler.deleteJob(new JobKey(job.getJobKey(), job.getJobGroup()));
+            job.setCompleted(true);
+            job.setUpdatedAt(LocalDateTime.now());
+            if (job.getJobData() == null) {
+                job.setJobData(new HashMap<>());
+            }
+            job.getJobData().put("cancellationReason", "Batch cancelled");
+            job.getJobData().put("cancelledAt", LocalDateTime.now().toString());
+            scheduledJobRepository.save(job);
+
+            logger.info("🗑️ Cancelled scheduled batch job: {}", batchId);
+            return true;
+        } catch (SchedulerException e) {
+            logger.error("❌ Error cancelling scheduled batch {}: {}", batchId, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Recreates the Quartz job of a {@code scheduled_jobs} row that has none, e.g. after the job
+     * store was wiped or the row was written by a node that died before scheduling it.
+     */
+    public void restoreJob(ScheduledJob scheduledJob) throws SchedulerException {
+        schedule(jobSpec(scheduledJob, scheduledJob.getScheduledTime()));
+    }
+
+    /**
+     * Removes many Quartz jobs in one store call. Returns false if any of them was already gone.
+     */
+    public boolean deleteJobs(List<JobKey> jobKeys) throws SchedulerException {
+        return jobKeys.isEmpty() || scheduler.deleteJobs(jobKeys);
+    }
+
+    /**
+     * Replaces the triggers of existing jobs in one store call, keeping their keys and job data.
+     */
+    public void rescheduleJobs(List<ScheduledJob> scheduledJobs, Function<ScheduledJob, LocalDateTime> newTime) throws SchedulerException {
+        if (scheduledJobs.isEmpty()) {
+            return;
+        }
+        Map<JobDetail, Set<? extends Trigger>> jobs = new HashMap<>();
+        for (ScheduledJob scheduledJob : scheduledJobs) {
+            JobSpec spec = jobSpec(scheduledJob, newTime.apply(scheduledJob));
+            jobs.put(spec.detail(), Set.of(spec.trigger()));
+        }
+        scheduler.scheduleJobs(jobs, true);
+    }
+
+    @Transactional
     public boolean cancelScheduledNotification(Long notificationId) {
         try {
             ScheduledJob scheduledJob = scheduledJobRepository
@@ -97,6 +355,9 @@ public class NotificationSchedulerService {
                     .orElse(null);
 
             if (scheduledJob == null) {
+                if (cancelWithoutJob(notificationId)) {
+                    return true;
+                }
                 logger.warn("⚠️ No active scheduled job found for notification: {}", notificationId);
                 return false;
             }
@@ -128,17 +389,220 @@ public class NotificationSchedulerService {
         }
     }
 
+    // Batch recipients, and every notification in sweeper mode, have no job of their own: cancel the notification itself
+    private boolean cancelWithoutJob(Long notificationId) {
+        Optional<Notification> notification = notificationRepository.findById(notificationId);
+        if (notification.isEmpty()) {
+            return false;
+        }
+
+        String batchId = notification.get().getBatchId();
+        if (notificationRepository.transitionStatus(notificationId, NotificationStatus.SCHEDULED,
+                NotificationStatus.CANCELLED, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        if (batchId == null) {
+            logger.info("🗑️ Cancelled scheduled notification {}", notificationId);
+        } else {
+            // The fan-out claims each recipient right before sending it, so it skips this one even if already read
+            logger.info("🗑️ Cancelled notification {} of scheduled batch {}", notificationId, batchId);
+        }
+        return true;
+    }
+
+    public boolean isSweeperMode() {
+        return SWEEPER_MODE.equalsIgnoreCase(mode);
+    }
+
     public void rescheduleNotification(Notification notification) {
-        // Cancel existing schedule
-        cancelScheduledNotification(notification.getId());
-        
-        // Create new schedule
-        scheduleNotification(notification);
+        Optional<ScheduledJob> existing = scheduledJobRepository.findByNotificationIdAndIsCompleted(notification.getId(), false);
+        if (existing.isEmpty()) {
+            scheduleNotification(notification);
+        } else {
+            // Same job and row, new trigger
+            ScheduledJob scheduledJob = existing.get();
+            scheduledJob.setScheduledTime(notification.getScheduledAt());
+            scheduledJobRepository.save(scheduledJob);
+            try {
+                rescheduleJobs(List.of(scheduledJob), job -> notification.getScheduledAt());
+            } catch (SchedulerException e) {
+                logger.error("❌ Failed to reschedule notification {}: {}", notification.getId(), e.getMessage(), e);
+                throw new RuntimeException("Failed to reschedule notification", e);
+            }
+        }
         
         logger.info("🔄 Rescheduled notification: {} for {}", 
                    notification.getTitle(), notification.getScheduledAt());
     }
 
+    private record JobSpec(JobDetail detail, Trigger trigger) {}
+
+    private void schedule(JobSpec spec) throws SchedulerException {
+        scheduler.scheduleJob(spec.detail(), spec.trigger());
+    }
+
+    private JobSpec jobSpec(ScheduledJob scheduledJob, LocalDateTime at) {
+        Map<String, Object> jobData = scheduledJob.getJobData();
+        if (scheduledJob.isRecurring()) {
+            Object timeZone = jobData != null ? jobData.get("timeZone") : null;
+            return recurringJob(scheduledJob.getJobKey(), scheduledJob.getId(), scheduledJob.getCronExpression(),
+                    zoneOf(timeZone != null ? timeZone.toString() : null));
+        } else if (QUIET_HOURS_JOB_GROUP.equals(scheduledJob.getJobGroup())) {
+            return quietBucketJob(scheduledJob.getJobKey(), scheduledJob.getId(), scheduledJob.getScheduledTime());
+        } else if (BATCH_JOB_GROUP.equals(scheduledJob.getJobGroup())) {
+            return batchJob(scheduledJob.getJobKey(), scheduledJob.getBatchId(), scheduledJob.getId(),
+                    toSettings(jobData), at);
+        } else if (scheduledJob.getNotification() != null) {
+            Object title = jobData != null ? jobData.get("title") : null;
+            return notificationJob(scheduledJob.getJobKey(), scheduledJob.getJobGroup(),
+                    scheduledJob.getNotification().getId(), scheduledJob.getId(),
+                    title != null ? title.toString() : null, at);
+        }
+        throw new IllegalStateException("Scheduled job " + scheduledJob.getId() + " has no notification or batch");
+    }
+
+    private JobSpec notificationJob(String jobKey, String jobGroup, Long notificationId, Long scheduledJobId,
+                                         String title, LocalDateTime scheduledAt) {
+        // Create job detail with both notification ID and scheduled job ID
+        JobDetail jobDetail = JobBuilder.newJob(NotificationJob.class)
+                .withIdentity(jobKey, jobGroup)
+                .withDescription("Scheduled notification: " + title)
+                .usingJobData("notificationId", notificationId)
+                .usingJobData("scheduledJobId", scheduledJobId)
+                .build();
+
+        Trigger trigger = TriggerBuilder.newTrigger()
+                .withIdentity(jobKey + "_trigger", jobGroup)
+                .withDescription("Trigger for notification: " + title)
+                .startAt(startDate(scheduledAt))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withMisfireHandlingInstructionNextWithExistingCount()) // Don't fire immediately
+                .build();
+
+        return new JobSpec(jobDetail, trigger);
+    }
+
+    private JobSpec batchJob(String jobKey, String batchId, Long scheduledJobId,
+                                  BatchNotificationRequest.BatchSettings settings, LocalDateTime scheduledAt) {
+        JobDataMap data = new JobDataMap(settingsData(settings));
+        data.put("batchId", batchId);
+        data.put("scheduledJobId", scheduledJobId);
+
+        JobDetail jobDetail = JobBuilder.newJob(BatchFanOutJob.class)
+                .withIdentity(jobKey, BATCH_JOB_GROUP)
+                .withDescription("Scheduled batch: " + batchId)
+                .usingJobData(data)
+                .requestRecovery() // Re-fire after a crash; already sent notifications are no longer SCHEDULED
+                .build();
+
+        Trigger trigger = TriggerBuilder.newTrigger()
+                .withIdentity(jobKey + "_trigger", BATCH_JOB_GROUP)
+                .startAt(startDate(scheduledAt))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withMisfireHandlingInstructionFireNow())
+                .build();
+
+        return new JobSpec(jobDetail, trigger);
+    }
+
+    private JobSpec recurringJob(String jobKey, Long scheduledJobId, String cronExpression, ZoneId zone) {
+        JobDetail jobDetail = JobBuilder.newJob(RecurringNotificationJob.class)
+                .withIdentity(jobKey, RECURRING_JOB_GROUP)
+                .withDescription("Recurring notification " + scheduledJobId)
+                .usingJobData("scheduledJobId", scheduledJobId)
+                .build();
+
+        Trigger trigger = TriggerBuilder.newTrigger()
+                .withIdentity(jobKey + "_trigger", RECURRING_JOB_GROUP)
+                .withSchedule(CronScheduleBuilder.cronSchedule(cronExpression)
+                        .inTimeZone(TimeZone.getTimeZone(zone))
+                        .withMisfireHandlingInstructionFireAndProceed()) // One catch-up occurrence, not one per missed slot
+                .build();
+
+        return new JobSpec(jobDetail, trigger);
+    }
+
+    private JobSpec quietBucketJob(String jobKey, Long scheduledJobId, LocalDateTime releaseAt) {
+        JobDetail jobDetail = JobBuilder.newJob(QuietHoursReleaseJob.class)
+                .withIdentity(jobKey, QUIET_HOURS_JOB_GROUP)
+                .withDescription("Quiet-hours release at " + releaseAt + " (UTC)")
+                .usingJobData("scheduledJobId", scheduledJobId)
+                .usingJobData("releaseAt", releaseAt.toString())
+                .requestRecovery() // Re-fire after a crash; already released notifications are no longer SCHEDULED
+                .build();
+
+        Trigger trigger = TriggerBuilder.newTrigger()
+                .withIdentity(jobKey + "_trigger", QUIET_HOURS_JOB_GROUP)
+                .startAt(startDate(releaseAt))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withMisfireHandlingInstructionFireNow()) // Quiet hours are over: release straight away
+                .build();
+
+        return new JobSpec(jobDetail, trigger);
+    }
+
+    private static Map<String, Object> settingsData(BatchNotificationRequest.BatchSettings settings) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("batchSize", settings.getBatchSize());
+        data.put("delayBetweenBatches", settings.getDelayBetweenBatches());
+        data.put("parallelProcessing", settings.getParallelProcessing());
+        data.put("continueOnError", settings.getContinueOnError());
+        if (settings.getMaxParallelism() != null) {
+            data.put("maxParallelism", settings.getMaxParallelism());
+        }
+        if (settings.getDeliveryWindowMinutes() != null) {
+            data.put("deliveryWindowMinutes", settings.getDeliveryWindowMinutes());
+        }
+        if (settings.getMaxSendsPerSecond() != null) {
+            data.put("maxSendsPerSecond", settings.getMaxSendsPerSecond());
+        }
+        return data;
+    }
+
+    // Reads settings back from a row's JSON job data, where numbers lose their exact type
+    static BatchNotificationRequest.BatchSettings toSettings(Map<String, Object> jobData) {
+        BatchNotificationRequest.BatchSettings settings = new BatchNotificationRequest.BatchSettings();
+        if (jobData == null) {
+            return settings;
+        }
+        if (jobData.get("batchSize") instanceof Number batchSize) {
+            settings.setBatchSize(batchSize.intValue());
+        }
+        if (jobData.get("delayBetweenBatches") instanceof Number delay) {
+            settings.setDelayBetweenBatches(delay.longValue());
+        }
+        if (jobData.get("parallelProcessing") instanceof Boolean parallel) {
+            settings.setParallelProcessing(parallel);
+        }
+        if (jobData.get("continueOnError") instanceof Boolean continueOnError) {
+            settings.setContinueOnError(continueOnError);
+        }
+        if (jobData.get("maxParallelism") instanceof Number maxParallelism) {
+            settings.setMaxParallelism(maxParallelism.intValue());
+        }
+        if (jobData.get("deliveryWindowMinutes") instanceof Number window) {
+            settings.setDeliveryWindowMinutes(window.intValue());
+        }
+        if (jobData.get("maxSendsPerSecond") instanceof Number rate) {
+            settings.setMaxSendsPerSecond(rate.doubleValue());
+        }
+        return settings;
+    }
+
+    private Date startDate(LocalDateTime scheduledAt) {
+        // Create trigger - treat scheduledAt as UTC time
+        Date scheduledDate = Date.from(scheduledAt.atZone(ZoneId.of("UTC")).toInstant());
+
+        // Add safety check for scheduling in the past
+        Date now = new Date();
+        if (scheduledDate.before(now)) {
+            logger.warn("⚠️ Scheduled time {} is in the past (current: {}). Adding 30 second buffer.", 
+                       scheduledDate, now);
+            scheduledDate = new Date(System.currentTimeMillis() + 30000); // 30 seconds from now
+        }
+        return scheduledDate;
+    }
+
     private ScheduledJob createScheduledJobRecord(Notification notification, String jobKey, String jobGroup) {
         ScheduledJob scheduledJob = new ScheduledJob();
         scheduledJob.setNotification(notification);
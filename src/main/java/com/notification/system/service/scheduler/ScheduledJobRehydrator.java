@@ -0,0 +1,104 @@
+package com.notification.system.service.scheduler;
+
+import com.notification.system.model.entity.ScheduledJob;
+import com.notification.system.repository.ScheduledJobRepository;
+import org.quartz.JobKey;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reconciles {@code scheduled_jobs} with the Quartz job store at startup. Pending rows without
+ * a Quartz job get one again, and Quartz jobs whose row was completed meanwhile are removed.
+ * Safe to run on every node at once: a job another node recreated first is simply skipped.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.scheduler.rehydrate.enabled", havingValue = "true", matchIfMissing = true)
+public class ScheduledJobRehydrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledJobRehydrator.class);
+
+    static final List<String> JOB_GROUPS = List.of(
+            NotificationSchedulerService.NOTIFICATION_JOB_GROUP, NotificationSchedulerService.BATCH_JOB_GROUP,
+            NotificationSchedulerService.RECURRING_JOB_GROUP, NotificationSchedulerService.QUIET_HOURS_JOB_GROUP);
+
+    @Autowired
+    private Scheduler scheduler;
+
+    @Autowired
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Autowired
+    private NotificationSchedulerService notificationSchedulerService;
+
+    @Value("${notification.scheduler.rehydrate.page-size:1000}")
+    private int pageSize = 1000;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rehydrate();
+        } catch (Exception e) {
+            logger.error("❌ Failed to rehydrate scheduled jobs: {}", e.getMessage(), e);
+        }
+    }
+
+    public void rehydrate() throws SchedulerException {
+        Set<JobKey> orphans = new HashSet<>();
+        for (String group : JOB_GROUPS) {
+            orphans.addAll(scheduler.getJobKeys(GroupMatcher.jobGroupEquals(group)));
+        }
+
+        int restored = 0;
+        int failed = 0;
+        long afterId = 0L;
+        List<ScheduledJob> page;
+        do {
+            page = scheduledJobRepository.findByIsCompletedFalseAndIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, pageSize));
+            for (ScheduledJob scheduledJob : page) {
+                afterId = scheduledJob.getId();
+                JobKey jobKey = new JobKey(scheduledJob.getJobKey(), scheduledJob.getJobGroup());
+                if (orphans.remove(jobKey)) {
+                    continue;
+                }
+                try {
+                    notificationSchedulerService.restoreJob(scheduledJob);
+                    restored++;
+                } catch (ObjectAlreadyExistsException e) {
+                    logger.debug("Job {} was restored by another node", jobKey);
+                } catch (Exception e) {
+                    failed++;
+                    logger.warn("⚠️ Could not restore scheduled job {}: {}", scheduledJob.getId(), e.getMessage());
+                }
+            }
+        } while (page.size() == pageSize);
+
+        // Whatever is left has no pending row. Only jobs whose row is completed are removed: a job
+        // with no row at all may belong to a schedule another node has not committed yet
+        int removed = 0;
+        for (JobKey orphan : orphans) {
+            boolean completed = scheduledJobRepository.findByJobKeyAndJobGroup(orphan.getName(), orphan.getGroup())
+                    .map(ScheduledJob::isCompleted)
+                    .orElse(false);
+            if (completed && scheduler.deleteJob(orphan)) {
+                removed++;
+            }
+        }
+
+        logger.info("🔁 Rehydrated scheduled jobs: {} restored, {} orphans removed, {} failed", restored, removed, failed);
+    }
+}
@@ -0,0 +1,126 @@
+package com.notification.system.service.scheduler;
+
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.service.notification.NotificationProcessor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends scheduled notifications without a Quartz job per notification. A few threads per node
+ * repeatedly claim due SCHEDULED rows with {@code FOR UPDATE SKIP LOCKED} over
+ * idx_notifications_status_scheduled, so nodes and threads never pick the same row.
+ * A claim moves the rows to PENDING and commits before anything is sent, which keeps locks short.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.scheduler.mode", havingValue = "sweeper")
+public class ScheduledNotificationSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledNotificationSweeper.class);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationProcessor notificationProcessor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${notification.scheduler.sweeper.threads:2}")
+    private int threads = 2;
+
+    @Value("${notification.scheduler.sweeper.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${notification.scheduler.sweeper.poll-interval-ms:1000}")
+    private long pollIntervalMs = 1000;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("notification-sweeper-"));
+        running = true;
+        for (int i = 0; i < threads; i++) {
+            executor.submit(this::sweepLoop);
+        }
+        logger.info("🧹 Scheduled notification sweeper started with {} threads, {} rows per claim", threads, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void sweepLoop() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                // A full batch means more may be due: sweep again straight away
+                if (sweep() < batchSize) {
+                    Thread.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("❌ Scheduled notification sweep failed: {}", e.getMessage(), e);
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims and sends one batch of due notifications. Returns the number claimed.
+     */
+    public int sweep() {
+        List<Long> claimed = transactionTemplate.execute(status -> claim());
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        logger.debug("🧹 Claimed {} due notifications", claimed.size());
+        for (Notification notification : notificationRepository.findAllWithUserByIdIn(claimed)) {
+            notificationProcessor.processNotification(notification);
+        }
+        return claimed.size();
+    }
+
+    private List<Long> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> due = notificationRepository.lockDueNotifications(
+                NotificationStatus.SCHEDULED, now, PageRequest.of(0, batchSize));
+        for (Notification notification : due) {
+            notification.setStatus(NotificationStatus.PENDING);
+            notification.setUpdatedAt(now);
+        }
+        return due.stream().map(Notification::getId).toList();
+    }
+}
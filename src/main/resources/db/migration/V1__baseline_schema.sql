@@ -0,0 +1,128 @@
+-- Schema as Hibernate's ddl-auto: update left it. Every statement is IF NOT EXISTS, so a database
+-- that was created by ddl-auto passes through this version unchanged and a fresh one is built from it.
+
+CREATE SEQUENCE IF NOT EXISTS notifications_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id bigserial NOT NULL,
+    username varchar(255) UNIQUE,
+    email varchar(255) UNIQUE,
+    password varchar(255),
+    phone_number varchar(255),
+    device_token varchar(255),
+    role varchar(255) CHECK (role IN ('USER','ADMIN')),
+    time_zone varchar(64),
+    quiet_hours_start time(6),
+    quiet_hours_end time(6),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS user_preferred_channels (
+    user_id bigint NOT NULL,
+    channel_type varchar(255) CHECK (channel_type IN ('EMAIL','SMS','PUSH','SLACK','WHATSAPP')),
+    CONSTRAINT fk_user_preferred_channels_user FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    title varchar(255),
+    content TEXT,
+    channel_type varchar(255) NOT NULL CHECK (channel_type IN ('EMAIL','SMS','PUSH','SLACK','WHATSAPP')),
+    priority varchar(255) NOT NULL CHECK (priority IN ('HIGH','MEDIUM','LOW')),
+    status varchar(255) NOT NULL CHECK (status IN ('PENDING','SENT','DELIVERED','FAILED','CANCELLED','SCHEDULED')),
+    metadata jsonb,
+    scheduled_at timestamp(6),
+    sent_at timestamp(6),
+    retry_count integer NOT NULL,
+    next_retry_at timestamp(6),
+    error_message TEXT,
+    batch_id varchar(255),
+    lease_owner varchar(64),
+    lease_expires_at timestamp(6),
+    deferred_until timestamp(6),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_notifications_user FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS notifications_archive (
+    id bigint NOT NULL,
+    user_id bigint,
+    title varchar(255),
+    content TEXT,
+    channel_type varchar(255) CHECK (channel_type IN ('EMAIL','SMS','PUSH','SLACK','WHATSAPP')),
+    priority varchar(255) CHECK (priority IN ('HIGH','MEDIUM','LOW')),
+    status varchar(255) CHECK (status IN ('PENDING','SENT','DELIVERED','FAILED','CANCELLED','SCHEDULED')),
+    metadata jsonb,
+    scheduled_at timestamp(6),
+    sent_at timestamp(6),
+    retry_count integer NOT NULL,
+    error_message TEXT,
+    batch_id varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    archived_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS scheduled_jobs (
+    id bigserial NOT NULL,
+    notification_id bigint,
+    batch_id varchar(64),
+    job_key varchar(255),
+    job_group varchar(255),
+    scheduled_time timestamp(6) NOT NULL,
+    cron_expression varchar(255),
+    is_recurring boolean NOT NULL,
+    is_completed boolean NOT NULL,
+    job_data jsonb,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_scheduled_jobs_notification FOREIGN KEY (notification_id) REFERENCES notifications
+);
+
+CREATE TABLE IF NOT EXISTS processed_events (
+    event_id varchar(255) NOT NULL,
+    notification_id bigint,
+    processed_at timestamp(6),
+    expires_at timestamp(6),
+    PRIMARY KEY (event_id)
+);
+
+CREATE TABLE IF NOT EXISTS batch_runs (
+    batch_id varchar(64) NOT NULL,
+    status varchar(255) NOT NULL CHECK (status IN ('QUEUED','PENDING','PROCESSING','PAUSED','COMPLETED','FAILED','PARTIALLY_COMPLETED','PARTIALLY_FAILED','CANCELLED')),
+    source varchar(255) NOT NULL CHECK (source IN ('USER_IDS','UPLOAD','SEGMENT')),
+    request TEXT,
+    owner varchar(255),
+    total_users integer NOT NULL,
+    total_batches integer NOT NULL,
+    processed_batches integer NOT NULL,
+    success_count integer NOT NULL,
+    failure_count integer NOT NULL,
+    cursor_position bigint NOT NULL,
+    last_user_id bigint,
+    error_message TEXT,
+    heartbeat_at timestamp(6),
+    completed_at timestamp(6),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    PRIMARY KEY (batch_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_batch_runs_status_heartbeat ON batch_runs (status, heartbeat_at);
+CREATE INDEX IF NOT EXISTS idx_notifications_batch_id ON notifications (batch_id, id);
+CREATE INDEX IF NOT EXISTS idx_notifications_batch_user ON notifications (batch_id, user_id);
+CREATE INDEX IF NOT EXISTS idx_notifications_status_scheduled ON notifications (status, scheduled_at);
+CREATE INDEX IF NOT EXISTS idx_notifications_status_updated ON notifications (status, updated_at);
+CREATE INDEX IF NOT EXISTS idx_notifications_deferred ON notifications (deferred_until, id);
+CREATE INDEX IF NOT EXISTS idx_notifications_archive_user ON notifications_archive (user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_processed_events_notification_id ON processed_events (notification_id);
+CREATE INDEX IF NOT EXISTS idx_processed_events_expires_at ON processed_events (expires_at);
+CREATE INDEX IF NOT EXISTS idx_scheduled_jobs_completed_updated ON scheduled_jobs (is_completed, updated_at);
+CREATE INDEX IF NOT EXISTS idx_user_preferred_channels_user ON user_preferred_channels (user_id, channel_type);
@@ -0,0 +1,26 @@
+-- Indexes for the hot NotificationRepository and ScheduledJobRepository queries. Built CONCURRENTLY so
+-- writes carry on meanwhile (see the .conf file). A build that fails leaves an INVALID index behind:
+-- drop it before re-running, since IF NOT EXISTS would otherwise keep it.
+
+-- User history, newest first (findByUser), and the per-user status filter and count
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_created ON notifications (user_id, created_at DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_status ON notifications (user_id, status);
+
+-- countByStatusAndTimeRange
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_status_created ON notifications (status, created_at);
+
+-- findPendingNotificationsByPriorityAndTime: equality on status, then already in ORDER BY order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_status_priority_created ON notifications (status, priority, created_at);
+
+-- Retry finder. Only rows that have failed at least once carry next_retry_at. The predicate does not
+-- name a status, because the status is a bind parameter and a generic plan could not use an index
+-- whose predicate depends on it. "next_retry_at <= ?" implies IS NOT NULL, so every plan can.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_retry ON notifications (status, next_retry_at)
+    WHERE next_retry_at IS NOT NULL;
+
+-- Misfire backlog and rehydration only ever read pending jobs, a small slice of the table
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_scheduled_jobs_pending ON scheduled_jobs (job_group, scheduled_time, id)
+    WHERE is_completed = false;
+
+-- Job lookups by notification, and the foreign key check when retention deletes notifications
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_scheduled_jobs_notification ON scheduled_jobs (notification_id);
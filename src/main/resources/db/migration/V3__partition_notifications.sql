@@ -0,0 +1,94 @@
+-- notifications becomes a table range-partitioned by created_at, one partition per month to start with;
+-- NotificationPartitionManager keeps creating them ahead of time and drops expired ones.
+-- An existing table is not rewritten. It is attached as one partition, notifications_legacy, covering
+-- everything before the first new month, and goes away with partition retention once all of it has
+-- expired. Attaching builds the new (id, created_at) primary key on it, so on a large table run this
+-- migration in a quiet window. An empty table is simply replaced.
+
+ALTER TABLE notifications RENAME TO notifications_legacy;
+
+-- The primary key has to include the partition key, so no foreign key can reference notifications(id)
+-- any more: scheduled_jobs rows are removed by whoever removes their notification
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN SELECT conname FROM pg_constraint
+              WHERE conrelid = 'scheduled_jobs'::regclass AND confrelid = 'notifications_legacy'::regclass LOOP
+        EXECUTE format('ALTER TABLE scheduled_jobs DROP CONSTRAINT %I', fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE notifications_legacy DROP CONSTRAINT notifications_pkey;
+
+-- Frees the index names for the partitioned table; its indexes adopt these ones instead of rebuilding them
+DO $$
+DECLARE
+    idx record;
+BEGIN
+    FOR idx IN SELECT indexname FROM pg_indexes
+               WHERE schemaname = current_schema() AND tablename = 'notifications_legacy' AND indexname LIKE 'idx_notifications_%' LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', idx.indexname, 'legacy_' || idx.indexname);
+    END LOOP;
+END $$;
+
+-- CHECK constraints are named after the legacy ones, which ATTACH PARTITION matches by name
+CREATE TABLE notifications (
+    id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    title varchar(255),
+    content TEXT,
+    channel_type varchar(255) NOT NULL CONSTRAINT notifications_channel_type_check CHECK (channel_type IN ('EMAIL','SMS','PUSH','SLACK','WHATSAPP')),
+    priority varchar(255) NOT NULL CONSTRAINT notifications_priority_check CHECK (priority IN ('HIGH','MEDIUM','LOW')),
+    status varchar(255) NOT NULL CONSTRAINT notifications_status_check CHECK (status IN ('PENDING','SENT','DELIVERED','FAILED','CANCELLED','SCHEDULED')),
+    metadata jsonb,
+    scheduled_at timestamp(6),
+    sent_at timestamp(6),
+    retry_count integer NOT NULL,
+    next_retry_at timestamp(6),
+    error_message TEXT,
+    batch_id varchar(255),
+    lease_owner varchar(64),
+    lease_expires_at timestamp(6),
+    deferred_until timestamp(6),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6),
+    PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_notifications_user FOREIGN KEY (user_id) REFERENCES users
+) PARTITION BY RANGE (created_at);
+
+DO $$
+DECLARE
+    first_month timestamp := date_trunc('month', localtimestamp);
+BEGIN
+    IF EXISTS (SELECT 1 FROM notifications_legacy) THEN
+        UPDATE notifications_legacy SET created_at = coalesce(updated_at, localtimestamp) WHERE created_at IS NULL;
+        SELECT date_trunc('month', greatest(localtimestamp, max(created_at))) + interval '1 month'
+          INTO first_month FROM notifications_legacy;
+        ALTER TABLE notifications_legacy ALTER COLUMN created_at SET NOT NULL;
+        EXECUTE format('ALTER TABLE notifications ATTACH PARTITION notifications_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+                       first_month);
+    ELSE
+        DROP TABLE notifications_legacy;
+    END IF;
+
+    FOR i IN 0..2 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                       'notifications_p' || to_char(first_month + i * interval '1 month', 'YYYYMM'),
+                       first_month + i * interval '1 month', first_month + (i + 1) * interval '1 month');
+    END LOOP;
+END $$;
+
+-- Catches rows no partition covers, so a send never fails for want of one
+CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+CREATE INDEX idx_notifications_batch_id ON notifications (batch_id, id);
+CREATE INDEX idx_notifications_batch_user ON notifications (batch_id, user_id);
+CREATE INDEX idx_notifications_status_scheduled ON notifications (status, scheduled_at);
+CREATE INDEX idx_notifications_status_updated ON notifications (status, updated_at);
+CREATE INDEX idx_notifications_deferred ON notifications (deferred_until, id);
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at DESC, id DESC);
+CREATE INDEX idx_notifications_user_status ON notifications (user_id, status);
+CREATE INDEX idx_notifications_status_created ON notifications (status, created_at);
+CREATE INDEX idx_notifications_status_priority_created ON notifications (status, priority, created_at);
+CREATE INDEX idx_notifications_retry ON notifications (status, next_retry_at) WHERE next_retry_at IS NOT NULL;
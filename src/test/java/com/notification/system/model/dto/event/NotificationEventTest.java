@@ -183,4 +183,21 @@ class NotificationEventTest {
         assertTrue(newEvent.getCreatedAt().isAfter(before));
         assertTrue(newEvent.getCreatedAt().isBefore(after));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRecipientState() {
+        assertFalse(notificationEvent.isCarriesRecipientState());
+        
+        notificationEvent.setRecipientUsername("testuser");
+        notificationEvent.setRecipientEmail("test@example.com");
+        notificationEvent.setRecipientPhone("+1234567890");
+        notificationEvent.setRecipientDeviceToken("device_abc");
+        notificationEvent.setCarriesRecipientState(true);
+        
+        assertTrue(notificationEvent.isCarriesRecipientState());
+        assertEquals("testuser", notificationEvent.getRecipientUsername());
+        assertEquals("test@example.com", notificationEvent.getRecipientEmail());
+        assertEquals("+1234567890", notificationEvent.getRecipientPhone());
+        assertEquals("device_abc", notificationEvent.getRecipientDeviceToken());
+    }
+}
@@ -0,0 +1,229 @@
+package com.notification.system.repository;
+
+import com.notification.system.config.FlywayConfig;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fails when a hot query can no longer use its index, or a time-bounded one stops pruning partitions.
+ * Runs the Flyway migrations into a throwaway {@code notification_plans} schema, seeds it, and EXPLAINs
+ * the SQL the repositories issue as generic prepared plans, which is what the JDBC driver ends up
+ * running. Opt-in:
+ *
+ * <pre>
+ * mvn test -Dtest=NotificationQueryPlanTest -Dplans.postgres.url=jdbc:postgresql://localhost:5432/notification_db \
+ *     [-Dplans.postgres.user=... -Dplans.postgres.password=...]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "plans.postgres.url", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NotificationQueryPlanTest {
+
+    private static final String SCHEMA = "notification_plans";
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+    private static final Pattern SORT_NODE = Pattern.compile("(?m)^\\s*(->\\s+)?(Incremental )?Sort\\s+\\(");
+    private static final Pattern BUFFERS = Pattern.compile("Buffers: shared(?: hit=(\\d+))?(?: read=(\\d+))?");
+
+    private Connection connection;
+
+    @BeforeAll
+    void migrateAndSeed() throws SQLException {
+        String url = System.getProperty("plans.postgres.url");
+        String user = System.getProperty("plans.postgres.user", "postgres");
+        String password = System.getProperty("plans.postgres.password", "postgres");
+        connection = DriverManager.getConnection(url, user, password);
+        execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+
+        Flyway.configure().dataSource(url, user, password).schemas(SCHEMA)
+                .configuration(FlywayConfig.FLYWAY_PROPERTIES).load().migrate();
+
+        connection.setSchema(SCHEMA);
+        execute("INSERT INTO users (id, username, email, created_at, updated_at) " +
+                "SELECT g, 'user' || g, 'user' || g || '@example.com', now(), now() FROM generate_series(1, 1000) g");
+        // Mostly delivered history, with a thin slice of live and retried rows, as in production
+        execute("INSERT INTO notifications (id, user_id, title, content, channel_type, priority, status, retry_count, " +
+                "next_retry_at, scheduled_at, created_at, updated_at) " +
+                "SELECT g, 1 + g % 1000, 't', 'c', 'EMAIL', (ARRAY['HIGH','MEDIUM','LOW'])[1 + g % 3], " +
+                "CASE WHEN g % 100 = 0 THEN 'PENDING' WHEN g % 100 = 1 THEN 'SCHEDULED' WHEN g % 100 = 2 THEN 'FAILED' ELSE 'SENT' END, " +
+                "CASE WHEN g % 50 = 0 THEN 1 ELSE 0 END, " +
+                "CASE WHEN g % 50 = 0 THEN now() - (g % 60) * interval '1 minute' END, " +
+                "now() + (g % 1440) * interval '1 minute', now() - g * interval '1 second', now() - g * interval '1 second' " +
+                "FROM generate_series(1, 100000) g");
+        execute("INSERT INTO scheduled_jobs (notification_id, job_key, job_group, scheduled_time, is_recurring, is_completed, created_at, updated_at) " +
+                "SELECT g, 'notification_' || g, 'notification_jobs', now() - g * interval '1 second', false, g % 20 <> 0, now(), now() " +
+                "FROM generate_series(1, 100000) g");
+        execute("ANALYZE");
+        execute("SET plan_cache_mode = force_generic_plan");
+    }
+
+    @AfterAll
+    void dropSchema() throws SQLException {
+        if (connection != null) {
+            try {
+                execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            } finally {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    void userHistoryUsesUserCreatedIndex() throws SQLException {
+        assertUsesIndex("idx_notifications_user_created",
+                "SELECT * FROM notifications WHERE user_id = $1 ORDER BY created_at DESC, id DESC OFFSET $2 LIMIT $3",
+                "bigint, int, int", "42, 0, 20");
+    }
+
+    @Test
+    void userHistoryKeysetPageUsesUserCreatedIndexWithoutSort() throws SQLException {
+        String sql = "SELECT * FROM notifications WHERE user_id = $1 AND created_at <= $2 " +
+                "AND (created_at < $2 OR id < $3) ORDER BY created_at DESC, id DESC LIMIT $4";
+        assertUsesIndex("idx_notifications_user_created", sql, "bigint, timestamp, bigint, int", "42, now(), 0, 20");
+        String plan = explain(sql, "bigint, timestamp, bigint, int", "42, now(), 0, 20");
+        // A Merge Append of the partitions keeps index order; only a Sort node means it was lost
+        assertFalse(SORT_NODE.matcher(plan).find(), () -> "Expected rows read in index order in plan:\n" + plan);
+    }
+
+    @Test
+    void userHistoryKeysetPageCostsTheSameAtAnyDepth() throws SQLException {
+        String sql = "SELECT * FROM notifications WHERE user_id = $1 AND created_at <= $2 " +
+                "AND (created_at < $2 OR id < $3) ORDER BY created_at DESC, id DESC LIMIT $4";
+        // User 42 owns every thousandth seeded row; resume just above the oldest ones
+        String oldest = plan("SELECT created_at FROM notifications WHERE id = 99041");
+        long first = buffersRead(sql, "42, now() + interval '1 day', " + Long.MAX_VALUE + ", 20");
+        long deep = buffersRead(sql, "42, '" + oldest + "', 99041, 20");
+        assertTrue(deep <= first * 2 + 10, () -> "Deep page read " + deep + " buffers against " + first + " for the first");
+    }
+
+    @Test
+    void userStatusFilterUsesUserStatusIndex() throws SQLException {
+        assertUsesIndex("idx_notifications_user_status",
+                "SELECT count(*) FROM notifications WHERE user_id = $1 AND status = $2",
+                "bigint, varchar", "42, 'PENDING'");
+    }
+
+    @Test
+    void dueScheduledUsesStatusScheduledIndex() throws SQLException {
+        assertUsesIndex("idx_notifications_status_scheduled",
+                "SELECT * FROM notifications WHERE status = $1 AND scheduled_at <= $2",
+                "varchar, timestamp", "'SCHEDULED', now()");
+    }
+
+    @Test
+    void retryFinderUsesPartialRetryIndex() throws SQLException {
+        assertUsesIndex("idx_notifications_retry",
+                "SELECT * FROM notifications WHERE status = $1 AND retry_count < $2 AND next_retry_at <= $3",
+                "varchar, int, timestamp", "'PENDING', 3, now()");
+    }
+
+    @Test
+    void countByStatusAndTimeRangeUsesStatusCreatedIndex() throws SQLException {
+        assertUsesIndex("idx_notifications_status_created",
+                "SELECT count(*) FROM notifications WHERE status = $1 AND created_at BETWEEN $2 AND $3",
+                "varchar, timestamp, timestamp", "'SENT', now() - interval '1 hour', now()");
+    }
+
+    @Test
+    void pendingByPriorityUsesStatusPriorityCreatedIndex() throws SQLException {
+        assertUsesIndex("idx_notifications_status_priority_created",
+                "SELECT * FROM notifications WHERE status = $1 ORDER BY priority, created_at LIMIT $2",
+                "varchar, int", "'PENDING', 100");
+    }
+
+    @Test
+    void misfireBacklogUsesPartialPendingJobsIndex() throws SQLException {
+        assertUsesIndex("idx_scheduled_jobs_pending",
+                "SELECT j.* FROM scheduled_jobs j JOIN notifications n ON n.id = j.notification_id " +
+                "WHERE j.job_group = $1 AND j.is_completed = false AND j.scheduled_time < $2 AND n.status = $3 " +
+                "AND n.priority = $4 AND (j.scheduled_time > $5 OR (j.scheduled_time = $5 AND j.id > $6)) " +
+                "ORDER BY j.scheduled_time, j.id LIMIT $7",
+                "varchar, timestamp, varchar, varchar, timestamp, bigint, int",
+                "'notification_jobs', now(), 'SCHEDULED', 'HIGH', '1970-01-01', 0, 1000");
+    }
+
+    @Test
+    void countByStatusAndTimeRangePrunesPartitions() throws SQLException {
+        String plan = explain("SELECT count(*) FROM notifications WHERE status = $1 AND created_at BETWEEN $2 AND $3",
+                "varchar, timestamp, timestamp", "'SENT', now() - interval '1 hour', now()");
+        assertTrue(plan.contains("Subplans Removed"), () -> "Expected partitions pruned in plan:\n" + plan);
+    }
+
+    private void assertUsesIndex(String index, String sql, String types, String arguments) throws SQLException {
+        String plan = explain(sql, types, arguments);
+        // On the partitioned notifications table the plan names each partition's own copy of the index
+        StringJoiner names = new StringJoiner("|", "\\b(", ")\\b").add(index);
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = '" + index + "'::regclass")) {
+            while (rs.next()) {
+                names.add(rs.getString(1));
+            }
+        }
+        assertTrue(Pattern.compile(names.toString()).matcher(plan).find(), () -> "Expected " + index + " in plan:\n" + plan);
+
+        // Empty partitions are always cheapest to scan sequentially; a populated one never should be
+        Matcher seqScan = SEQ_SCAN.matcher(plan);
+        while (seqScan.find()) {
+            String table = seqScan.group(1);
+            try (PreparedStatement statement = connection.prepareStatement("SELECT reltuples > 0 FROM pg_class WHERE relname = ?")) {
+                statement.setString(1, table);
+                try (ResultSet rs = statement.executeQuery()) {
+                    assertFalse(rs.next() && rs.getBoolean(1), () -> "Sequential scan of " + table + " in plan:\n" + plan);
+                }
+            }
+        }
+    }
+
+    private long buffersRead(String sql, String arguments) throws SQLException {
+        execute("PREPARE hot_query (bigint, timestamp, bigint, int) AS " + sql);
+        try {
+            String plan = plan("EXPLAIN (ANALYZE, BUFFERS) EXECUTE hot_query (" + arguments + ")");
+            Matcher buffers = BUFFERS.matcher(plan);
+            assertTrue(buffers.find(), () -> "Expected buffer counts in plan:\n" + plan);
+            return (buffers.group(1) != null ? Long.parseLong(buffers.group(1)) : 0) + (buffers.group(2) != null ? Long.parseLong(buffers.group(2)) : 0);
+        } finally {
+            execute("DEALLOCATE hot_query");
+        }
+    }
+
+    private String explain(String sql, String types, String arguments) throws SQLException {
+        execute("PREPARE hot_query (" + types + ") AS " + sql);
+        try {
+            return plan("EXPLAIN EXECUTE hot_query (" + arguments + ")");
+        } finally {
+            execute("DEALLOCATE hot_query");
+        }
+    }
+
+    private String plan(String explain) throws SQLException {
+        StringJoiner plan = new StringJoiner("\n");
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(explain)) {
+            while (rs.next()) {
+                plan.add(rs.getString(1));
+            }
+        }
+        return plan.toString();
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.notification.system.service.idempotency;
+
+import com.notification.system.model.dto.event.NotificationEvent;
+import com.notification.system.model.entity.ProcessedEvent;
+import com.notification.system.model.enums.ChannelType;
+import com.notification.system.model.enums.Priority;
+import com.notification.system.repository.ProcessedEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class EventDeduplicationServiceTest {
+
+    private ProcessedEventRepository repository;
+    private EventDeduplicationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProcessedEventRepository.class);
+        when(repository.findByProcessedAtAfterAndExpiresAtAfter(any(), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        service = new EventDeduplicationService();
+        ReflectionTestUtils.setField(service, "processedEventRepository", repository);
+        ReflectionTestUtils.setField(service, "ttlHours", 24L);
+        ReflectionTestUtils.setField(service, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(service, "syncIntervalMs", 5000L);
+        service.init();
+    }
+
+    @Test
+    void testUnseenEventSkipsStoreLookup() {
+        NotificationEvent event = new NotificationEvent(1L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+
+        assertFalse(service.isDuplicate(event));
+        verify(repository, never()).existsActive(anyString(), anyLong(), any());
+    }
+
+    @Test
+    void testProcessedEventIsConfirmedAgainstStore() {
+        NotificationEvent event = new NotificationEvent(2L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        when(repository.existsActive(eq(event.getEventId()), eq(2L), any())).thenReturn(true);
+
+        service.markProcessed(event);
+
+        assertTrue(service.isDuplicate(event));
+        verify(repository).save(any(ProcessedEvent.class));
+    }
+
+    @Test
+    void testRepublishedNotificationIsDetectedByNotificationId() {
+        NotificationEvent original = new NotificationEvent(3L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        NotificationEvent republished = new NotificationEvent(3L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        republished.setEventId("evt_other_3");
+        when(repository.existsActive(eq("evt_other_3"), eq(3L), any())).thenReturn(true);
+
+        service.markProcessed(original);
+
+        assertTrue(service.isDuplicate(republished));
+    }
+
+    @Test
+    void testWarmUpLoadsProcessedEventsFromStore() {
+        ProcessedEvent stored = new ProcessedEvent("evt_stored", 4L, null, null);
+        when(repository.findByProcessedAtAfterAndExpiresAtAfter(any(), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(stored)));
+        when(repository.existsActive(eq("evt_stored"), eq(4L), any())).thenReturn(true);
+
+        service.init();
+
+        NotificationEvent event = new NotificationEvent(4L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        event.setEventId("evt_stored");
+        assertTrue(service.isDuplicate(event));
+    }
+
+    @Test
+    void testClaimInsertsBeforeSending() {
+        NotificationEvent event = new NotificationEvent(5L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        when(repository.claim(eq(event.getEventId()), eq(5L), any(), any())).thenReturn(1);
+
+        assertEquals(EventDeduplicationService.Claim.CLAIMED, service.claim(event));
+
+        when(repository.complete(eq(event.getEventId()), any(), any())).thenReturn(1);
+        service.markProcessed(event);
+        verify(repository, never()).save(any(ProcessedEvent.class));
+    }
+
+    @Test
+    void testLostClaimIsDuplicateOnceTheWinnerHasFinished() {
+        NotificationEvent event = new NotificationEvent(6L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        when(repository.claim(eq(event.getEventId()), eq(6L), any(), any())).thenReturn(0);
+        when(repository.existsActive(eq(event.getEventId()), eq(6L), any())).thenReturn(false, true);
+
+        assertEquals(EventDeduplicationService.Claim.IN_FLIGHT, service.claim(event));
+        assertEquals(EventDeduplicationService.Claim.DUPLICATE, service.claim(event));
+    }
+
+    @Test
+    void testRepublishedNotificationLosesTheClaimWithoutAFilterHit() {
+        // Processed on another node since the last filter sync: only the claim itself sees it
+        NotificationEvent republished = new NotificationEvent(8L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        when(repository.claim(eq(republished.getEventId()), eq(8L), any(), any())).thenReturn(0);
+        when(repository.existsActive(eq(republished.getEventId()), eq(8L), any())).thenReturn(true);
+
+        assertEquals(EventDeduplicationService.Claim.DUPLICATE, service.claim(republished));
+        verify(repository).existsActive(eq(republished.getEventId()), eq(8L), any());
+    }
+
+    @Test
+    void testReleaseDropsOnlyAnUnfinishedClaim() {
+        NotificationEvent event = new NotificationEvent(7L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+
+        service.release(event);
+
+        verify(repository).releaseClaim(event.getEventId());
+    }
+}
@@ -0,0 +1,36 @@
+package com.notification.system.service.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsumerLagMonitorTest {
+
+    @Test
+    void testKeepingUpNeedsNoExtraConsumers() {
+        int required = ConsumerLagMonitor.calculateRequiredConsumers(100, 100, 0, 2, 3, 60);
+
+        assertEquals(2, required);
+    }
+
+    @Test
+    void testGrowingBacklogRecommendsScaleOut() {
+        // Two consumers handle 100/s in total but 180/s arrive with 1200 records already waiting
+        int required = ConsumerLagMonitor.calculateRequiredConsumers(180, 100, 1200, 2, 6, 60);
+
+        assertEquals(4, required);
+    }
+
+    @Test
+    void testRecommendationIsCappedAtPartitionCount() {
+        int required = ConsumerLagMonitor.calculateRequiredConsumers(1000, 10, 100_000, 1, 3, 60);
+
+        assertEquals(3, required);
+    }
+
+    @Test
+    void testNoThroughputSampleWithBacklog() {
+        assertEquals(2, ConsumerLagMonitor.calculateRequiredConsumers(0, 0, 50, 1, 3, 60));
+        assertEquals(1, ConsumerLagMonitor.calculateRequiredConsumers(0, 0, 0, 1, 3, 60));
+    }
+}
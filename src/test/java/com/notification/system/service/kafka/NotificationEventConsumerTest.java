@@ -0,0 +1,202 @@
+package com.notification.system.service.kafka;
+
+import com.notification.system.config.KafkaConfig;
+import com.notification.system.model.dto.event.NotificationEvent;
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.entity.ProcessedEvent;
+import com.notification.system.model.enums.ChannelType;
+import com.notification.system.model.enums.Priority;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.repository.ProcessedEventRepository;
+import com.notification.system.service.idempotency.EventDeduplicationService;
+import com.notification.system.service.notification.NotificationProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class NotificationEventConsumerTest {
+
+    private NotificationProcessor notificationProcessor;
+    private NotificationRepository notificationRepository;
+    private NotificationEventConsumer consumer;
+
+    // Stands in for processed_events: putIfAbsent is as atomic as the INSERT ... ON CONFLICT claim
+    private final Map<String, ProcessedEvent> processedEvents = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        notificationProcessor = mock(NotificationProcessor.class);
+        notificationRepository = mock(NotificationRepository.class);
+
+        consumer = new NotificationEventConsumer();
+        ReflectionTestUtils.setField(consumer, "notificationProcessor", notificationProcessor);
+        ReflectionTestUtils.setField(consumer, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(consumer, "deduplicationService", deduplicationService());
+        ReflectionTestUtils.setField(consumer, "consumerMetrics", new KafkaConsumerMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void testRedeliveriesRacingOnOneEventSendOnce() throws Exception {
+        NotificationEvent event = new NotificationEvent(1L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        when(notificationRepository.findByIdWithUser(1L)).thenReturn(Optional.of(new Notification()));
+        CountDownLatch bothChecked = new CountDownLatch(2);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        when(notificationProcessor.processNotification(any())).thenAnswer(invocation -> {
+            sending.countDown();
+            return finish.await(5, TimeUnit.SECONDS);
+        });
+
+        // Both consumers get past the filter and store check before either claims
+        EventDeduplicationService deduplication = (EventDeduplicationService) ReflectionTestUtils.getField(consumer, "deduplicationService");
+        EventDeduplicationService gated = spy(deduplication);
+        doAnswer(invocation -> {
+            boolean duplicate = (boolean) invocation.callRealMethod();
+            bothChecked.countDown();
+            bothChecked.await(5, TimeUnit.SECONDS);
+            return duplicate;
+        }).when(gated).isDuplicate(event);
+        ReflectionTestUtils.setField(consumer, "deduplicationService", gated);
+
+        ExecutorService consumers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> deliveries = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                deliveries.add(consumers.submit(() -> consumer.consumeNotificationEvent(event, KafkaConfig.NOTIFICATION_TOPIC, 0, 0L)));
+            }
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+            // The winner holds its claim until the loser has come back
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (deliveries.stream().noneMatch(Future::isDone) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            finish.countDown();
+            int rejected = 0;
+            for (Future<?> delivery : deliveries) {
+                try {
+                    delivery.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    // The loser is sent round the retry topic
+                    assertInstanceOf(IllegalStateException.class, e.getCause());
+                    rejected++;
+                }
+            }
+            assertEquals(1, rejected);
+        } finally {
+            consumers.shutdownNow();
+        }
+
+        verify(notificationProcessor, times(1)).processNotification(any());
+        assertNotNull(processedEvents.get(event.getEventId()).getProcessedAt());
+
+        // The loser's retry arrives after the winner finished and is skipped
+        consumer.consumeNotificationEvent(event, KafkaConfig.NOTIFICATION_TOPIC, 0, 0L);
+        verify(notificationProcessor, times(1)).processNotification(any());
+    }
+
+    @Test
+    void testFailedSendReleasesTheClaimForTheRetry() {
+        NotificationEvent event = new NotificationEvent(2L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        when(notificationRepository.findByIdWithUser(2L)).thenReturn(Optional.of(new Notification()));
+        when(notificationProcessor.processNotification(any())).thenReturn(false, true);
+
+        assertThrows(RuntimeException.class, () -> consumer.consumeNotificationEvent(event, KafkaConfig.NOTIFICATION_TOPIC, 0, 0L));
+        assertFalse(processedEvents.containsKey(event.getEventId()));
+
+        consumer.consumeNotificationEvent(event, KafkaConfig.NOTIFICATION_TOPIC, 0, 0L);
+        verify(notificationProcessor, times(2)).processNotification(any());
+    }
+
+    @Test
+    void testEventCarryingRecipientStateSkipsTheNotificationRead() {
+        ReflectionTestUtils.setField(consumer, "eventCarriedState", true);
+        NotificationEvent event = new NotificationEvent(3L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        event.setCarriesRecipientState(true);
+        when(notificationProcessor.processNotificationEvent(event)).thenReturn(true);
+
+        consumer.consumeNotificationEvent(event, KafkaConfig.NOTIFICATION_TOPIC, 0, 0L);
+
+        verify(notificationProcessor).processNotificationEvent(event);
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void testEventWithoutRecipientStateIsLoadedFromTheDatabase() {
+        ReflectionTestUtils.setField(consumer, "eventCarriedState", true);
+        NotificationEvent event = new NotificationEvent(4L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        Notification notification = new Notification();
+        when(notificationRepository.findByIdWithUser(4L)).thenReturn(Optional.of(notification));
+        when(notificationProcessor.processNotification(notification)).thenReturn(true);
+
+        consumer.consumeNotificationEvent(event, KafkaConfig.NOTIFICATION_TOPIC, 0, 0L);
+
+        verify(notificationProcessor).processNotification(notification);
+        verify(notificationProcessor, never()).processNotificationEvent(any());
+    }
+
+    @Test
+    void testEventCarriedStateIgnoredWhileTheModeIsOff() {
+        NotificationEvent event = new NotificationEvent(5L, 1L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        event.setCarriesRecipientState(true);
+        Notification notification = new Notification();
+        when(notificationRepository.findByIdWithUser(5L)).thenReturn(Optional.of(notification));
+        when(notificationProcessor.processNotification(notification)).thenReturn(true);
+
+        consumer.consumeNotificationEvent(event, KafkaConfig.NOTIFICATION_TOPIC, 0, 0L);
+
+        verify(notificationProcessor).processNotification(notification);
+        verify(notificationProcessor, never()).processNotificationEvent(any());
+    }
+
+    private EventDeduplicationService deduplicationService() {
+        ProcessedEventRepository repository = mock(ProcessedEventRepository.class);
+        when(repository.findByProcessedAtAfterAndExpiresAtAfter(any(), any(), any())).thenReturn(new SliceImpl<>(List.of()));
+        when(repository.claim(anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            ProcessedEvent claim = new ProcessedEvent(invocation.getArgument(0), invocation.getArgument(1), null, invocation.getArgument(3));
+            return processedEvents.putIfAbsent(claim.getEventId(), claim) == null ? 1 : 0;
+        });
+        when(repository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(processedEvents.get(invocation.<String>getArgument(0))));
+        when(repository.complete(anyString(), any(), any())).thenAnswer(invocation -> {
+            ProcessedEvent processed = processedEvents.get(invocation.<String>getArgument(0));
+            processed.setProcessedAt(invocation.getArgument(1));
+            processed.setExpiresAt(invocation.getArgument(2));
+            return 1;
+        });
+        when(repository.releaseClaim(anyString())).thenAnswer(invocation ->
+                processedEvents.remove(invocation.<String>getArgument(0)) != null ? 1 : 0);
+        when(repository.existsActive(anyString(), any(), any())).thenAnswer(invocation -> {
+            ProcessedEvent processed = processedEvents.get(invocation.<String>getArgument(0));
+            return processed != null && processed.getProcessedAt() != null
+                    && processed.getExpiresAt().isAfter(invocation.<LocalDateTime>getArgument(2));
+        });
+
+        EventDeduplicationService service = new EventDeduplicationService();
+        ReflectionTestUtils.setField(service, "processedEventRepository", repository);
+        ReflectionTestUtils.setField(service, "ttlHours", 24L);
+        ReflectionTestUtils.setField(service, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(service, "syncIntervalMs", 5000L);
+        service.init();
+        return service;
+    }
+}
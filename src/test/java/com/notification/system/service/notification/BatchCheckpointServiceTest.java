@@ -0,0 +1,231 @@
+package com.notification.system.service.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.system.model.dto.request.BatchNotificationRequest;
+import com.notification.system.model.entity.BatchRun;
+import com.notification.system.model.enums.BatchSource;
+import com.notification.system.model.enums.BatchStatus;
+import com.notification.system.repository.BatchRunRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchCheckpointServiceTest {
+
+    @Mock
+    private BatchRunRepository batchRunRepository;
+
+    @Mock
+    private BatchJobRegistry batchJobRegistry;
+
+    @Mock
+    private BatchExecutionEngine executionEngine;
+
+    @InjectMocks
+    private BatchCheckpointService checkpointService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(checkpointService, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(checkpointService, "configuredNodeId", "node-a");
+        checkpointService.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        checkpointService.stop();
+    }
+
+    @Test
+    void start_StoresRequestOwnedByThisNode() {
+        BatchJob job = new BatchJob("batch_1", 2, false);
+
+        checkpointService.start(job, BatchSource.USER_IDS, request());
+
+        ArgumentCaptor<BatchRun> run = ArgumentCaptor.forClass(BatchRun.class);
+        verify(batchRunRepository).save(run.capture());
+        assertEquals("node-a", run.getValue().getOwner());
+        assertEquals(BatchSource.USER_IDS, run.getValue().getSource());
+        assertTrue(run.getValue().getRequest().contains("\"userIds\":[1,2]"));
+    }
+
+    @Test
+    void recipientsPersisted_DropsRecipientList() {
+        BatchRun run = new BatchRun("batch_1", BatchSource.USER_IDS, BatchStatus.PROCESSING, "{}", "node-a");
+        when(batchRunRepository.findById("batch_1")).thenReturn(Optional.of(run));
+
+        checkpointService.recipientsPersisted("batch_1", request());
+
+        assertFalse(run.getRequest().contains("userIds"));
+        assertEquals("Hello", checkpointService.readRequest(run).getContent());
+    }
+
+    @Test
+    void checkpoint_CopiesProgress() {
+        BatchJob job = new BatchJob("batch_1", 0, false);
+        job.advanceCursor(500);
+        when(batchRunRepository.saveProgress(any(), eq(BatchCheckpointService.HELD_STATUSES))).thenReturn(1);
+
+        checkpointService.checkpoint(job, 42L);
+
+        ArgumentCaptor<BatchRun> run = ArgumentCaptor.forClass(BatchRun.class);
+        verify(batchRunRepository).saveProgress(run.capture(), any());
+        assertEquals(500, run.getValue().getCursorPosition());
+        assertEquals(42L, run.getValue().getLastUserId());
+        assertEquals("node-a", run.getValue().getOwner());
+    }
+
+    @Test
+    void finish_StoresFinalStatus() {
+        BatchRun run = new BatchRun("batch_1", BatchSource.USER_IDS, BatchStatus.PROCESSING, "{}", "node-a");
+        when(batchRunRepository.findById("batch_1")).thenReturn(Optional.of(run));
+        BatchJob job = new BatchJob("batch_1", 1, false);
+        job.complete();
+
+        checkpointService.finish(job);
+
+        assertEquals(BatchStatus.COMPLETED, run.getStatus());
+        assertNull(run.getRequest());
+        verify(batchRunRepository).save(run);
+    }
+
+    @Test
+    void finish_ReleasesRunInterruptedByShutdown() {
+        BatchRun run = new BatchRun("batch_1", BatchSource.SEGMENT, BatchStatus.PROCESSING, "{}", "node-a");
+        when(batchRunRepository.findById("batch_1")).thenReturn(Optional.of(run));
+        BatchJob job = new BatchJob("batch_1", 0, false);
+        job.advanceCursor(300);
+        job.fail("Processing interrupted at record 300");
+
+        checkpointService.onShutdown();
+        checkpointService.finish(job);
+
+        assertEquals(BatchStatus.PROCESSING, run.getStatus());
+        assertEquals(300, run.getCursorPosition());
+        assertNotNull(run.getRequest());
+        assertTrue(run.getHeartbeatAt().isBefore(LocalDateTime.now().minusYears(1)));
+    }
+
+    @Test
+    void finish_IgnoresRunClaimedByAnotherNode() {
+        BatchRun run = new BatchRun("batch_1", BatchSource.USER_IDS, BatchStatus.PROCESSING, "{}", "node-b");
+        when(batchRunRepository.findById("batch_1")).thenReturn(Optional.of(run));
+
+        checkpointService.finish(new BatchJob("batch_1", 1, false));
+
+        verify(batchRunRepository, never()).save(any());
+    }
+
+    @Test
+    void claim_OnlyWinsStaleActiveRuns() {
+        when(batchRunRepository.claim(eq("batch_1"), eq("node-a"), any(), any(), eq(BatchCheckpointService.ACTIVE_STATUSES)))
+                .thenReturn(1, 0);
+
+        assertTrue(checkpointService.claim("batch_1"));
+        assertFalse(checkpointService.claim("batch_1"));
+    }
+
+    @Test
+    void claim_NeverTakesARunStillExecutingOnThisNode() {
+        when(batchJobRegistry.find("batch_1")).thenReturn(Optional.of(new BatchJob("batch_1", 2, false)));
+
+        assertFalse(checkpointService.claim("batch_1"));
+        verify(batchRunRepository, never()).claim(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void heartbeat_RunsOnItsOwnThread() throws InterruptedException {
+        checkpointService.stop();
+        ReflectionTestUtils.setField(checkpointService, "heartbeatIntervalMs", 10L);
+        when(batchJobRegistry.activeBatchIds()).thenReturn(List.of("batch_1"));
+        checkpointService.init();
+
+        verify(batchRunRepository, timeout(2000).atLeast(2)).heartbeat(eq("node-a"), eq(List.of("batch_1")), any());
+    }
+
+    @Test
+    void heartbeat_StopsRunCancelledOnAnotherNode() {
+        BatchJob job = new BatchJob("batch_1", 2, false);
+        job.markProcessing();
+        when(batchJobRegistry.activeBatchIds()).thenReturn(List.of("batch_1"));
+        when(batchJobRegistry.find("batch_1")).thenReturn(Optional.of(job));
+        when(batchRunRepository.findStates("node-a", List.of("batch_1"))).thenReturn(List.of(state("batch_1", BatchStatus.CANCELLED)));
+
+        checkpointService.heartbeat();
+
+        assertTrue(job.isCancelRequested());
+        verify(executionEngine).cancel("batch_1", false);
+    }
+
+    @Test
+    void heartbeat_AppliesStoredPauseAndResume() {
+        BatchJob job = new BatchJob("batch_1", 2, false);
+        job.markProcessing();
+        when(batchJobRegistry.activeBatchIds()).thenReturn(List.of("batch_1"));
+        when(batchJobRegistry.find("batch_1")).thenReturn(Optional.of(job));
+        when(batchRunRepository.findStates("node-a", List.of("batch_1")))
+                .thenReturn(List.of(state("batch_1", BatchStatus.PAUSED)))
+                .thenReturn(List.of(state("batch_1", BatchStatus.PROCESSING)));
+
+        checkpointService.heartbeat();
+        assertTrue(job.isPaused());
+
+        checkpointService.heartbeat();
+        assertFalse(job.isPaused());
+        assertEquals(BatchStatus.PROCESSING, job.getStatus());
+    }
+
+    @Test
+    void markCancelled_OnlyStopsActiveRuns() {
+        when(batchRunRepository.transitionStatus(eq("batch_1"), eq(BatchCheckpointService.ACTIVE_STATUSES),
+                eq(BatchStatus.CANCELLED), any())).thenReturn(1, 0);
+
+        assertTrue(checkpointService.markCancelled("batch_1"));
+        assertFalse(checkpointService.markCancelled("batch_1"));
+    }
+
+    @Test
+    void loadJob_FinishedRunIsResumableUpload() {
+        BatchRun run = new BatchRun("batch_1", BatchSource.UPLOAD, BatchStatus.FAILED, null, "node-b");
+        run.setCursorPosition(2000);
+        run.setSuccessCount(1990);
+        run.setFailureCount(10);
+        when(batchRunRepository.findById("batch_1")).thenReturn(Optional.of(run));
+
+        BatchJob job = checkpointService.loadJob("batch_1").orElseThrow();
+
+        assertTrue(job.isFinished());
+        assertEquals(2000, job.getCursor());
+        assertEquals(1990, job.getSuccessCount());
+    }
+
+    private static BatchRunRepository.RunState state(String batchId, BatchStatus status) {
+        return new BatchRunRepository.RunState() {
+            public String getBatchId() { return batchId; }
+            public BatchStatus getStatus() { return status; }
+        };
+    }
+
+    private static BatchNotificationRequest request() {
+        BatchNotificationRequest request = new BatchNotificationRequest();
+        request.setUserIds(List.of(1L, 2L));
+        request.setContent("Hello");
+        return request;
+    }
+}
@@ -0,0 +1,201 @@
+package com.notification.system.service.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchExecutionEngineTest {
+
+    private ThreadPoolTaskExecutor workers;
+    private SimpleMeterRegistry meterRegistry;
+    private BatchExecutionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        workers = new ThreadPoolTaskExecutor();
+        workers.setCorePoolSize(4);
+        workers.setMaxPoolSize(4);
+        workers.initialize();
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new BatchExecutionEngine(workers, meterRegistry, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdown();
+    }
+
+    @Test
+    void lane_NeverExceedsItsParallelism() throws Exception {
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        try (BatchExecutionEngine.Lane lane = engine.openLane("batch_a", null)) {
+            for (int i = 0; i < 20; i++) {
+                lane.submit(() -> {
+                    peak.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    sleep(5);
+                    concurrent.decrementAndGet();
+                    completed.incrementAndGet();
+                });
+            }
+            lane.awaitCompletion();
+        }
+
+        assertEquals(20, completed.get());
+        assertTrue(peak.get() <= 2, "peak concurrency was " + peak.get());
+    }
+
+    @Test
+    void openLane_RequestedParallelismIsCapped() {
+        try (BatchExecutionEngine.Lane lower = engine.openLane("batch_low", 1);
+             BatchExecutionEngine.Lane higher = engine.openLane("batch_high", 50)) {
+            assertEquals(1, lower.getParallelism());
+            assertEquals(2, higher.getParallelism());
+        }
+    }
+
+    @Test
+    void openLane_RejectsSecondLaneForSameBatch() {
+        try (BatchExecutionEngine.Lane ignored = engine.openLane("batch_dup", null)) {
+            assertThrows(IllegalStateException.class, () -> engine.openLane("batch_dup", null));
+        }
+    }
+
+    @Test
+    void concurrentBatches_ShareWorkersFairly() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        try (BatchExecutionEngine.Lane large = engine.openLane("batch_large", null);
+             BatchExecutionEngine.Lane small = engine.openLane("batch_small", null)) {
+            for (int i = 0; i < 30; i++) {
+                large.submit(() -> {
+                    sleep(5);
+                    order.add("large");
+                });
+            }
+            small.submit(() -> order.add("small"));
+
+            small.awaitCompletion();
+            int largeDoneBeforeSmall = order.indexOf("small");
+            large.awaitCompletion();
+
+            // The small batch is not queued behind the large batch's 30 chunks
+            assertTrue(largeDoneBeforeSmall < 10, "small batch waited for " + largeDoneBeforeSmall + " large chunks");
+        }
+    }
+
+    @Test
+    void cancel_DropsQueuedChunksAndInterruptsRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger interrupted = new AtomicInteger();
+        AtomicInteger ran = new AtomicInteger();
+
+        try (BatchExecutionEngine.Lane lane = engine.openLane("batch_cancel", null)) {
+            for (int i = 0; i < 10; i++) {
+                lane.submit(() -> {
+                    ran.incrementAndGet();
+                    started.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.incrementAndGet();
+                    }
+                });
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertTrue(engine.cancel("batch_cancel"));
+            lane.awaitCompletion();
+
+            assertTrue(lane.isCancelled());
+            assertFalse(lane.submit(() -> ran.incrementAndGet()));
+        }
+
+        assertEquals(2, ran.get());
+        waitFor(() -> interrupted.get() == 2);
+        assertEquals(10.0, meterRegistry.get("notification.batch.engine.tasks.cancelled").counter().count());
+        assertFalse(engine.cancel("batch_cancel"));
+    }
+
+    @Test
+    void awaitCapacity_BlocksWhileChunksAreQueued() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (BatchExecutionEngine.Lane lane = engine.openLane("batch_capacity", null)) {
+            for (int i = 0; i < 3; i++) {
+                lane.submit(() -> {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            assertEquals(1, lane.getPending());
+
+            Thread producer = new Thread(() -> {
+                try {
+                    lane.awaitCapacity(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producer.start();
+            producer.join(100);
+            assertTrue(producer.isAlive());
+
+            release.countDown();
+            producer.join(5_000);
+            assertFalse(producer.isAlive());
+            assertEquals(0, lane.getPending());
+
+            lane.cancel(false);
+            assertFalse(lane.awaitCapacity(1));
+        }
+    }
+
+    @Test
+    void metrics_ReportLanesAndCompletedChunks() throws Exception {
+        try (BatchExecutionEngine.Lane lane = engine.openLane("batch_metrics", null)) {
+            assertEquals(1.0, meterRegistry.get("notification.batch.engine.lanes").gauge().value());
+            for (int i = 0; i < 5; i++) {
+                lane.submit(() -> { });
+            }
+            lane.awaitCompletion();
+        }
+
+        assertEquals(0.0, meterRegistry.get("notification.batch.engine.lanes").gauge().value());
+        waitFor(() -> meterRegistry.get("notification.batch.engine.task.duration").timer().count() == 5);
+        assertEquals(5, meterRegistry.get("notification.batch.engine.queue.wait").timer().count());
+        assertEquals(4.0, meterRegistry.get("notification.batch.engine.workers.max").gauge().value());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
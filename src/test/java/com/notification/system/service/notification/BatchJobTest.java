@@ -0,0 +1,138 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.dto.response.BatchNotificationResponse;
+import com.notification.system.model.enums.BatchStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchJobTest {
+
+    @Test
+    void testNewJobIsQueued() {
+        BatchJob job = new BatchJob("batch_1", 10, false);
+
+        BatchNotificationResponse response = job.toResponse();
+        assertEquals(BatchStatus.QUEUED, response.getStatus());
+        assertEquals(10, response.getTotalUsers());
+        assertEquals(0, response.getProcessedCount());
+        assertNull(response.getResults());
+        assertNull(response.getCompletedAt());
+    }
+
+    @Test
+    void testProgressCountersAreLive() {
+        BatchJob job = new BatchJob("batch_2", 3, false);
+        job.markProcessing();
+
+        job.recordResult(new BatchNotificationResponse.NotificationResult(1L, 11L, true, "Sent successfully"));
+        job.recordResult(new BatchNotificationResponse.NotificationResult(2L, 12L, false, "Failed to send"));
+
+        BatchNotificationResponse response = job.toResponse();
+        assertEquals(BatchStatus.PROCESSING, response.getStatus());
+        assertEquals(2, response.getProcessedCount());
+        assertEquals(1, response.getSuccessCount());
+        assertEquals(1, response.getFailureCount());
+        assertEquals(1, response.getStatistics().getErrorBreakdown().get("Failed to send"));
+    }
+
+    @Test
+    void testCompletionStatus() {
+        BatchJob allSent = new BatchJob("batch_3", 1, false);
+        allSent.recordResult(new BatchNotificationResponse.NotificationResult(1L, 11L, true, "Sent successfully"));
+        allSent.complete();
+        assertEquals(BatchStatus.COMPLETED, allSent.getStatus());
+        assertTrue(allSent.isFinished());
+
+        BatchJob partial = new BatchJob("batch_4", 2, false);
+        partial.recordResult(new BatchNotificationResponse.NotificationResult(1L, 11L, true, "Sent successfully"));
+        partial.recordResult(new BatchNotificationResponse.NotificationResult(2L, 12L, false, "Failed to send"));
+        partial.complete();
+        assertEquals(BatchStatus.PARTIALLY_FAILED, partial.getStatus());
+    }
+
+    @Test
+    void testCollectedResults() {
+        BatchJob job = new BatchJob("batch_5", 1, true);
+        job.recordResult(new BatchNotificationResponse.NotificationResult(1L, 11L, true, "Sent successfully"));
+
+        assertEquals(1, job.toResponse().getResults().size());
+    }
+
+    @Test
+    void testFail() {
+        BatchJob job = new BatchJob("batch_6", 1, false);
+        job.fail("No valid users found");
+
+        BatchNotificationResponse response = job.toResponse();
+        assertEquals(BatchStatus.FAILED, response.getStatus());
+        assertEquals("No valid users found", response.getErrorMessage());
+        assertNotNull(response.getCompletedAt());
+    }
+
+    @Test
+    void testErrorBreakdownIsBounded() {
+        BatchJob job = new BatchJob("batch_errors", 200, false);
+        for (int i = 0; i < 200; i++) {
+            job.recordResult(new BatchNotificationResponse.NotificationResult((long) i, (long) i, false, "Error: timeout " + i));
+        }
+
+        var breakdown = job.toResponse().getStatistics().getErrorBreakdown();
+        assertEquals(BatchJob.MAX_ERROR_KINDS + 1, breakdown.size());
+        assertEquals(200 - BatchJob.MAX_ERROR_KINDS, breakdown.get(BatchJob.OTHER_ERRORS));
+        assertEquals(200, job.getFailureCount());
+    }
+
+    @Test
+    void testPauseBlocksWorkersUntilResumed() throws Exception {
+        BatchJob job = new BatchJob("batch_pause", 10, false);
+        job.markProcessing();
+        assertTrue(job.pause());
+        assertEquals(BatchStatus.PAUSED, job.getStatus());
+
+        CountDownLatch released = new CountDownLatch(1);
+        Thread worker = new Thread(() -> {
+            try {
+                if (job.awaitRunnable()) {
+                    released.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+
+        assertFalse(released.await(100, TimeUnit.MILLISECONDS));
+        assertTrue(job.resume());
+        assertTrue(released.await(1, TimeUnit.SECONDS));
+        assertEquals(BatchStatus.PROCESSING, job.getStatus());
+        assertFalse(job.resume());
+    }
+
+    @Test
+    void testCancelReleasesPausedWorkers() throws Exception {
+        BatchJob job = new BatchJob("batch_cancel", 10, false);
+        job.markProcessing();
+        job.pause();
+
+        CompletableFuture<Boolean> runnable = CompletableFuture.supplyAsync(() -> {
+            try {
+                return job.awaitRunnable();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        job.requestCancel();
+
+        assertFalse(runnable.get(1, TimeUnit.SECONDS));
+        assertFalse(job.pause());
+        job.recordResult(new BatchNotificationResponse.NotificationResult(1L, 11L, true, "Sent successfully"));
+        job.complete();
+        assertEquals(BatchStatus.CANCELLED, job.getStatus());
+        assertTrue(job.isFinished());
+    }
+}
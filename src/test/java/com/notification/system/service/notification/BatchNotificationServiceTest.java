@@ -0,0 +1,268 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.dto.request.BatchNotificationRequest;
+import com.notification.system.model.dto.response.BatchNotificationResponse;
+import com.notification.system.model.entity.BatchRun;
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.enums.BatchSource;
+import com.notification.system.model.enums.BatchStatus;
+import com.notification.system.model.enums.ChannelType;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.model.enums.Priority;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.repository.UserRepository;
+import com.notification.system.repository.UserRepository.RecipientView;
+import com.notification.system.service.scheduler.NotificationSchedulerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchNotificationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private NotificationBulkWriter bulkWriter;
+
+    @Mock
+    private NotificationProcessor notificationProcessor;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private BatchJobRegistry batchJobRegistry;
+
+    @Mock
+    private BatchCheckpointService checkpointService;
+
+    @Mock
+    private NotificationSchedulerService schedulerService;
+
+    @Mock
+    private BatchExecutionEngine executionEngine;
+
+    @InjectMocks
+    private BatchNotificationService batchNotificationService;
+
+    @Captor
+    private ArgumentCaptor<List<Notification>> inserted;
+
+    private QuietHoursService quietHoursService;
+
+    @BeforeEach
+    void setUp() {
+        quietHoursService = new QuietHoursService();
+        ReflectionTestUtils.setField(quietHoursService, "schedulerService", schedulerService);
+        ReflectionTestUtils.setField(batchNotificationService, "quietHoursService", quietHoursService);
+
+        RecipientResolver recipientResolver = new RecipientResolver();
+        ReflectionTestUtils.setField(recipientResolver, "userRepository", userRepository);
+        ReflectionTestUtils.setField(recipientResolver, "chunkSize", 2);
+        ReflectionTestUtils.setField(batchNotificationService, "recipientResolver", recipientResolver);
+
+        // Every recipient is still unsent when its send comes up unless a test says otherwise
+        lenient().when(notificationRepository.updateDeliveryStatus(any(), anyList(), eq(NotificationStatus.PENDING),
+                any(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    void processBatchNotification_SendsEachResolvedChunkBeforeResolvingTheNext() {
+        when(userRepository.findRecipientsInRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+            List<RecipientView> rows = new ArrayList<>();
+            for (long id = invocation.<Long>getArgument(0); id <= invocation.<Long>getArgument(1); id++) {
+                rows.add(view(id));
+            }
+            return rows;
+        });
+        when(notificationProcessor.processNotification(any())).thenReturn(true);
+
+        BatchNotificationRequest request = new BatchNotificationRequest(List.of(1L, 2L, 3L, 4L, 5L),
+                "Title", "Content", ChannelType.EMAIL, Priority.LOW);
+        request.getBatchSettings().setParallelProcessing(false);
+        request.getBatchSettings().setDelayBetweenBatches(0L);
+
+        BatchNotificationResponse response = batchNotificationService.processBatchNotification(request, false);
+
+        assertEquals(BatchStatus.COMPLETED, response.getStatus());
+        assertEquals(5, response.getSuccessCount());
+        assertEquals(3, response.getStatistics().getTotalBatches());
+
+        InOrder order = inOrder(userRepository, bulkWriter, notificationProcessor, checkpointService);
+        for (long[] range : new long[][] {{1, 2}, {3, 4}, {5, 5}}) {
+            order.verify(userRepository).findRecipientsInRange(range[0], range[1]);
+            order.verify(bulkWriter).insertAll(argThat(chunk -> chunk.size() == range[1] - range[0] + 1));
+            order.verify(notificationProcessor, times((int) (range[1] - range[0] + 1))).processNotification(any(Notification.class));
+        }
+        // The stored recipient list is only dropped once every chunk is persisted
+        order.verify(checkpointService).recipientsPersisted(any(), eq(request));
+    }
+
+    @Test
+    void processBatchNotification_StopsResolvingOnceAChunkFails() {
+        when(userRepository.findRecipientsInRange(1L, 2L)).thenReturn(List.of(view(1L), view(2L)));
+        when(notificationProcessor.processNotification(any())).thenReturn(false);
+
+        BatchNotificationRequest request = new BatchNotificationRequest(List.of(1L, 2L, 3L, 4L),
+                "Title", "Content", ChannelType.EMAIL, Priority.LOW);
+        request.getBatchSettings().setParallelProcessing(false);
+        request.getBatchSettings().setContinueOnError(false);
+        request.getBatchSettings().setDelayBetweenBatches(0L);
+
+        BatchNotificationResponse response = batchNotificationService.processBatchNotification(request, false);
+
+        assertEquals(1, response.getFailureCount());
+        verify(userRepository, never()).findRecipientsInRange(3L, 4L);
+        verify(bulkWriter, times(1)).insertAll(anyList());
+        verify(checkpointService, never()).recipientsPersisted(any(), any());
+    }
+
+    @Test
+    void processBatchNotification_DefersLowPriorityRecipientsInQuietHours() {
+        // User 1's quiet hours started an hour ago and end in two; user 2 has none
+        LocalTime now = LocalTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MINUTES);
+        when(userRepository.findRecipientsInRange(1L, 2L))
+                .thenReturn(List.of(view(1L, now.minusHours(1), now.plusHours(2)), view(2L)));
+        when(notificationProcessor.processNotification(any())).thenReturn(true);
+
+        BatchNotificationRequest request = new BatchNotificationRequest(List.of(1L, 2L),
+                "Title", "Content", ChannelType.EMAIL, Priority.LOW);
+        request.getBatchSettings().setParallelProcessing(false);
+        request.getBatchSettings().setDelayBetweenBatches(0L);
+
+        BatchNotificationResponse response = batchNotificationService.processBatchNotification(request, false);
+        assertEquals(BatchStatus.COMPLETED, response.getStatus());
+
+        verify(bulkWriter).insertAll(inserted.capture());
+        Notification deferred = inserted.getValue().get(0);
+        assertEquals(NotificationStatus.SCHEDULED, deferred.getStatus());
+        assertNotNull(deferred.getDeferredUntil());
+        assertEquals(deferred.getDeferredUntil(), deferred.getScheduledAt());
+        assertEquals(NotificationStatus.PENDING, inserted.getValue().get(1).getStatus());
+
+        verify(schedulerService).scheduleQuietBucket(deferred.getDeferredUntil());
+        ArgumentCaptor<Notification> sent = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationProcessor).processNotification(sent.capture());
+        assertEquals(2L, sent.getValue().getUser().getId());
+    }
+
+    @Test
+    void processBatchNotification_SkipsRecipientCancelledAfterItsChunkWasRead() {
+        when(userRepository.findRecipientsInRange(1L, 2L)).thenReturn(List.of(view(1L), view(2L)));
+        doAnswer(invocation -> {
+            List<Notification> chunk = invocation.getArgument(0);
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(bulkWriter).insertAll(anyList());
+        // Recipient 100 was cancelled, possibly on another node, between the read and its send
+        when(notificationRepository.updateDeliveryStatus(eq(100L), anyList(), eq(NotificationStatus.PENDING),
+                any(), any(), any())).thenReturn(0);
+        when(notificationProcessor.processNotification(any())).thenReturn(true);
+
+        BatchNotificationRequest request = new BatchNotificationRequest(List.of(1L, 2L),
+                "Title", "Content", ChannelType.EMAIL, Priority.LOW);
+        request.getBatchSettings().setParallelProcessing(false);
+        request.getBatchSettings().setDelayBetweenBatches(0L);
+
+        BatchNotificationResponse response = batchNotificationService.processBatchNotification(request, false);
+
+        assertEquals(1, response.getSuccessCount());
+        ArgumentCaptor<Notification> sent = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationProcessor).processNotification(sent.capture());
+        assertEquals(101L, sent.getValue().getId());
+        assertEquals(NotificationStatus.PENDING, sent.getValue().getStatus());
+    }
+
+    @Test
+    void recoverBatch_ShapesOnlyTheRecipientsStillToNotify() {
+        BatchNotificationRequest request = new BatchNotificationRequest(List.of(1L, 2L, 3L, 4L),
+                "Title", "Content", ChannelType.EMAIL, Priority.LOW);
+        request.getBatchSettings().setDeliveryWindowMinutes(60);
+        BatchRun run = new BatchRun("batch_1", BatchSource.USER_IDS, BatchStatus.PROCESSING, "{}", "node-b");
+        BatchJob job = new BatchJob("batch_1", 4, false);
+        when(checkpointService.readRequest(run)).thenReturn(request);
+        when(checkpointService.toJob(run)).thenReturn(job);
+        when(notificationRepository.existsByBatchId("batch_1")).thenReturn(true);
+        when(notificationRepository.countByBatchId("batch_1")).thenReturn(3L);
+        ReflectionTestUtils.setField(batchNotificationService, "batchJobExecutor", (TaskExecutor) Runnable::run);
+        // Stops the resumed run right after it is shaped
+        when(userRepository.findRecipientsInRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+            job.requestCancel();
+            return List.of();
+        });
+
+        batchNotificationService.recoverBatch(run);
+
+        // One recipient is left of four, so its send is the whole schedule and no spacing follows it
+        assertNotNull(job.getShaper());
+        assertEquals(0, job.getShaper().reserve());
+        assertEquals(Double.POSITIVE_INFINITY, job.getShaper().getTargetRate());
+    }
+
+    @Test
+    void pauseBatch_RunningOnAnotherNodeIsStoredForItsOwner() {
+        BatchJob stored = new BatchJob("batch_1", 10, false);
+        stored.pause();
+        when(checkpointService.markPaused("batch_1")).thenReturn(true);
+        when(checkpointService.loadJob("batch_1")).thenReturn(Optional.of(stored));
+
+        BatchNotificationResponse response = batchNotificationService.pauseBatch("batch_1").orElseThrow();
+
+        assertEquals(BatchStatus.PAUSED, response.getStatus());
+        verify(checkpointService, never()).checkpoint(any());
+    }
+
+    @Test
+    void cancelBatch_StoresTheCancelEvenWhenRunningElsewhere() {
+        when(checkpointService.markCancelled("batch_1")).thenReturn(true);
+
+        BatchNotificationResponse response = batchNotificationService.cancelBatch("batch_1").orElseThrow();
+
+        assertEquals(BatchStatus.CANCELLED, response.getStatus());
+        verify(notificationRepository).updateBatchStatus(eq("batch_1"), anyList(), eq(NotificationStatus.CANCELLED), any());
+    }
+
+    private static RecipientView view(long id) {
+        return view(id, null, null);
+    }
+
+    private static RecipientView view(long id, LocalTime quietStart, LocalTime quietEnd) {
+        return new RecipientView() {
+            public Long getId() { return id; }
+            public String getUsername() { return "user" + id; }
+            public String getEmail() { return "user" + id + "@example.com"; }
+            public String getPhoneNumber() { return null; }
+            public String getDeviceToken() { return null; }
+            public String getTimeZone() { return null; }
+            public LocalTime getQuietHoursStart() { return quietStart; }
+            public LocalTime getQuietHoursEnd() { return quietEnd; }
+        };
+    }
+}
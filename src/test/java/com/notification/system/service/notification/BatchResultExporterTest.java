@@ -0,0 +1,100 @@
+package com.notification.system.service.notification;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.repository.NotificationRepository.BatchResultView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchResultExporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @InjectMocks
+    private BatchResultExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exporter, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(exporter, "pageSize", 2);
+    }
+
+    @Test
+    void export_WalksKeysetPagesUntilShortPage() throws Exception {
+        when(notificationRepository.findBatchResults("batch_1", 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(row(10L, NotificationStatus.SENT, null), row(11L, NotificationStatus.FAILED, "Failed to send")));
+        when(notificationRepository.findBatchResults("batch_1", 11L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(row(12L, NotificationStatus.SCHEDULED, null)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exporter.export("batch_1", 0L, null, out);
+
+        assertEquals(3, written);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(10L, first.get("notificationId").asLong());
+        assertEquals(110L, first.get("userId").asLong());
+        assertEquals("SENT", first.get("status").asText());
+        assertTrue(first.get("success").asBoolean());
+        assertEquals("2024-01-01T10:00:00", first.get("sentAt").asText());
+
+        JsonNode failed = objectMapper.readTree(lines[1]);
+        assertFalse(failed.get("success").asBoolean());
+        assertEquals("Failed to send", failed.get("message").asText());
+
+        assertTrue(objectMapper.readTree(lines[2]).get("success").isNull());
+        verify(notificationRepository, times(2)).findBatchResults(eq("batch_1"), any(), any());
+    }
+
+    @Test
+    void export_StopsAtLimitAndResumesAfterCursor() throws Exception {
+        when(notificationRepository.findBatchResults("batch_1", 50L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(row(51L, NotificationStatus.SENT, null), row(52L, NotificationStatus.SENT, null)));
+        when(notificationRepository.findBatchResults("batch_1", 52L, PageRequest.of(0, 1)))
+                .thenReturn(List.of(row(53L, NotificationStatus.SENT, null)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exporter.export("batch_1", 50L, 3L, out);
+
+        assertEquals(3, written);
+        verify(notificationRepository, times(2)).findBatchResults(eq("batch_1"), any(), any());
+    }
+
+    private static BatchResultView row(long id, NotificationStatus status, String error) {
+        return new BatchResultView() {
+            public Long getNotificationId() { return id; }
+            public Long getUserId() { return id + 100; }
+            public NotificationStatus getStatus() { return status; }
+            public String getErrorMessage() { return error; }
+            public LocalDateTime getSentAt() { return status == NotificationStatus.SENT ? LocalDateTime.of(2024, 1, 1, 10, 0) : null; }
+            public LocalDateTime getUpdatedAt() { return LocalDateTime.of(2024, 1, 1, 10, 0); }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.notification.system.service.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryShaperTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void reserve_RateCapSpacesSlotsEvenly() {
+        DeliveryShaper shaper = new DeliveryShaper(10.0, null, 100, clock::get);
+
+        assertEquals(0, shaper.reserve());
+        assertEquals(millis(100), shaper.reserve());
+        assertEquals(millis(200), shaper.reserve());
+        assertEquals(10.0, shaper.getTargetRate(), 0.001);
+    }
+
+    @Test
+    void reserve_WindowSpreadsSendsUntilDeadline() {
+        DeliveryShaper shaper = new DeliveryShaper(null, LocalDateTime.now().plusHours(2), 3, clock::get);
+
+        long first = shaper.reserve();
+        long second = shaper.reserve();
+        long third = shaper.reserve();
+
+        assertEquals(0, first);
+        assertEquals(TimeUnit.HOURS.toNanos(1), second, TimeUnit.SECONDS.toNanos(1));
+        assertEquals(TimeUnit.HOURS.toNanos(2), third, TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void forgo_SpreadsTheRemainingSendsOverTheWindow() {
+        DeliveryShaper shaper = new DeliveryShaper(null, LocalDateTime.now().plusHours(2), 5, clock::get);
+
+        assertEquals(0, shaper.reserve());
+        // Two of the four sends left were deferred: the last one now lands at the deadline, not halfway
+        shaper.forgo(2);
+        assertEquals(TimeUnit.MINUTES.toNanos(30), shaper.reserve(), TimeUnit.SECONDS.toNanos(1));
+        assertEquals(TimeUnit.HOURS.toNanos(2), shaper.reserve(), TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void reserve_CatchesUpAfterFallingBehind() {
+        DeliveryShaper shaper = new DeliveryShaper(null, LocalDateTime.now().plusSeconds(100), 101, clock::get);
+        shaper.reserve();
+
+        // Sends stalled for half the window: the remaining 100 sends get the remaining 50s
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(50));
+        assertEquals(0, shaper.reserve());
+        assertEquals(millis(500), shaper.reserve(), millis(10));
+    }
+
+    @Test
+    void reserve_RateCapStillAppliesPastDeadline() {
+        DeliveryShaper shaper = new DeliveryShaper(4.0, LocalDateTime.now().minusMinutes(1), 10, clock::get);
+
+        shaper.reserve();
+        assertEquals(millis(250), shaper.reserve());
+    }
+
+    @Test
+    void awaitSendSlot_CancelWakesWaitingWorker() throws Exception {
+        BatchJob job = new BatchJob("batch_shaped", 2, false);
+        job.setShaper(new DeliveryShaper(0.01, null, 2));
+        assertTrue(job.awaitSendSlot());
+
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+            }
+            job.requestCancel();
+        });
+        canceller.start();
+
+        long started = System.nanoTime();
+        assertFalse(job.awaitSendSlot());
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
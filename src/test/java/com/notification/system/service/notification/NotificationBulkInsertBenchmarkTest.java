@@ -0,0 +1,229 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.entity.User;
+import com.notification.system.model.enums.ChannelType;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.model.enums.Priority;
+import com.notification.system.repository.NotificationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows/sec for the insert paths used by batch sends: {@code NotificationRepository.saveAll} through
+ * Hibernate, with JDBC batching off and at the configured {@code hibernate.jdbc.batch_size}, COPY, and
+ * for comparison the row-by-row inserts an IDENTITY id forces. Opt-in:
+ *
+ * <pre>
+ * mvn test -Dtest=NotificationBulkInsertBenchmarkTest -Dbenchmark=true \
+ *     [-Dbenchmark.sizes=1000,100000,1000000] \
+ *     [-Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/bench -Dbenchmark.postgres.user=... -Dbenchmark.postgres.password=...]
+ * </pre>
+ *
+ * PostgreSQL runs inside throwaway {@code notification_bench} and {@code notification_bench_jpa} schemas;
+ * COPY is only measured there.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NotificationBulkInsertBenchmarkTest {
+
+    private static final String SCHEMA = "notification_bench";
+    private static final String JPA_SCHEMA = "notification_bench_jpa";
+    // As in application.yml
+    private static final int HIBERNATE_BATCH_SIZE = 500;
+    // Notifications per saveAll call and transaction, as one chunk of a batch send
+    private static final int SAVE_CHUNK = 1000;
+    private static final int USERS = 10_000;
+
+    @Test
+    void benchmarkH2() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:bench;MODE=PostgreSQL", "sa", "")) {
+            run("h2", connection, new DriverManagerDataSource("jdbc:h2:mem:bench_jpa;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", ""), false);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.postgres.url", matches = ".+")
+    void benchmarkPostgres() throws Exception {
+        String url = System.getProperty("benchmark.postgres.url");
+        String user = System.getProperty("benchmark.postgres.user", "postgres");
+        String password = System.getProperty("benchmark.postgres.password", "postgres");
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            try (Statement statement = connection.createStatement()) {
+                for (String schema : List.of(SCHEMA, JPA_SCHEMA)) {
+                    statement.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+                    statement.execute("CREATE SCHEMA " + schema);
+                }
+            }
+            connection.setSchema(SCHEMA);
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(url, user, password);
+            dataSource.setSchema(JPA_SCHEMA);
+            try {
+                run("postgres", connection, dataSource, true);
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+                    statement.execute("DROP SCHEMA IF EXISTS " + JPA_SCHEMA + " CASCADE");
+                }
+            }
+        }
+    }
+
+    private void run(String database, Connection connection, DataSource dataSource, boolean postgres) throws Exception {
+        for (String size : System.getProperty("benchmark.sizes", "1000,100000,1000000").split(",")) {
+            int rows = Integer.parseInt(size.trim());
+            report(database, "row-by-row identity", rows, measure(connection, postgres, rows, this::insertRowByRow));
+            report(database, "saveAll, unbatched", rows, measureSaveAll(dataSource, postgres, rows, 0));
+            report(database, "saveAll, batch_size " + HIBERNATE_BATCH_SIZE, rows,
+                    measureSaveAll(dataSource, postgres, rows, HIBERNATE_BATCH_SIZE));
+            if (postgres) {
+                report(database, "COPY", rows, measure(connection, true, rows, NotificationBulkWriter::copyInto));
+            }
+        }
+    }
+
+    private long measure(Connection connection, boolean postgres, int rows, Inserter inserter) throws Exception {
+        resetSchema(connection, postgres);
+        List<Notification> notifications = notifications(rows);
+
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        inserter.insert(connection, notifications);
+        connection.commit();
+        long elapsed = System.nanoTime() - start;
+        connection.setAutoCommit(true);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM notifications")) {
+            rs.next();
+            assertEquals(rows, rs.getLong(1));
+        }
+        return elapsed;
+    }
+
+    // What GenerationType.IDENTITY forces on Hibernate: one round trip per row to read the key back
+    private void insertRowByRow(Connection connection, List<Notification> notifications) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO notifications (user_id, title, content, channel_type, priority, status, retry_count, batch_id, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", Statement.RETURN_GENERATED_KEYS)) {
+            for (Notification notification : notifications) {
+                bind(statement, notification, 1);
+                statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    keys.next();
+                    notification.setId(keys.getLong(1));
+                }
+            }
+        }
+    }
+
+    // The real NotificationRepository.saveAll on the entity mappings, with the pooled sequence for ids
+    private long measureSaveAll(DataSource dataSource, boolean postgres, int rows, int batchSize) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(Notification.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        // Boot's naming strategies, so the tables come out as in the application
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName(),
+                "hibernate.hbm2ddl.auto", "create",
+                "hibernate.jdbc.batch_size", String.valueOf(batchSize),
+                "hibernate.order_inserts", "true"));
+        factory.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factory.getObject();
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.update("INSERT INTO users (id, username, email, role, created_at, updated_at) " +
+                    "SELECT g, 'bench' || g, 'bench' || g || '@example.com', 'USER', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM " +
+                    (postgres ? "generate_series(1, " + USERS + ") g" : "(SELECT X AS g FROM SYSTEM_RANGE(1, " + USERS + "))"));
+
+            NotificationRepository repository = new JpaRepositoryFactory(
+                    SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory)).getRepository(NotificationRepository.class);
+            TransactionTemplate transactions = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+            List<Notification> notifications = notifications(rows);
+
+            long start = System.nanoTime();
+            for (int from = 0; from < rows; from += SAVE_CHUNK) {
+                List<Notification> chunk = notifications.subList(from, Math.min(rows, from + SAVE_CHUNK));
+                transactions.executeWithoutResult(status -> repository.saveAll(chunk));
+            }
+            long elapsed = System.nanoTime() - start;
+
+            assertEquals(rows, jdbc.queryForObject("SELECT COUNT(*) FROM notifications", Long.class));
+            return elapsed;
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Notification notification, int index) throws SQLException {
+        statement.setLong(index++, notification.getUser().getId());
+        statement.setString(index++, notification.getTitle());
+        statement.setString(index++, notification.getContent());
+        statement.setString(index++, notification.getChannelType().name());
+        statement.setString(index++, notification.getPriority().name());
+        statement.setString(index++, notification.getStatus().name());
+        statement.setInt(index++, notification.getRetryCount());
+        statement.setString(index, notification.getBatchId());
+    }
+
+    private static void resetSchema(Connection connection, boolean postgres) throws SQLException {
+        String identity = postgres ? "BIGSERIAL" : "BIGINT GENERATED BY DEFAULT AS IDENTITY";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS notifications");
+            statement.execute("DROP SEQUENCE IF EXISTS " + NotificationBulkWriter.SEQUENCE_NAME);
+            statement.execute("CREATE SEQUENCE " + NotificationBulkWriter.SEQUENCE_NAME +
+                    " START WITH 1 INCREMENT BY " + NotificationBulkWriter.SEQUENCE_INCREMENT);
+            statement.execute("CREATE TABLE notifications (id " + identity + " PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                    "title VARCHAR(255) NOT NULL, content TEXT NOT NULL, channel_type VARCHAR(20) NOT NULL, " +
+                    "priority VARCHAR(20) NOT NULL, status VARCHAR(20) NOT NULL, metadata " + (postgres ? "JSONB" : "VARCHAR(4000)") + ", " +
+                    "scheduled_at TIMESTAMP, deferred_until TIMESTAMP, retry_count INT, batch_id VARCHAR(64), " +
+                    "created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP)");
+        }
+    }
+
+    private static List<Notification> notifications(int rows) {
+        List<Notification> notifications = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            User user = new User();
+            user.setId((long) (i % 10_000) + 1);
+            Notification notification = new Notification(user, "Benchmark " + i, "Bulk insert benchmark, row " + i,
+                    ChannelType.EMAIL, Priority.MEDIUM);
+            notification.setStatus(NotificationStatus.PENDING);
+            notification.setMetadata(Map.of("row", i));
+            notification.setBatchId("batch_benchmark");
+            notifications.add(notification);
+        }
+        return notifications;
+    }
+
+    private static void report(String database, String approach, int rows, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("[benchmark] %-8s %-30s %,10d rows  %8.2f s  %,12.0f rows/sec%n",
+                database, approach, rows, seconds, rows / seconds);
+    }
+
+    @FunctionalInterface
+    private interface Inserter {
+        void insert(Connection connection, List<Notification> notifications) throws Exception;
+    }
+}
@@ -0,0 +1,146 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.dto.event.NotificationEvent;
+import com.notification.system.model.dto.response.NotificationResult;
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.enums.ChannelType;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.model.enums.Priority;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.service.channel.NotificationChannel;
+import com.notification.system.service.channel.NotificationChannelFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationProcessorTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationChannelFactory channelFactory;
+
+    @Mock
+    private NotificationChannel channel;
+
+    @InjectMocks
+    private NotificationProcessor notificationProcessor;
+
+    // Stands in for the notification row, applying the WHERE clauses of the claim and status updates
+    private NotificationStatus rowStatus = NotificationStatus.PENDING;
+    private int rowAttempts;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(notificationRepository.claimForDelivery(eq(1L), any(), eq(NotificationStatus.FAILED),
+                anyInt(), eq(NotificationStatus.PENDING), any())).thenAnswer(invocation -> {
+            Collection<NotificationStatus> deliverable = invocation.getArgument(1);
+            int maxAttempts = invocation.getArgument(3);
+            if (deliverable.contains(rowStatus) || (rowStatus == NotificationStatus.FAILED && rowAttempts < maxAttempts)) {
+                rowStatus = NotificationStatus.PENDING;
+                return 1;
+            }
+            return 0;
+        });
+        lenient().when(notificationRepository.recordDeliveryFailure(eq(1L), eq(NotificationStatus.PENDING),
+                eq(NotificationStatus.FAILED), any(), any())).thenAnswer(invocation -> {
+            if (rowStatus != NotificationStatus.PENDING) {
+                return 0;
+            }
+            rowStatus = NotificationStatus.FAILED;
+            rowAttempts++;
+            return 1;
+        });
+        lenient().when(notificationRepository.updateDeliveryStatus(eq(1L), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            Collection<NotificationStatus> expected = invocation.getArgument(1);
+            if (!expected.contains(rowStatus)) {
+                return 0;
+            }
+            rowStatus = invocation.getArgument(2);
+            return 1;
+        });
+    }
+
+    @Test
+    void processNotificationEvent_SendsFromPayloadAndRecordsSentOnPendingRow() {
+        when(channelFactory.getChannel(ChannelType.EMAIL)).thenReturn(Optional.of(channel));
+        when(channel.send(any())).thenReturn(NotificationResult.success("sent"));
+
+        assertTrue(notificationProcessor.processNotificationEvent(event()));
+
+        ArgumentCaptor<Notification> sent = ArgumentCaptor.forClass(Notification.class);
+        verify(channel).send(sent.capture());
+        assertEquals("bob@example.com", sent.getValue().getUser().getEmail());
+        verify(notificationRepository).updateDeliveryStatus(eq(1L),
+                eq(List.of(NotificationStatus.PENDING)), eq(NotificationStatus.SENT), any(), isNull(), any());
+        assertEquals(NotificationStatus.SENT, rowStatus);
+        verify(notificationRepository, never()).findById(any());
+    }
+
+    @Test
+    void processNotificationEvent_SkipsNotificationCancelledSincePublished() {
+        rowStatus = NotificationStatus.CANCELLED;
+
+        assertTrue(notificationProcessor.processNotificationEvent(event()));
+
+        verifyNoInteractions(channelFactory);
+        verify(notificationRepository, never()).updateDeliveryStatus(any(), any(), any(), any(), any(), any());
+        assertEquals(NotificationStatus.CANCELLED, rowStatus);
+    }
+
+    @Test
+    void processNotificationEvent_RedeliveryAfterFailureSendsAgain() {
+        when(channelFactory.getChannel(ChannelType.EMAIL)).thenReturn(Optional.of(channel));
+        when(channel.send(any()))
+                .thenReturn(NotificationResult.failure("bounced", "550"))
+                .thenReturn(NotificationResult.success("sent"));
+
+        assertFalse(notificationProcessor.processNotificationEvent(event()));
+        assertEquals(NotificationStatus.FAILED, rowStatus);
+        verify(notificationRepository).recordDeliveryFailure(eq(1L), eq(NotificationStatus.PENDING),
+                eq(NotificationStatus.FAILED), eq("bounced"), any());
+
+        // The retry topic hands the same event back: the failed row is claimed and sent again
+        assertTrue(notificationProcessor.processNotificationEvent(event()));
+        verify(channel, times(2)).send(any());
+        assertEquals(NotificationStatus.SENT, rowStatus);
+    }
+
+    @Test
+    void processNotificationEvent_StopsOnceTheAttemptBudgetIsSpent() {
+        when(channelFactory.getChannel(ChannelType.EMAIL)).thenReturn(Optional.of(channel));
+        when(channel.send(any())).thenReturn(NotificationResult.failure("bounced", "550"));
+
+        for (int attempt = 0; attempt < NotificationProcessor.MAX_DELIVERY_ATTEMPTS; attempt++) {
+            assertFalse(notificationProcessor.processNotificationEvent(event()));
+        }
+        assertTrue(notificationProcessor.processNotificationEvent(event()));
+
+        verify(channel, times(NotificationProcessor.MAX_DELIVERY_ATTEMPTS)).send(any());
+        assertEquals(NotificationStatus.FAILED, rowStatus);
+    }
+
+    private NotificationEvent event() {
+        NotificationEvent event = new NotificationEvent(1L, 7L, "Title", "Content", ChannelType.EMAIL, Priority.HIGH);
+        event.setRecipientEmail("bob@example.com");
+        event.setCarriesRecipientState(true);
+        return event;
+    }
+}
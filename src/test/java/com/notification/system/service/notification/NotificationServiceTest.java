@@ -0,0 +1,86 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.dto.response.NotificationHistoryResponse;
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.entity.User;
+import com.notification.system.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 5, 20, 10, 0);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    @Test
+    void getUserHistory_FirstPageReturnsCursorToLastItem() {
+        when(notificationRepository.findUserHistory(eq(7L), any(Pageable.class))).thenReturn(history(0, 3));
+
+        NotificationHistoryResponse page = notificationService.getUserHistory(7L, null, 2);
+
+        assertEquals(List.of(100L, 99L), page.getItems().stream().map(item -> item.getId()).toList());
+        assertTrue(page.isHasMore());
+        assertEquals(new HistoryCursor(NOW.minusMinutes(1), 99L), HistoryCursor.decode(page.getNextCursor()));
+        // One extra row tells whether another page follows
+        verify(notificationRepository).findUserHistory(7L, Pageable.ofSize(3));
+    }
+
+    @Test
+    void getUserHistory_ContinuesAfterCursorUntilExhausted() {
+        String cursor = new HistoryCursor(NOW.minusMinutes(1), 99L).encode();
+        when(notificationRepository.findUserHistoryBefore(eq(7L), eq(NOW.minusMinutes(1)), eq(99L), any(Pageable.class)))
+                .thenReturn(history(2, 1));
+
+        NotificationHistoryResponse page = notificationService.getUserHistory(7L, cursor, 2);
+
+        assertEquals(List.of(98L), page.getItems().stream().map(item -> item.getId()).toList());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        verify(notificationRepository, never()).findUserHistory(anyLong(), any());
+    }
+
+    @Test
+    void getUserHistory_RejectsBadLimitAndCursor() {
+        assertThrows(IllegalArgumentException.class, () -> notificationService.getUserHistory(7L, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> notificationService.getUserHistory(7L, null, 101));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> notificationService.getUserHistory(7L, "not-a-cursor", 20));
+        assertEquals("Invalid cursor", e.getMessage());
+        verifyNoInteractions(notificationRepository);
+    }
+
+    // Newest first: ids 100, 99, ... created a minute apart
+    private List<Notification> history(int skip, int count) {
+        User user = new User();
+        user.setId(7L);
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = skip; i < skip + count; i++) {
+            Notification notification = new Notification();
+            notification.setId(100L - i);
+            notification.setUser(user);
+            notification.setCreatedAt(NOW.minusMinutes(i));
+            notifications.add(notification);
+        }
+        return notifications;
+    }
+}
@@ -0,0 +1,142 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.entity.User;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.model.enums.Priority;
+import com.notification.system.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuietHoursServiceTest {
+
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationProcessor notificationProcessor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private QuietHoursService quietHoursService;
+
+    @Test
+    void releaseTime_WrapsMidnightAndRoundsUpToTheLocalHour() {
+        // 23:30 in Berlin (UTC+1 in January): quiet until 06:30 next morning, released at 07:00 local
+        Instant lateEvening = Instant.parse("2030-01-01T22:30:00Z");
+        assertEquals(Optional.of(LocalDateTime.of(2030, 1, 2, 6, 0)),
+                QuietHoursService.releaseTime(BERLIN, LocalTime.of(22, 0), LocalTime.of(6, 30), lateEvening));
+
+        // 03:00 local, same window: released the same morning
+        Instant night = Instant.parse("2030-01-02T02:00:00Z");
+        assertEquals(Optional.of(LocalDateTime.of(2030, 1, 2, 6, 0)),
+                QuietHoursService.releaseTime(BERLIN, LocalTime.of(22, 0), LocalTime.of(6, 30), night));
+
+        // Outside the window, or without one
+        Instant noon = Instant.parse("2030-01-02T11:00:00Z");
+        assertTrue(QuietHoursService.releaseTime(BERLIN, LocalTime.of(22, 0), LocalTime.of(6, 30), noon).isEmpty());
+        assertTrue(QuietHoursService.releaseTime(BERLIN, null, LocalTime.of(6, 30), night).isEmpty());
+    }
+
+    @Test
+    void releaseTime_DaytimeWindow() {
+        Instant lunch = Instant.parse("2030-06-01T10:15:00Z"); // 12:15 in Berlin (UTC+2)
+        assertEquals(Optional.of(LocalDateTime.of(2030, 6, 1, 12, 0)),
+                QuietHoursService.releaseTime(BERLIN, LocalTime.of(12, 0), LocalTime.of(14, 0), lunch));
+    }
+
+    @Test
+    void deferUntil_OnlyDeferrablePriorities() {
+        User user = new User("u", "u@example.com", "p");
+        user.setTimeZone("Europe/Berlin");
+        user.setQuietHoursStart(LocalTime.of(22, 0));
+        user.setQuietHoursEnd(LocalTime.of(7, 0));
+        Instant night = Instant.parse("2030-01-02T02:00:00Z");
+
+        assertEquals(Optional.of(LocalDateTime.of(2030, 1, 2, 6, 0)), quietHoursService.deferUntil(user, Priority.LOW, night));
+        assertTrue(quietHoursService.deferUntil(user, Priority.HIGH, night).isEmpty());
+
+        // Quiet hours about to end: not worth deferring
+        assertTrue(quietHoursService.deferUntil(user, Priority.LOW, Instant.parse("2030-01-02T05:59:30Z")).isEmpty());
+
+        ReflectionTestUtils.setField(quietHoursService, "enabled", false);
+        assertTrue(quietHoursService.deferUntil(user, Priority.LOW, night).isEmpty());
+    }
+
+    @Test
+    void release_LocksAndSendsTheBucketInChunks() {
+        ReflectionTestUtils.setField(quietHoursService, "releaseChunkSize", 2);
+        quietHoursService.init();
+        LocalDateTime bucket = LocalDateTime.of(2030, 1, 2, 6, 0);
+        List<Notification> first = List.of(deferred(1L, bucket), deferred(2L, bucket));
+        List<Notification> second = List.of(deferred(3L, bucket));
+        when(notificationRepository.lockDeferred(eq(bucket), eq(NotificationStatus.SCHEDULED), any(Pageable.class)))
+                .thenReturn(first)
+                .thenReturn(second);
+        when(notificationRepository.findAllWithUserByIdIn(any())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            List<Notification> rows = new ArrayList<>(first);
+            rows.addAll(second);
+            return rows.stream().filter(n -> ids.contains(n.getId())).toList();
+        });
+
+        assertEquals(3, quietHoursService.release(bucket));
+
+        verify(notificationProcessor, times(3)).processNotification(any());
+        verify(notificationRepository, times(2)).lockDeferred(eq(bucket), eq(NotificationStatus.SCHEDULED), any(Pageable.class));
+        // One transaction per chunk, committed once its sends are recorded
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void release_CrashMidChunkLeavesTheRowsScheduled() {
+        quietHoursService.init();
+        LocalDateTime bucket = LocalDateTime.of(2030, 1, 2, 6, 0);
+        List<Notification> chunk = List.of(deferred(1L, bucket), deferred(2L, bucket));
+        when(notificationRepository.lockDeferred(eq(bucket), eq(NotificationStatus.SCHEDULED), any(Pageable.class)))
+                .thenReturn(chunk);
+        when(notificationRepository.findAllWithUserByIdIn(List.of(1L, 2L))).thenReturn(chunk);
+        when(notificationProcessor.processNotification(any()))
+                .thenReturn(true)
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        assertThrows(IllegalStateException.class, () -> quietHoursService.release(bucket));
+
+        // Nothing was claimed ahead of the send: rolled back, both rows are still waiting for the re-fired job
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        assertTrue(chunk.stream().allMatch(n -> n.getStatus() == NotificationStatus.SCHEDULED));
+    }
+
+    private static Notification deferred(Long id, LocalDateTime bucket) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setStatus(NotificationStatus.SCHEDULED);
+        notification.setDeferredUntil(bucket);
+        return notification;
+    }
+}
@@ -0,0 +1,112 @@
+package com.notification.system.service.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipientFileReaderTest {
+
+    @Test
+    void testNdjsonObjectsAndBareIds() throws IOException {
+        String content = "{\"userId\": 1}\n{\"user_id\": 2, \"name\": \"x\"}\n\n3\n";
+
+        try (RecipientFileReader reader = reader(content.getBytes(StandardCharsets.UTF_8), "recipients.ndjson")) {
+            assertEquals(RecipientFileReader.Format.NDJSON, reader.getFormat());
+            assertEquals(List.of(1L, 2L, 3L), reader.nextChunk(10));
+            assertTrue(reader.nextChunk(10).isEmpty());
+        }
+    }
+
+    @Test
+    void testCsvWithHeaderColumn() throws IOException {
+        String content = "email,userId\na@example.com,10\nb@example.com,\"11\"\n";
+
+        try (RecipientFileReader reader = reader(content.getBytes(StandardCharsets.UTF_8), "recipients.csv")) {
+            assertEquals(RecipientFileReader.Format.CSV, reader.getFormat());
+            assertEquals(List.of(10L, 11L), reader.nextChunk(10));
+        }
+    }
+
+    @Test
+    void testCsvWithoutHeader() throws IOException {
+        String content = "5\n6\n7\n";
+
+        try (RecipientFileReader reader = reader(content.getBytes(StandardCharsets.UTF_8), "recipients.csv")) {
+            assertEquals(List.of(5L, 6L), reader.nextChunk(2));
+            assertEquals(List.of(7L), reader.nextChunk(2));
+        }
+    }
+
+    @Test
+    void testGzipIsDetectedFromContent() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("{\"userId\": 42}\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (RecipientFileReader reader = reader(compressed.toByteArray(), "recipients.ndjson.gz")) {
+            assertEquals(List.of(42L), reader.nextChunk(10));
+        }
+    }
+
+    @Test
+    void testSkipResumesFromCursor() throws IOException {
+        String content = "1\n2\n3\n4\n5\n";
+
+        try (RecipientFileReader reader = reader(content.getBytes(StandardCharsets.UTF_8), "recipients.ndjson")) {
+            assertEquals(3, reader.skip(3));
+            assertEquals(List.of(4L, 5L), reader.nextChunk(10));
+            assertEquals(5, reader.getRecordsRead());
+        }
+    }
+
+    @Test
+    void testInvalidRecordReportsLine() throws IOException {
+        String content = "1\n{\"name\": \"missing\"}\n";
+
+        try (RecipientFileReader reader = reader(content.getBytes(StandardCharsets.UTF_8), "recipients.ndjson")) {
+            IOException error = assertThrows(IOException.class, () -> reader.nextChunk(10));
+            assertTrue(error.getMessage().contains("line 2"));
+        }
+    }
+
+    @Test
+    void testIdTooLargeForLongReportsLine() throws IOException {
+        String csv = "1\n99999999999999999999\n";
+        try (RecipientFileReader reader = reader(csv.getBytes(StandardCharsets.UTF_8), "recipients.csv")) {
+            IOException error = assertThrows(IOException.class, () -> reader.nextChunk(10));
+            assertTrue(error.getMessage().contains("line 2"));
+        }
+
+        String ndjson = "1\n{\"userId\": \"99999999999999999999\"}\n";
+        try (RecipientFileReader reader = reader(ndjson.getBytes(StandardCharsets.UTF_8), "recipients.ndjson")) {
+            IOException error = assertThrows(IOException.class, () -> reader.nextChunk(10));
+            assertTrue(error.getMessage().contains("line 2"));
+        }
+    }
+
+    @Test
+    void testNdjsonRejectsFractionalIdsAndAcceptsDigitStrings() throws IOException {
+        try (RecipientFileReader reader = reader("{\"userId\": \"123\"}\n\"124\"\n".getBytes(StandardCharsets.UTF_8), "recipients.ndjson")) {
+            assertEquals(List.of(123L, 124L), reader.nextChunk(10));
+        }
+
+        for (String line : List.of("{\"userId\": 1.5}", "1.0", "{\"userId\": \"12a\"}", "{\"userId\": true}")) {
+            try (RecipientFileReader reader = reader((line + "\n").getBytes(StandardCharsets.UTF_8), "recipients.ndjson")) {
+                IOException error = assertThrows(IOException.class, () -> reader.nextChunk(10), line);
+                assertTrue(error.getMessage().contains("line 1"));
+            }
+        }
+    }
+
+    private RecipientFileReader reader(byte[] content, String filename) throws IOException {
+        return new RecipientFileReader(new ByteArrayInputStream(content), filename);
+    }
+}
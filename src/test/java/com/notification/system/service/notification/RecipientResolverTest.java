@@ -0,0 +1,149 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.entity.User;
+import com.notification.system.repository.UserRepository;
+import com.notification.system.repository.UserRepository.RecipientView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecipientResolverTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private RecipientResolver recipientResolver;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(recipientResolver, "chunkSize", 3);
+        ReflectionTestUtils.setField(recipientResolver, "rangeScanDensity", 0.5);
+    }
+
+    @Test
+    void resolve_DenseIds_UsesRangeScanPerChunk() {
+        when(userRepository.findRecipientsInRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long from = invocation.getArgument(0);
+            long to = invocation.getArgument(1);
+            List<RecipientView> rows = new ArrayList<>();
+            for (long id = from; id <= to; id++) {
+                if (id != 5) {
+                    rows.add(view(id));
+                }
+            }
+            return rows;
+        });
+
+        List<List<User>> chunks = new ArrayList<>();
+        RecipientResolver.Resolution resolution = recipientResolver.resolve(List.of(6L, 1L, 2L, 3L, 4L, 5L, 2L), chunks::add);
+
+        verify(userRepository).findRecipientsInRange(1L, 3L);
+        verify(userRepository).findRecipientsInRange(4L, 6L);
+        verify(userRepository, never()).findRecipientsByIdIn(anyCollection());
+
+        assertEquals(2, chunks.size());
+        assertEquals(List.of(1L, 2L, 3L), ids(chunks.get(0)));
+        assertEquals(List.of(4L, 6L), ids(chunks.get(1)));
+        assertEquals(7, resolution.getRequested());
+        assertEquals(6, resolution.getDistinct());
+        assertEquals(1, resolution.getDuplicates());
+        assertEquals(5, resolution.getFound());
+        assertEquals(1, resolution.getMissing());
+        assertEquals(List.of(5L), resolution.missingIds(10));
+        assertFalse(resolution.isFound(5L));
+        assertTrue(resolution.isFound(6L));
+    }
+
+    @Test
+    void resolve_SparseIds_UsesBoundedInLists() {
+        when(userRepository.findRecipientsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id != 9_000L).map(RecipientResolverTest::view).collect(Collectors.toList());
+        });
+
+        List<User> users = new ArrayList<>();
+        RecipientResolver.Resolution resolution = recipientResolver.resolve(
+                List.of(10L, 5_000L, 9_000L, 20_000L, 70_000L), users::addAll);
+
+        verify(userRepository).findRecipientsByIdIn(List.of(10L, 5_000L, 9_000L));
+        verify(userRepository).findRecipientsByIdIn(List.of(20_000L, 70_000L));
+        verify(userRepository, never()).findRecipientsInRange(anyLong(), anyLong());
+
+        assertEquals(List.of(10L, 5_000L, 20_000L, 70_000L), ids(users));
+        assertEquals(List.of(9_000L), resolution.missingIds(10));
+    }
+
+    @Test
+    void resolve_CopiesOnlyDeliveryFields() {
+        when(userRepository.findRecipientsInRange(7L, 7L)).thenReturn(List.of(view(7L)));
+
+        List<User> users = new ArrayList<>();
+        recipientResolver.resolve(List.of(7L), users::addAll);
+
+        User user = users.get(0);
+        assertEquals(7L, user.getId());
+        assertEquals("user7", user.getUsername());
+        assertEquals("user7@example.com", user.getEmail());
+        assertEquals("+1555000007", user.getPhoneNumber());
+        assertEquals("token-7", user.getDeviceToken());
+        assertNull(user.getPassword());
+    }
+
+    @Test
+    void stream_HandlerCanStopBeforeLaterChunksAreRead() throws InterruptedException {
+        when(userRepository.findRecipientsInRange(1L, 3L)).thenReturn(List.of(view(1L), view(2L), view(3L)));
+
+        List<List<User>> chunks = new ArrayList<>();
+        RecipientResolver.Resolution resolution = recipientResolver.stream(List.of(1L, 2L, 3L, 4L, 5L, 6L), users -> {
+            chunks.add(users);
+            return false;
+        });
+
+        assertEquals(1, chunks.size());
+        verify(userRepository, never()).findRecipientsInRange(4L, 6L);
+        assertFalse(resolution.isComplete());
+        assertTrue(recipientResolver.resolve(List.of(1L, 2L, 3L), users -> { }).isComplete());
+    }
+
+    @Test
+    void missingIds_RespectsLimit() {
+        RecipientResolver.Resolution resolution = recipientResolver.resolve(List.of(1L, 2L, 3L, 4L), users -> { });
+
+        assertEquals(4, resolution.getMissing());
+        assertEquals(List.of(1L, 2L), resolution.missingIds(2));
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).collect(Collectors.toList());
+    }
+
+    private static RecipientView view(long id) {
+        return new RecipientView() {
+            public Long getId() { return id; }
+            public String getUsername() { return "user" + id; }
+            public String getEmail() { return "user" + id + "@example.com"; }
+            public String getPhoneNumber() { return String.format("+1555%06d", id); }
+            public String getDeviceToken() { return "token-" + id; }
+            public String getTimeZone() { return null; }
+            public LocalTime getQuietHoursStart() { return null; }
+            public LocalTime getQuietHoursEnd() { return null; }
+        };
+    }
+}
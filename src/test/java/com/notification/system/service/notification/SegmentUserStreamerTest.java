@@ -0,0 +1,157 @@
+package com.notification.system.service.notification;
+
+import com.notification.system.model.dto.request.AudienceSegment;
+import com.notification.system.model.entity.User;
+import com.notification.system.model.enums.ChannelType;
+import com.notification.system.model.enums.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentUserStreamerTest {
+
+    private DriverManagerDataSource dataSource;
+    private SegmentUserStreamer streamer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:segments;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(255), email VARCHAR(255), " +
+                    "phone_number VARCHAR(255), device_token VARCHAR(255), role VARCHAR(20), created_at TIMESTAMP, " +
+                    "time_zone VARCHAR(64), quiet_hours_start TIME, quiet_hours_end TIME)");
+            statement.execute("CREATE TABLE user_preferred_channels (user_id BIGINT, channel_type VARCHAR(20))");
+            for (int id = 1; id <= 10; id++) {
+                statement.execute(String.format("INSERT INTO users VALUES (%d, 'user%d', 'user%d@example.com', '+1555%07d', NULL, '%s', '%s', NULL, NULL, NULL)",
+                        id, id, id, id, id == 10 ? "ADMIN" : "USER", Timestamp.valueOf(LocalDateTime.of(2024, id, 1, 0, 0))));
+                statement.execute(String.format("INSERT INTO user_preferred_channels VALUES (%d, '%s')", id, id % 2 == 0 ? "SMS" : "EMAIL"));
+            }
+            statement.execute("INSERT INTO user_preferred_channels VALUES (3, 'PUSH')");
+            statement.execute("UPDATE users SET time_zone = 'Europe/Berlin', quiet_hours_start = '22:00', quiet_hours_end = '07:00' WHERE id = 3");
+        }
+
+        streamer = new SegmentUserStreamer();
+        ReflectionTestUtils.setField(streamer, "dataSource", dataSource);
+        ReflectionTestUtils.setField(streamer, "fetchSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Test
+    void stream_PreferredChannelInChunks() throws Exception {
+        AudienceSegment segment = new AudienceSegment();
+        segment.setPreferredChannels(Set.of(ChannelType.SMS));
+
+        List<List<Long>> chunks = new ArrayList<>();
+        long read = streamer.stream(segment, 2, users -> chunks.add(ids(users)));
+
+        assertEquals(5, read);
+        assertEquals(List.of(List.of(2L, 4L), List.of(6L, 8L), List.of(10L)), chunks);
+    }
+
+    @Test
+    void stream_CombinesCriteria() throws Exception {
+        AudienceSegment segment = new AudienceSegment();
+        segment.setPreferredChannels(Set.of(ChannelType.SMS, ChannelType.PUSH));
+        segment.setCreatedFrom(LocalDateTime.of(2024, 3, 1, 0, 0));
+        segment.setCreatedTo(LocalDateTime.of(2024, 10, 1, 0, 0));
+        segment.setRole(UserRole.USER);
+
+        List<User> users = new ArrayList<>();
+        streamer.stream(segment, 100, chunk -> users.addAll(chunk));
+
+        assertEquals(List.of(3L, 4L, 6L, 8L), ids(users));
+        assertEquals("user3@example.com", users.get(0).getEmail());
+        assertEquals("+15550000003", users.get(0).getPhoneNumber());
+        // Quiet hours come along so batch sends can be deferred
+        assertEquals("Europe/Berlin", users.get(0).getTimeZone());
+        assertEquals(LocalTime.of(22, 0), users.get(0).getQuietHoursStart());
+        assertEquals(LocalTime.of(7, 0), users.get(0).getQuietHoursEnd());
+    }
+
+    @Test
+    void stream_StopsWhenHandlerDeclines() throws Exception {
+        AudienceSegment segment = new AudienceSegment();
+        segment.setRole(UserRole.USER);
+
+        List<List<Long>> chunks = new ArrayList<>();
+        long read = streamer.stream(segment, 3, users -> {
+            chunks.add(ids(users));
+            return false;
+        });
+
+        assertEquals(3, read);
+        assertEquals(1, chunks.size());
+    }
+
+    @Test
+    void buildQuery_BindsOnlyGivenCriteria() {
+        AudienceSegment segment = new AudienceSegment();
+        segment.setCreatedTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        List<Object> params = new ArrayList<>();
+        String sql = SegmentUserStreamer.buildQuery(segment, params);
+
+        assertFalse(sql.contains("user_preferred_channels"));
+        assertTrue(sql.contains("u.created_at < ?"));
+        assertTrue(sql.endsWith("ORDER BY u.id"));
+        assertEquals(1, params.size());
+    }
+
+    @Test
+    void stream_ResumesAfterLastUserSkippingNotified() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE notifications (id BIGINT PRIMARY KEY, batch_id VARCHAR(64), user_id BIGINT)");
+            statement.execute("INSERT INTO notifications VALUES (1, 'batch_1', 6), (2, 'batch_2', 8)");
+        }
+        AudienceSegment segment = new AudienceSegment();
+        segment.setPreferredChannels(Set.of(ChannelType.SMS));
+
+        List<User> users = new ArrayList<>();
+        streamer.stream(segment, 2L, "batch_1", 100, chunk -> users.addAll(chunk));
+
+        assertEquals(List.of(4L, 8L, 10L), ids(users));
+    }
+
+    @Test
+    void count_MatchesStreamedUsers() throws Exception {
+        AudienceSegment segment = new AudienceSegment();
+        segment.setPreferredChannels(Set.of(ChannelType.SMS));
+
+        assertEquals(5, streamer.count(segment, null, null));
+        assertEquals(3, streamer.count(segment, 4L, null));
+    }
+
+    @Test
+    void hasCriteria_EmptySegment() {
+        AudienceSegment segment = new AudienceSegment();
+        assertFalse(segment.hasCriteria());
+        segment.setPreferredChannels(Set.of());
+        assertFalse(segment.hasCriteria());
+        segment.setRole(UserRole.ADMIN);
+        assertTrue(segment.hasCriteria());
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,160 @@
+package com.notification.system.service.partition;
+
+import com.notification.system.service.partition.NotificationPartitionManager.Interval;
+import com.notification.system.service.partition.NotificationPartitionManager.Partition;
+import com.notification.system.service.partition.NotificationPartitionManager.Range;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPartitionManagerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 5, 20, 10, 0);
+
+    @Mock
+    private JdbcTemplate session;
+
+    @InjectMocks
+    private NotificationPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(partitionManager, "retentionDays", 90);
+    }
+
+    @Test
+    void parse_ReadsRangeAndDefaultBounds() {
+        Partition monthly = NotificationPartitionManager.parse("notifications_p203005",
+                "FOR VALUES FROM ('2030-05-01 00:00:00') TO ('2030-06-01 00:00:00')");
+        Partition legacy = NotificationPartitionManager.parse("notifications_legacy",
+                "FOR VALUES FROM (MINVALUE) TO ('2030-05-01 00:00:00')");
+        Partition fallback = NotificationPartitionManager.parse("notifications_default", "DEFAULT");
+
+        assertEquals(LocalDateTime.of(2030, 5, 1, 0, 0), monthly.from());
+        assertEquals(LocalDateTime.of(2030, 6, 1, 0, 0), monthly.to());
+        assertNull(legacy.from());
+        assertTrue(fallback.isDefault());
+    }
+
+    @Test
+    void missing_SkipsPeriodsAnExistingPartitionCovers() {
+        List<Partition> existing = List.of(
+                partition("notifications_legacy", null, LocalDateTime.of(2030, 6, 1, 0, 0)),
+                partition("notifications_p203006", LocalDateTime.of(2030, 6, 1, 0, 0), LocalDateTime.of(2030, 7, 1, 0, 0)),
+                new Partition("notifications_default", null, null, true));
+
+        List<Range> monthly = NotificationPartitionManager.missing(existing, Interval.MONTHLY, NOW, 3);
+        assertEquals(List.of("notifications_p203007", "notifications_p203008"), monthly.stream().map(Range::name).toList());
+        assertEquals(LocalDateTime.of(2030, 9, 1, 0, 0), monthly.get(1).to());
+
+        // After a switch to daily, days inside the monthly partitions are left alone
+        List<Range> daily = NotificationPartitionManager.missing(existing, Interval.DAILY, LocalDateTime.of(2030, 6, 29, 8, 0), 3);
+        assertEquals(List.of("notifications_p20300701", "notifications_p20300702"), daily.stream().map(Range::name).toList());
+    }
+
+    @Test
+    void maintain_DropsExpiredPartitionsButKeepsOnesWithLiveRows() {
+        partitionManager.init();
+        stubPartitions(
+                partition("notifications_p203001", LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2030, 2, 1, 0, 0)),
+                partition("notifications_p202912", LocalDateTime.of(2029, 12, 1, 0, 0), LocalDateTime.of(2030, 1, 1, 0, 0)),
+                partition("notifications_p203002", LocalDateTime.of(2030, 2, 1, 0, 0), LocalDateTime.of(2030, 3, 1, 0, 0)),
+                partition("notifications_p203005", LocalDateTime.of(2030, 5, 1, 0, 0), LocalDateTime.of(2030, 9, 1, 0, 0)));
+        when(session.queryForObject(contains("notifications_p203001"), eq(Boolean.class))).thenReturn(false);
+        when(session.queryForObject(contains("notifications_p202912"), eq(Boolean.class))).thenReturn(true);
+
+        Map<String, List<String>> result = partitionManager.maintain(session, NOW);
+
+        assertEquals(List.of(), result.get("created"));
+        assertEquals(List.of("notifications_p203001"), result.get("retired"));
+        assertEquals(List.of("notifications_p202912"), result.get("kept"));
+        InOrder retirement = inOrder(session);
+        retirement.verify(session).execute("BEGIN");
+        retirement.verify(session).execute("LOCK TABLE \"notifications_p203001\" IN ACCESS EXCLUSIVE MODE");
+        retirement.verify(session).queryForObject(contains("notifications_p203001"), eq(Boolean.class));
+        retirement.verify(session).update("DELETE FROM scheduled_jobs j USING \"notifications_p203001\" n WHERE j.notification_id = n.id");
+        retirement.verify(session).execute("DROP TABLE \"notifications_p203001\"");
+        retirement.verify(session).execute("COMMIT");
+        // The live partition is only locked and checked, then released
+        verify(session).execute("LOCK TABLE \"notifications_p202912\" IN ACCESS EXCLUSIVE MODE");
+        verify(session, never()).execute("DROP TABLE \"notifications_p202912\"");
+        verify(session, never()).update(contains("notifications_p202912"));
+        verify(session).execute("ROLLBACK");
+        // Ends 2030-03-01, less than 90 days ago
+        verify(session, never()).queryForObject(contains("notifications_p203002"), eq(Boolean.class));
+    }
+
+    @Test
+    void maintain_CreatesAheadAndDetachesWhenConfigured() {
+        ReflectionTestUtils.setField(partitionManager, "retentionAction", "detach");
+        partitionManager.init();
+        stubPartitions(partition("notifications_p203001", LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2030, 2, 1, 0, 0)));
+        when(session.queryForObject(contains("notifications_p203001"), eq(Boolean.class))).thenReturn(false);
+
+        Map<String, List<String>> result = partitionManager.maintain(session, NOW);
+
+        assertEquals(List.of("notifications_p203005", "notifications_p203006", "notifications_p203007", "notifications_p203008"),
+                result.get("created"));
+        verify(session).execute("CREATE TABLE IF NOT EXISTS \"notifications_p203005\" PARTITION OF notifications " +
+                "FOR VALUES FROM ('2030-05-01 00:00:00') TO ('2030-06-01 00:00:00')");
+        verify(session).execute("ALTER TABLE notifications DETACH PARTITION \"notifications_p203001\"");
+        verify(session, never()).execute(startsWith("DROP TABLE"));
+    }
+
+    @Test
+    void maintain_KeepsPartitionWithFailedRowsAwaitingRetry() {
+        partitionManager.init();
+        stubPartitions(partition("notifications_p203001", LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2030, 2, 1, 0, 0)));
+        when(session.queryForObject(contains("notifications_p203001"), eq(Boolean.class))).thenReturn(true);
+
+        Map<String, List<String>> result = partitionManager.maintain(session, NOW);
+
+        assertEquals(List.of("notifications_p203001"), result.get("kept"));
+        verify(session).queryForObject(contains("(status = 'FAILED' AND next_retry_at IS NOT NULL)"), eq(Boolean.class));
+        verify(session, never()).execute(startsWith("DROP TABLE"));
+    }
+
+    @Test
+    void maintain_RollsBackWhenTheDropFails() {
+        partitionManager.init();
+        stubPartitions(partition("notifications_p203001", LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2030, 2, 1, 0, 0)));
+        when(session.queryForObject(contains("notifications_p203001"), eq(Boolean.class))).thenReturn(false);
+        lenient().doThrow(new CannotAcquireLockException("lock timeout")).when(session).execute("DROP TABLE \"notifications_p203001\"");
+
+        Map<String, List<String>> result = partitionManager.maintain(session, NOW);
+
+        assertEquals(List.of("notifications_p203001"), result.get("kept"));
+        verify(session).execute("ROLLBACK");
+        verify(session, never()).execute("COMMIT");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubPartitions(Partition... partitions) {
+        when(session.query(anyString(), any(RowMapper.class))).thenReturn(List.of(partitions));
+    }
+
+    private Partition partition(String name, LocalDateTime from, LocalDateTime to) {
+        return new Partition(name, from, to, false);
+    }
+}
@@ -0,0 +1,154 @@
+package com.notification.system.service.retention;
+
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.entity.ScheduledJob;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.repository.ScheduledJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetentionServiceTest {
+
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RetentionService retentionService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(retentionService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(retentionService, "chunkSize", 2);
+        ReflectionTestUtils.setField(retentionService, "pauseMs", 0L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        retentionService.stop();
+    }
+
+    @Test
+    void reclaimNotifications_DeletesInKeysetChunksAndCounts() {
+        retentionService.init();
+        LocalDateTime cutoff = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Notification first = notification(1L, cutoff.minusDays(3));
+        Notification second = notification(4L, cutoff.minusDays(2));
+        Notification third = notification(2L, cutoff.minusDays(1));
+        when(notificationRepository.lockExpired(eq(NotificationStatus.SENT), eq(cutoff), eq(KEYSET_START), eq(0L), any()))
+                .thenReturn(List.of(first, second));
+        when(notificationRepository.lockExpired(eq(NotificationStatus.SENT), eq(cutoff), eq(second.getUpdatedAt()), eq(4L), any()))
+                .thenReturn(List.of(third));
+        when(notificationRepository.lockExpired(eq(NotificationStatus.SENT), eq(cutoff), eq(third.getUpdatedAt()), eq(2L), any()))
+                .thenReturn(List.of());
+        when(notificationRepository.deleteByIdIn(any())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        long reclaimed = retentionService.reclaimNotifications(NotificationStatus.SENT, cutoff, cutoff, 100);
+
+        assertEquals(3, reclaimed);
+        verify(scheduledJobRepository).deleteByNotificationIdIn(List.of(1L, 4L));
+        verify(notificationRepository).deleteByIdIn(List.of(2L));
+        verify(notificationRepository, never()).archiveByIdIn(any(), any());
+        assertEquals(3.0, meterRegistry.get("notification.retention.reclaimed")
+                .tags("table", "notifications", "status", "SENT", "action", "deleted").counter().count());
+    }
+
+    @Test
+    void reclaimNotifications_ArchivesBeforeDeletingAndStopsAtBudget() {
+        ReflectionTestUtils.setField(retentionService, "mode", "archive");
+        retentionService.init();
+        LocalDateTime cutoff = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(notificationRepository.lockExpired(any(), any(), any(), anyLong(), any()))
+                .thenReturn(List.of(notification(1L, cutoff.minusDays(2)), notification(2L, cutoff.minusDays(1))));
+        when(notificationRepository.deleteByIdIn(any())).thenReturn(2);
+
+        long reclaimed = retentionService.reclaimNotifications(NotificationStatus.FAILED, cutoff, cutoff, 2);
+
+        assertEquals(2, reclaimed);
+        verify(notificationRepository).archiveByIdIn(List.of(1L, 2L), cutoff);
+        verify(notificationRepository, times(1)).lockExpired(any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void run_SkipsStatusesKeptForeverAndReclaimsCompletedJobs() {
+        ReflectionTestUtils.setField(retentionService, "sentDays", 0);
+        ReflectionTestUtils.setField(retentionService, "deliveredDays", 0);
+        ReflectionTestUtils.setField(retentionService, "failedDays", 0);
+        ReflectionTestUtils.setField(retentionService, "cancelledDays", 0);
+        retentionService.init();
+        ScheduledJob job = new ScheduledJob(null, "k", "g", LocalDateTime.now());
+        job.setId(9L);
+        job.setUpdatedAt(LocalDateTime.now().minusDays(30));
+        when(scheduledJobRepository.findCompletedBefore(any(), eq(KEYSET_START), eq(0L), any())).thenReturn(List.of(job));
+        when(scheduledJobRepository.findCompletedBefore(any(), eq(job.getUpdatedAt()), eq(9L), any())).thenReturn(List.of());
+        when(scheduledJobRepository.deleteCompletedByIdIn(List.of(9L))).thenReturn(1);
+
+        Map<String, Long> reclaimed = retentionService.run();
+
+        assertEquals(Map.of("scheduled_jobs", 1L), reclaimed);
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void scheduledRun_ReturnsAtOnceAndRunsOnTheRetentionThread() {
+        ReflectionTestUtils.setField(retentionService, "sentDays", 0);
+        ReflectionTestUtils.setField(retentionService, "deliveredDays", 0);
+        ReflectionTestUtils.setField(retentionService, "failedDays", 0);
+        ReflectionTestUtils.setField(retentionService, "cancelledDays", 0);
+        retentionService.init();
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(scheduledJobRepository.findCompletedBefore(any(), any(), anyLong(), any())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        // The pass blocks until released, so an inline run would not return in time
+        assertTimeout(Duration.ofSeconds(1), () -> retentionService.scheduledRun());
+        release.countDown();
+
+        verify(scheduledJobRepository, timeout(5000)).findCompletedBefore(any(), any(), anyLong(), any());
+        assertTrue(threads.get(0).startsWith("notification-retention-"), threads.get(0));
+    }
+
+    private static Notification notification(Long id, LocalDateTime updatedAt) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setUpdatedAt(updatedAt);
+        return notification;
+    }
+}
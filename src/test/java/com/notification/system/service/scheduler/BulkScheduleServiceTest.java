@@ -0,0 +1,92 @@
+package com.notification.system.service.scheduler;
+
+import com.notification.system.model.dto.request.BulkScheduleRequest;
+import com.notification.system.model.dto.response.BatchNotificationResponse;
+import com.notification.system.model.enums.ChannelType;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.service.notification.BatchNotificationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkScheduleServiceTest {
+
+    @Mock
+    private NotificationSchedulerService schedulerService;
+
+    @Mock
+    private BatchNotificationService batchNotificationService;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @InjectMocks
+    private BulkScheduleService bulkScheduleService;
+
+    @Test
+    void where_OnlySetCriteriaAndNoBatchRecipientsByDefault() {
+        BulkScheduleRequest request = new BulkScheduleRequest();
+        request.setChannelType(ChannelType.SMS);
+        request.setScheduledTo(LocalDateTime.of(2030, 1, 1, 0, 0));
+        Map<String, Object> params = new HashMap<>();
+
+        String where = BulkScheduleService.where(request, params);
+
+        assertEquals("n.status = :scheduled AND n.batchId IS NULL AND n.channelType = :channelType " +
+                     "AND n.scheduledAt < :scheduledTo", where);
+        assertEquals(Map.of("scheduled", NotificationStatus.SCHEDULED, "channelType", ChannelType.SMS,
+                            "scheduledTo", LocalDateTime.of(2030, 1, 1, 0, 0)), params);
+    }
+
+    @Test
+    void cancel_RequiresAFilter() {
+        assertThrows(IllegalArgumentException.class, () -> bulkScheduleService.cancel(new BulkScheduleRequest()));
+    }
+
+    @Test
+    void cancel_WholeBatchGoesThroughBatchCancellation() throws Exception {
+        BulkScheduleRequest request = new BulkScheduleRequest();
+        request.setBatchId("batch_1");
+        when(notificationRepository.countByBatchIdAndStatus("batch_1", NotificationStatus.SCHEDULED)).thenReturn(500L);
+        when(batchNotificationService.cancelBatch("batch_1")).thenReturn(Optional.of(new BatchNotificationResponse()));
+
+        BulkScheduleService.Result result = bulkScheduleService.cancel(request);
+
+        assertEquals(500, result.getNotifications());
+        assertEquals(1, result.getJobs());
+    }
+
+    @Test
+    void reschedule_RejectsAmbiguousOrPartialBatchMoves() {
+        BulkScheduleRequest both = new BulkScheduleRequest();
+        both.setUserId(1L);
+        both.setShiftMinutes(30L);
+        both.setNewScheduledAt(LocalDateTime.now().plusDays(1));
+        assertThrows(IllegalArgumentException.class, () -> bulkScheduleService.reschedule(both));
+
+        BulkScheduleRequest past = new BulkScheduleRequest();
+        past.setUserId(1L);
+        past.setNewScheduledAt(LocalDateTime.now().minusMinutes(1));
+        assertThrows(IllegalArgumentException.class, () -> bulkScheduleService.reschedule(past));
+
+        BulkScheduleRequest partialBatch = new BulkScheduleRequest();
+        partialBatch.setBatchId("batch_1");
+        partialBatch.setUserId(1L);
+        partialBatch.setShiftMinutes(30L);
+        assertThrows(IllegalArgumentException.class, () -> bulkScheduleService.reschedule(partialBatch));
+
+        verifyNoInteractions(schedulerService);
+    }
+}
@@ -0,0 +1,73 @@
+package com.notification.system.service.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private final List<Long> fired = new ArrayList<>();
+
+    @Test
+    void advance_FiresOnTheFirstTickAtOrAfterTheDeadline() {
+        HashedTimingWheel wheel = new HashedTimingWheel(10, 8, 1_000);
+        wheel.add(1L, 1_025, () -> fired.add(1L));
+
+        run(wheel.advance(1_029));
+        assertTrue(fired.isEmpty());
+
+        run(wheel.advance(1_030));
+        assertEquals(List.of(1L), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_EntriesBeyondOneRotationWaitForTheirRound() {
+        HashedTimingWheel wheel = new HashedTimingWheel(1, 4, 0);
+        wheel.add(1L, 2, () -> fired.add(1L));
+        wheel.add(2L, 10, () -> fired.add(2L));
+
+        run(wheel.advance(9));
+        assertEquals(List.of(1L), fired);
+
+        run(wheel.advance(10));
+        assertEquals(List.of(1L, 2L), fired);
+    }
+
+    @Test
+    void advance_OverdueEntriesFireOnTheNextTick() {
+        HashedTimingWheel wheel = new HashedTimingWheel(5, 16, 0);
+        run(wheel.advance(100));
+        wheel.add(1L, 20, () -> fired.add(1L));
+
+        run(wheel.advance(105));
+
+        assertEquals(List.of(1L), fired);
+    }
+
+    @Test
+    void cancel_AndDuplicateIdsAreIgnored() {
+        HashedTimingWheel wheel = new HashedTimingWheel(1, 8, 0);
+        assertTrue(wheel.add(1L, 3, () -> fired.add(1L)));
+        assertFalse(wheel.add(1L, 5, () -> fired.add(99L)));
+        wheel.add(2L, 3, () -> fired.add(2L));
+        assertTrue(wheel.cancel(2L));
+
+        run(wheel.advance(10));
+
+        assertEquals(List.of(1L), fired);
+        assertFalse(wheel.contains(1L));
+    }
+
+    @Test
+    void constructor_RequiresPowerOfTwoSize() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel(1, 100, 0));
+    }
+
+    private static void run(List<Runnable> tasks) {
+        tasks.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,123 @@
+package com.notification.system.service.scheduler;
+
+import com.notification.system.model.entity.ScheduledJob;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.model.enums.Priority;
+import com.notification.system.repository.ScheduledJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MisfireCatchUpControllerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Mock
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Mock
+    private NotificationSchedulerService notificationSchedulerService;
+
+    @InjectMocks
+    private MisfireCatchUpController controller;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(controller, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(controller, "ratePerSecond", 10);
+        ReflectionTestUtils.setField(controller, "pageSize", 2);
+        controller.init();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void catchUp_PacesBacklogByPriorityThenDueTime() throws Exception {
+        LocalDateTime dueBefore = NOW.minusSeconds(60);
+        when(scheduledJobRepository.countMisfireBacklog(NotificationSchedulerService.NOTIFICATION_JOB_GROUP,
+                dueBefore, NotificationStatus.SCHEDULED)).thenReturn(3L);
+        ScheduledJob high1 = job(7L, NOW.minusHours(2));
+        ScheduledJob high2 = job(3L, NOW.minusHours(1));
+        ScheduledJob low = job(5L, NOW.minusHours(3));
+        when(scheduledJobRepository.findMisfireBacklog(any(), eq(dueBefore), eq(NotificationStatus.SCHEDULED),
+                any(Priority.class), any(), anyLong(), any())).thenAnswer(invocation -> {
+            Priority priority = invocation.getArgument(3);
+            long afterId = invocation.getArgument(5);
+            if (priority == Priority.HIGH && afterId == 0L) {
+                return List.of(high1, high2);
+            }
+            return priority == Priority.LOW ? List.of(low) : List.of();
+        });
+        List<LocalDateTime> slots = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<ScheduledJob> page = invocation.getArgument(0);
+            Function<ScheduledJob, LocalDateTime> newTime = invocation.getArgument(1);
+            page.forEach(job -> slots.add(newTime.apply(job)));
+            return null;
+        }).when(notificationSchedulerService).rescheduleJobs(anyList(), any());
+
+        assertEquals(3, controller.catchUp(NOW));
+
+        LocalDateTime start = NOW.plusSeconds(5);
+        assertEquals(List.of(start, start.plusNanos(100_000_000), start.plusNanos(200_000_000)), slots);
+        ArgumentCaptor<List<ScheduledJob>> pages = ArgumentCaptor.forClass(List.class);
+        verify(notificationSchedulerService, times(2)).rescheduleJobs(pages.capture(), any());
+        assertEquals(List.of(List.of(high1, high2), List.of(low)), pages.getAllValues());
+        // Second HIGH page resumes after the last row of the first
+        verify(scheduledJobRepository).findMisfireBacklog(any(), any(), any(), eq(Priority.HIGH),
+                eq(high2.getScheduledTime()), eq(3L), any());
+    }
+
+    @Test
+    void progress_ReportsRemainingAndFinish() throws Exception {
+        when(scheduledJobRepository.countMisfireBacklog(any(), any(), any())).thenReturn(100L, 40L, 0L);
+        when(scheduledJobRepository.findMisfireBacklog(any(), any(), any(), any(), any(), anyLong(), any()))
+                .thenReturn(List.of());
+
+        assertTrue(controller.progress().isEmpty());
+        controller.catchUp(NOW);
+
+        MisfireCatchUpController.Progress running = controller.progress().orElseThrow();
+        assertEquals(100, running.total());
+        assertEquals(60, running.getDrained());
+        assertNull(running.finishedAt());
+        assertTrue(running.expectedCompletionAt().isAfter(LocalDateTime.now().plusSeconds(3)));
+
+        MisfireCatchUpController.Progress finished = controller.progress().orElseThrow();
+        assertEquals(0, finished.remaining());
+        assertNotNull(finished.finishedAt());
+        assertEquals(finished.finishedAt(), finished.expectedCompletionAt());
+    }
+
+    @Test
+    void catchUp_SkippedInSweeperMode() throws Exception {
+        when(notificationSchedulerService.isSweeperMode()).thenReturn(true);
+
+        assertEquals(0, controller.catchUp(NOW));
+
+        verifyNoInteractions(scheduledJobRepository);
+    }
+
+    private static ScheduledJob job(Long id, LocalDateTime scheduledTime) {
+        ScheduledJob job = new ScheduledJob(null, "notification_" + id, NotificationSchedulerService.NOTIFICATION_JOB_GROUP, scheduledTime);
+        job.setId(id);
+        return job;
+    }
+}
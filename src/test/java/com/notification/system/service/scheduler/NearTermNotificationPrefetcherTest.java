@@ -0,0 +1,101 @@
+package com.notification.system.service.scheduler;
+
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.service.notification.NotificationProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NearTermNotificationPrefetcherTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationProcessor notificationProcessor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private NearTermNotificationPrefetcher prefetcher;
+
+    private final HashedTimingWheel wheel = new HashedTimingWheel(1, 64, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(prefetcher, "owner", "node-a");
+        ReflectionTestUtils.setField(prefetcher, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(prefetcher, "wheel", wheel);
+    }
+
+    @Test
+    void fire_SendsOnceTheLeaseIsClaimed() {
+        Notification notification = notification(NotificationStatus.SCHEDULED, "node-a", LocalDateTime.now());
+        when(notificationRepository.claimLeased(eq(7L), eq("node-a"), eq(NotificationStatus.SCHEDULED),
+                eq(NotificationStatus.PENDING), any())).thenReturn(1);
+        when(notificationRepository.findByIdWithUser(7L)).thenReturn(Optional.of(notification));
+
+        prefetcher.fire(7L);
+
+        verify(notificationProcessor).processNotification(notification);
+    }
+
+    @Test
+    void fire_SkipsNotificationsNoLongerLeased() {
+        when(notificationRepository.claimLeased(any(), any(), any(), any(), any())).thenReturn(0);
+        when(notificationRepository.findById(7L))
+                .thenReturn(Optional.of(notification(NotificationStatus.CANCELLED, null, LocalDateTime.now())));
+
+        prefetcher.fire(7L);
+
+        verifyNoInteractions(notificationProcessor);
+        assertFalse(wheel.contains(7L));
+    }
+
+    @Test
+    void fire_RequeuesNotificationsMovedLater() {
+        when(notificationRepository.claimLeased(any(), any(), any(), any(), any())).thenReturn(0);
+        when(notificationRepository.findById(7L))
+                .thenReturn(Optional.of(notification(NotificationStatus.SCHEDULED, "node-a", LocalDateTime.now().plusMinutes(2))));
+
+        prefetcher.fire(7L);
+
+        verifyNoInteractions(notificationProcessor);
+        assertTrue(wheel.contains(7L));
+    }
+
+    @Test
+    void deadlineMillis_RoundsUpSubMillisecondTimes() {
+        LocalDateTime at = LocalDateTime.of(2030, 1, 1, 0, 0, 0, 1_500_000);
+        long whole = NearTermNotificationPrefetcher.deadlineMillis(at.withNano(1_000_000));
+
+        assertEquals(whole + 1, NearTermNotificationPrefetcher.deadlineMillis(at));
+    }
+
+    private static Notification notification(NotificationStatus status, String leaseOwner, LocalDateTime scheduledAt) {
+        Notification notification = new Notification();
+        notification.setId(7L);
+        notification.setStatus(status);
+        notification.setLeaseOwner(leaseOwner);
+        notification.setScheduledAt(scheduledAt);
+        return notification;
+    }
+}
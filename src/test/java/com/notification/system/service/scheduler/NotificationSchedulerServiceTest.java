@@ -0,0 +1,177 @@
+package com.notification.system.service.scheduler;
+
+import com.notification.system.model.dto.request.BatchNotificationRequest;
+import com.notification.system.model.dto.request.RecurringNotificationRequest;
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.entity.ScheduledJob;
+import com.notification.system.model.enums.ChannelType;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.repository.ScheduledJobRepository;
+import com.notification.system.scheduler.jobs.BatchFanOutJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.quartz.CronTrigger;
+import org.quartz.JobDetail;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationSchedulerServiceTest {
+
+    @Mock
+    private Scheduler scheduler;
+
+    @Mock
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @InjectMocks
+    private NotificationSchedulerService schedulerService;
+
+    @Test
+    void scheduleBatch_OneFanOutJobPerBatch() throws Exception {
+        when(scheduledJobRepository.findByBatchIdAndIsCompleted("batch_1", false)).thenReturn(Optional.empty());
+        when(scheduledJobRepository.save(any())).thenAnswer(invocation -> {
+            ScheduledJob saved = invocation.getArgument(0);
+            saved.setId(7L);
+            return saved;
+        });
+        BatchNotificationRequest.BatchSettings settings = new BatchNotificationRequest.BatchSettings();
+        settings.setBatchSize(500);
+
+        schedulerService.scheduleBatch("batch_1", LocalDateTime.now().plusHours(1), settings);
+
+        ArgumentCaptor<JobDetail> job = ArgumentCaptor.forClass(JobDetail.class);
+        verify(scheduler).scheduleJob(job.capture(), any(Trigger.class));
+        assertEquals(BatchFanOutJob.class, job.getValue().getJobClass());
+        assertEquals("batch_1", job.getValue().getJobDataMap().getString("batchId"));
+        assertEquals(500, job.getValue().getJobDataMap().getInt("batchSize"));
+        assertTrue(job.getValue().requestsRecovery());
+    }
+
+    @Test
+    void scheduleBatch_IdempotentPerBatch() throws Exception {
+        ScheduledJob existing = new ScheduledJob();
+        when(scheduledJobRepository.findByBatchIdAndIsCompleted("batch_1", false)).thenReturn(Optional.of(existing));
+
+        assertSame(existing, schedulerService.scheduleBatch("batch_1", LocalDateTime.now().plusHours(1),
+                new BatchNotificationRequest.BatchSettings()));
+
+        verify(scheduler, never()).scheduleJob(any(), any());
+    }
+
+    @Test
+    void cancelScheduledNotification_CancelsBatchRecipientRow() {
+        Notification notification = new Notification();
+        notification.setBatchId("batch_1");
+        when(scheduledJobRepository.findByNotificationIdAndIsCompleted(42L, false)).thenReturn(Optional.empty());
+        when(notificationRepository.findById(42L)).thenReturn(Optional.of(notification));
+        when(notificationRepository.transitionStatus(eq(42L), eq(NotificationStatus.SCHEDULED),
+                eq(NotificationStatus.CANCELLED), any())).thenReturn(1);
+
+        assertTrue(schedulerService.cancelScheduledNotification(42L));
+        verify(notificationRepository).transitionStatus(eq(42L), eq(NotificationStatus.SCHEDULED),
+                eq(NotificationStatus.CANCELLED), any());
+    }
+
+    @Test
+    void cancelScheduledNotification_AlreadySentRecipient() {
+        Notification notification = new Notification();
+        notification.setBatchId("batch_1");
+        when(scheduledJobRepository.findByNotificationIdAndIsCompleted(42L, false)).thenReturn(Optional.empty());
+        when(notificationRepository.findById(42L)).thenReturn(Optional.of(notification));
+        when(notificationRepository.transitionStatus(eq(42L), any(), any(), any())).thenReturn(0);
+
+        assertFalse(schedulerService.cancelScheduledNotification(42L));
+    }
+
+    @Test
+    void scheduleNotification_SweeperModeCreatesNoJob() {
+        ReflectionTestUtils.setField(schedulerService, "mode", "sweeper");
+        Notification notification = new Notification();
+        notification.setId(42L);
+        notification.setScheduledAt(LocalDateTime.now().plusHours(1));
+
+        assertNull(schedulerService.scheduleNotification(notification));
+
+        verifyNoInteractions(scheduler, scheduledJobRepository);
+    }
+
+    @Test
+    void cancelScheduledNotification_WithoutJobCancelsRow() {
+        when(scheduledJobRepository.findByNotificationIdAndIsCompleted(42L, false)).thenReturn(Optional.empty());
+        when(notificationRepository.findById(42L)).thenReturn(Optional.of(new Notification()));
+        when(notificationRepository.transitionStatus(eq(42L), eq(NotificationStatus.SCHEDULED),
+                eq(NotificationStatus.CANCELLED), any())).thenReturn(1);
+
+        assertTrue(schedulerService.cancelScheduledNotification(42L));
+    }
+
+    @Test
+    void scheduleRecurring_OneTemplateAndOneCronTrigger() throws Exception {
+        when(scheduledJobRepository.save(any())).thenAnswer(invocation -> {
+            ScheduledJob saved = invocation.getArgument(0);
+            saved.setId(9L);
+            return saved;
+        });
+
+        ScheduledJob template = schedulerService.scheduleRecurring(recurring("0 0 9 * * ?", "Europe/Berlin"));
+
+        assertTrue(template.isRecurring());
+        assertNull(template.getNotification());
+        assertEquals("Digest", template.getJobData().get("title"));
+        assertEquals("Europe/Berlin", template.getJobData().get("timeZone"));
+        ArgumentCaptor<Trigger> trigger = ArgumentCaptor.forClass(Trigger.class);
+        verify(scheduler).scheduleJob(any(JobDetail.class), trigger.capture());
+        CronTrigger cron = (CronTrigger) trigger.getValue();
+        assertEquals("0 0 9 * * ?", cron.getCronExpression());
+        assertEquals(ZoneId.of("Europe/Berlin"), cron.getTimeZone().toZoneId());
+    }
+
+    @Test
+    void scheduleRecurring_RejectsInvalidCronOrZone() {
+        assertThrows(IllegalArgumentException.class, () -> schedulerService.scheduleRecurring(recurring("every day", null)));
+        assertThrows(IllegalArgumentException.class, () -> schedulerService.scheduleRecurring(recurring("0 0 9 * * ?", "Mars/Olympus")));
+        verifyNoInteractions(scheduler, scheduledJobRepository);
+    }
+
+    @Test
+    void nextFireTime_EvaluatesCronInTheGivenZone() {
+        ZoneId berlin = ZoneId.of("Europe/Berlin");
+        Date after = Date.from(ZonedDateTime.of(2030, 1, 1, 10, 0, 0, 0, berlin).toInstant());
+
+        Date next = NotificationSchedulerService.nextFireTime("0 0 9 * * ?", berlin, after);
+
+        assertEquals(ZonedDateTime.of(2030, 1, 2, 9, 0, 0, 0, berlin).toInstant(), next.toInstant());
+    }
+
+    private static RecurringNotificationRequest recurring(String cron, String zone) {
+        RecurringNotificationRequest request = new RecurringNotificationRequest();
+        request.setUserId(1L);
+        request.setTitle("Digest");
+        request.setContent("Your daily digest");
+        request.setChannelType(ChannelType.EMAIL);
+        request.setCronExpression(cron);
+        request.setTimeZone(zone);
+        return request;
+    }
+}
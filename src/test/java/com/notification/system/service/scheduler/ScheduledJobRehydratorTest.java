@@ -0,0 +1,110 @@
+package com.notification.system.service.scheduler;
+
+import com.notification.system.model.entity.ScheduledJob;
+import com.notification.system.repository.ScheduledJobRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.quartz.JobKey;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Scheduler;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledJobRehydratorTest {
+
+    @Mock
+    private Scheduler scheduler;
+
+    @Mock
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Mock
+    private NotificationSchedulerService notificationSchedulerService;
+
+    @InjectMocks
+    private ScheduledJobRehydrator rehydrator;
+
+    @Test
+    void rehydrate_RestoresMissingJobsAndRemovesCompletedOnes() throws Exception {
+        ScheduledJob present = job(1L, "batch_a", NotificationSchedulerService.BATCH_JOB_GROUP);
+        ScheduledJob missing = job(2L, "batch_b", NotificationSchedulerService.BATCH_JOB_GROUP);
+        ScheduledJob done = job(3L, "notification_9_x", NotificationSchedulerService.NOTIFICATION_JOB_GROUP);
+        done.setCompleted(true);
+        JobKey stale = new JobKey("notification_9_x", NotificationSchedulerService.NOTIFICATION_JOB_GROUP);
+        JobKey uncommitted = new JobKey("notification_10_y", NotificationSchedulerService.NOTIFICATION_JOB_GROUP);
+
+        when(scheduler.getJobKeys(GroupMatcher.jobGroupEquals(NotificationSchedulerService.NOTIFICATION_JOB_GROUP)))
+                .thenReturn(Set.of(stale, uncommitted));
+        when(scheduler.getJobKeys(GroupMatcher.jobGroupEquals(NotificationSchedulerService.BATCH_JOB_GROUP)))
+                .thenReturn(Set.of(new JobKey("batch_a", NotificationSchedulerService.BATCH_JOB_GROUP)));
+        when(scheduledJobRepository.findByIsCompletedFalseAndIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(present, missing));
+        when(scheduledJobRepository.findByJobKeyAndJobGroup(stale.getName(), stale.getGroup())).thenReturn(Optional.of(done));
+        when(scheduledJobRepository.findByJobKeyAndJobGroup(uncommitted.getName(), uncommitted.getGroup())).thenReturn(Optional.empty());
+        when(scheduler.deleteJob(stale)).thenReturn(true);
+
+        rehydrator.rehydrate();
+
+        verify(notificationSchedulerService).restoreJob(missing);
+        verify(notificationSchedulerService, never()).restoreJob(present);
+        verify(scheduler).deleteJob(stale);
+        verify(scheduler, never()).deleteJob(uncommitted);
+    }
+
+    @Test
+    void rehydrate_PagesByIdAndToleratesJobsRestoredElsewhere() throws Exception {
+        ReflectionTestUtils.setField(rehydrator, "pageSize", 2);
+        ScheduledJob first = job(1L, "batch_a", NotificationSchedulerService.BATCH_JOB_GROUP);
+        ScheduledJob second = job(5L, "batch_b", NotificationSchedulerService.BATCH_JOB_GROUP);
+        ScheduledJob third = job(8L, "batch_c", NotificationSchedulerService.BATCH_JOB_GROUP);
+
+        when(scheduler.getJobKeys(any())).thenReturn(Set.of());
+        when(scheduledJobRepository.findByIsCompletedFalseAndIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(scheduledJobRepository.findByIsCompletedFalseAndIdGreaterThanOrderByIdAsc(eq(5L), any(Pageable.class)))
+                .thenReturn(List.of(third));
+        doThrow(new ObjectAlreadyExistsException("exists")).when(notificationSchedulerService).restoreJob(second);
+
+        assertDoesNotThrow(() -> rehydrator.rehydrate());
+
+        verify(notificationSchedulerService).restoreJob(first);
+        verify(notificationSchedulerService).restoreJob(third);
+    }
+
+    @Test
+    void toSettings_ReadsNumbersStoredAsJson() {
+        var settings = NotificationSchedulerService.toSettings(Map.of(
+                "batchSize", 200, "delayBetweenBatches", 0, "parallelProcessing", false, "maxSendsPerSecond", 5));
+
+        assertEquals(200, settings.getBatchSize());
+        assertEquals(0L, settings.getDelayBetweenBatches());
+        assertFalse(settings.getParallelProcessing());
+        assertEquals(5.0, settings.getMaxSendsPerSecond());
+    }
+
+    private static ScheduledJob job(Long id, String key, String group) {
+        ScheduledJob job = new ScheduledJob();
+        job.setId(id);
+        job.setJobKey(key);
+        job.setJobGroup(group);
+        job.setBatchId(key);
+        job.setScheduledTime(LocalDateTime.now().plusHours(1));
+        return job;
+    }
+}
@@ -0,0 +1,80 @@
+package com.notification.system.service.scheduler;
+
+import com.notification.system.model.entity.Notification;
+import com.notification.system.model.enums.NotificationStatus;
+import com.notification.system.repository.NotificationRepository;
+import com.notification.system.service.notification.NotificationProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledNotificationSweeperTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationProcessor notificationProcessor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ScheduledNotificationSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sweeper, "transactionTemplate", new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void sweep_ClaimsDueRowsBeforeSendingThem() {
+        Notification first = notification(1L);
+        Notification second = notification(2L);
+        when(notificationRepository.lockDueNotifications(eq(NotificationStatus.SCHEDULED), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(notificationRepository.findAllWithUserByIdIn(List.of(1L, 2L))).thenReturn(List.of(first, second));
+
+        assertEquals(2, sweeper.sweep());
+
+        assertEquals(NotificationStatus.PENDING, first.getStatus());
+        assertEquals(NotificationStatus.PENDING, second.getStatus());
+        verify(transactionManager).commit(any());
+        verify(notificationProcessor).processNotification(first);
+        verify(notificationProcessor).processNotification(second);
+    }
+
+    @Test
+    void sweep_NothingDue() {
+        when(notificationRepository.lockDueNotifications(any(), any(), any())).thenReturn(List.of());
+
+        assertEquals(0, sweeper.sweep());
+
+        verify(notificationRepository, never()).findAllWithUserByIdIn(any());
+        verifyNoInteractions(notificationProcessor);
+    }
+
+    private static Notification notification(Long id) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setStatus(NotificationStatus.SCHEDULED);
+        notification.setScheduledAt(LocalDateTime.now().minusMinutes(1));
+        return notification;
+    }
+}